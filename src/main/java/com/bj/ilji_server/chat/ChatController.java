@@ -30,9 +30,15 @@ public class ChatController {
         return ResponseEntity.ok(myChatRooms);
     }
 
+    /**
+     * ✅ [개선] 채팅 기록을 페이지 단위로 조회합니다. (기본: 가장 최근 50개, 오래된 → 최신 순)
+     * GET /api/chat/messages/{roomId}?before={이전 응답의 첫 번째 메시지 ID}&size=50
+     */
     @GetMapping("/messages/{roomId}")
-    public List<ChatMessage> getChatMessages(@PathVariable String roomId) {
-        return chatMessageService.getMessagesByRoomId(roomId);
+    public List<ChatMessage> getChatMessages(@PathVariable String roomId,
+                                             @RequestParam(required = false) String before,
+                                             @RequestParam(defaultValue = "50") int size) {
+        return chatMessageService.getMessagesByRoomId(roomId, before, size);
     }
 
     @PostMapping("/create")
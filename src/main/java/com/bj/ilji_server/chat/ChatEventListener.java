@@ -1,7 +1,6 @@
 package com.bj.ilji_server.chat;
 
 import com.bj.ilji_server.chat.event.LeaveChatEvent;
-import com.corundumstudio.socketio.SocketIOServer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -10,10 +9,10 @@ import org.springframework.transaction.event.TransactionalEventListener;
 @RequiredArgsConstructor
 public class ChatEventListener {
 
-    private final SocketIOServer socketIOServer;
+    private final SocketBroadcaster socketBroadcaster;
 
     @TransactionalEventListener
     public void handleLeaveChatEvent(LeaveChatEvent event) {
-        socketIOServer.getRoomOperations(event.getRoomId()).sendEvent("chatMessage", event.getChatMessage());
+        socketBroadcaster.sendToRoom(event.getRoomId(), "chatMessage", event.getChatMessage());
     }
 }
@@ -2,12 +2,15 @@ package com.bj.ilji_server.chat;
 
 import jakarta.persistence.Id;
 import lombok.Data;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "chat_messages")
+// ✅ [신규] 방별 최신순 페이지 조회용 (roomId 일치 + timestamp/_id 내림차순 범위 조회 한 번)
+@CompoundIndex(name = "ix_room_ts_id", def = "{'roomId': 1, 'timestamp': -1, '_id': -1}")
 public class ChatMessage {
     @Id
     private String id;
@@ -22,4 +25,4 @@ public class ChatMessage {
         NORMAL,
         SYSTEM
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.bj.ilji_server.chat;
+
+/**
+ * ✅ [신규] chatMessage 이벤트에 대한 ack 응답
+ * @param id        메시지 ID (브로드캐스트된 메시지의 id와 같음, 거절된 경우 null)
+ * @param persisted 저장 완료 여부
+ * @param error     실패/거절 사유 (BUSY: 저장 대기열이 가득 참 → 잠시 후 다시 보내기, FAILED: 저장 실패)
+ */
+public record ChatMessageAck(String id, boolean persisted, String error) {
+
+    public static ChatMessageAck persisted(String id) {
+        return new ChatMessageAck(id, true, null);
+    }
+
+    public static ChatMessageAck failed(String id) {
+        return new ChatMessageAck(id, false, "FAILED");
+    }
+
+    public static ChatMessageAck busy() {
+        return new ChatMessageAck(null, false, "BUSY");
+    }
+}
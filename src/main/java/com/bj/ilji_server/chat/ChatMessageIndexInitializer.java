@@ -0,0 +1,37 @@
+package com.bj.ilji_server.chat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ [신규] ChatMessage에 선언된 인덱스(ix_room_ts_id)를 기동 시 만들어 둡니다.
+ * (spring.data.mongodb.auto-index-creation 기본값이 false라 애노테이션만으로는 생성되지 않음, 이미 있으면 그대로)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageIndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(ChatMessage.class);
+        try {
+            new MongoPersistentEntityIndexResolver(mongoMappingContext)
+                    .resolveIndexFor(ChatMessage.class)
+                    .forEach(indexOps::ensureIndex);
+        } catch (DataAccessException e) {
+            log.warn("[ChatMessageIndexInitializer] Failed to ensure chat_messages indexes", e);
+        }
+    }
+}
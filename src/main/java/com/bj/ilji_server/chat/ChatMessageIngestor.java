@@ -0,0 +1,114 @@
+package com.bj.ilji_server.chat;
+
+import com.corundumstudio.socketio.AckRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ [신규] 채팅 메시지 저장 대기열
+ * 소켓 이벤트 루프 스레드에서 MongoDB에 바로 저장하면 느린 쓰기 하나가 같은 루프의 모든 소켓을 멈추게 하므로,
+ * 이벤트 루프는 대기열에 넣기만 하고 저장은 전용 스레드가 모아서(batchSize건씩) insertMany 한 번으로 합니다.
+ * - 저장이 끝나면 보낸 사람에게 ack(ChatMessageAck)를 보냅니다.
+ * - 대기열이 가득 차면 기다리지 않고 바로 거절(false)해 이벤트 루프를 막지 않습니다. (보낸 사람이 다시 시도)
+ * - 서버 종료 시 대기열에 남은 메시지를 마저 저장합니다.
+ */
+@Slf4j
+@Component
+public class ChatMessageIngestor {
+
+    private record Pending(ChatMessage message, AckRequest ack) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final BlockingQueue<Pending> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public ChatMessageIngestor(MongoTemplate mongoTemplate,
+                               @Value("${chat.ingest.queue-capacity:10000}") int queueCapacity,
+                               @Value("${chat.ingest.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.worker = new Thread(this::drainLoop, "chat-ingest");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 저장 대기열에 넣습니다. (기다리지 않음)
+     * @return 대기열이 가득 차 거절되었으면 false
+     */
+    public boolean offer(ChatMessage message, AckRequest ack) {
+        return running && queue.offer(new Pending(message, ack));
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                // 종료 중: 남은 메시지는 루프 조건(queue 비었는지)으로 마저 저장합니다.
+                running = false;
+            } catch (RuntimeException e) {
+                log.warn("[ChatMessageIngestor] Unexpected error while saving chat messages", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<Pending> batch) {
+        List<ChatMessage> messages = batch.stream().map(Pending::message).toList();
+        try {
+            mongoTemplate.insert(messages, ChatMessage.class);
+            batch.forEach(p -> ack(p, ChatMessageAck.persisted(p.message().getId())));
+        } catch (DataAccessException e) {
+            // 묶음 저장이 실패하면 한 건씩 다시 시도해, 문제 있는 메시지만 실패로 알립니다.
+            log.warn("[ChatMessageIngestor] Bulk insert of {} chat messages failed, retrying one by one", batch.size(), e);
+            for (Pending p : batch) {
+                try {
+                    mongoTemplate.save(p.message());
+                    ack(p, ChatMessageAck.persisted(p.message().getId()));
+                } catch (DataAccessException single) {
+                    log.warn("[ChatMessageIngestor] Failed to save chat message {} in room {}",
+                            p.message().getId(), p.message().getRoomId(), single);
+                    ack(p, ChatMessageAck.failed(p.message().getId()));
+                }
+            }
+        }
+    }
+
+    private static void ack(Pending pending, ChatMessageAck result) {
+        if (pending.ack() != null && pending.ack().isAckRequested()) {
+            pending.ack().sendAckData(result);
+        }
+    }
+
+    public int queuedCount() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -1,9 +1,19 @@
 package com.bj.ilji_server.chat;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatMessageRepository extends MongoRepository<ChatMessage, String> {
-    List<ChatMessage> findByRoomIdOrderByTimestampAsc(String roomId);
-}
\ No newline at end of file
+
+    // ✅ [신규] 방의 최근 메시지 (정렬/개수는 pageable로: timestamp, _id 내림차순)
+    List<ChatMessage> findByRoomId(String roomId, Pageable pageable);
+
+    // ✅ [신규] 기준 메시지(timestamp, _id)보다 이전 메시지 (정렬/개수는 pageable로: timestamp, _id 내림차순)
+    @Query("{ 'roomId': ?0, '$or': [ { 'timestamp': { '$lt': ?1 } }, { 'timestamp': ?1, '_id': { '$lt': ?2 } } ] }")
+    List<ChatMessage> findByRoomIdBefore(String roomId, LocalDateTime timestamp, ObjectId id, Pageable pageable);
+}
@@ -1,18 +1,51 @@
 package com.bj.ilji_server.chat;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
 public class ChatMessageService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    // ix_room_ts_id 인덱스와 같은 방향 (최신순)
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
+
     private final ChatMessageRepository chatMessageRepository;
 
     public ChatMessageService(ChatMessageRepository chatMessageRepository) {
         this.chatMessageRepository = chatMessageRepository;
     }
-    public List<ChatMessage> getMessagesByRoomId(String roomId) {
-        return chatMessageRepository.findByRoomIdOrderByTimestampAsc(roomId);
+
+    /**
+     * ✅ [개선] 방의 전체 기록 대신 한 페이지씩 조회합니다. (오래된 → 최신 순으로 반환)
+     * @param beforeMessageId 이 메시지보다 이전 메시지를 조회 (null이면 가장 최근 페이지)
+     *                        다음(더 이전) 페이지는 응답의 첫 번째 메시지 ID를 넘기면 됩니다.
+     */
+    public List<ChatMessage> getMessagesByRoomId(String roomId, String beforeMessageId, int size) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)), NEWEST_FIRST);
+
+        List<ChatMessage> newestFirst;
+        if (beforeMessageId == null || beforeMessageId.isBlank()) {
+            newestFirst = chatMessageRepository.findByRoomId(roomId, page);
+        } else {
+            if (!ObjectId.isValid(beforeMessageId)) {
+                throw new IllegalArgumentException("Invalid message id: " + beforeMessageId);
+            }
+            ChatMessage anchor = chatMessageRepository.findById(beforeMessageId)
+                    .filter(m -> roomId.equals(m.getRoomId()))
+                    .orElseThrow(() -> new IllegalArgumentException("Message not found in room: " + beforeMessageId));
+            newestFirst = chatMessageRepository.findByRoomIdBefore(
+                    roomId, anchor.getTimestamp(), new ObjectId(beforeMessageId), page);
+        }
+
+        List<ChatMessage> oldestFirst = new ArrayList<>(newestFirst);
+        Collections.reverse(oldestFirst);
+        return oldestFirst;
     }
 }
@@ -0,0 +1,67 @@
+package com.bj.ilji_server.chat;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.namespace.Namespace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ [신규] 방 단위 이벤트 전송을 한곳에서 하고, 소켓 서버 지표를 남깁니다.
+ * - socketio.clients.connected: 이 노드에 연결된 클라이언트 수
+ * - socketio.rooms: 이 노드의 방 수 (모든 네임스페이스 합계)
+ * - socketio.events.received / socketio.events.emitted (tag: event): 이벤트 수 → 초당 처리량은 rate로 봅니다.
+ * - socketio.emit.latency (tag: event): sendEvent 한 번에 걸린 시간 (로컬 전송 + 다른 노드로 publish, 히스토그램)
+ */
+@Component
+public class SocketBroadcaster {
+
+    private final SocketIOServer server;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> receivedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> emittedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> emitTimers = new ConcurrentHashMap<>();
+
+    public SocketBroadcaster(SocketIOServer server, MeterRegistry meterRegistry) {
+        this.server = server;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("socketio.clients.connected", server, s -> s.getAllClients().size())
+                .description("Socket.IO clients connected to this node")
+                .register(meterRegistry);
+        Gauge.builder("socketio.rooms", server, SocketBroadcaster::countRooms)
+                .description("Socket.IO rooms on this node")
+                .register(meterRegistry);
+    }
+
+    /** room에 있는 모든 클라이언트(클러스터 모드면 다른 노드 포함)에게 보냅니다. */
+    public void sendToRoom(String room, String event, Object data) {
+        emitTimers.computeIfAbsent(event, e -> Timer.builder("socketio.emit.latency")
+                        .description("Time to emit one Socket.IO room event")
+                        .tag("event", e)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(() -> server.getRoomOperations(room).sendEvent(event, data));
+        emittedCounters.computeIfAbsent(event, e -> counter("socketio.events.emitted", e)).increment();
+    }
+
+    /** 클라이언트에게서 받은 이벤트를 셉니다. (SocketModule 리스너에서 호출) */
+    public void received(String event) {
+        receivedCounters.computeIfAbsent(event, e -> counter("socketio.events.received", e)).increment();
+    }
+
+    private Counter counter(String name, String event) {
+        return Counter.builder(name).tag("event", event).register(meterRegistry);
+    }
+
+    private static double countRooms(SocketIOServer server) {
+        return server.getAllNamespaces().stream()
+                .filter(Namespace.class::isInstance)
+                .mapToInt(ns -> ((Namespace) ns).getRooms().size())
+                .sum();
+    }
+}
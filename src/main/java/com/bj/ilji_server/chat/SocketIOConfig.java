@@ -1,23 +1,108 @@
 package com.bj.ilji_server.chat;
 
+import com.bj.ilji_server.chat.cluster.ClusterBus;
+import com.bj.ilji_server.chat.cluster.ClusterStoreFactory;
+import com.bj.ilji_server.chat.cluster.InProcessClusterBus;
+import com.corundumstudio.socketio.SocketConfig;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.Transport;
-import org.springframework.beans.factory.annotation.Value;
+import com.corundumstudio.socketio.store.MemoryStoreFactory;
+import com.corundumstudio.socketio.store.RedissonStoreFactory;
+import com.corundumstudio.socketio.store.StoreFactory;
+import io.netty.channel.epoll.Epoll;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+@Slf4j
 @Configuration
+@EnableConfigurationProperties(SocketServerProperties.class)
 public class SocketIOConfig {
 
-    @Value("${socket-server.port}")
-    private Integer port;
-
+    /**
+     * ✅ [개선] 포트/Origin 외에 스레드 수, epoll, ping, 최대 크기, TCP 옵션을 SocketServerProperties(socket-server.*)로 설정합니다.
+     */
     @Bean
-    public SocketIOServer socketIOServer() {
+    public SocketIOServer socketIOServer(SocketServerProperties properties, StoreFactory socketStoreFactory) {
+        if (properties.getPort() == null) {
+            throw new IllegalStateException("socket-server.port must be set");
+        }
         com.corundumstudio.socketio.Configuration config = new com.corundumstudio.socketio.Configuration();
-        config.setPort(port);
-        config.setOrigin("http://localhost:5173");
+        config.setPort(properties.getPort());
+        config.setOrigin(properties.getOrigin());
         config.setTransports(Transport.POLLING, Transport.WEBSOCKET);
+        config.setBossThreads(properties.getBossThreads());
+        config.setWorkerThreads(properties.getWorkerThreads());
+        config.setUseLinuxNativeEpoll(properties.isUseNativeEpoll() && epollAvailable());
+        config.setPingInterval(properties.getPingIntervalMs());
+        config.setPingTimeout(properties.getPingTimeoutMs());
+        config.setMaxFramePayloadLength(properties.getMaxFramePayloadLength());
+        config.setMaxHttpContentLength(properties.getMaxHttpContentLength());
+
+        SocketServerProperties.Tcp tcp = properties.getTcp();
+        SocketConfig socketConfig = config.getSocketConfig();
+        socketConfig.setTcpNoDelay(tcp.isNoDelay());
+        socketConfig.setTcpKeepAlive(tcp.isKeepAlive());
+        socketConfig.setReuseAddress(tcp.isReuseAddress());
+        socketConfig.setTcpSendBufferSize(tcp.getSendBufferSize());
+        socketConfig.setTcpReceiveBufferSize(tcp.getReceiveBufferSize());
+        socketConfig.setSoLinger(tcp.getSoLinger());
+        socketConfig.setAcceptBackLog(tcp.getAcceptBacklog());
+
+        // ✅ [신규] 방 브로드캐스트/입장/퇴장을 다른 노드와 공유 (socket-server.cluster.mode)
+        config.setStoreFactory(socketStoreFactory);
         return new SocketIOServer(config);
     }
-}
\ No newline at end of file
+
+    private static boolean epollAvailable() {
+        if (Epoll.isAvailable()) {
+            return true;
+        }
+        log.warn("socket-server.use-native-epoll is set but epoll is unavailable, falling back to NIO", Epoll.unavailabilityCause());
+        return false;
+    }
+
+    /**
+     * ✅ [신규] 소켓 서버 클러스터 모드 (socket-server.cluster.mode)
+     * - memory (기본): 단일 노드, 같은 JVM에 연결된 클라이언트에게만 전달
+     * - in-process: ClusterStoreFactory + InProcessClusterBus (테스트에서 여러 서버를 한 JVM에 띄울 때)
+     * - redis: netty-socketio의 RedissonStoreFactory (여러 노드, socket-server.cluster.redis-address 필요)
+     *   방 브로드캐스트/입장/퇴장을 Redis pub/sub으로 공유합니다. 같은 RedissonClient를 UnreadCounter의 캐시 무효화에도 씁니다.
+     * (조건은 프로퍼티 이름으로 판단하고, 값은 SocketServerProperties.Cluster에서 읽습니다)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "socket-server.cluster.mode", havingValue = "memory", matchIfMissing = true)
+    public StoreFactory memoryStoreFactory() {
+        return new MemoryStoreFactory();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "socket-server.cluster.mode", havingValue = "in-process")
+    public ClusterBus inProcessClusterBus() {
+        return new InProcessClusterBus();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "socket-server.cluster.mode", havingValue = "redis")
+    public RedissonClient socketClusterRedisson(SocketServerProperties properties) {
+        org.redisson.config.Config config = new org.redisson.config.Config();
+        config.useSingleServer().setAddress(properties.getCluster().getRedisAddress());
+        return Redisson.create(config);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "socket-server.cluster.mode", havingValue = "in-process")
+    public StoreFactory inProcessStoreFactory(ClusterBus clusterBus) {
+        return new ClusterStoreFactory(clusterBus);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "socket-server.cluster.mode", havingValue = "redis")
+    public StoreFactory redisStoreFactory(RedissonClient socketClusterRedisson) {
+        return new RedissonStoreFactory(socketClusterRedisson);
+    }
+}
@@ -1,13 +1,14 @@
 package com.bj.ilji_server.chat;
 
 import com.corundumstudio.socketio.SocketIOServer;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
@@ -15,9 +16,9 @@ public class SocketModule {
 
     private final SocketIOServer server;
 
-    ObjectMapper objectMapper = new ObjectMapper();
-    @Autowired
-    private ChatMessageRepository chatMessageRepository;
+    private final ChatMessageIngestor chatMessageIngestor; // ✅ [신규] 메시지 저장 대기열
+
+    private final SocketBroadcaster socketBroadcaster; // ✅ [신규] 방 전송 + 이벤트 지표
 
     @PostConstruct
     private void init() {
@@ -31,26 +32,39 @@ public class SocketModule {
 
         // 'joinRoom' 이벤트를 받을 리스너
         server.addEventListener("joinRoom", String.class, (client, room, ackSender) -> {
+            socketBroadcaster.received("joinRoom");
             log.info("Client [{}] joined room: {}", client.getSessionId(), room);
             client.joinRoom(room);
         });
 
         // 'chatMessage' 이벤트를 받을 리스너
+        // ✅ [개선] 이벤트 루프에서 MongoDB에 바로 저장하지 않고 저장 대기열에 넣은 뒤 곧바로 브로드캐스트합니다.
+        // (저장이 끝나면 보낸 사람에게 ack, 대기열이 가득 차면 브로드캐스트하지 않고 BUSY로 거절)
         server.addEventListener("chatMessage", ChatMessage.class, (client, data, ackSender) -> {
+            socketBroadcaster.received("chatMessage");
+            // 페이지 조회(timestamp, _id 순)의 기준이므로 클라이언트가 보낸 시각은 믿지 않고 항상 서버 시각으로 덮어씁니다.
+            // (클라이언트 시계가 틀리거나 조작되면 메시지가 목록의 엉뚱한 위치에 끼어들 수 있음)
+            data.setTimestamp(LocalDateTime.now());
+            // 저장 전에 브로드캐스트하므로 ID를 미리 정해 둡니다. (ack와 브로드캐스트의 id가 같음)
+            data.setId(new ObjectId().toHexString());
 
-            String jsonLog = objectMapper.writeValueAsString(data);
-            // MongoDB 저장
-            chatMessageRepository.save(data);
-            log.info("Message from client [{}]: {}", client.getSessionId(), data.getMessage());
-
+            if (!chatMessageIngestor.offer(data, ackSender)) {
+                log.warn("Chat ingest queue is full, rejecting message from client [{}] in room {}", client.getSessionId(), data.getRoomId());
+                if (ackSender.isAckRequested()) {
+                    ackSender.sendAckData(ChatMessageAck.busy());
+                }
+                return;
+            }
+            log.debug("Message from client [{}] in room {}", client.getSessionId(), data.getRoomId());
 
             // 받은 메시지를 해당 방의 모든 클라이언트에게 다시 보냅니다.
             // 'sendEvent'의 첫 번째 인자는 클라이언트에서 받을 이벤트 이름입니다.
-            server.getRoomOperations(data.getRoomId()).sendEvent("chatMessage", data);
+            socketBroadcaster.sendToRoom(data.getRoomId(), "chatMessage", data);
         });
 
         // 'joinNotificationRoom' 이벤트를 받을 리스너
         server.addEventListener("joinNotificationRoom", Long.class, (client, userId, ackSender) -> {
+            socketBroadcaster.received("joinNotificationRoom");
             log.info("Client [{}] joined notification room for user: {}", client.getSessionId(), userId);
             client.joinRoom(userId.toString());
         });
@@ -0,0 +1,72 @@
+package com.bj.ilji_server.chat;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * ✅ [신규] 소켓 서버(netty-socketio) 실행 설정 (socket-server.*)
+ * 값을 주지 않은 항목은 netty-socketio 기본값과 같게 두었습니다. (0/-1은 "지정하지 않음" → 라이브러리/OS 기본값)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "socket-server")
+public class SocketServerProperties {
+
+    /** 소켓 서버 포트 (필수) */
+    private Integer port;
+
+    /** CORS 허용 Origin */
+    private String origin = "http://localhost:5173";
+
+    /** 연결 수락 스레드 수 (0이면 netty 기본값) */
+    private int bossThreads = 0;
+
+    /** 입출력 처리 스레드 수 (0이면 netty 기본값: CPU 코어 수 × 2) */
+    private int workerThreads = 0;
+
+    /** 리눅스 epoll 네이티브 전송 사용 (사용할 수 없는 환경이면 NIO로 대체) */
+    private boolean useNativeEpoll = false;
+
+    /** 서버가 보내는 ping 간격 (ms) */
+    private int pingIntervalMs = 25_000;
+
+    /** 이 시간 동안 pong이 없으면 연결을 끊음 (ms) */
+    private int pingTimeoutMs = 60_000;
+
+    /** 웹소켓 프레임 최대 크기 (bytes) */
+    private int maxFramePayloadLength = 64 * 1024;
+
+    /** HTTP(polling) 요청 본문 최대 크기 (bytes) */
+    private int maxHttpContentLength = 64 * 1024;
+
+    private final Tcp tcp = new Tcp();
+
+    private final Cluster cluster = new Cluster();
+
+    @Getter
+    @Setter
+    public static class Tcp {
+        private boolean noDelay = true;
+        private boolean keepAlive = false;
+        private boolean reuseAddress = false;
+        /** SO_SNDBUF (bytes, -1이면 OS 기본값) */
+        private int sendBufferSize = -1;
+        /** SO_RCVBUF (bytes, -1이면 OS 기본값) */
+        private int receiveBufferSize = -1;
+        /** SO_LINGER (초, -1이면 사용 안 함) */
+        private int soLinger = -1;
+        /** 연결 대기열 길이 */
+        private int acceptBacklog = 1024;
+    }
+
+    /** 여러 노드 간 방 브로드캐스트 공유 (SocketIOConfig 참고) */
+    @Getter
+    @Setter
+    public static class Cluster {
+        /** memory | in-process | redis */
+        private String mode = "memory";
+        /** redis 모드에서 사용할 주소 (예: redis://localhost:6379) */
+        private String redisAddress;
+    }
+}
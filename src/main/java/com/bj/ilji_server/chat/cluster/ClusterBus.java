@@ -0,0 +1,23 @@
+package com.bj.ilji_server.chat.cluster;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+
+import java.util.function.Consumer;
+
+/**
+ * ✅ [신규] 소켓 서버 노드끼리 방 브로드캐스트/입장/퇴장 메시지를 주고받는 통로
+ * ClusterStoreFactory가 netty-socketio의 pub/sub 메시지를 이 통로로 보내고 받습니다.
+ * - InProcessClusterBus: 같은 JVM 안의 서버끼리만 (테스트, 단일 노드)
+ * (여러 노드로 띄울 때는 netty-socketio의 RedissonStoreFactory를 씁니다 - SocketIOConfig 참고)
+ */
+public interface ClusterBus {
+
+    /** topic을 구독 중인 모든 노드(보낸 노드 포함)에 전달합니다. */
+    void publish(String topic, PubSubMessage message);
+
+    /**
+     * topic으로 오는 메시지를 받습니다.
+     * @return 이 구독만 해제하는 함수 (같은 통로를 쓰는 다른 노드의 구독은 그대로)
+     */
+    <T extends PubSubMessage> Runnable subscribe(String topic, Class<T> type, Consumer<T> listener);
+}
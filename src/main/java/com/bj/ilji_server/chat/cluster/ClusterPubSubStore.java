@@ -0,0 +1,58 @@
+package com.bj.ilji_server.chat.cluster;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubListener;
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+import com.corundumstudio.socketio.store.pubsub.PubSubStore;
+import com.corundumstudio.socketio.store.pubsub.PubSubType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ✅ [신규] netty-socketio PubSubStore를 ClusterBus 위에 구현합니다.
+ * 보낼 때 이 노드의 ID를 붙이고, 받을 때 자기가 보낸 메시지는 건너뜁니다. (자기 노드에는 이미 직접 전달했으므로)
+ */
+public class ClusterPubSubStore implements PubSubStore {
+
+    private final ClusterBus bus;
+    private final Long nodeId;
+    private final Map<PubSubType, List<Runnable>> subscriptions = new ConcurrentHashMap<>();
+
+    public ClusterPubSubStore(ClusterBus bus, Long nodeId) {
+        this.bus = bus;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void publish(PubSubType type, PubSubMessage msg) {
+        msg.setNodeId(nodeId);
+        bus.publish(type.toString(), msg);
+    }
+
+    @Override
+    public <T extends PubSubMessage> void subscribe(PubSubType type, PubSubListener<T> listener, Class<T> clazz) {
+        Runnable cancel = bus.subscribe(type.toString(), clazz, msg -> {
+            if (!nodeId.equals(msg.getNodeId())) {
+                listener.onMessage(msg);
+            }
+        });
+        subscriptions.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).add(cancel);
+    }
+
+    @Override
+    public void unsubscribe(PubSubType type) {
+        List<Runnable> cancels = subscriptions.remove(type);
+        if (cancels != null) {
+            cancels.forEach(Runnable::run);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (PubSubType type : List.copyOf(subscriptions.keySet())) {
+            unsubscribe(type);
+        }
+    }
+}
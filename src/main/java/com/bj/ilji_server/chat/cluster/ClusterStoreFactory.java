@@ -0,0 +1,45 @@
+package com.bj.ilji_server.chat.cluster;
+
+import com.corundumstudio.socketio.store.MemoryStore;
+import com.corundumstudio.socketio.store.Store;
+import com.corundumstudio.socketio.store.pubsub.BaseStoreFactory;
+import com.corundumstudio.socketio.store.pubsub.PubSubStore;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ [신규] 여러 노드로 소켓 서버를 띄울 때 쓰는 StoreFactory
+ * - 방 브로드캐스트(DISPATCH), 방 입장/퇴장(JOIN/LEAVE), 연결/해제는 BaseStoreFactory가 pubSubStore로 다른 노드에 전달하고,
+ *   다른 노드에서 온 메시지를 이 노드의 방에 반영합니다. → getRoomOperations(room).sendEvent(...)가 모든 노드의 클라이언트에게 도달
+ * - 세션 저장소(Store)와 createMap은 노드 로컬입니다. (클라이언트 연결은 한 노드에 붙어 있으므로)
+ */
+public class ClusterStoreFactory extends BaseStoreFactory {
+
+    private final ClusterPubSubStore pubSubStore;
+
+    public ClusterStoreFactory(ClusterBus bus) {
+        this.pubSubStore = new ClusterPubSubStore(bus, getNodeId());
+    }
+
+    @Override
+    public PubSubStore pubSubStore() {
+        return pubSubStore;
+    }
+
+    @Override
+    public Store createStore(UUID sessionId) {
+        return new MemoryStore();
+    }
+
+    @Override
+    public <K, V> Map<K, V> createMap(String name) {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void shutdown() {
+        pubSubStore.shutdown();
+    }
+}
@@ -0,0 +1,38 @@
+package com.bj.ilji_server.chat.cluster;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * ✅ [신규] 같은 JVM 안에서만 동작하는 ClusterBus
+ * 하나의 인스턴스를 여러 ClusterStoreFactory(=여러 SocketIOServer)에 넘기면 서로 다른 노드처럼 메시지를 주고받습니다.
+ * 직렬화 없이 객체를 그대로, 보낸 스레드에서 바로 전달합니다. (테스트/단일 노드용)
+ */
+public class InProcessClusterBus implements ClusterBus {
+
+    private record Subscription(Class<? extends PubSubMessage> type, Consumer<PubSubMessage> listener) {}
+
+    private final Map<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String topic, PubSubMessage message) {
+        for (Subscription subscription : subscriptions.getOrDefault(topic, List.of())) {
+            if (subscription.type().isInstance(message)) {
+                subscription.listener().accept(message);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends PubSubMessage> Runnable subscribe(String topic, Class<T> type, Consumer<T> listener) {
+        Subscription subscription = new Subscription(type, message -> listener.accept((T) message));
+        subscriptions.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(subscription);
+        return () -> subscriptions.getOrDefault(topic, List.of()).remove(subscription);
+    }
+}
@@ -0,0 +1,162 @@
+package com.bj.ilji_server.firebase;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ✅ [신규] 일기 이미지 업로드/삭제를 DB 트랜잭션 밖에서 처리합니다.
+ * - 업로드: 트랜잭션을 열기 전에 여러 파일을 제한된 스레드 풀에서 동시에 올리고, 하나라도 실패하면 이미 올라간 파일을 지웁니다.
+ * - 삭제: 커밋이 끝난 뒤 백그라운드에서 지웁니다. (DB 커넥션을 쥔 채로 네트워크 I/O를 기다리지 않도록)
+ * 큐가 가득 차면 호출한 스레드에서 직접 실행하므로 작업이 버려지지는 않습니다.
+ * ✅ [수정] 종료 중에도 마찬가지로, 종료 후 들어온 작업은 호출 스레드에서 실행하고 큐에 남은 삭제는 종료 스레드가 마저 처리합니다.
+ * (스레드가 데몬이므로 그대로 두면 JVM 종료와 함께 사라져 Storage에 고아 파일이 남습니다)
+ */
+@Slf4j
+@Component
+public class FirebaseImageTransfer {
+
+    private final FirebaseService firebaseService;
+    private final ThreadPoolExecutor executor;
+    private final int shutdownTimeoutSeconds;
+
+    public FirebaseImageTransfer(FirebaseService firebaseService,
+                                 @Value("${firebase.transfer.threads:4}") int threads,
+                                 @Value("${firebase.transfer.queue-capacity:64}") int queueCapacity,
+                                 @Value("${firebase.transfer.shutdown-timeout-seconds:10}") int shutdownTimeoutSeconds) {
+        this.firebaseService = firebaseService;
+        this.shutdownTimeoutSeconds = Math.max(1, shutdownTimeoutSeconds);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                Math.max(1, threads), Math.max(1, threads),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "firebase-transfer-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // CallerRunsPolicy와 달리 풀이 종료된 뒤에도 버리지 않고 호출 스레드에서 실행합니다.
+                (runnable, pool) -> runnable.run());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 파일을 동시에 업로드하고, 입력 순서대로 URL을 반환합니다.
+     * 하나라도 실패하면 성공한 파일을 모두 지운 뒤(보상 삭제) 예외를 던집니다.
+     */
+    public List<String> uploadAll(List<MultipartFile> files, String path) throws IOException {
+        if (files == null || files.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Future<String>> uploads = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            uploads.add(executor.submit(() -> firebaseService.uploadFile(file, path)));
+        }
+
+        List<String> uploadedUrls = new ArrayList<>(files.size());
+        Throwable failure = null;
+        for (Future<String> upload : uploads) {
+            try {
+                uploadedUrls.add(upload.get());
+            } catch (ExecutionException e) {
+                failure = (failure == null) ? e.getCause() : failure;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = (failure == null) ? e : failure;
+            }
+        }
+        if (failure != null) {
+            deleteQuietly(uploadedUrls);
+            throw new IOException("Failed to upload images.", failure);
+        }
+        return uploadedUrls;
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 백그라운드에서 파일을 지웁니다. (롤백되면 지우지 않음)
+     * 트랜잭션 밖에서 호출하면 바로 백그라운드 삭제를 시작합니다.
+     */
+    public void deleteAfterCommit(List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            return;
+        }
+        List<String> targets = List.copyOf(urls);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteInBackground(targets);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteInBackground(targets);
+            }
+        });
+    }
+
+    /** DB 작업이 실패했을 때 이미 올린 파일을 지웁니다. 실패는 로그만 남깁니다. (호출 스레드에서 병렬 실행) */
+    public void deleteQuietly(List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] deletions = urls.stream()
+                .map(url -> CompletableFuture.runAsync(() -> deleteLogged(url), executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(deletions).join();
+        } catch (CompletionException ignored) {
+            // deleteLogged가 예외를 삼키므로 여기까지 오지 않습니다.
+        }
+    }
+
+    private void deleteInBackground(List<String> urls) {
+        for (String url : urls) {
+            executor.execute(() -> deleteLogged(url));
+        }
+    }
+
+    private void deleteLogged(String url) {
+        try {
+            firebaseService.deleteFile(url);
+        } catch (Exception e) {
+            // 파일만 남고 DB에서는 참조되지 않는 상태가 되므로 수동 정리를 위해 URL을 남깁니다.
+            log.warn("[FirebaseImageTransfer] Failed to delete image (orphaned): {}", url, e);
+        }
+    }
+
+    /**
+     * 진행 중인 작업이 끝나기를 기다리고, 제한 시간 안에 못 끝낸 대기 작업(주로 커밋 후 삭제)은 종료 스레드에서 직접 마저 실행합니다.
+     * 진행 중인 작업은 인터럽트하지 않습니다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            return;
+        }
+        List<Runnable> pending = new ArrayList<>();
+        executor.getQueue().drainTo(pending);
+        log.info("[FirebaseImageTransfer] Running {} pending image transfers before shutdown", pending.size());
+        pending.forEach(Runnable::run);
+        if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("[FirebaseImageTransfer] In-flight image transfers were not finished before shutdown.");
+        }
+    }
+}
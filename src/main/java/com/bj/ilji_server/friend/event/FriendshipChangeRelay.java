@@ -0,0 +1,66 @@
+package com.bj.ilji_server.friend.event;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * ✅ [신규] 팔로우/언팔로우를 다른 노드에 전달합니다. (여러 노드, socket-server.cluster.mode=redis)
+ * 팔로우 그래프와 피드 타임라인은 노드마다 메모리에 있으므로, 받은 노드는 RemoteFriendshipChangedEvent로 다시 발행해
+ * 자기 사본에 같은 변경을 적용합니다. 단일 노드(Redis 없음)면 아무것도 하지 않습니다.
+ */
+@Slf4j
+@Component
+public class FriendshipChangeRelay {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RTopic topic; // 단일 노드(Redis 없음)면 null
+
+    public FriendshipChangeRelay(ApplicationEventPublisher eventPublisher,
+                                 ObjectProvider<RedissonClient> redisson,
+                                 @Value("${friend.change.topic:ilji:friend:changes}") String topicName) {
+        this.eventPublisher = eventPublisher;
+        RedissonClient client = redisson.getIfAvailable();
+        this.topic = (client == null) ? null : client.getTopic(topicName, StringCodec.INSTANCE);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (topic == null) {
+            return;
+        }
+        // 메시지 형식: "보낸 노드 ID:팔로워 ID:팔로잉 ID:F(팔로우)|U(언팔로우)" (자기 노드가 보낸 것은 건너뜀)
+        topic.addListener(String.class, (channel, message) -> {
+            String[] parts = message.split(":");
+            if (parts.length != 4 || parts[0].equals(nodeId)) {
+                return;
+            }
+            eventPublisher.publishEvent(new RemoteFriendshipChangedEvent(new FriendshipChangedEvent(
+                    Long.valueOf(parts[1]), Long.valueOf(parts[2]), "F".equals(parts[3]))));
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFriendshipChanged(FriendshipChangedEvent e) {
+        if (topic == null) {
+            return;
+        }
+        try {
+            topic.publishAsync(nodeId + ":" + e.getFollowerId() + ":" + e.getFollowingId() + ":" + (e.isFollowed() ? "F" : "U"));
+        } catch (RuntimeException ex) {
+            // 알리지 못해도 다른 노드의 그래프/타임라인은 ttl 안에 DB 기준으로 다시 적재됩니다.
+            log.warn("[FriendshipChangeRelay] Failed to publish {} -> {}", e.getFollowerId(), e.getFollowingId(), ex);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bj.ilji_server.friend.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 팔로우/언팔로우가 발생했을 때 발행되는 이벤트 (커밋 이후 피드 타임라인 보정 등에 사용)
+ */
+@Getter
+@RequiredArgsConstructor
+public class FriendshipChangedEvent {
+    private final Long followerId;
+    private final Long followingId;
+    private final boolean followed; // true: 팔로우, false: 언팔로우
+
+    public static FriendshipChangedEvent followed(Long followerId, Long followingId) {
+        return new FriendshipChangedEvent(followerId, followingId, true);
+    }
+
+    public static FriendshipChangedEvent unfollowed(Long followerId, Long followingId) {
+        return new FriendshipChangedEvent(followerId, followingId, false);
+    }
+}
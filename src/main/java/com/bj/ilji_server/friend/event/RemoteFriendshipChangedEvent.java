@@ -0,0 +1,14 @@
+package com.bj.ilji_server.friend.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ✅ [신규] 다른 노드에서 커밋된 팔로우/언팔로우. (FriendshipChangeRelay가 Redis pub/sub으로 받아 이 노드에 발행)
+ * 트랜잭션 밖에서 발행되므로 @TransactionalEventListener가 아닌 @EventListener로 받아야 합니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RemoteFriendshipChangedEvent {
+    private final FriendshipChangedEvent event;
+}
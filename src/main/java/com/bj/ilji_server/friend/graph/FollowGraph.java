@@ -0,0 +1,264 @@
+package com.bj.ilji_server.friend.graph;
+
+import com.bj.ilji_server.friend.dto.FriendshipStatus;
+import com.bj.ilji_server.friend.event.FriendshipChangedEvent;
+import com.bj.ilji_server.friend.event.RemoteFriendshipChangedEvent;
+import com.bj.ilji_server.friend.repository.FriendRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 팔로우 관계를 메모리에 보관하는 인접 목록 인덱스.
+ * 사용자마다 '내가 팔로우하는 사람'과 '나를 팔로우하는 사람'을 박싱 없는 long 셋으로 들고 있어,
+ * 팔로우/맞팔 여부와 목록 조회를 DB 왕복 없이 처리합니다.
+ *
+ * - 적재: 사용자가 처음 조회될 때 friend 테이블에서 읽어 옵니다. (DB 조회는 맵 잠금 밖에서)
+ * - 갱신: 팔로우/언팔로우 커밋 직후 FriendshipChangedEvent로 적재된 사용자만 증분 갱신합니다.
+ *   (적재되지 않은 사용자는 다음 조회 때 커밋된 상태를 그대로 읽어 오므로 갱신할 필요가 없습니다)
+ * - ✅ [개선] 적재한 지 ttl-seconds가 지난 사용자는 다시 읽어 옵니다. 이벤트는 이 노드의 커밋만 전달되므로,
+ *   다른 서버 노드에서 일어난 팔로우 변경도 ttl 안에는 반영됩니다. 만료된 사용자는 주기적으로 메모리에서 내립니다.
+ * - 목록/피드 필터처럼 잠깐의 지연이 허용되는 곳에 씁니다. 한 건의 열람 권한처럼 즉시 정확해야 하는 판단은
+ *   {@link #isMutualInDatabase}로 DB에서 확인합니다.
+ */
+@Component
+public class FollowGraph {
+
+    private final FriendRepository friendRepository;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, Node> nodes = new ConcurrentHashMap<>();
+
+    public FollowGraph(FriendRepository friendRepository,
+                       @Value("${friend.graph.ttl-seconds:300}") long ttlSeconds) {
+        this.friendRepository = friendRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+    }
+
+    /** followerId가 followingId를 팔로우하는지 여부 */
+    public boolean isFollowing(Long followerId, Long followingId) {
+        long now = System.nanoTime();
+        Node follower = nodes.get(followerId);
+        if (follower != null && follower.isUsable(now, ttlNanos)) {
+            return follower.follows(followingId);
+        }
+        Node following = nodes.get(followingId);
+        if (following != null && following.isUsable(now, ttlNanos)) {
+            return following.followedBy(followerId);
+        }
+        return node(followerId).follows(followingId);
+    }
+
+    /** 서로 팔로우하는 사이인지 여부 */
+    public boolean isMutual(Long userId, Long otherUserId) {
+        Node node = node(userId);
+        return node.follows(otherUserId) && node.followedBy(otherUserId);
+    }
+
+    /** ✅ [신규] 서로 팔로우하는 사이인지 DB에서 직접 확인합니다. (단건 열람 권한 판단용, 메모리 지연 없음) */
+    public boolean isMutualInDatabase(Long userId, Long otherUserId) {
+        return friendRepository.existsByFollowerIdAndFollowingId(userId, otherUserId)
+                && friendRepository.existsByFollowerIdAndFollowingId(otherUserId, userId);
+    }
+
+    /** userId 기준으로 otherUserId와의 관계 */
+    public FriendshipStatus statusOf(Long userId, Long otherUserId) {
+        Node node = node(userId);
+        boolean following = node.follows(otherUserId);
+        boolean followedBy = node.followedBy(otherUserId);
+
+        if (following && followedBy) {
+            return FriendshipStatus.MUTUAL;
+        } else if (following) {
+            return FriendshipStatus.FOLLOWING;
+        } else if (followedBy) {
+            return FriendshipStatus.FOLLOWED_BY;
+        } else {
+            return FriendshipStatus.NONE;
+        }
+    }
+
+    /** 내가 팔로우하는 사용자 ID 목록 */
+    public List<Long> followingIds(Long userId) {
+        return boxed(node(userId).followingSnapshot());
+    }
+
+    /** 나를 팔로우하는 사용자 ID 목록 */
+    public List<Long> followerIds(Long userId) {
+        return boxed(node(userId).followerSnapshot());
+    }
+
+    /** 서로 팔로우하는 사용자 ID 목록 (팔로잉 중 나를 팔로우하는 사람만, 두 셋 중 작은 쪽을 순회) */
+    public List<Long> mutualIds(Long userId) {
+        return boxed(node(userId).mutualSnapshot());
+    }
+
+    /** 적재된 사용자를 메모리에서 내립니다. 다음 조회 때 DB에서 다시 읽습니다. */
+    public void evict(Long userId) {
+        nodes.remove(userId);
+    }
+
+    /** ✅ [신규] ttl이 지난 사용자를 메모리에서 내립니다. (오래 조회되지 않은 사용자가 계속 쌓이지 않도록) */
+    @Scheduled(fixedDelayString = "${friend.graph.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        nodes.values().removeIf(node -> node.isExpired(now, ttlNanos));
+    }
+
+    // 타임라인 등 다른 AFTER_COMMIT 리스너가 갱신된 그래프를 보도록 가장 먼저 실행합니다.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFriendshipChanged(FriendshipChangedEvent e) {
+        Long followerId = e.getFollowerId();
+        Long followingId = e.getFollowingId();
+        boolean followed = e.isFollowed();
+
+        // 적재 중인 노드는 변경을 모아 두었다가 DB 결과 위에 순서대로 다시 적용하므로 유실되지 않습니다.
+        Node follower = nodes.get(followerId);
+        if (follower != null) {
+            follower.updateFollowing(followingId, followed);
+        }
+        Node following = nodes.get(followingId);
+        if (following != null) {
+            following.updateFollower(followerId, followed);
+        }
+    }
+
+    // ✅ [신규] 다른 노드에서 커밋된 팔로우 변경도 이 노드의 그래프에 같은 방식으로 반영합니다. (FriendshipChangeRelay)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onRemoteFriendshipChanged(RemoteFriendshipChangedEvent e) {
+        onFriendshipChanged(e.getEvent());
+    }
+
+    /**
+     * ✅ [수정] 자리만 먼저 맵에 넣고(putIfAbsent) DB 조회는 맵 잠금 밖에서 합니다.
+     * (computeIfAbsent 안에서 조회하면 같은 버킷의 다른 사용자 갱신까지 DB 왕복 동안 막힙니다)
+     */
+    private Node node(Long userId) {
+        long now = System.nanoTime();
+        Node node = nodes.get(userId);
+        if (node != null && node.isExpired(now, ttlNanos)) {
+            nodes.remove(userId, node);
+            node = null;
+        }
+        if (node == null) {
+            Node created = new Node(now);
+            Node existing = nodes.putIfAbsent(userId, created);
+            node = (existing != null) ? existing : created;
+        }
+        if (!node.isLoaded()) {
+            // 자리를 넣은 뒤에 조회하므로, 이미 커밋된 변경은 조회 결과에, 조회 중 커밋된 변경은 모아 둔 목록에 들어갑니다.
+            List<Long> following = friendRepository.findFollowingIdsByFollowerId(userId);
+            List<Long> followers = friendRepository.findFollowerIdsByFollowingId(userId);
+            node.fill(following, followers);
+        }
+        return node;
+    }
+
+    private static List<Long> boxed(long[] values) {
+        List<Long> result = new ArrayList<>(values.length);
+        for (long value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    /** 한 사용자의 인접 목록. 셋 자체는 스레드 안전하지 않으므로 노드 단위로 동기화합니다. */
+    private static final class Node {
+        private final long loadedAt;
+        private LongHashSet following = new LongHashSet();
+        private LongHashSet followers = new LongHashSet();
+        private boolean loaded;
+        // 적재 전에 들어온 변경 (DB 결과 위에 순서대로 다시 적용)
+        private List<Runnable> pendingUpdates = new ArrayList<>();
+
+        private Node(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - loadedAt > ttlNanos;
+        }
+
+        boolean isUsable(long now, long ttlNanos) {
+            return isLoaded() && !isExpired(now, ttlNanos);
+        }
+
+        // 여러 스레드가 동시에 조회했다면 먼저 끝난 결과만 씁니다. (뒤의 변경은 모아 둔 목록으로 반영됨)
+        synchronized void fill(List<Long> followingIds, List<Long> followerIds) {
+            if (loaded) {
+                return;
+            }
+            following = new LongHashSet(followingIds.size());
+            followers = new LongHashSet(followerIds.size());
+            followingIds.forEach(following::add);
+            followerIds.forEach(followers::add);
+            loaded = true;
+            // 각 변경은 (사용자, 팔로우 여부)의 최종 상태를 정하므로 순서대로 다시 적용하면 최신 상태가 됩니다.
+            List<Runnable> replay = pendingUpdates;
+            pendingUpdates = null;
+            replay.forEach(Runnable::run);
+        }
+
+        synchronized boolean follows(long userId) {
+            return following.contains(userId);
+        }
+
+        synchronized boolean followedBy(long userId) {
+            return followers.contains(userId);
+        }
+
+        synchronized void updateFollowing(long userId, boolean add) {
+            if (!loaded) {
+                pendingUpdates.add(() -> updateFollowing(userId, add));
+                return;
+            }
+            if (add) following.add(userId); else following.remove(userId);
+        }
+
+        synchronized void updateFollower(long userId, boolean add) {
+            if (!loaded) {
+                pendingUpdates.add(() -> updateFollower(userId, add));
+                return;
+            }
+            if (add) followers.add(userId); else followers.remove(userId);
+        }
+
+        synchronized long[] followingSnapshot() {
+            return following.toArray();
+        }
+
+        synchronized long[] followerSnapshot() {
+            return followers.toArray();
+        }
+
+        synchronized long[] mutualSnapshot() {
+            LongHashSet smaller = following.size() <= followers.size() ? following : followers;
+            LongHashSet larger = (smaller == following) ? followers : following;
+            long[] candidates = smaller.toArray();
+            int count = 0;
+            for (long candidate : candidates) {
+                if (larger.contains(candidate)) {
+                    candidates[count++] = candidate;
+                }
+            }
+            return Arrays.copyOf(candidates, count);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.bj.ilji_server.friend.graph;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * long 값을 박싱 없이 보관하는 오픈 어드레싱(선형 탐사) 해시 셋.
+ * 팔로우 그래프의 인접 목록처럼 원소 수가 많고 조회가 잦은 곳에서 HashSet&lt;Long&gt;의
+ * 객체 할당과 메모리 사용량을 줄이기 위해 사용합니다.
+ * 스레드 안전하지 않으므로 호출 측에서 동기화해야 합니다.
+ */
+final class LongHashSet {
+
+    private static final long EMPTY = 0L; // 0은 빈 슬롯 표시로 쓰고, 실제 0 값은 hasZero로 따로 관리
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] slots;
+    private int size; // 0을 제외한 원소 수
+    private boolean hasZero;
+    private int resizeThreshold;
+
+    LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean remove(long value) {
+        if (value == EMPTY) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                shiftBack(index);
+                size--;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    void forEach(LongConsumer action) {
+        if (hasZero) {
+            action.accept(EMPTY);
+        }
+        for (long slot : slots) {
+            if (slot != EMPTY) {
+                action.accept(slot);
+            }
+        }
+    }
+
+    long[] toArray() {
+        long[] result = new long[size()];
+        int[] cursor = {0};
+        forEach(value -> result[cursor[0]++] = value);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        long[] values = toArray();
+        Arrays.sort(values);
+        return Arrays.toString(values);
+    }
+
+    /**
+     * 선형 탐사에서 원소를 지운 뒤, 뒤따르는 원소들을 당겨 와서 탐색 체인이 끊기지 않도록 합니다.
+     * (툼스톤을 남기지 않으므로 삭제가 많아도 탐색 길이가 늘어나지 않습니다)
+     */
+    private void shiftBack(int gap) {
+        int mask = slots.length - 1;
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            long value = slots[index];
+            if (value == EMPTY) {
+                break;
+            }
+            int home = mix(value) & mask;
+            // home이 (gap, index] 구간 밖에 있으면 gap으로 옮겨도 탐색 가능
+            boolean movable = (gap <= index) ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                slots[gap] = value;
+                gap = index;
+            }
+        }
+        slots[gap] = EMPTY;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] old = slots;
+        allocate(newCapacity);
+        size = 0;
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = mix(value) & mask;
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    // 순차적으로 증가하는 ID가 인접 슬롯에 몰리지 않도록 비트를 섞습니다. (MurmurHash3 finalizer)
+    private static int mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e34f53e2bL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -3,6 +3,8 @@ package com.bj.ilji_server.friend.repository;
 import com.bj.ilji_server.friend.entity.Friend;
 import com.bj.ilji_server.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,4 +25,11 @@ public interface FriendRepository extends JpaRepository<Friend, Long> {
     long countByFollower(User follower); // 내가 팔로우하는 친구 수
 
     long countByFollowing(User following); // 나를 팔로우하는 친구 수
+
+    // ✅ [신규] 엔티티를 로딩하지 않고 ID만 조회 (피드 타임라인 계산용)
+    @Query("SELECT f.following.id FROM Friend f WHERE f.follower.id = :userId")
+    List<Long> findFollowingIdsByFollowerId(@Param("userId") Long userId); // 내가 팔로우하는 사용자 ID 목록
+
+    @Query("SELECT f.follower.id FROM Friend f WHERE f.following.id = :userId")
+    List<Long> findFollowerIdsByFollowingId(@Param("userId") Long userId); // 나를 팔로우하는 사용자 ID 목록
 }
@@ -3,6 +3,8 @@ package com.bj.ilji_server.friend.service;
 import com.bj.ilji_server.friend.dto.FriendResponse;
 import com.bj.ilji_server.friend.dto.FriendshipStatus;
 import com.bj.ilji_server.friend.entity.Friend;
+import com.bj.ilji_server.friend.event.FriendshipChangedEvent;
+import com.bj.ilji_server.friend.graph.FollowGraph;
 import com.bj.ilji_server.friend.repository.FriendRepository;
 import com.bj.ilji_server.notification.service.NotificationService;
 import com.bj.ilji_server.user.entity.User;
@@ -10,6 +12,7 @@ import com.bj.ilji_server.user.repository.UserRepository;
 import com.bj.ilji_server.user_profile.entity.UserProfile;
 import com.bj.ilji_server.user_profile.repository.UserProfileRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +30,8 @@ public class FriendService {
     private final UserRepository userRepository;
     private final NotificationComposer  notificationComposer;
     private final UserProfileRepository userProfileRepository;
+    private final FollowGraph followGraph; // ✅ [신규] 메모리 팔로우 그래프 (팔로우 관계 조회용)
+    private final ApplicationEventPublisher eventPublisher; // ✅ [신규] 팔로우 그래프/피드 타임라인 갱신용 이벤트 발행
 
     @Transactional
     public void followUser(Long followerId, Long followingId) {
@@ -49,6 +54,7 @@ public class FriendService {
                 .build();
 
         friendRepository.save(friend);
+        eventPublisher.publishEvent(FriendshipChangedEvent.followed(followerId, followingId));
 
 //        // Create notification
 //        notificationService.createFollowNotification(follower, following);
@@ -84,6 +90,7 @@ public class FriendService {
                 .orElseThrow(() -> new IllegalStateException("Not following this user"));
 
         friendRepository.delete(friend);
+        eventPublisher.publishEvent(FriendshipChangedEvent.unfollowed(followerId, followingId));
     }
 
     public List<FriendResponse> getFollowingList(Long userId) {
@@ -104,18 +111,8 @@ public class FriendService {
                 .collect(Collectors.toList());
     }
 
+    // ✅ [개선] exists 쿼리 2번 대신 메모리 팔로우 그래프에서 판단합니다. (일정/태그 조회에서 태그 주인마다 호출됨)
     public FriendshipStatus checkFriendshipStatus(User user1, User user2) {
-        boolean user1FollowsUser2 = friendRepository.existsByFollowerAndFollowing(user1, user2);
-        boolean user2FollowsUser1 = friendRepository.existsByFollowerAndFollowing(user2, user1);
-
-        if (user1FollowsUser2 && user2FollowsUser1) {
-            return FriendshipStatus.MUTUAL;
-        } else if (user1FollowsUser2) {
-            return FriendshipStatus.FOLLOWING;
-        } else if (user2FollowsUser1) {
-            return FriendshipStatus.FOLLOWED_BY;
-        } else {
-            return FriendshipStatus.NONE;
-        }
+        return followGraph.statusOf(user1.getId(), user2.getId());
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.time.LocalDate;
@@ -23,20 +24,22 @@ import java.util.List;
 public class ILogController {
 
     private final ILogService ilogService;
+    private final JsonListStreamer jsonListStreamer; // ✅ [수정] 큰 목록 응답은 스트리밍 직렬화
 
     /**
      * 내 일기 목록을 기간별로 조회합니다. (기존 getMyLogs 수정)
      * GET /api/i-log?startDate=2023-09-01&endDate=2023-09-30
      */
     @GetMapping
-    public ResponseEntity<List<ILogResponse>> getMyLogs(
+    public ResponseEntity<StreamingResponseBody> getMyLogs(
             @AuthenticationPrincipal User user,
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
         // 서비스 계층에 user와 날짜 범위를 전달합니다.
+        // ✅ [개선] 기간에 따라 목록이 길어질 수 있으므로 항목 단위로 스트리밍합니다. (응답 모양은 JSON 배열 그대로)
         List<ILogResponse> logs = ilogService.getLogsForUserByDateRange(user, startDate, endDate);
-        return ResponseEntity.ok(logs);
+        return jsonListStreamer.stream(logs);
     }
 
 
@@ -57,6 +60,22 @@ public class ILogController {
         return ResponseEntity.ok(feedPage);
     }
 
+    // ---------------------------------------------------
+    // 🆕 인기 피드 조회 (좋아요/댓글 수 + 최신성 점수순)
+    // ---------------------------------------------------
+    @GetMapping("/feed/popular")
+    public ResponseEntity<StreamingResponseBody> getPopularFeed(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (user == null) {
+            return ResponseEntity.status(401).build(); // 로그인하지 않은 사용자 접근 차단
+        }
+
+        return jsonListStreamer.stream(ilogService.getPopularFeed(user, page, size));
+    }
+
     // ---------------------------------------------------
     // 🆕 [수정] 특정 사용자의 일기 목록 조회 (페이징 및 정렬 적용)
     // ---------------------------------------------------
@@ -98,6 +117,111 @@ public class ILogController {
         return ResponseEntity.ok(likedILogs);
     }
 
+    // ---------------------------------------------------
+    // 🆕 커서 기반 목록 조회 (무한 스크롤용, 전체 건수 없이 nextCursor로 이어서 조회)
+    // ---------------------------------------------------
+    /**
+     * 소셜 피드를 커서 기반으로 조회합니다.
+     * GET /api/i-log/feed/cursor?cursor={이전 응답의 nextCursor}&size=10
+     */
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<StreamingResponseBody> getFeedByCursor(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (user == null) {
+            return ResponseEntity.status(401).build(); // 로그인하지 않은 사용자 접근 차단
+        }
+
+        // ✅ [개선] 응답 JSON을 항목 단위로 바로 스트리밍합니다. (응답 모양은 CursorSliceResponse와 동일)
+        return jsonListStreamer.stream(ilogService.getFeedForUserByCursor(user, cursor, size));
+    }
+
+    /**
+     * 특정 사용자의 일기 목록을 커서 기반으로 조회합니다. (작성 최신순)
+     * GET /api/i-log/user/{userId}/cursor?cursor=...&size=10
+     */
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorSliceResponse<ILogResponse>> getLogsByUserIdByCursor(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(ilogService.getLogsByUserIdByCursor(userId, currentUser, cursor, size));
+    }
+
+    /**
+     * '좋아요' 누른 일기 목록을 커서 기반으로 조회합니다.
+     * @param sortBy 정렬 기준 ('liked_at': 좋아요 누른 순, 'uploaded_at': 일기 작성 순) - 인기순은 지원하지 않습니다.
+     */
+    @GetMapping("/liked/cursor")
+    public ResponseEntity<CursorSliceResponse<ILogFeedResponseDto>> getLikedILogsByCursor(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "liked_at") String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal User currentUser) {
+
+        Long targetUserId = (userId == null) ? currentUser.getId() : userId;
+        return ResponseEntity.ok(ilogService.getLikedILogsByUserByCursor(targetUserId, currentUser, sortBy, cursor, size));
+    }
+
+    // ---------------------------------------------------
+    // 🆕 일기 검색 (본문/태그)
+    // ---------------------------------------------------
+    /**
+     * 본문/태그에 검색어가 포함된 일기를 최신순으로 조회합니다. (공개 범위는 피드와 동일)
+     * GET /api/i-log/search?q=제주 여행&cursor=...&size=10
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorSliceResponse<ILogFeedResponseDto>> searchLogs(
+            @AuthenticationPrincipal User user,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (user == null) {
+            return ResponseEntity.status(401).build(); // 로그인하지 않은 사용자 접근 차단
+        }
+
+        return ResponseEntity.ok(ilogService.searchLogs(user, query, cursor, size));
+    }
+
+    // ---------------------------------------------------
+    // 🆕 해시태그
+    // ---------------------------------------------------
+    /**
+     * 해시태그가 달린 일기 목록을 커서 기반으로 조회합니다. ('#'은 붙여도, 빼도 됩니다)
+     * GET /api/i-log/hashtags/{tag}/logs?cursor=...&size=10
+     */
+    @GetMapping("/hashtags/{tag}/logs")
+    public ResponseEntity<CursorSliceResponse<ILogFeedResponseDto>> getLogsByHashtag(
+            @PathVariable String tag,
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (user == null) {
+            return ResponseEntity.status(401).build(); // 로그인하지 않은 사용자 접근 차단
+        }
+
+        return ResponseEntity.ok(ilogService.getLogsByHashtag(user, tag, cursor, size));
+    }
+
+    /**
+     * 트렌딩 해시태그를 조회합니다. ('전체 공개' 일기 기준)
+     * GET /api/i-log/hashtags/trending?window=day&limit=10   (window: hour / day / week)
+     */
+    @GetMapping("/hashtags/trending")
+    public ResponseEntity<List<TrendingHashtagResponse>> getTrendingHashtags(
+            @RequestParam(defaultValue = "day") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(ilogService.getTrendingHashtags(window, limit));
+    }
+
     // ---------------------------------------------------
     //  특정 일기의 공유 ID를 조회하거나 생성하는 API
     // ---------------------------------------------------
@@ -0,0 +1,75 @@
+package com.bj.ilji_server.ilog.controller;
+
+import com.bj.ilji_server.ilog.dto.CursorSliceResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * ✅ [신규] 목록 응답을 항목 단위로 바로 응답 스트림에 씁니다.
+ * 전체 JSON을 문자열/바이트 배열로 만든 뒤 한 번에 쓰지 않으므로, 큰 목록에서도 직렬화 버퍼가 커지지 않습니다.
+ * 응답 JSON 모양은 기존(List / CursorSliceResponse 직렬화)과 같습니다.
+ * ✅ [수정] 항목마다 flush하지 않고 생성기 버퍼가 찰 때만 내보내며, 응답 스트림은 닫지 않고 서블릿 컨테이너에 맡깁니다.
+ */
+@Component
+public class JsonListStreamer {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter itemWriter;
+
+    public JsonListStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /** JSON 배열로 스트리밍합니다. */
+    public ResponseEntity<StreamingResponseBody> stream(List<?> items) {
+        return ok(out -> {
+            try (JsonGenerator generator = createGenerator(out)) {
+                writeArray(generator, items);
+            }
+        });
+    }
+
+    /** {"items": [...], "nextCursor": ..., "hasNext": ...} 형태로 스트리밍합니다. */
+    public ResponseEntity<StreamingResponseBody> stream(CursorSliceResponse<?> slice) {
+        return ok(out -> {
+            try (JsonGenerator generator = createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeFieldName("items");
+                writeArray(generator, slice.getItems());
+                generator.writeStringField("nextCursor", slice.getNextCursor());
+                generator.writeBooleanField("hasNext", slice.isHasNext());
+                generator.writeEndObject();
+            }
+        });
+    }
+
+    // 생성기를 닫으면 남은 버퍼만 내보내고 응답 스트림은 열어 둡니다.
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private void writeArray(JsonGenerator generator, List<?> items) throws IOException {
+        generator.writeStartArray();
+        for (Object item : items) {
+            itemWriter.writeValue(generator, item); // 항목마다 직렬화하고, 버퍼가 차면 바로 내보냅니다.
+        }
+        generator.writeEndArray();
+    }
+
+    private ResponseEntity<StreamingResponseBody> ok(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
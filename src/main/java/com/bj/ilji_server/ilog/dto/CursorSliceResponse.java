@@ -0,0 +1,54 @@
+package com.bj.ilji_server.ilog.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 커서 기반 목록 응답. Page와 달리 전체 건수(count)를 계산하지 않습니다.
+ * 다음 페이지가 있으면 nextCursor를 그대로 다음 요청의 cursor 파라미터로 보내면 됩니다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorSliceResponse<T> {
+
+    private final List<T> items;
+    private final String nextCursor; // 다음 페이지가 없으면 null
+    private final boolean hasNext;
+
+    /**
+     * size + 1개를 조회한 결과로 응답을 만듭니다. 초과분 1개는 다음 페이지 존재 여부 판단에만 사용합니다.
+     * @param fetched  size + 1개까지 조회된 목록
+     * @param size     요청한 페이지 크기
+     * @param cursorOf 항목으로부터 커서를 만드는 함수 (마지막 항목에만 적용됩니다)
+     */
+    public static <T> CursorSliceResponse<T> of(List<T> fetched, int size, Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = fetched.size() > size;
+        List<T> items = hasNext ? List.copyOf(fetched.subList(0, size)) : fetched;
+        String nextCursor = (hasNext && !items.isEmpty()) ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorSliceResponse<>(items, nextCursor, hasNext);
+    }
+
+    /**
+     * ✅ [신규] ID 하나로만 정렬되는 목록용. 커서에는 마지막 항목의 ID만 담습니다. (IdCursor)
+     */
+    public static <T> CursorSliceResponse<T> ofIds(List<T> fetched, int size, Function<T, Long> idOf) {
+        boolean hasNext = fetched.size() > size;
+        List<T> items = hasNext ? List.copyOf(fetched.subList(0, size)) : fetched;
+        String nextCursor = (hasNext && !items.isEmpty()) ? new IdCursor(idOf.apply(items.get(items.size() - 1))).encode() : null;
+        return new CursorSliceResponse<>(items, nextCursor, hasNext);
+    }
+
+    /** 항목만 교체 (커서는 그대로 유지) */
+    public CursorSliceResponse<T> withItems(List<T> newItems) {
+        return new CursorSliceResponse<>(newItems, nextCursor, hasNext);
+    }
+
+    /** 항목 변환 (커서는 그대로 유지) */
+    public <R> CursorSliceResponse<R> map(Function<T, R> mapper) {
+        return new CursorSliceResponse<>(items.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+}
@@ -3,18 +3,18 @@ package com.bj.ilji_server.ilog.dto;
 import com.bj.ilji_server.ilog.entity.ILog;
 import com.bj.ilji_server.ilog_comments.entity.IlogComment;
 import com.bj.ilji_server.user_profile.entity.UserProfile;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.With;
 
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 
 @Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE) // @With 용
 public class ILogFeedResponseDto {
 
     private final Long id;
@@ -25,6 +25,7 @@ public class ILogFeedResponseDto {
     private final List<String> images;
     private final String friendTags;
     private final String tags;
+    @With
     private final int likeCount;
     private final int commentCount;
 
@@ -34,6 +35,7 @@ public class ILogFeedResponseDto {
     private final LocalDateTime createdAt;
 
 
+    @With // ✅ [신규] 목록 조회 후 LikeStateResolver로 계산한 값을 채워 넣기 위함 (withLiked)
     private final boolean isLiked;
     private final BestCommentDto bestComment;
 
@@ -87,29 +89,40 @@ public class ILogFeedResponseDto {
         this.isLiked = isLiked;
         this.bestComment = BestCommentDto.fromEntity(bestComment);
 
-        // 이미지 URL 파싱
-        List<String> imageUrls = Collections.emptyList();
-        if (iLog.getImgUrl() != null && !iLog.getImgUrl().isBlank()) {
-            try {
-                imageUrls = new ObjectMapper().readValue(iLog.getImgUrl(), new TypeReference<>() {});
-            } catch (IOException ignored) {} // 생성자에서는 예외를 던지기 어려우므로 무시하거나 로깅
-        }
-        this.images = imageUrls;
+        // ✅ [개선] 이미지 URL 파싱 - 행마다 ObjectMapper를 만들지 않고 공유 ObjectReader 사용
+        this.images = ImageUrls.parse(iLog.getImgUrl());
+    }
+
+    /**
+     * ✅ [신규] 스칼라 프로젝션용 생성자 - ILog/UserProfile 엔티티를 만들지 않고 필요한 컬럼만 받아 바로 DTO를 만듭니다.
+     * (영속성 컨텍스트에 엔티티와 스냅샷이 쌓이지 않아 목록 조회의 메모리/GC 부담이 줄어듭니다)
+     * JPQL 생성자 표현식(ILogRepository.FEED_DTO_PROJECTION)과 인자 순서를 맞춰야 합니다.
+     */
+    public ILogFeedResponseDto(Long id, Long writerId, String writerNickname, String writerProfileImage,
+                               String content, String imgUrl, String friendTags, String tags,
+                               int likeCount, int commentCount, ILog.Visibility visibility,
+                               LocalDate logDate, LocalDateTime createdAt) {
+        this(id, writerId, writerNickname, writerProfileImage,
+                content, ImageUrls.parse(imgUrl), friendTags, tags, likeCount, commentCount,
+                visibility, logDate, createdAt, false, null);
+    }
+
+    /**
+     * ✅ [신규] 목록 조회 후 '좋아요' 여부와, 아직 DB에 반영되지 않은 좋아요 수 변화량을 반영한 사본을 만듭니다.
+     */
+    public ILogFeedResponseDto withLikeState(boolean liked, long pendingLikeDelta) {
+        ILogFeedResponseDto result = this.withLiked(liked);
+        return pendingLikeDelta == 0 ? result : result.withLikeCount((int) Math.max(0, likeCount + pendingLikeDelta));
     }
 
     /**
      * ✅ [신규] 서비스 레이어에서 엔티티를 DTO로 변환할 때 사용하는 정적 팩토리 메서드입니다.
-     * '좋아요' 여부를 동적으로 계산합니다.
+     * ✅ [개선] likes 컬렉션 전체를 로딩하지 않도록, '좋아요' 여부는 호출 측(LikeStateResolver)에서 계산해 전달합니다.
      * @param iLog 조회된 ILog 엔티티
-     * @param currentUserId 현재 로그인한 사용자의 ID (비로그인 시 null)
+     * @param isLiked 현재 사용자의 '좋아요' 여부
      * @return 생성된 ILogFeedResponseDto 객체
      */
-    public static ILogFeedResponseDto fromEntity(ILog iLog, Long currentUserId) {
-        boolean isLiked = false;
-        if (currentUserId != null && iLog.getLikes() != null) {
-            isLiked = iLog.getLikes().stream()
-                    .anyMatch(like -> like.getUserProfile().getUser().getId().equals(currentUserId));
-        }
+    public static ILogFeedResponseDto fromEntity(ILog iLog, boolean isLiked) {
         // 베스트 댓글은 이 컨텍스트에서 조회하지 않으므로 null을 전달합니다.
         return new ILogFeedResponseDto(iLog, null, isLiked);
     }
@@ -3,18 +3,18 @@ package com.bj.ilji_server.ilog.dto;
 import com.bj.ilji_server.ilog.entity.ILog;
 import com.bj.ilji_server.ilog_comments.entity.IlogComment;
 import com.bj.ilji_server.user_profile.entity.UserProfile;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.With;
 
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 
 @Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE) // @With 용
 public class ILogResponse {
 
     private final Long id;
@@ -25,11 +25,13 @@ public class ILogResponse {
     private final List<String> images;
     private final String friendTags;
     private final String tags;
+    @With
     private final int likeCount;
     private final int commentCount;
     private final ILog.Visibility visibility;
     private final LocalDate logDate;
     private final LocalDateTime createdAt;
+    @With // ✅ [신규] 목록 조회 후 LikeStateResolver로 계산한 값을 채워 넣기 위함 (withLiked)
     private final boolean isLiked;
     private final ILogFeedResponseDto.BestCommentDto bestComment;
 
@@ -58,31 +60,37 @@ public class ILogResponse {
         this.isLiked = isLiked;
         this.bestComment = ILogFeedResponseDto.BestCommentDto.fromEntity(bestComment);
 
-        List<String> imageUrls = Collections.emptyList();
-        if (iLog.getImgUrl() != null && !iLog.getImgUrl().isBlank()) {
-            try {
-                imageUrls = new ObjectMapper().readValue(iLog.getImgUrl(), new TypeReference<>() {});
-            } catch (IOException ignored) {}
-        }
-        this.images = imageUrls;
+        // ✅ [개선] 이미지 URL 파싱 - 행마다 ObjectMapper를 만들지 않고 공유 ObjectReader 사용
+        this.images = ImageUrls.parse(iLog.getImgUrl());
     }
 
     /**
-     * N+1 문제가 발생하는 기존 fromEntity 메서드.
-     * create, update 등 단일 건 처리 시에는 계속 사용될 수 있으므로 남겨둡니다.
+     * ✅ [신규] 스칼라 프로젝션용 생성자 - 엔티티 없이 필요한 컬럼만 받아 DTO를 만듭니다.
+     * JPQL 생성자 표현식(ILogRepository.MY_LOG_DTO_PROJECTION)과 인자 순서를 맞춰야 합니다.
      */
-    public static ILogResponse fromEntity(ILog iLog, IlogComment bestComment, ObjectMapper objectMapper, Long currentUserId) {
-        boolean isLikedForEntity = currentUserId != null && iLog.getLikes().stream()
-                .anyMatch(like -> like.getUserProfile().getUserId().equals(currentUserId));
+    public ILogResponse(Long id, Long writerId, String writerNickname, String writerProfileImage,
+                        String content, String imgUrl, String friendTags, String tags,
+                        int likeCount, int commentCount, ILog.Visibility visibility,
+                        LocalDate logDate, LocalDateTime createdAt) {
+        this(id, writerId, writerNickname, writerProfileImage,
+                content, ImageUrls.parse(imgUrl), friendTags, tags, likeCount, commentCount,
+                visibility, logDate, createdAt, false, null);
+    }
 
-        ILogResponse response = new ILogResponse(iLog, bestComment, isLikedForEntity);
-        // ObjectMapper를 외부에서 주입받아 이미지 파싱을 수행하도록 수정
-        if (iLog.getImgUrl() != null && !iLog.getImgUrl().isBlank()) {
-            try {
-                // final이 아니므로 필드 재할당이 가능하지만, 생성자에서 처리하는 것이 더 좋습니다.
-                // 이 예제에서는 fromEntity의 호환성을 위해 남겨둡니다.
-            } catch (Exception ignored) {}
-        }
-        return response;
+    /**
+     * ✅ [신규] 목록 조회 후 '좋아요' 여부와, 아직 DB에 반영되지 않은 좋아요 수 변화량을 반영한 사본을 만듭니다.
+     */
+    public ILogResponse withLikeState(boolean liked, long pendingLikeDelta) {
+        ILogResponse result = this.withLiked(liked);
+        return pendingLikeDelta == 0 ? result : result.withLikeCount((int) Math.max(0, likeCount + pendingLikeDelta));
+    }
+
+    /**
+     * 엔티티를 DTO로 변환합니다. create, update 등 단일 건 처리 시 사용합니다.
+     * ✅ [개선] likes 컬렉션 전체를 로딩하던(N+1) 대신, '좋아요' 여부는 호출 측(LikeStateResolver)에서 계산해 전달합니다.
+     */
+    public static ILogResponse fromEntity(ILog iLog, IlogComment bestComment, boolean isLiked) {
+        // 이미지 URL은 생성자에서 ImageUrls로 파싱하므로 따로 처리할 것이 없습니다.
+        return new ILogResponse(iLog, bestComment, isLiked);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.bj.ilji_server.ilog.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * ✅ [신규] ID 하나로만 정렬되는 목록(검색 색인 등)의 커서. 다음 페이지는 "이 ID보다 작은 항목"입니다.
+ * KeysetCursor와 같이 클라이언트에는 불투명한 문자열로 전달합니다.
+ *
+ * @param id 마지막으로 받은 항목의 ID
+ */
+public record IdCursor(Long id) {
+
+    /** 첫 페이지 조회용 커서. 모든 항목보다 큰 ID를 가리킵니다. */
+    public static final IdCursor FIRST = new IdCursor(Long.MAX_VALUE);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 클라이언트가 보낸 커서를 해석합니다. 비어 있으면 첫 페이지 커서를 반환합니다.
+     * 이전에 (시각, ID) 형식으로 내려 준 커서도 ID만 읽어 받아 줍니다.
+     * @throws IllegalArgumentException 형식이 잘못된 커서인 경우
+     */
+    public static IdCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new IdCursor(Long.parseLong(raw.substring(raw.lastIndexOf('|') + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
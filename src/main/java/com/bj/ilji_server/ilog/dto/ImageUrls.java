@@ -0,0 +1,53 @@
+package com.bj.ilji_server.ilog.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * i_log.img_url(JSON 배열 문자열) → 이미지 URL 목록 변환.
+ * 목록 조회에서 행마다 new ObjectMapper()를 만들지 않도록, 타입이 고정된 ObjectReader를 한 번만 만들어 공유합니다.
+ * (ObjectReader는 불변이라 여러 스레드에서 함께 써도 안전합니다)
+ */
+@Slf4j
+public final class ImageUrls {
+
+    private static final ObjectReader READER = new ObjectMapper().readerFor(new TypeReference<List<String>>() {});
+
+    private ImageUrls() {
+    }
+
+    /**
+     * 비어 있거나 형식이 잘못된 값이면 빈 목록을 반환합니다. (화면 표시용)
+     * ✅ [수정] 형식이 잘못된 값은 조용히 넘기지 않고 경고 로그에 남깁니다.
+     */
+    public static List<String> parse(String imgUrlJson) {
+        try {
+            return parseStrict(imgUrlJson);
+        } catch (IllegalStateException e) {
+            log.warn("[ImageUrls] Treating malformed img_url as no images: {}", imgUrlJson, e.getCause());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * ✅ [신규] 형식이 잘못된 값이면 IllegalStateException을 던집니다.
+     * 이미지 삭제처럼 목록을 잘못 읽으면 Firebase에 파일이 남는 경로에서 사용합니다.
+     */
+    public static List<String> parseStrict(String imgUrlJson) {
+        if (imgUrlJson == null || imgUrlJson.isBlank()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<String> urls = READER.readValue(imgUrlJson);
+            return urls != null ? urls : Collections.emptyList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed img_url JSON: " + imgUrlJson, e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bj.ilji_server.ilog.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 무한 스크롤용 커서. (정렬 시각, ID) 쌍을 클라이언트에는 불투명한 문자열로 전달합니다.
+ * 다음 페이지는 "이 커서보다 오래된 항목"을 인덱스 범위 조회로 가져오므로 OFFSET과 count 쿼리가 필요 없습니다.
+ * - 피드/마이페이지: (createdAt, id)
+ * - 좋아요 목록: (likedAt, likeId) 또는 (createdAt, id)
+ *
+ * @param at 정렬 기준 시각
+ * @param id 같은 시각의 항목을 구분하기 위한 ID
+ */
+public record KeysetCursor(LocalDateTime at, Long id) {
+
+    /**
+     * 첫 페이지 조회용 커서. 모든 항목보다 "새로운" 위치를 가리킵니다.
+     * (Oracle TIMESTAMP가 표현할 수 있는 범위 안의 값을 사용합니다)
+     */
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = at + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 클라이언트가 보낸 커서를 해석합니다. 비어 있으면 첫 페이지 커서를 반환합니다.
+     * @throws IllegalArgumentException 형식이 잘못된 커서인 경우
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bj.ilji_server.ilog.dto;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * '좋아요 누른 순' 커서 조회용 프로젝션. 다음 커서를 만들기 위해 좋아요 시각과 ID를 함께 조회합니다.
+ * ✅ [개선] 엔티티 대신 피드 DTO 컬럼(ILogRepository.FEED_DTO_PROJECTION과 같은 순서) 뒤에 좋아요 시각/ID를 받습니다.
+ * JPQL 생성자 표현식으로 직접 조회되므로 인자 순서를 바꾸지 마세요.
+ */
+public record LikedILogRow(ILogFeedResponseDto dto, LocalDateTime likedAt, Long likeId) {
+
+    public LikedILogRow(Long id, Long writerId, String writerNickname, String writerProfileImage,
+                        String content, String imgUrl, String friendTags, String tags,
+                        int likeCount, int commentCount, ILog.Visibility visibility,
+                        LocalDate logDate, LocalDateTime createdAt,
+                        LocalDateTime likedAt, Long likeId) {
+        this(new ILogFeedResponseDto(id, writerId, writerNickname, writerProfileImage,
+                        content, imgUrl, friendTags, tags, likeCount, commentCount,
+                        visibility, logDate, createdAt),
+                likedAt, likeId);
+    }
+
+    // isLiked는 서비스에서 LikeStateResolver로 일괄 계산해 채웁니다.
+    public ILogFeedResponseDto toDto() {
+        return dto;
+    }
+
+    public KeysetCursor cursor() {
+        return new KeysetCursor(likedAt, likeId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bj.ilji_server.ilog.dto;
+
+/**
+ * 트렌딩 해시태그 한 건.
+ * @param tag   정규화된 태그 ('#' 없음)
+ * @param count 조회한 기간 동안 이 태그가 달린 '전체 공개' 일기 수
+ */
+public record TrendingHashtagResponse(String tag, long count) {}
@@ -0,0 +1,47 @@
+package com.bj.ilji_server.ilog.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ [신규] 일기 - 해시태그 매핑. (ILog.tags 문자열을 정규화해 태그 하나당 한 행으로 저장)
+ * "#태그가 달린 일기" 조회를 (tag, ilog_id) 인덱스 범위 조회로 처리하기 위해 사용합니다.
+ */
+@Entity
+@Table(name = "ilog_tag",
+        uniqueConstraints = {
+                // 같은 일기에 같은 태그가 두 번 저장되지 않도록 방지
+                @UniqueConstraint(name = "uq_ilog_tag", columnNames = {"ilog_id", "tag"})
+        })
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ILogTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "ilog_id", nullable = false)
+    private ILog iLog;
+
+    // 정규화된 태그 ('#' 제거, 소문자)
+    @Column(name = "tag", nullable = false, length = 100)
+    private String tag;
+
+    // 일기 작성 시각 (트렌딩 집계 기준)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public ILogTag(ILog iLog, String tag, LocalDateTime createdAt) {
+        this.iLog = iLog;
+        this.tag = tag;
+        this.createdAt = createdAt;
+    }
+}
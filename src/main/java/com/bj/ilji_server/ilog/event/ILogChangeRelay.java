@@ -0,0 +1,87 @@
+package com.bj.ilji_server.ilog.event;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ✅ [신규] 일기 변경을 다른 노드에 전달합니다. (여러 노드, socket-server.cluster.mode=redis)
+ * 피드 타임라인과 검색 색인은 노드마다 메모리에 있으므로, 한 노드에서 커밋된 변경을 Redis pub/sub으로 알리고
+ * 받은 노드는 RemoteILogChangedEvent로 다시 발행해 자기 사본에 같은 변경을 적용합니다. (UnreadCounter와 같은 방식)
+ * 단일 노드(Redis 없음)면 아무것도 하지 않습니다.
+ */
+@Slf4j
+@Component
+public class ILogChangeRelay {
+
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RTopic topic; // 단일 노드(Redis 없음)면 null
+
+    public ILogChangeRelay(ObjectMapper objectMapper,
+                           ApplicationEventPublisher eventPublisher,
+                           ObjectProvider<RedissonClient> redisson,
+                           @Value("${ilog.change.topic:ilji:ilog:changes}") String topicName) {
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        RedissonClient client = redisson.getIfAvailable();
+        this.topic = (client == null) ? null : client.getTopic(topicName, StringCodec.INSTANCE);
+    }
+
+    /** 노드 사이에 주고받는 메시지 (보낸 노드 ID + 이벤트 필드) */
+    private record Message(String nodeId, ILogChangedEvent.Type type, Long ilogId, Long authorId,
+                           ILog.Visibility visibility, ILog.Visibility previousVisibility,
+                           LocalDateTime createdAt, String content, String tags) {}
+
+    @PostConstruct
+    void subscribe() {
+        if (topic == null) {
+            return;
+        }
+        topic.addListener(String.class, (channel, json) -> {
+            Message m;
+            try {
+                m = objectMapper.readValue(json, Message.class);
+            } catch (JsonProcessingException e) {
+                log.warn("[ILogChangeRelay] Ignoring malformed message: {}", json, e);
+                return;
+            }
+            if (nodeId.equals(m.nodeId())) {
+                return; // 자기 노드는 AFTER_COMMIT 리스너로 이미 반영함
+            }
+            eventPublisher.publishEvent(new RemoteILogChangedEvent(new ILogChangedEvent(
+                    m.type(), m.ilogId(), m.authorId(), m.visibility(), m.previousVisibility(),
+                    m.createdAt(), m.content(), m.tags())));
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onILogChanged(ILogChangedEvent e) {
+        if (topic == null) {
+            return;
+        }
+        try {
+            topic.publishAsync(objectMapper.writeValueAsString(new Message(nodeId, e.getType(), e.getIlogId(),
+                    e.getAuthorId(), e.getVisibility(), e.getPreviousVisibility(), e.getCreatedAt(),
+                    e.getContent(), e.getTags())));
+        } catch (JsonProcessingException | RuntimeException ex) {
+            // 알리지 못해도 다른 노드의 타임라인은 ttl 안에, 검색 색인은 다음 재구성 때 맞춰집니다.
+            log.warn("[ILogChangeRelay] Failed to publish change of ilog {}", e.getIlogId(), ex);
+        }
+    }
+}
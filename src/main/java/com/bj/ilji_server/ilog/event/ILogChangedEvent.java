@@ -0,0 +1,53 @@
+package com.bj.ilji_server.ilog.event;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 일기 생성/수정/삭제 후 발행되는 도메인 이벤트.
+ * 피드 타임라인 등 파생 데이터는 AFTER_COMMIT 리스너에서 이 이벤트를 받아 갱신합니다.
+ * 다른 노드에서 일어난 변경은 ILogChangeRelay가 RemoteILogChangedEvent로 감싸 다시 발행합니다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE) // 다른 노드에서 받은 이벤트 복원(ILogChangeRelay)용
+public class ILogChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long ilogId;
+    private final Long authorId;
+    private final ILog.Visibility visibility;
+    private final ILog.Visibility previousVisibility; // UPDATED일 때만 의미 있음
+    private final LocalDateTime createdAt;
+    private final String content; // 검색 색인용 (DELETED일 때는 null)
+    private final String tags;    // 검색 색인/트렌딩 해시태그용
+
+    public static ILogChangedEvent created(ILog iLog) {
+        return new ILogChangedEvent(Type.CREATED, iLog.getId(), authorIdOf(iLog),
+                iLog.getVisibility(), null, iLog.getCreatedAt(), iLog.getContent(), iLog.getTags());
+    }
+
+    public static ILogChangedEvent updated(ILog iLog, ILog.Visibility previousVisibility) {
+        return new ILogChangedEvent(Type.UPDATED, iLog.getId(), authorIdOf(iLog),
+                iLog.getVisibility(), previousVisibility, iLog.getCreatedAt(), iLog.getContent(), iLog.getTags());
+    }
+
+    public static ILogChangedEvent deleted(ILog iLog) {
+        return new ILogChangedEvent(Type.DELETED, iLog.getId(), authorIdOf(iLog),
+                iLog.getVisibility(), iLog.getVisibility(), iLog.getCreatedAt(), null, iLog.getTags());
+    }
+
+    // @MapsId 관계로 인해 userProfile.getUserId()가 비어 있을 수 있으므로 User의 ID를 사용합니다.
+    private static Long authorIdOf(ILog iLog) {
+        return iLog.getUserProfile().getUser().getId();
+    }
+}
@@ -0,0 +1,15 @@
+package com.bj.ilji_server.ilog.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ✅ [신규] 다른 노드에서 커밋된 일기 변경. (ILogChangeRelay가 Redis pub/sub으로 받아 이 노드에 발행)
+ * 트랜잭션 밖에서 발행되므로 @TransactionalEventListener가 아닌 @EventListener로 받아야 합니다.
+ * 노드 메모리에 파생 데이터를 두는 컴포넌트(피드 타임라인, 검색 색인)가 자기 노드의 사본을 맞추는 데 씁니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RemoteILogChangedEvent {
+    private final ILogChangedEvent event;
+}
@@ -0,0 +1,9 @@
+package com.bj.ilji_server.ilog.hashtag;
+
+import java.time.LocalDateTime;
+
+/**
+ * 트렌딩 집계를 다시 채울 때 ilog_tag에서 읽어 오는 (태그, 일기 작성 시각).
+ * JPQL 생성자 표현식으로 직접 조회됩니다.
+ */
+public record HashtagOccurrence(String tag, LocalDateTime createdAt) {}
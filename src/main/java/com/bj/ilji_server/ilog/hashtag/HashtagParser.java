@@ -0,0 +1,50 @@
+package com.bj.ilji_server.ilog.hashtag;
+
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * ILog.tags 자유 형식 문자열("#여행 #제주", "여행,제주" 등)을 정규화된 태그 집합으로 바꿉니다.
+ * 저장(ilog_tag)과 조회(태그 검색/트렌딩)가 같은 규칙을 써야 하므로 이 클래스만 사용하세요.
+ */
+public final class HashtagParser {
+
+    /** ilog_tag.tag 컬럼 길이 */
+    public static final int MAX_TAG_LENGTH = 100;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,#]+");
+
+    private HashtagParser() {
+    }
+
+    /** 태그 문자열을 정규화된 태그 집합으로 나눕니다. (입력 순서 유지, 중복 제거) */
+    public static Set<String> parse(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(tags)) {
+            String tag = normalize(token);
+            if (!tag.isEmpty()) {
+                result.add(tag);
+            }
+        }
+        return result;
+    }
+
+    /** 태그 하나를 정규화합니다: 앞의 '#' 제거, NFKC, 소문자, 최대 길이 제한. */
+    public static String normalize(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(tag.strip(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        while (normalized.startsWith("#")) {
+            normalized = normalized.substring(1);
+        }
+        return normalized.length() > MAX_TAG_LENGTH ? normalized.substring(0, MAX_TAG_LENGTH) : normalized;
+    }
+}
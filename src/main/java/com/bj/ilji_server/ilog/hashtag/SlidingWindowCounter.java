@@ -0,0 +1,102 @@
+package com.bj.ilji_server.ilog.hashtag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 키별 슬라이딩 윈도우 카운터.
+ * 윈도우를 bucketCount개의 시간 버킷(링 버퍼)으로 나누고, 윈도우 전체 합계(totals)를 함께 유지합니다.
+ * 버킷이 윈도우 밖으로 밀려나면 그 버킷의 값만 합계에서 빼므로, 조회 시 전체를 다시 셀 필요가 없습니다.
+ */
+final class SlidingWindowCounter {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final long[] bucketEpochs;          // 슬롯에 담긴 버킷 번호 (시각 / bucketMillis)
+    private final List<Map<String, Long>> buckets;
+    private final Map<String, Long> totals = new HashMap<>();
+
+    SlidingWindowCounter(Duration bucketSize, int bucketCount) {
+        this.bucketMillis = bucketSize.toMillis();
+        this.bucketCount = bucketCount;
+        this.bucketEpochs = new long[bucketCount];
+        Arrays.fill(bucketEpochs, EMPTY);
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * atMillis 시각에 발생한 key의 횟수를 delta만큼 더합니다. 윈도우 밖의 시각이면 무시합니다.
+     * 카운트는 0 아래로 내려가지 않습니다. (집계를 채우기 전에 작성된 일기가 삭제된 경우 등)
+     */
+    synchronized void add(String key, long atMillis, long nowMillis, long delta) {
+        long current = nowMillis / bucketMillis;
+        long epoch = atMillis / bucketMillis;
+        if (epoch > current || epoch <= current - bucketCount) {
+            return;
+        }
+        expire(current);
+
+        int slot = (int) Math.floorMod(epoch, (long) bucketCount);
+        bucketEpochs[slot] = epoch; // expire 이후이므로 비어 있거나 같은 버킷입니다.
+        Map<String, Long> bucket = buckets.get(slot);
+
+        long before = bucket.getOrDefault(key, 0L);
+        long after = Math.max(0L, before + delta);
+        if (after == before) {
+            return;
+        }
+        put(bucket, key, after);
+        put(totals, key, totals.getOrDefault(key, 0L) + (after - before));
+    }
+
+    /** 윈도우 안에서 횟수가 많은 순으로 최대 limit개의 (키, 횟수)를 반환합니다. 같으면 키 순. */
+    synchronized List<Map.Entry<String, Long>> top(int limit, long nowMillis) {
+        expire(nowMillis / bucketMillis);
+
+        Comparator<Map.Entry<String, Long>> ranking = Map.Entry.<String, Long>comparingByValue()
+                .thenComparing(Map.Entry.<String, Long>comparingByKey().reversed());
+        // 크기 limit의 최소 힙으로 상위 limit개만 유지합니다. (전체 정렬 없음)
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<String, Long> entry : totals.entrySet()) {
+            heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<String, Long>> result = new ArrayList<>(heap);
+        result.sort(ranking.reversed());
+        return result;
+    }
+
+    /** 윈도우 밖으로 밀려난 버킷을 합계에서 빼고 비웁니다. */
+    private void expire(long current) {
+        for (int slot = 0; slot < bucketCount; slot++) {
+            long epoch = bucketEpochs[slot];
+            if (epoch == EMPTY || epoch > current - bucketCount) {
+                continue;
+            }
+            buckets.get(slot).forEach((key, count) -> put(totals, key, totals.getOrDefault(key, 0L) - count));
+            buckets.get(slot).clear();
+            bucketEpochs[slot] = EMPTY;
+        }
+    }
+
+    private static void put(Map<String, Long> counts, String key, long count) {
+        if (count <= 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, count);
+        }
+    }
+}
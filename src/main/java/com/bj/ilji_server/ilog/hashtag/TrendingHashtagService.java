@@ -0,0 +1,137 @@
+package com.bj.ilji_server.ilog.hashtag;
+
+import com.bj.ilji_server.ilog.dto.TrendingHashtagResponse;
+import com.bj.ilji_server.ilog.entity.ILog;
+import com.bj.ilji_server.ilog.event.ILogChangedEvent;
+import com.bj.ilji_server.ilog.repository.ILogTagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 트렌딩 해시태그 (최근 1시간 / 1일 / 1주). 테이블을 스캔하지 않고 메모리 슬라이딩 윈도우 카운터에서 바로 응답합니다.
+ * - 첫 조회 시 최근 1주일치 ilog_tag를 한 번 읽어 카운터를 채웁니다.
+ * - 이후에는 일기 생성/수정/삭제 커밋 이벤트로 갱신합니다.
+ * - 다른 사람에게 노출되는 목록이므로 '전체 공개' 일기의 태그만 집계합니다. (공개 범위 변경도 반영)
+ */
+@Slf4j
+@Service
+public class TrendingHashtagService {
+
+    public static final int MAX_LIMIT = 50;
+
+    /** 집계 기간. 버킷 크기 x 버킷 수 = 윈도우 길이 */
+    public enum Window {
+        HOUR(Duration.ofMinutes(1), 60),
+        DAY(Duration.ofHours(1), 24),
+        WEEK(Duration.ofHours(1), 24 * 7);
+
+        private final Duration bucketSize;
+        private final int bucketCount;
+
+        Window(Duration bucketSize, int bucketCount) {
+            this.bucketSize = bucketSize;
+            this.bucketCount = bucketCount;
+        }
+
+        Duration length() {
+            return bucketSize.multipliedBy(bucketCount);
+        }
+
+        /** "hour" / "day" / "week" (대소문자 무시) */
+        public static Window from(String value) {
+            try {
+                return Window.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported trending window: " + value);
+            }
+        }
+    }
+
+    private final ILogTagRepository ilogTagRepository;
+    private final Map<Window, SlidingWindowCounter> counters = new EnumMap<>(Window.class);
+    private final Object loadLock = new Object();
+    private volatile boolean loaded = false;
+
+    public TrendingHashtagService(ILogTagRepository ilogTagRepository) {
+        this.ilogTagRepository = ilogTagRepository;
+        for (Window window : Window.values()) {
+            counters.put(window, new SlidingWindowCounter(window.bucketSize, window.bucketCount));
+        }
+    }
+
+    public List<TrendingHashtagResponse> getTrending(Window window, int limit) {
+        ensureLoaded();
+        int normalizedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return counters.get(window).top(normalizedLimit, System.currentTimeMillis()).stream()
+                .map(entry -> new TrendingHashtagResponse(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onILogChanged(ILogChangedEvent e) {
+        int delta = switch (e.getType()) {
+            case CREATED -> isPublic(e.getVisibility());
+            case DELETED -> -isPublic(e.getVisibility());
+            case UPDATED -> isPublic(e.getVisibility()) - isPublic(e.getPreviousVisibility());
+        };
+        if (delta == 0) {
+            return;
+        }
+        Set<String> tags = HashtagParser.parse(e.getTags());
+        if (tags.isEmpty()) {
+            return;
+        }
+        // 아직 카운터를 채우기 전이면 무시합니다. (채울 때 테이블에서 함께 읽힘)
+        synchronized (loadLock) {
+            if (loaded) {
+                count(tags, e.getCreatedAt(), delta);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            // 채우는 동안에는 loadLock 때문에 이벤트 반영이 대기하므로, 같은 일기가 두 번 집계되지 않습니다.
+            LocalDateTime since = LocalDateTime.now().minus(Window.WEEK.length());
+            List<HashtagOccurrence> occurrences = ilogTagRepository.findOccurrencesSince(since, ILog.Visibility.PUBLIC);
+            occurrences.forEach(o -> count(Set.of(o.tag()), o.createdAt(), 1));
+            loaded = true;
+            log.info("[TrendingHashtagService] Loaded {} hashtag occurrences since {}", occurrences.size(), since);
+        }
+    }
+
+    private void count(Set<String> tags, LocalDateTime createdAt, int delta) {
+        if (createdAt == null) {
+            return;
+        }
+        long at = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long now = System.currentTimeMillis();
+        for (SlidingWindowCounter counter : counters.values()) {
+            for (String tag : tags) {
+                counter.add(tag, at, now, delta);
+            }
+        }
+    }
+
+    private static int isPublic(ILog.Visibility visibility) {
+        return visibility == ILog.Visibility.PUBLIC ? 1 : 0;
+    }
+}
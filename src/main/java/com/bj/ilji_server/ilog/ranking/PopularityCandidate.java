@@ -0,0 +1,17 @@
+package com.bj.ilji_server.ilog.ranking;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+
+import java.time.LocalDateTime;
+
+/**
+ * 인기 순위 계산에 필요한 일기 정보. 순위 엔진을 처음 채울 때 JPQL 생성자 표현식으로 조회됩니다.
+ */
+public record PopularityCandidate(
+        Long ilogId,
+        Long authorId,
+        ILog.Visibility visibility,
+        int likeCount,
+        int commentCount,
+        LocalDateTime createdAt
+) {}
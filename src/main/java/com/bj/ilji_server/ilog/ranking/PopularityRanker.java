@@ -0,0 +1,372 @@
+package com.bj.ilji_server.ilog.ranking;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+import com.bj.ilji_server.ilog.event.ILogChangedEvent;
+import com.bj.ilji_server.ilog.repository.ILogRepository;
+import com.bj.ilji_server.ilog_comments.event.CommentChangedEvent;
+import com.bj.ilji_server.likes.counter.LikeCountBuffer;
+import com.bj.ilji_server.likes.event.LikeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * 인기 피드 순위 엔진.
+ * 점수 = log10(좋아요 + 댓글 x 가중치) + 작성 시각 / 감쇠 주기
+ * - 작성 시각이 점수에 더해지는 방식이라 시간이 지나도 점수를 다시 계산할 필요가 없고, 좋아요/댓글이 바뀔 때만 그 일기만 갱신합니다.
+ *   (감쇠 주기만큼 늦게 작성된 글은 반응이 10배 적어도 같은 순위)
+ * - 공개 범위(전체 공개 / 친구 공개)별로 점수 상위 topK개만 정렬된 상태로 유지합니다.
+ * - 집계 대상은 최근 horizonDays일 이내의 일기이며, 첫 조회 시 i_log에서 한 번 읽어 채운 뒤 커밋 이벤트로 갱신합니다.
+ * - ✅ [개선] 갱신(이벤트/정리)만 this 잠금으로 직렬화하고, 조회는 잠금 없이 불변 스냅숏(copy-on-write)을 읽습니다.
+ *   스냅숏은 갱신 후 첫 조회 때 한 번만 다시 만듭니다. 첫 적재의 DB 조회와 열람 가능 여부 판단(canSeeFriendsOnly)도 잠금 밖에서 합니다.
+ */
+@Slf4j
+@Component
+public class PopularityRanker {
+
+    private static final Comparator<Ranked> BY_SCORE_DESC = Comparator
+            .comparingDouble((Ranked r) -> r.score).reversed()
+            .thenComparing(r -> r.ilogId, Comparator.reverseOrder());
+
+    private final ILogRepository ilogRepository;
+    private final LikeCountBuffer likeCountBuffer;
+    private final int topK;
+    private final Duration horizon;
+    private final double decaySeconds;
+    private final double commentWeight;
+
+    // 아래 필드는 모두 this 잠금으로 보호합니다.
+    private final Map<Long, Ranked> tracked = new HashMap<>();  // 집계 기간 안의 모든 일기
+    private final Map<ILog.Visibility, TreeSet<Ranked>> tops = new EnumMap<>(ILog.Visibility.class);
+    private List<Runnable> pendingChanges;                      // 첫 적재 중에만 null이 아님 (그동안 들어온 변경)
+
+    private volatile boolean loaded = false;
+    private volatile Snapshot snapshot;                         // 갱신되면 null, 다음 조회 때 다시 만듦
+    private final Object loadLock = new Object();               // 첫 적재는 한 스레드만
+
+    public PopularityRanker(ILogRepository ilogRepository,
+                            LikeCountBuffer likeCountBuffer,
+                            @Value("${ilog.popular.top-k:500}") int topK,
+                            @Value("${ilog.popular.horizon-days:7}") int horizonDays,
+                            @Value("${ilog.popular.decay-hours:12}") int decayHours,
+                            @Value("${ilog.popular.comment-weight:2}") double commentWeight) {
+        this.ilogRepository = ilogRepository;
+        this.likeCountBuffer = likeCountBuffer;
+        this.topK = Math.max(1, topK);
+        this.horizon = Duration.ofDays(Math.max(1, horizonDays));
+        this.decaySeconds = Duration.ofHours(Math.max(1, decayHours)).toSeconds();
+        this.commentWeight = commentWeight;
+        // 비공개 일기는 인기 피드에 나오지 않습니다.
+        tops.put(ILog.Visibility.PUBLIC, new TreeSet<>(BY_SCORE_DESC));
+        tops.put(ILog.Visibility.FRIENDS_ONLY, new TreeSet<>(BY_SCORE_DESC));
+    }
+
+    /** 조회용 불변 스냅숏 (공개 범위별 상위 목록을 점수순으로 복사) */
+    private record Snapshot(Entry[] publics, Entry[] friendsOnly) {}
+
+    private record Entry(Long ilogId, Long authorId, double score) {}
+
+    private static final Comparator<Entry> ENTRY_BY_SCORE_DESC = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::ilogId, Comparator.reverseOrder());
+
+    /** 순위에 올라 있는 일기 정보 (this 잠금 아래에서만 변경) */
+    private static final class Ranked {
+        private final Long ilogId;
+        private final Long authorId;
+        private final LocalDateTime createdAt;
+        private ILog.Visibility visibility;
+        private long likeCount;
+        private long commentCount;
+        private double score;
+
+        private Ranked(Long ilogId, Long authorId, ILog.Visibility visibility, long likeCount, long commentCount, LocalDateTime createdAt) {
+            this.ilogId = ilogId;
+            this.authorId = authorId;
+            this.visibility = visibility;
+            this.likeCount = likeCount;
+            this.commentCount = commentCount;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * 인기순으로 offset부터 limit개의 일기 ID를 반환합니다.
+     * 전체 공개 상위 목록과 친구 공개 상위 목록을 점수순으로 병합하면서, 볼 수 없는 작성자의 친구 공개 일기는 건너뜁니다.
+     * @param canSeeFriendsOnly 친구 공개 일기의 작성자 ID를 받아 열람 가능 여부를 판단 (본인/서로 팔로우)
+     */
+    public List<Long> topIds(Predicate<Long> canSeeFriendsOnly, int offset, int limit) {
+        ensureLoaded();
+        Snapshot current = snapshot();
+        Iterator<Entry> publics = Arrays.asList(current.publics()).iterator();
+        Iterator<Entry> friendsOnly = Arrays.stream(current.friendsOnly())
+                .filter(r -> canSeeFriendsOnly.test(r.authorId()))
+                .iterator();
+
+        List<Long> result = new ArrayList<>(limit);
+        Entry nextPublic = publics.hasNext() ? publics.next() : null;
+        Entry nextFriends = friendsOnly.hasNext() ? friendsOnly.next() : null;
+        int skipped = 0;
+        while (result.size() < limit && (nextPublic != null || nextFriends != null)) {
+            Entry picked;
+            if (nextFriends == null || (nextPublic != null && ENTRY_BY_SCORE_DESC.compare(nextPublic, nextFriends) <= 0)) {
+                picked = nextPublic;
+                nextPublic = publics.hasNext() ? publics.next() : null;
+            } else {
+                picked = nextFriends;
+                nextFriends = friendsOnly.hasNext() ? friendsOnly.next() : null;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(picked.ilogId());
+            }
+        }
+        return result;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : publishSnapshot();
+    }
+
+    // 갱신 이후 첫 조회에서만 잠금을 잡고 복사합니다. (상위 목록 topK개 x 2)
+    private synchronized Snapshot publishSnapshot() {
+        if (snapshot == null) {
+            snapshot = new Snapshot(entries(ILog.Visibility.PUBLIC), entries(ILog.Visibility.FRIENDS_ONLY));
+        }
+        return snapshot;
+    }
+
+    private Entry[] entries(ILog.Visibility visibility) {
+        return tops.get(visibility).stream()
+                .map(r -> new Entry(r.ilogId, r.authorId, r.score))
+                .toArray(Entry[]::new);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onILogChanged(ILogChangedEvent e) {
+        // ✅ [수정] 적재 당시 비공개라 빠졌던 일기가 공개로 바뀌면, 그동안 쌓인 좋아요/댓글 수를 DB에서 읽어 추적을 시작합니다.
+        // (DB 조회는 this 잠금 밖에서)
+        if (e.getType() == ILogChangedEvent.Type.UPDATED && e.getVisibility() != ILog.Visibility.PRIVATE
+                && isUntrackedWithinHorizon(e.getIlogId(), e.getCreatedAt())) {
+            ilogRepository.findPopularityCandidate(e.getIlogId()).ifPresent(this::trackCandidate);
+        }
+        apply(e);
+    }
+
+    private synchronized boolean isUntrackedWithinHorizon(Long ilogId, LocalDateTime createdAt) {
+        // 적재 전이면 적재할 때 함께 읽히므로 따로 조회하지 않습니다.
+        return loaded && !tracked.containsKey(ilogId)
+                && createdAt != null && !createdAt.isBefore(LocalDateTime.now().minus(horizon));
+    }
+
+    private synchronized void trackCandidate(PopularityCandidate c) {
+        track(c);
+        snapshot = null;
+    }
+
+    private synchronized void apply(ILogChangedEvent e) {
+        if (deferIfLoading(() -> apply(e))) {
+            return;
+        }
+        switch (e.getType()) {
+            case CREATED -> track(new Ranked(e.getIlogId(), e.getAuthorId(), e.getVisibility(), 0, 0, e.getCreatedAt()));
+            case UPDATED -> {
+                Ranked ranked = tracked.get(e.getIlogId());
+                if (ranked != null && ranked.visibility != e.getVisibility()) {
+                    untop(ranked);
+                    ranked.visibility = e.getVisibility();
+                    offer(ranked);
+                    refill();
+                }
+            }
+            case DELETED -> {
+                Ranked ranked = tracked.remove(e.getIlogId());
+                if (ranked != null) {
+                    untop(ranked);
+                    refill();
+                }
+            }
+        }
+        snapshot = null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void onLikeChanged(LikeChangedEvent e) {
+        if (!deferIfLoading(() -> onLikeChanged(e))) {
+            adjust(e.getIlogId(), e.delta(), 0);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void onCommentChanged(CommentChangedEvent e) {
+        if (!deferIfLoading(() -> onCommentChanged(e))) {
+            adjust(e.getIlogId(), 0, e.getDelta());
+        }
+    }
+
+    /**
+     * 아직 적재 전이면 true. 적재 중이면 변경을 모아 두었다가 적재가 끝난 뒤 다시 적용하고,
+     * 적재를 시작하기 전이면 버립니다. (적재할 때 테이블에서 함께 읽힘)
+     */
+    private boolean deferIfLoading(Runnable change) {
+        if (loaded) {
+            return false;
+        }
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        return true;
+    }
+
+    /** 집계 기간이 지난 일기를 정리합니다. */
+    @Scheduled(fixedDelayString = "${ilog.popular.prune-interval-ms:600000}")
+    public synchronized void pruneExpired() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        tracked.values().removeIf(ranked -> {
+            if (ranked.createdAt.isBefore(cutoff)) {
+                untop(ranked);
+                return true;
+            }
+            return false;
+        });
+        // 빠진 자리를 다음 순위로 채우고, 좋아요 취소로 점수가 내려간 채 남아 있던 일기도 여기서 밀려납니다.
+        refill();
+        snapshot = null;
+    }
+
+    // ✅ [수정] DB 조회는 this 잠금 밖에서 합니다. 그동안 들어온 변경은 pendingChanges에 모였다가 적재 후 적용됩니다.
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            LocalDateTime since = LocalDateTime.now().minus(horizon);
+            List<PopularityCandidate> candidates;
+            try {
+                candidates = ilogRepository.findPopularityCandidatesSince(since, ILog.Visibility.PRIVATE);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                candidates.forEach(this::track);
+                loaded = true;
+                List<Runnable> replay = pendingChanges;
+                pendingChanges = null;
+                replay.forEach(Runnable::run);
+                snapshot = null;
+            }
+            log.info("[PopularityRanker] Loaded {} diaries since {}", candidates.size(), since);
+        }
+    }
+
+    private void adjust(Long ilogId, int likeDelta, int commentDelta) {
+        Ranked ranked = tracked.get(ilogId);
+        if (ranked == null) {
+            return; // 집계 기간이 지난 일기
+        }
+        snapshot = null;
+        // TreeSet 안의 원소는 점수를 바꾸기 전에 빼야 합니다.
+        TreeSet<Ranked> top = tops.get(ranked.visibility);
+        boolean wasTop = top != null && top.remove(ranked);
+        ranked.likeCount = Math.max(0, ranked.likeCount + likeDelta);
+        ranked.commentCount = Math.max(0, ranked.commentCount + commentDelta);
+        ranked.score = score(ranked.likeCount, ranked.commentCount, ranked.createdAt);
+        if (wasTop) {
+            // 원래 자리로 다시 넣습니다. 좋아요 취소로 점수가 내려가 목록 밖 일기보다 낮아질 수 있지만,
+            // 매번 전체를 훑지 않도록 다음 정리(pruneExpired) 때 바로잡습니다.
+            top.add(ranked);
+        } else {
+            offer(ranked);
+        }
+    }
+
+    private void track(PopularityCandidate c) {
+        // DB의 like_count는 쓰기 지연 버퍼만큼 늦을 수 있으므로 아직 반영되지 않은 값을 더합니다.
+        long likeCount = c.likeCount() + likeCountBuffer.pendingDelta(c.ilogId());
+        track(new Ranked(c.ilogId(), c.authorId(), c.visibility(), likeCount, c.commentCount(), c.createdAt()));
+    }
+
+    private void track(Ranked ranked) {
+        if (ranked.createdAt == null || tracked.containsKey(ranked.ilogId)) {
+            return;
+        }
+        ranked.score = score(ranked.likeCount, ranked.commentCount, ranked.createdAt);
+        tracked.put(ranked.ilogId, ranked);
+        offer(ranked);
+    }
+
+    // 상위 topK 안에 들면 해당 공개 범위의 목록에 넣습니다. (목록에 없는 일기만)
+    private void offer(Ranked ranked) {
+        TreeSet<Ranked> top = tops.get(ranked.visibility);
+        if (top == null) {
+            return; // 비공개
+        }
+        if (top.size() < topK) {
+            top.add(ranked);
+        } else if (BY_SCORE_DESC.compare(ranked, top.last()) < 0) {
+            top.add(ranked);
+            top.pollLast();
+        }
+    }
+
+    private void untop(Ranked ranked) {
+        TreeSet<Ranked> top = tops.get(ranked.visibility);
+        if (top != null) {
+            top.remove(ranked);
+        }
+    }
+
+    // 집계 중인 일기 전체와 비교해 상위 목록을 다시 맞춥니다. (삭제/정리 때만 호출되는 전체 순회)
+    private void refill() {
+        for (Map.Entry<ILog.Visibility, TreeSet<Ranked>> entry : tops.entrySet()) {
+            TreeSet<Ranked> top = entry.getValue();
+            for (Ranked ranked : tracked.values()) {
+                if (ranked.visibility == entry.getKey() && !top.contains(ranked)) {
+                    if (top.size() < topK) {
+                        top.add(ranked);
+                    } else if (BY_SCORE_DESC.compare(ranked, top.last()) < 0) {
+                        top.add(ranked);
+                        top.pollLast();
+                    }
+                }
+            }
+        }
+    }
+
+    private double score(long likeCount, long commentCount, LocalDateTime createdAt) {
+        double engagement = Math.max(1.0, likeCount + commentWeight * commentCount);
+        long createdAtSeconds = createdAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        return Math.log10(engagement) + createdAtSeconds / decaySeconds;
+    }
+}
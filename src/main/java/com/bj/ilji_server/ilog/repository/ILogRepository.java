@@ -2,7 +2,11 @@ package com.bj.ilji_server.ilog.repository;
 
 import com.bj.ilji_server.ilog.dto.ILogFeedResponseDto;
 import com.bj.ilji_server.ilog.dto.ILogResponse;
+import com.bj.ilji_server.ilog.dto.LikedILogRow;
 import com.bj.ilji_server.ilog.entity.ILog;
+import com.bj.ilji_server.ilog.ranking.PopularityCandidate;
+import com.bj.ilji_server.ilog.search.SearchDocument;
+import com.bj.ilji_server.ilog.timeline.FeedEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
@@ -10,11 +14,28 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ILogRepository extends JpaRepository<ILog, Long>  {
 
+    /**
+     * ✅ [신규] 피드 DTO 스칼라 프로젝션. 엔티티(ILog/UserProfile)를 만들지 않고 필요한 컬럼만 DTO 생성자로 넘깁니다.
+     * FROM 절에서 "ILog i JOIN i.userProfile p" 별칭을 사용해야 합니다. (isLiked는 서비스에서 LikeStateResolver로 일괄 계산)
+     */
+    String FEED_DTO_PROJECTION = "SELECT new com.bj.ilji_server.ilog.dto.ILogFeedResponseDto(" +
+            "   i.id, p.userId, p.nickname, p.profileImage, i.content, i.imgUrl, i.friendTags, i.tags, " +
+            "   i.likeCount, i.commentCount, i.visibility, i.logDate, i.createdAt" +
+            ") ";
+
+    /** ✅ [신규] 마이페이지 DTO 스칼라 프로젝션 (FEED_DTO_PROJECTION과 같은 컬럼) */
+    String MY_LOG_DTO_PROJECTION = "SELECT new com.bj.ilji_server.ilog.dto.ILogResponse(" +
+            "   i.id, p.userId, p.nickname, p.profileImage, i.content, i.imgUrl, i.friendTags, i.tags, " +
+            "   i.likeCount, i.commentCount, i.visibility, i.logDate, i.createdAt" +
+            ") ";
+
     /**
      * 특정 사용자의 일기 중, 주어진 기간에 해당하는 모든 일기를 조회합니다.
      * JOIN FETCH를 사용하여 연관된 UserProfile을 함께 조회하여 N+1 문제를 방지합니다.
@@ -45,32 +66,22 @@ public interface ILogRepository extends JpaRepository<ILog, Long>  {
     // ---------------------------------------------------
     // 🆕 마이페이지용 일기 목록 조회 (N+1 문제 해결)
     // ---------------------------------------------------
-    @Query(value = "SELECT new com.bj.ilji_server.ilog.dto.ILogResponse(" +
-            "   i, " +
-            "   null, " + // 베스트 댓글 조회 로직 제거
-            "   EXISTS (SELECT 1 FROM Likes l WHERE l.iLog = i AND l.userProfile.userId = :currentUserId)" +
-            ") " +
-            "FROM ILog i JOIN FETCH i.userProfile " +
+    @Query(value = MY_LOG_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p " +
             "WHERE i.userProfile.userId = :targetUserId AND i.visibility = :visibility",
             countQuery = "SELECT count(i) FROM ILog i WHERE i.userProfile.userId = :targetUserId AND i.visibility = :visibility")
     Page<ILogResponse> findAsDtoByUserProfileUserIdAndVisibility(
             @Param("targetUserId") Long targetUserId,
             @Param("visibility") ILog.Visibility visibility,
-            @Param("currentUserId") Long currentUserId,
             Pageable pageable
     );
 
-    @Query(value = "SELECT new com.bj.ilji_server.ilog.dto.ILogResponse(" +
-            "   i, " +
-            "   null, " + // 베스트 댓글 조회 로직 제거
-            "   EXISTS (SELECT 1 FROM Likes l WHERE l.iLog = i AND l.userProfile.userId = :currentUserId)" +
-            ") " +
-            "FROM ILog i JOIN FETCH i.userProfile " +
+    @Query(value = MY_LOG_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p " +
             "WHERE i.userProfile.userId = :targetUserId",
             countQuery = "SELECT count(i) FROM ILog i WHERE i.userProfile.userId = :targetUserId")
     Page<ILogResponse> findAllAsDtoByUserProfileUserId(
             @Param("targetUserId") Long targetUserId,
-            @Param("currentUserId") Long currentUserId,
             Pageable pageable
     );
 
@@ -78,12 +89,8 @@ public interface ILogRepository extends JpaRepository<ILog, Long>  {
     // 🆕 PostList 일기 목록 조회
     // ---------------------------------------------------
     // ✅ [개선] N+1 문제 해결을 위해 DTO로 직접 조회하도록 변경
-    @Query(value = "SELECT new com.bj.ilji_server.ilog.dto.ILogFeedResponseDto(" +
-            "   i, " +
-            "   null, " + // 베스트 댓글 조회 로직 제거
-            "   EXISTS (SELECT 1 FROM Likes l WHERE l.iLog = i AND l.userProfile.userId = :currentUserProfileId)" +
-            ") " +
-            "FROM ILog i JOIN FETCH i.userProfile " +
+    @Query(value = FEED_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p " +
             "WHERE i.userProfile.userId = :currentUserProfileId " + // 1. 내 글
             "OR (i.userProfile.userId IN :followingProfileIds AND i.visibility = :publicVisibility) " + // 2. 내가 팔로우하는 사람의 전체 공개 글
             "OR (i.userProfile.userId IN :friendProfileIds AND i.visibility = :friendsVisibility)", // 3. 서로 팔로우하는 사람의 친구 공개 글
@@ -99,38 +106,173 @@ public interface ILogRepository extends JpaRepository<ILog, Long>  {
             @Param("friendsVisibility") ILog.Visibility friendsVisibility,
             Pageable pageable);
 
+    // ---------------------------------------------------
+    // 🆕 피드 타임라인 적재/조회용
+    // ---------------------------------------------------
+    /**
+     * 피드 타임라인을 처음 적재할 때 사용합니다. findCustomFeedForUser와 같은 조건이지만
+     * 엔티티 대신 정렬/가지치기에 필요한 컬럼만 조회하고, count 쿼리를 실행하지 않습니다.
+     */
+    @Query("SELECT new com.bj.ilji_server.ilog.timeline.FeedEntry(i.id, i.userProfile.userId, i.visibility, i.createdAt) " +
+            "FROM ILog i " +
+            "WHERE i.userProfile.userId = :currentUserProfileId " +
+            "OR (i.userProfile.userId IN :followingProfileIds AND i.visibility = :publicVisibility) " +
+            "OR (i.userProfile.userId IN :friendProfileIds AND i.visibility = :friendsVisibility) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<FeedEntry> findFeedEntriesForUser(
+            @Param("currentUserProfileId") Long currentUserProfileId,
+            @Param("followingProfileIds") List<Long> followingProfileIds,
+            @Param("friendProfileIds") List<Long> friendProfileIds,
+            @Param("publicVisibility") ILog.Visibility publicVisibility,
+            @Param("friendsVisibility") ILog.Visibility friendsVisibility,
+            Pageable pageable);
+
+    /**
+     * ✅ [신규] 타임라인이 보관 용량(capacity)에 걸려 잘린 사용자의 피드 전체 건수.
+     * findCustomFeedForUser의 countQuery와 같은 조건입니다.
+     */
+    @Query("SELECT count(i) FROM ILog i " +
+            "WHERE i.userProfile.userId = :currentUserProfileId OR " +
+            "(i.userProfile.userId IN :followingProfileIds AND i.visibility = :publicVisibility) " +
+            "OR (i.userProfile.userId IN :friendProfileIds AND i.visibility = :friendsVisibility)")
+    long countFeedForUser(
+            @Param("currentUserProfileId") Long currentUserProfileId,
+            @Param("followingProfileIds") List<Long> followingProfileIds,
+            @Param("friendProfileIds") List<Long> friendProfileIds,
+            @Param("publicVisibility") ILog.Visibility publicVisibility,
+            @Param("friendsVisibility") ILog.Visibility friendsVisibility);
+
+    /**
+     * 팔로우 직후 타임라인을 채워 넣을 때 사용합니다. 특정 작성자의 최근 글 중 주어진 공개 범위만 조회합니다.
+     */
+    @Query("SELECT new com.bj.ilji_server.ilog.timeline.FeedEntry(i.id, i.userProfile.userId, i.visibility, i.createdAt) " +
+            "FROM ILog i " +
+            "WHERE i.userProfile.userId = :authorId AND i.visibility IN :visibilities " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<FeedEntry> findFeedEntriesByAuthor(
+            @Param("authorId") Long authorId,
+            @Param("visibilities") Collection<ILog.Visibility> visibilities,
+            Pageable pageable);
+
+    /**
+     * 타임라인에서 잘라낸 ID 목록으로 피드 DTO를 조회합니다. (정렬은 호출 측에서 ID 순서대로 맞춥니다)
+     */
+    @Query(FEED_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p " +
+            "WHERE i.id IN :ids")
+    List<ILogFeedResponseDto> findFeedDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * ✅ [신규] 검색 색인 생성용 - ID 순으로 배치 조회합니다. (afterId 이후부터, PK 범위 조회)
+     */
+    @Query("SELECT new com.bj.ilji_server.ilog.search.SearchDocument(i.id, i.userProfile.userId, i.visibility, i.content, i.tags) " +
+            "FROM ILog i " +
+            "WHERE i.id > :afterId " +
+            "ORDER BY i.id ASC")
+    List<SearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * ✅ [신규] 인기 순위 엔진을 채우기 위한 최근 일기 목록 (점수 계산에 필요한 컬럼만)
+     */
+    @Query("SELECT new com.bj.ilji_server.ilog.ranking.PopularityCandidate(" +
+            "   i.id, i.userProfile.userId, i.visibility, i.likeCount, i.commentCount, i.createdAt) " +
+            "FROM ILog i " +
+            "WHERE i.createdAt >= :since AND i.visibility <> :excludedVisibility")
+    List<PopularityCandidate> findPopularityCandidatesSince(
+            @Param("since") LocalDateTime since,
+            @Param("excludedVisibility") ILog.Visibility excludedVisibility);
+
+    // ✅ [신규] 적재 이후 비공개에서 공개로 바뀐 일기를 순위 엔진에 추가할 때 사용
+    @Query("SELECT new com.bj.ilji_server.ilog.ranking.PopularityCandidate(" +
+            "   i.id, i.userProfile.userId, i.visibility, i.likeCount, i.commentCount, i.createdAt) " +
+            "FROM ILog i " +
+            "WHERE i.id = :ilogId")
+    Optional<PopularityCandidate> findPopularityCandidate(@Param("ilogId") Long ilogId);
+
     // ---------------------------------------------------
     // 🆕 [추가] 특정 사용자가 '좋아요' 누른 일기 목록 조회 (N+1 문제 해결)
     // ---------------------------------------------------
-    @Query(value = "SELECT new com.bj.ilji_server.ilog.dto.ILogFeedResponseDto(" +
-            "   i, " +
-            "   null, " + // 베스트 댓글 조회 로직 제거
-            "   EXISTS (SELECT 1 FROM Likes l_check WHERE l_check.iLog = i AND l_check.userProfile.userId = :currentUserId)" +
-            ") " +
-            "FROM ILog i JOIN i.likes l " +
+    // ✅ [개선] 엔티티 대신 DTO 스칼라 프로젝션으로 조회 (isLiked는 서비스에서 LikeStateResolver로 일괄 계산)
+    @Query(value = FEED_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p JOIN i.likes l " +
             "WHERE l.userProfile.userId = :targetUserId",
             countQuery = "SELECT count(i) FROM ILog i JOIN i.likes l " +
                     "WHERE l.userProfile.userId = :targetUserId")
     Page<ILogFeedResponseDto> findLikedILogsAsDtoByUser(
             @Param("targetUserId") Long targetUserId,
-            @Param("currentUserId") Long currentUserId,
             Pageable pageable);
 
     // ---------------------------------------------------
     // 🆕 [추가] 특정 사용자가 '좋아요' 누른 일기 목록 조회 ('좋아요 누른 순' 정렬, N+1 문제 해결)
     // ---------------------------------------------------
-    @Query(value = "SELECT new com.bj.ilji_server.ilog.dto.ILogFeedResponseDto(" +
-            "   i, " +
-            "   null, " + // 베스트 댓글 조회 로직 제거
-            "   EXISTS (SELECT 1 FROM Likes l_check WHERE l_check.iLog = i AND l_check.userProfile.userId = :currentUserId)" +
-            ") " +
-            "FROM ILog i JOIN i.likes l " +
+    @Query(value = FEED_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p JOIN i.likes l " +
             "WHERE l.userProfile.userId = :targetUserId ORDER BY l.createdAt DESC",
             countQuery = "SELECT count(i) FROM ILog i JOIN i.likes l " +
                     "WHERE l.userProfile.userId = :targetUserId")
     Page<ILogFeedResponseDto> findLikedILogsAsDtoByUserOrderByLikedAt(
             @Param("targetUserId") Long targetUserId,
-            @Param("currentUserId") Long currentUserId,
+            Pageable pageable);
+
+    // ---------------------------------------------------
+    // 🆕 커서(keyset) 기반 조회 - count 쿼리와 OFFSET 없이 (정렬 시각, ID) 이후의 항목만 조회
+    // 모든 메서드는 다음 페이지 존재 여부 판단을 위해 PageRequest.of(0, size + 1)로 호출합니다.
+    // ---------------------------------------------------
+    @Query(FEED_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p " +
+            "WHERE (i.userProfile.userId = :currentUserProfileId " +
+            "   OR (i.userProfile.userId IN :followingProfileIds AND i.visibility = :publicVisibility) " +
+            "   OR (i.userProfile.userId IN :friendProfileIds AND i.visibility = :friendsVisibility)) " +
+            "AND (i.createdAt < :cursorAt OR (i.createdAt = :cursorAt AND i.id < :cursorId)) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<ILogFeedResponseDto> findFeedForUserAfterCursor(
+            @Param("currentUserProfileId") Long currentUserProfileId,
+            @Param("followingProfileIds") List<Long> followingProfileIds,
+            @Param("friendProfileIds") List<Long> friendProfileIds,
+            @Param("publicVisibility") ILog.Visibility publicVisibility,
+            @Param("friendsVisibility") ILog.Visibility friendsVisibility,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @Query(MY_LOG_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p " +
+            "WHERE i.userProfile.userId = :targetUserId AND i.visibility IN :visibilities " +
+            "AND (i.createdAt < :cursorAt OR (i.createdAt = :cursorAt AND i.id < :cursorId)) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<ILogResponse> findByUserProfileUserIdAfterCursor(
+            @Param("targetUserId") Long targetUserId,
+            @Param("visibilities") Collection<ILog.Visibility> visibilities,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // '좋아요 누른 순' - 커서는 (좋아요 시각, 좋아요 ID)
+    @Query("SELECT new com.bj.ilji_server.ilog.dto.LikedILogRow(" +
+            "   i.id, p.userId, p.nickname, p.profileImage, i.content, i.imgUrl, i.friendTags, i.tags, " +
+            "   i.likeCount, i.commentCount, i.visibility, i.logDate, i.createdAt, " +
+            "   l.createdAt, l.id" +
+            ") " +
+            "FROM Likes l JOIN l.iLog i JOIN i.userProfile p " +
+            "WHERE l.userProfile.userId = :targetUserId " +
+            "AND (l.createdAt < :cursorAt OR (l.createdAt = :cursorAt AND l.id < :cursorId)) " +
+            "ORDER BY l.createdAt DESC, l.id DESC")
+    List<LikedILogRow> findLikedILogsOrderByLikedAtAfterCursor(
+            @Param("targetUserId") Long targetUserId,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // '일기 작성 순' - 커서는 (일기 작성 시각, 일기 ID)
+    @Query(FEED_DTO_PROJECTION +
+            "FROM ILog i JOIN i.userProfile p JOIN i.likes l " +
+            "WHERE l.userProfile.userId = :targetUserId " +
+            "AND (i.createdAt < :cursorAt OR (i.createdAt = :cursorAt AND i.id < :cursorId)) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<ILogFeedResponseDto> findLikedILogsOrderByCreatedAtAfterCursor(
+            @Param("targetUserId") Long targetUserId,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
             Pageable pageable);
 
     // ---------------------------------------------------
@@ -142,4 +284,8 @@ public interface ILogRepository extends JpaRepository<ILog, Long>  {
 
     // ✅ [신규] shareId로 ILog 엔티티를 찾는 메서드
     Optional<ILog> findByShareId(String shareId);
+
+    /** ✅ [신규] 작성자 ID만 조회합니다. (수정 전 이미지 업로드에 앞서 권한을 싸게 확인하기 위함) */
+    @Query("SELECT i.userProfile.userId FROM ILog i WHERE i.id = :id")
+    Optional<Long> findWriterIdById(@Param("id") Long id);
 }
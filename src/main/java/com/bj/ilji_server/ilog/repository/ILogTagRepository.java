@@ -0,0 +1,50 @@
+package com.bj.ilji_server.ilog.repository;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+import com.bj.ilji_server.ilog.entity.ILogTag;
+import com.bj.ilji_server.ilog.hashtag.HashtagOccurrence;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ILogTagRepository extends JpaRepository<ILogTag, Long> {
+
+    /**
+     * 태그가 달린 일기 ID를 최신(ID 역순)부터 조회합니다. (ix_ilog_tag_tag_ilog 인덱스 범위 조회)
+     * 공개 범위는 피드와 같습니다: 내 일기는 전부, 다른 사람은 '전체 공개'와 서로 팔로우인 친구의 '친구 공개'.
+     */
+    @Query("SELECT i.id FROM ILogTag t JOIN t.iLog i " +
+            "WHERE t.tag = :tag " +
+            "AND i.id < :beforeId " +
+            "AND (i.visibility = :publicVisibility " +
+            "     OR i.userProfile.userId = :viewerId " +
+            "     OR (i.visibility = :friendsVisibility AND i.userProfile.userId IN :friendIds)) " +
+            "ORDER BY i.id DESC")
+    List<Long> findVisibleIlogIdsByTagBefore(
+            @Param("tag") String tag,
+            @Param("beforeId") Long beforeId,
+            @Param("viewerId") Long viewerId,
+            @Param("friendIds") Collection<Long> friendIds,
+            @Param("publicVisibility") ILog.Visibility publicVisibility,
+            @Param("friendsVisibility") ILog.Visibility friendsVisibility,
+            Pageable pageable);
+
+    /** 트렌딩 집계를 채우기 위한 최근 태그 사용 기록 */
+    @Query("SELECT new com.bj.ilji_server.ilog.hashtag.HashtagOccurrence(t.tag, t.createdAt) " +
+            "FROM ILogTag t JOIN t.iLog i " +
+            "WHERE t.createdAt >= :since AND i.visibility = :visibility")
+    List<HashtagOccurrence> findOccurrencesSince(
+            @Param("since") LocalDateTime since,
+            @Param("visibility") ILog.Visibility visibility);
+
+    /** 일기 삭제 시 매핑을 한 번에 지웁니다. (엔티티를 읽지 않는 벌크 삭제) */
+    @Modifying
+    @Query("DELETE FROM ILogTag t WHERE t.iLog.id = :ilogId")
+    int deleteByIlogId(@Param("ilogId") Long ilogId);
+}
@@ -0,0 +1,261 @@
+package com.bj.ilji_server.ilog.search;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+import com.bj.ilji_server.ilog.event.ILogChangedEvent;
+import com.bj.ilji_server.ilog.event.RemoteILogChangedEvent;
+import com.bj.ilji_server.ilog.repository.ILogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 일기 본문(content)과 태그(tags)에 대한 메모리 역색인 (n-gram 토큰 → 일기 ID 목록).
+ * - 첫 검색 시(또는 rebuild 호출 시) i_log 테이블에서 배치로 읽어 색인을 만듭니다.
+ * - 이후에는 일기 생성/수정/삭제 커밋 이벤트로 증분 갱신합니다.
+ * - ✅ [개선] 다른 노드에서 커밋된 변경도 RemoteILogChangedEvent(ILogChangeRelay)로 받아 같은 방식으로 반영합니다.
+ * - 재색인 도중 들어온 변경은 모아 두었다가 새 색인에 다시 적용한 뒤 교체하므로 유실되지 않습니다.
+ */
+@Slf4j
+@Component
+public class ILogSearchIndex {
+
+    private final ILogRepository ilogRepository;
+    private final int buildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index;                           // 아직 만들어지지 않았으면 null (lock으로 보호)
+    private List<Consumer<Index>> pendingChanges;  // 재색인 중에만 null이 아님 (lock으로 보호)
+
+    public ILogSearchIndex(ILogRepository ilogRepository,
+                           @Value("${ilog.search.build-batch-size:1000}") int buildBatchSize) {
+        this.ilogRepository = ilogRepository;
+        this.buildBatchSize = Math.max(1, buildBatchSize);
+    }
+
+    /** 색인에 저장되는 일기 정보. text는 정규화된 "본문 + 태그"로, 삭제 시 토큰 재계산과 검색 결과 확인에 사용합니다. */
+    public record IndexedDoc(Long ilogId, Long authorId, ILog.Visibility visibility, String text) {}
+
+    /**
+     * 모든 검색어 단어를 포함하는 일기 ID를 최신(ID 역순)부터 limit개까지 반환합니다.
+     * ✅ [수정] visible은 DB를 조회할 수 있으므로 색인 잠금을 푼 뒤에 평가합니다.
+     * (잠금 안에서는 색인만 읽어 후보를 limit개씩 모으고, 공개 범위에서 걸러져 모자라면 다음 후보를 이어서 모읍니다)
+     * @param words    정규화된 검색어 단어 목록 (AND 조건)
+     * @param visible  열람 가능 여부 판단 (공개 범위 규칙)
+     * @param beforeId 이 ID보다 작은 일기만 (커서)
+     */
+    public List<Long> search(List<String> words, Predicate<IndexedDoc> visible, long beforeId, int limit) {
+        ensureBuilt();
+
+        Set<String> tokens = queryTokens(words);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> result = new ArrayList<>(limit);
+        long cursor = beforeId;
+        while (result.size() < limit) {
+            List<IndexedDoc> candidates = candidates(tokens, words, cursor, limit);
+            for (IndexedDoc doc : candidates) {
+                if (result.size() >= limit) break;
+                if (visible.test(doc)) {
+                    result.add(doc.ilogId());
+                }
+            }
+            if (candidates.size() < limit) {
+                break; // 더 이상 후보가 없음
+            }
+            cursor = candidates.get(candidates.size() - 1).ilogId();
+        }
+        return result;
+    }
+
+    /**
+     * 검색어 토큰. 두 글자 이상인 단어가 있으면 그 단어들의 bigram만 쓰고, 한 글자 단어는 원문 확인으로만 거릅니다.
+     * 모든 단어가 한 글자면 한 글자 단어 토큰으로 찾습니다. (NgramTokenizer 참고)
+     */
+    private static Set<String> queryTokens(List<String> words) {
+        boolean hasLongWord = words.stream().anyMatch(word -> !NgramTokenizer.isSingleCharacter(word));
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String word : words) {
+            if (!hasLongWord || !NgramTokenizer.isSingleCharacter(word)) {
+                tokens.addAll(NgramTokenizer.queryTokens(word));
+            }
+        }
+        return tokens;
+    }
+
+    // 읽기 잠금 안에서 색인만 보고 beforeId 이전의 후보를 최대 limit개 모읍니다.
+    private List<IndexedDoc> candidates(Set<String> tokens, List<String> words, long beforeId, int limit) {
+        lock.readLock().lock();
+        try {
+            // 1. 토큰별 posting 목록을 모읍니다. 하나라도 없으면 결과 없음.
+            List<LongPostingList> postings = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                LongPostingList posting = index.postings.get(token);
+                if (posting == null) {
+                    return List.of();
+                }
+                postings.add(posting);
+            }
+            // 2. 가장 짧은 목록을 기준으로 순회하며 나머지 목록에 모두 있는지 확인합니다.
+            postings.sort(Comparator.comparingInt(LongPostingList::size));
+            LongPostingList smallest = postings.get(0);
+            List<LongPostingList> others = postings.subList(1, postings.size());
+
+            List<IndexedDoc> result = new ArrayList<>(limit);
+            for (int i = smallest.lastIndexBefore(beforeId); i >= 0 && result.size() < limit; i--) {
+                long ilogId = smallest.get(i);
+                if (!others.stream().allMatch(posting -> posting.contains(ilogId))) continue;
+
+                IndexedDoc doc = index.docs.get(ilogId);
+                // 3. bigram이 모두 있어도 단어가 연속으로 나오지 않을 수 있으므로 원문으로 확인합니다.
+                if (doc != null && words.stream().allMatch(doc.text()::contains)) {
+                    result.add(doc);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onILogChanged(ILogChangedEvent e) {
+        Consumer<Index> change = switch (e.getType()) {
+            case DELETED -> idx -> idx.remove(e.getIlogId());
+            case CREATED, UPDATED -> idx -> idx.put(new IndexedDoc(
+                    e.getIlogId(), e.getAuthorId(), e.getVisibility(), searchableText(e.getContent(), e.getTags())));
+        };
+
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onRemoteILogChanged(RemoteILogChangedEvent e) {
+        onILogChanged(e.getEvent());
+    }
+
+    /** 첫 검색 전에 색인이 없으면 만듭니다. */
+    public void ensureBuilt() {
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        rebuild();
+    }
+
+    /**
+     * i_log 테이블 전체를 다시 읽어 색인을 새로 만들고 교체합니다.
+     * 재색인 중에도 기존 색인으로 검색할 수 있습니다.
+     * ✅ [수정] 외부 API로 열지 않고, 매일 새벽(rebuild-cron)에 한 번 다시 만들어 어긋난 색인을 바로잡습니다.
+     */
+    @Scheduled(cron = "${ilog.search.rebuild-cron:0 0 5 * * *}", zone = "Asia/Seoul")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh = new Index();
+        long afterId = 0L;
+        int indexed = 0;
+        try {
+            while (true) {
+                List<SearchDocument> batch = ilogRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, buildBatchSize));
+                for (SearchDocument document : batch) {
+                    fresh.put(new IndexedDoc(document.ilogId(), document.authorId(), document.visibility(),
+                            searchableText(document.content(), document.tags())));
+                }
+                indexed += batch.size();
+                if (batch.size() < buildBatchSize) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).ilogId();
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("[ILogSearchIndex] Indexed {} diaries ({} tokens)", indexed, fresh.postings.size());
+    }
+
+    private static String searchableText(String content, String tags) {
+        return NgramTokenizer.normalize((content == null ? "" : content) + " " + (tags == null ? "" : tags));
+    }
+
+    /** 역색인 본체. 외부 잠금(lock) 아래에서만 접근합니다. */
+    private static final class Index {
+        private final Map<String, LongPostingList> postings = new HashMap<>();
+        private final Map<Long, IndexedDoc> docs = new HashMap<>();
+
+        void put(IndexedDoc doc) {
+            remove(doc.ilogId()); // 수정이면 이전 토큰부터 정리
+            docs.put(doc.ilogId(), doc);
+            for (String token : NgramTokenizer.indexTokens(doc.text())) {
+                postings.computeIfAbsent(token, t -> new LongPostingList()).add(doc.ilogId());
+            }
+        }
+
+        void remove(Long ilogId) {
+            IndexedDoc previous = docs.remove(ilogId);
+            if (previous == null) {
+                return;
+            }
+            for (String token : NgramTokenizer.indexTokens(previous.text())) {
+                LongPostingList posting = postings.get(token);
+                if (posting != null) {
+                    posting.remove(ilogId);
+                    if (posting.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+}
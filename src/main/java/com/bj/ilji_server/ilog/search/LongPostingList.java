@@ -0,0 +1,75 @@
+package com.bj.ilji_server.ilog.search;
+
+import java.util.Arrays;
+
+/**
+ * 일기 ID를 박싱 없이 오름차순 long 배열로 보관하는 posting 목록.
+ * 토큰마다 TreeSet&lt;Long&gt;을 두면 원소마다 노드와 Long 객체가 생기므로, 정렬된 배열 하나로 줄입니다.
+ * 새 일기는 ID가 가장 크므로 대부분 끝에 붙고(상수 시간), 조회는 이진 탐색입니다.
+ * 스레드 안전하지 않으므로 호출 측(ILogSearchIndex의 잠금)에서 동기화해야 합니다.
+ */
+final class LongPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        // 많이 줄었으면 배열도 줄여 삭제가 많은 토큰이 메모리를 붙잡지 않게 합니다.
+        if (ids.length > INITIAL_CAPACITY && size < ids.length / 4) {
+            ids = Arrays.copyOf(ids, Math.max(INITIAL_CAPACITY, ids.length / 2));
+        }
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** beforeId보다 작은 ID 중 가장 큰 것의 위치 (없으면 -1). 여기서부터 거꾸로 읽으면 최신순입니다. */
+    int lastIndexBefore(long beforeId) {
+        int index = Arrays.binarySearch(ids, 0, size, beforeId);
+        return (index >= 0 ? index : -index - 1) - 1;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length << 1);
+        }
+    }
+}
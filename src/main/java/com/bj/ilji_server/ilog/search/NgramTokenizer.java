@@ -0,0 +1,83 @@
+package com.bj.ilji_server.ilog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 일기 검색용 토크나이저.
+ * 한국어는 띄어쓰기/조사 때문에 단어 단위로 자르면 "일기를"과 "일기"가 매칭되지 않으므로,
+ * 단어를 글자 2-gram(bigram)으로 잘라 색인합니다. ("오늘일기" → "오늘", "늘일", "일기")
+ * ✅ [개선] 글자 단위 1-gram은 posting이 가장 길고 많아 메모리를 크게 차지하므로 색인하지 않습니다.
+ * 한 글자 단어("밥")만 그 단어 자체를 토큰으로 색인하므로, 한 글자 검색어는 그 글자가 홀로 쓰인 일기만 찾습니다.
+ */
+public final class NgramTokenizer {
+
+    private static final int GRAM = 2;
+
+    private NgramTokenizer() {
+    }
+
+    /** 색인/검색 공통 정규화: 유니코드 정규화(NFKC) 후 소문자로 변환합니다. */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /** 문장을 단어로 나눕니다. 글자/숫자가 아닌 문자(공백, 문장부호, '#' 등)는 모두 구분자로 취급합니다. */
+    public static List<String> words(String text) {
+        String normalized = normalize(text);
+        List<String> words = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        normalized.codePoints().forEach(cp -> {
+            if (Character.isLetterOrDigit(cp)) {
+                current.appendCodePoint(cp);
+            } else if (current.length() > 0) {
+                words.add(current.toString());
+                current.setLength(0);
+            }
+        });
+        if (current.length() > 0) {
+            words.add(current.toString());
+        }
+        return words;
+    }
+
+    /** 색인할 토큰 (중복 제거). 단어마다 bigram을, 한 글자 단어는 그 단어 자체를 넣습니다. */
+    public static Set<String> indexTokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            tokens.addAll(queryTokens(word));
+        }
+        return tokens;
+    }
+
+    /**
+     * 검색어 한 단어의 토큰. 두 글자 이상이면 bigram, 한 글자면 그 단어 자체를 사용합니다.
+     * (bigram이 모두 포함되어도 단어가 연속으로 나타난다는 보장은 없으므로, 결과는 원문으로 한 번 더 확인해야 합니다)
+     */
+    public static Set<String> queryTokens(String word) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int[] codePoints = word.codePoints().toArray();
+        if (codePoints.length < GRAM) {
+            if (codePoints.length > 0) {
+                tokens.add(word);
+            }
+            return tokens;
+        }
+        for (int i = 0; i + GRAM <= codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, GRAM));
+        }
+        return tokens;
+    }
+
+    /** 한 글자 단어인지 여부 (bigram을 만들 수 없는 단어) */
+    public static boolean isSingleCharacter(String word) {
+        return word.codePointCount(0, word.length()) < GRAM;
+    }
+}
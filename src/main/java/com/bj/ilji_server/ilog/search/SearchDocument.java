@@ -0,0 +1,15 @@
+package com.bj.ilji_server.ilog.search;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+
+/**
+ * 검색 색인을 처음 만들 때 i_log에서 읽어 오는 최소 정보.
+ * JPQL 생성자 표현식으로 직접 조회되므로 필드 순서를 바꾸지 마세요.
+ */
+public record SearchDocument(
+        Long ilogId,
+        Long authorId,
+        ILog.Visibility visibility,
+        String content,
+        String tags
+) {}
@@ -1,38 +1,62 @@
 package com.bj.ilji_server.ilog.service;
 
 
-import com.bj.ilji_server.firebase.FirebaseService;
-import com.bj.ilji_server.friend.entity.Friend; // Import Friend entity
-import com.bj.ilji_server.friend.repository.FriendRepository;
+import com.bj.ilji_server.firebase.FirebaseImageTransfer;
+import com.bj.ilji_server.friend.graph.FollowGraph;
+import com.bj.ilji_server.ilog.dto.CursorSliceResponse;
+import com.bj.ilji_server.ilog.dto.IdCursor;
 import com.bj.ilji_server.ilog.dto.ILogCreateRequest;
 import com.bj.ilji_server.ilog.dto.ILogFeedResponseDto;
 import com.bj.ilji_server.ilog.dto.ILogUpdateRequest;
+import com.bj.ilji_server.ilog.dto.ImageUrls;
 import com.bj.ilji_server.ilog.dto.ILogResponse;
+import com.bj.ilji_server.ilog.dto.KeysetCursor;
+import com.bj.ilji_server.ilog.dto.LikedILogRow;
+import com.bj.ilji_server.ilog.dto.TrendingHashtagResponse;
 import com.bj.ilji_server.ilog.entity.ILog;
+import com.bj.ilji_server.ilog.entity.ILogTag;
+import com.bj.ilji_server.ilog.event.ILogChangedEvent;
+import com.bj.ilji_server.ilog.hashtag.HashtagParser;
+import com.bj.ilji_server.ilog.hashtag.TrendingHashtagService;
+import com.bj.ilji_server.ilog.ranking.PopularityRanker;
+import com.bj.ilji_server.ilog.search.ILogSearchIndex;
+import com.bj.ilji_server.ilog.search.NgramTokenizer;
+import com.bj.ilji_server.ilog.timeline.FeedTimelineService;
 import com.bj.ilji_server.ilog_comments.entity.IlogComment;
 import com.bj.ilji_server.ilog_comments.repository.IlogCommentRepository;
+import com.bj.ilji_server.likes.service.LikeStateResolver;
 import com.bj.ilji_server.ilog.repository.ILogRepository;
-import com.bj.ilji_server.notification.packing.NotificationComposer; // Import NotificationComposer
+import com.bj.ilji_server.ilog.repository.ILogTagRepository;
+import com.bj.ilji_server.notification.event.FriendDiaryCreatedEvent;
 import com.bj.ilji_server.user.entity.User;
 import com.bj.ilji_server.user.repository.UserRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -40,14 +64,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ILogService {
 
+    // 커서 기반 조회에서 한 번에 가져올 수 있는 최대 개수
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ILogRepository ilogRepository;
     // ✅ [추가] 의존성 주입: User 정보 조회, Firebase 연동, JSON 변환을 위해 추가합니다.
     private final UserRepository userRepository;
     private final IlogCommentRepository ilogCommentRepository;
-    private final FriendRepository friendRepository;
-    private final FirebaseService firebaseService;
+    private final FollowGraph followGraph; // ✅ [개선] 팔로우 관계는 메모리 팔로우 그래프에서 조회
+    private final FirebaseImageTransfer firebaseImageTransfer; // ✅ [개선] 이미지 업로드/삭제를 트랜잭션 밖에서 처리
+    private final TransactionTemplate transactionTemplate;
     private final ObjectMapper objectMapper;
-    private final NotificationComposer notificationComposer; // NotificationComposer 주입
+    // ✅ [신규] 피드 타임라인 (fan-out-on-write)
+    private final FeedTimelineService feedTimelineService;
+    private final ApplicationEventPublisher eventPublisher;
+    // ✅ [신규] 목록의 '좋아요' 여부를 IN 쿼리 한 번으로 계산 (행마다 EXISTS 서브쿼리 대신)
+    private final LikeStateResolver likeStateResolver;
+    private final ILogSearchIndex searchIndex; // ✅ [신규] 본문/태그 검색용 역색인
+    private final ILogTagRepository ilogTagRepository; // ✅ [신규] 일기-해시태그 매핑 (ilog_tag)
+    private final TrendingHashtagService trendingHashtagService;
+    private final PopularityRanker popularityRanker; // ✅ [신규] 인기 피드 순위 (메모리 상위 K개)
 
     @Transactional(readOnly = true)
     public List<ILogResponse> getLogsForUserByDateRange(User user, LocalDate startDate, LocalDate endDate) {
@@ -58,9 +94,11 @@ public class ILogService {
         // 조회된 ILog 엔티티 리스트를 ILogResponse DTO 리스트로 변환하여 반환합니다.
         // ✅ [수정] fromEntity 메소드가 여러 인자를 필요로 하므로, 메소드 참조 대신 람다식을 사용합니다.
         // ✅ [개선] 베스트 댓글 조회 로직 제거
-        return logs.stream()
-                .map(iLog -> ILogResponse.fromEntity(iLog, null, objectMapper, user.getUserProfile().getUserId()))
+        // ✅ [개선] likes 컬렉션을 일기마다 로딩하지 않고, '좋아요' 여부를 한 번에 계산합니다.
+        List<ILogResponse> responses = logs.stream()
+                .map(iLog -> ILogResponse.fromEntity(iLog, null, false))
                 .collect(Collectors.toList());
+        return likeStateResolver.apply(responses, user.getId(), ILogResponse::getId, ILogResponse::withLikeState);
     }
 
     // 🆕 [추가] 특정 사용자의 ID로 일기 목록 페이징 조회 (친구 마이페이지용)
@@ -77,19 +115,17 @@ public class ILogService {
             // 2-1. ID가 같으면 '내' 마이페이지이므로 모든 일기를 조회합니다.
             logsPageDto = ilogRepository.findAllAsDtoByUserProfileUserId(
                     targetUser.getUserProfile().getUserId(),
-                    currentUser.getUserProfile().getUserId(),
                     pageable);
         } else {
             // 2-2. ID가 다르면 '다른 사람' 마이페이지이므로 '공개'된 일기만 조회합니다.
             logsPageDto = ilogRepository.findAsDtoByUserProfileUserIdAndVisibility(
                     targetUser.getUserProfile().getUserId(),
                     ILog.Visibility.PUBLIC,
-                    currentUser.getUserProfile().getUserId(),
                     pageable);
         }
 
-        // 3. 조회된 DTO 페이지를 그대로 반환합니다.
-        return logsPageDto;
+        // 3. '좋아요' 여부를 채워서 반환합니다.
+        return likeStateResolver.apply(logsPageDto, currentUser.getId(), ILogResponse::getId, ILogResponse::withLikeState);
     }
 
     // 🆕 [추가] 특정 사용자가 '좋아요' 누른 일기 목록 조회
@@ -120,19 +156,17 @@ public class ILogService {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         // 3. ✅ [개선] N+1 문제 해결을 위해 DTO로 직접 조회하는 Repository 메서드를 호출합니다.
+        Page<ILogFeedResponseDto> likedPage;
         if ("liked_at".equals(sortBy)) {
             // '좋아요 누른 순'은 별도의 쿼리로 처리
-            return ilogRepository.findLikedILogsAsDtoByUserOrderByLikedAt(
-                    targetUserId,
-                    currentUser.getUserProfile().getUserId(),
-                    pageable);
+            likedPage = ilogRepository.findLikedILogsAsDtoByUserOrderByLikedAt(targetUserId, pageable);
         } else {
             // '인기순', '작성순'은 Pageable에 설정된 Sort를 이용
-            return ilogRepository.findLikedILogsAsDtoByUser(
-                    targetUserId,
-                    currentUser.getUserProfile().getUserId(),
-                    pageable);
+            likedPage = ilogRepository.findLikedILogsAsDtoByUser(targetUserId, pageable);
         }
+
+        // 4. 현재 사용자의 '좋아요' 여부를 채워서 반환합니다. (대상 사용자와 현재 사용자가 다를 수 있음)
+        return likeStateResolver.apply(likedPage, currentUser.getId(), ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState);
     }
 
     @Transactional(readOnly = true)
@@ -141,24 +175,73 @@ public class ILogService {
         // 1. 최신순(createdAt 기준 내림차순)으로 정렬 조건을 설정한다.
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
 
-        // 2. 내가 팔로우하는 사람들의 프로필 ID 목록을 조회한다.
-        List<Long> followingProfileIds = friendRepository.findAllByFollower(currentUser)
-                .stream()
-                .map(friend -> friend.getFollowing().getUserProfile().getUserId())
-                .collect(Collectors.toList());
+        // ✅ [신규] 미리 계산된 타임라인에서 ID 구간만 잘라 오고, 해당 ID의 일기만 조회합니다.
+        // 타임라인이 보관하는 범위를 벗어난 깊은 페이지는 기존 쿼리로 대체합니다.
+        Page<ILogFeedResponseDto> feedPage = feedTimelineService.read(currentUser.getId(), (int) pageable.getOffset(), size)
+                .map(timelinePage -> {
+                    List<ILogFeedResponseDto> content = findFeedDtosInOrder(timelinePage.ilogIds());
+                    if (timelinePage.complete()) {
+                        return (Page<ILogFeedResponseDto>) new PageImpl<>(content, pageable, timelinePage.retained());
+                    }
+                    // ✅ [수정] 타임라인이 capacity에서 잘렸다면 보관 건수는 전체 건수가 아니므로(last=true 오판),
+                    // 마지막 페이지 여부를 알 수 없을 때만 DB count로 전체 건수를 구합니다.
+                    return PageableExecutionUtils.getPage(content, pageable, () -> countFeedFromDatabase(currentUser));
+                })
+                .orElseGet(() -> findFeedFromDatabase(currentUser, pageable));
+        // ✅ [수정] 다른 조회 경로와 같이 User ID로 '좋아요' 여부를 계산합니다. (@MapsId로 프로필의 userId가 비어 있을 수 있음)
+        return likeStateResolver.apply(feedPage, currentUser.getId(), ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState);
+    }
+
+    /**
+     * ✅ [신규] 인기 피드. 좋아요/댓글 수와 작성 시각으로 미리 계산된 순위에서 ID 구간만 잘라 옵니다.
+     * 순위 엔진이 보관하는 상위 목록까지만 조회할 수 있습니다. (i_log에 계산식 ORDER BY를 실행하지 않음)
+     */
+    @Transactional(readOnly = true)
+    public List<ILogFeedResponseDto> getPopularFeed(User currentUser, int page, int size) {
+        Long currentUserId = currentUser.getId();
+        int limit = normalizeCursorPageSize(size);
+        List<Long> ilogIds = popularityRanker.topIds(
+                authorId -> authorId.equals(currentUserId) || followGraph.isMutual(currentUserId, authorId),
+                Math.max(0, page) * limit,
+                limit);
+        return likeStateResolver.apply(
+                findFeedDtosInOrder(ilogIds), currentUserId, ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState);
+    }
 
-        // 3. 나를 팔로우하는 사람들의 프로필 ID 목록을 조회한다.
-        List<Long> followerProfileIds = friendRepository.findAllByFollowing(currentUser)
+    // 타임라인이 정한 순서대로 피드 DTO를 조회합니다. (커밋 직후 삭제된 글 등은 건너뜁니다)
+    private List<ILogFeedResponseDto> findFeedDtosInOrder(List<Long> ilogIds) {
+        if (ilogIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ILogFeedResponseDto> byId = ilogRepository.findFeedDtosByIdIn(ilogIds)
                 .stream()
-                .map(friend -> friend.getFollower().getUserProfile().getUserId())
+                .collect(Collectors.toMap(ILogFeedResponseDto::getId, Function.identity()));
+        return ilogIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+    }
 
-        // 4. '서로 팔로우'하는 친구(friends)의 프로필 ID 목록을 계산한다. (교집합)
-        List<Long> friendProfileIds = followingProfileIds.stream()
-                .filter(followerProfileIds::contains)
-                .collect(Collectors.toList());
+    // 잘린 타임라인의 전체 건수 (findCustomFeedForUser의 countQuery와 같은 조건)
+    private long countFeedFromDatabase(User currentUser) {
+        return ilogRepository.countFeedForUser(
+                currentUser.getUserProfile().getUserId(),
+                followGraph.followingIds(currentUser.getId()),
+                followGraph.mutualIds(currentUser.getId()),
+                ILog.Visibility.PUBLIC,
+                ILog.Visibility.FRIENDS_ONLY);
+    }
+
+    // 타임라인으로 처리할 수 없는 경우 사용하는 기존 피드 쿼리
+    private Page<ILogFeedResponseDto> findFeedFromDatabase(User currentUser, Pageable pageable) {
+        // 2. 내가 팔로우하는 사람들의 프로필 ID 목록을 조회한다.
+        // ✅ [개선] Friend 엔티티를 두 번 로딩하던 대신 메모리 팔로우 그래프를 사용합니다. (프로필 ID == 사용자 ID)
+        List<Long> followingProfileIds = followGraph.followingIds(currentUser.getId());
 
-        // 5. ✅ [수정] Repository의 변경된 메서드(findCustomFeedForUser)를 호출합니다.
+        // 3. '서로 팔로우'하는 친구(friends)의 프로필 ID 목록을 조회한다. (해시 셋 교집합)
+        List<Long> friendProfileIds = followGraph.mutualIds(currentUser.getId());
+
+        // 4. ✅ [수정] Repository의 변경된 메서드(findCustomFeedForUser)를 호출합니다.
         // N+1 문제를 방지하고 '친구 공개' 게시물까지 포함하여 피드를 조회합니다.
         return ilogRepository.findCustomFeedForUser(
                 currentUser.getUserProfile().getUserId(),
@@ -170,21 +253,202 @@ public class ILogService {
         );
     }
 
+    // ---------------------------------------------------
+    // 🆕 커서(keyset) 기반 조회 - 무한 스크롤용 (count 쿼리/OFFSET 없음)
+    // ---------------------------------------------------
+
+    @Transactional(readOnly = true)
+    public CursorSliceResponse<ILogFeedResponseDto> getFeedForUserByCursor(User currentUser, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int limit = normalizeCursorPageSize(size);
+        Long currentUserProfileId = currentUser.getUserProfile().getUserId();
+
+        // 1. 타임라인에서 커서 이후의 ID를 잘라 옵니다. (다음 페이지 판단을 위해 1개 더)
+        List<ILogFeedResponseDto> fetched = feedTimelineService
+                .readAfter(currentUser.getId(), after.at(), after.id(), limit + 1)
+                .map(this::findFeedDtosInOrder)
+                .orElseGet(() -> {
+                    // 2. 타임라인 보관 범위를 벗어나면 DB에서 keyset 조회합니다.
+                    return ilogRepository.findFeedForUserAfterCursor(
+                            currentUserProfileId,
+                            followGraph.followingIds(currentUser.getId()),
+                            followGraph.mutualIds(currentUser.getId()),
+                            ILog.Visibility.PUBLIC,
+                            ILog.Visibility.FRIENDS_ONLY,
+                            after.at(),
+                            after.id(),
+                            PageRequest.of(0, limit + 1));
+                });
+        fetched = likeStateResolver.apply(fetched, currentUser.getId(), ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState);
+
+        return CursorSliceResponse.of(fetched, limit, dto -> new KeysetCursor(dto.getCreatedAt(), dto.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSliceResponse<ILogResponse> getLogsByUserIdByCursor(Long userId, User currentUser, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int limit = normalizeCursorPageSize(size);
+
+        User targetUser = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+
+        // 내 마이페이지면 모든 일기, 다른 사람 마이페이지면 '공개' 일기만 조회합니다.
+        Set<ILog.Visibility> visibilities = userId.equals(currentUser.getId())
+                ? EnumSet.allOf(ILog.Visibility.class)
+                : EnumSet.of(ILog.Visibility.PUBLIC);
+
+        List<ILogResponse> fetched = ilogRepository.findByUserProfileUserIdAfterCursor(
+                targetUser.getUserProfile().getUserId(),
+                visibilities,
+                after.at(),
+                after.id(),
+                PageRequest.of(0, limit + 1));
+        fetched = likeStateResolver.apply(fetched, currentUser.getId(), ILogResponse::getId, ILogResponse::withLikeState);
+
+        return CursorSliceResponse.of(fetched, limit, dto -> new KeysetCursor(dto.getCreatedAt(), dto.getId()));
+    }
+
+    /**
+     * '좋아요' 누른 일기 목록을 커서 기반으로 조회합니다.
+     * 인기순(popular)은 좋아요 수가 계속 바뀌어 커서가 안정적이지 않으므로 지원하지 않습니다. (기존 페이지 API 사용)
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceResponse<ILogFeedResponseDto> getLikedILogsByUserByCursor(Long targetUserId, User currentUser, String sortBy, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int limit = normalizeCursorPageSize(size);
+
+        CursorSliceResponse<ILogFeedResponseDto> slice;
+        switch (sortBy) {
+            case "uploaded_at":
+                // 일기 작성 최신순 - 커서는 (일기 작성 시각, 일기 ID)
+                List<ILogFeedResponseDto> byCreatedAt = ilogRepository.findLikedILogsOrderByCreatedAtAfterCursor(
+                        targetUserId, after.at(), after.id(), PageRequest.of(0, limit + 1));
+                slice = CursorSliceResponse.of(byCreatedAt, limit, dto -> new KeysetCursor(dto.getCreatedAt(), dto.getId()));
+                break;
+            case "liked_at":
+                // 좋아요 누른 최신순 - 커서는 (좋아요 시각, 좋아요 ID)
+                List<LikedILogRow> byLikedAt = ilogRepository.findLikedILogsOrderByLikedAtAfterCursor(
+                        targetUserId, after.at(), after.id(), PageRequest.of(0, limit + 1));
+                slice = CursorSliceResponse.of(byLikedAt, limit, LikedILogRow::cursor).map(LikedILogRow::toDto);
+                break;
+            default:
+                throw new IllegalArgumentException("Cursor pagination is not supported for sortBy: " + sortBy);
+        }
+
+        // 현재 사용자의 '좋아요' 여부를 채웁니다. (대상 사용자와 현재 사용자가 다를 수 있음)
+        return slice.withItems(likeStateResolver.apply(
+                slice.getItems(), currentUser.getId(), ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState));
+    }
+
+    // ---------------------------------------------------
+    // 🆕 일기 검색 (본문/태그, 메모리 역색인)
+    // ---------------------------------------------------
+
+    /**
+     * 본문과 태그에 검색어의 모든 단어가 포함된 일기를 최신순으로 조회합니다.
+     * 공개 범위는 피드와 같습니다: 내 일기는 전부, 다른 사람은 '전체 공개'와 (서로 팔로우인 경우) '친구 공개'.
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceResponse<ILogFeedResponseDto> searchLogs(User currentUser, String query, String cursor, int size) {
+        List<String> words = NgramTokenizer.words(query);
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        IdCursor after = IdCursor.decode(cursor); // ✅ [수정] 색인은 ID 역순으로만 페이지를 나누므로 커서도 ID만 담습니다.
+        int limit = normalizeCursorPageSize(size);
+        Long currentUserId = currentUser.getId();
+
+        List<Long> ilogIds = searchIndex.search(words, doc -> switch (doc.visibility()) {
+            case PUBLIC -> true;
+            case FRIENDS_ONLY -> doc.authorId().equals(currentUserId) || followGraph.isMutual(currentUserId, doc.authorId());
+            case PRIVATE -> doc.authorId().equals(currentUserId);
+        }, after.id(), limit + 1);
+
+        List<ILogFeedResponseDto> fetched = likeStateResolver.apply(
+                findFeedDtosInOrder(ilogIds), currentUserId, ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState);
+        return CursorSliceResponse.ofIds(fetched, limit, ILogFeedResponseDto::getId);
+    }
+
+    // ---------------------------------------------------
+    // 🆕 해시태그 (ilog_tag 매핑 / 트렌딩)
+    // ---------------------------------------------------
+
+    /**
+     * 해시태그가 달린 일기를 최신순으로 조회합니다. (ilog_tag 인덱스 조회, 공개 범위는 피드와 동일)
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceResponse<ILogFeedResponseDto> getLogsByHashtag(User currentUser, String tag, String cursor, int size) {
+        String normalizedTag = HashtagParser.normalize(tag);
+        if (normalizedTag.isEmpty()) {
+            throw new IllegalArgumentException("Hashtag must not be empty");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int limit = normalizeCursorPageSize(size);
+        Long currentUserId = currentUser.getId();
+
+        List<Long> ilogIds = ilogTagRepository.findVisibleIlogIdsByTagBefore(
+                normalizedTag,
+                after.id(),
+                currentUserId,
+                followGraph.mutualIds(currentUserId),
+                ILog.Visibility.PUBLIC,
+                ILog.Visibility.FRIENDS_ONLY,
+                PageRequest.of(0, limit + 1));
+
+        List<ILogFeedResponseDto> fetched = likeStateResolver.apply(
+                findFeedDtosInOrder(ilogIds), currentUserId, ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState);
+        return CursorSliceResponse.of(fetched, limit, dto -> new KeysetCursor(dto.getCreatedAt(), dto.getId()));
+    }
+
+    /** 트렌딩 해시태그 (메모리 집계, window: hour / day / week) */
+    public List<TrendingHashtagResponse> getTrendingHashtags(String window, int limit) {
+        return trendingHashtagService.getTrending(TrendingHashtagService.Window.from(window), limit);
+    }
+
+    // 일기의 tags 문자열을 정규화해 ilog_tag에 저장합니다. (일기 저장과 같은 트랜잭션)
+    private void saveHashtags(ILog iLog) {
+        List<ILogTag> hashtags = HashtagParser.parse(iLog.getTags()).stream()
+                .map(tag -> ILogTag.builder()
+                        .iLog(iLog)
+                        .tag(tag)
+                        .createdAt(iLog.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+        if (!hashtags.isEmpty()) {
+            ilogTagRepository.saveAll(hashtags);
+        }
+    }
+
+    private String writeImageUrls(List<String> imageUrls) {
+        try {
+            return objectMapper.writeValueAsString(imageUrls);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize image URLs.", e);
+        }
+    }
+
+    private int normalizeCursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
     // ✅ [수정] 일기 등록 메서드를 이미지 파일(MultipartFile)을 함께 처리하도록 변경합니다.
-    @Transactional
+    // ✅ [개선] 이미지 업로드(네트워크 I/O)는 트랜잭션을 열기 전에 병렬로 처리하고, DB 저장이 실패하면 올린 이미지를 지웁니다.
     public ILogResponse createIlog(ILogCreateRequest request, List<MultipartFile> images) throws IOException {
-        // 1. Firebase에 이미지 업로드 및 URL 생성
-        List<String> imageUrls = new ArrayList<>();
-        if (images != null && !images.isEmpty()) {
-            for (MultipartFile image : images) {
-                // FirebaseService를 사용해 이미지를 업로드하고 URL을 받습니다.
-                String imageUrl = firebaseService.uploadFile(image, "ilog");
-                imageUrls.add(imageUrl);
-            }
+        // 1. Firebase에 이미지 업로드 및 URL 생성 (트랜잭션 밖, 병렬)
+        List<String> imageUrls = firebaseImageTransfer.uploadAll(images, "ilog");
+
+        // 2. DB 저장 (트랜잭션)
+        try {
+            return transactionTemplate.execute(status -> saveNewIlog(request, imageUrls));
+        } catch (RuntimeException e) {
+            firebaseImageTransfer.deleteQuietly(imageUrls); // 보상 삭제
+            throw e;
         }
+    }
 
+    private ILogResponse saveNewIlog(ILogCreateRequest request, List<String> imageUrls) {
         // 2. 이미지 URL 리스트를 JSON 문자열로 변환
-        String imgUrlJson = objectMapper.writeValueAsString(imageUrls);
+        String imgUrlJson = writeImageUrls(imageUrls);
 
         // 3. 요청한 사용자를 찾습니다.
         User user = userRepository.findById(request.getWriterId())
@@ -203,32 +467,23 @@ public class ILogService {
                 .build();
 
         ILog savedIlog = ilogRepository.save(newIlog);
+        saveHashtags(savedIlog); // ✅ [신규] 해시태그 매핑 저장
+        eventPublisher.publishEvent(ILogChangedEvent.created(savedIlog));
 
         // 5. 친구 포스트 알림 생성 로직 추가
         // 비공개(PRIVATE) 일기가 아닐 경우에만 알림을 보냅니다.
+        // ✅ [개선] 팔로워마다 알림을 만들던 반복문을 요청 트랜잭션에서 빼고, 커밋 후 FriendDiaryFanout이 묶어서 저장/전송합니다.
         if (savedIlog.getVisibility() != ILog.Visibility.PRIVATE) {
-            // 일기 작성자를 팔로우하는 모든 사용자(친구)를 조회합니다.
-            List<Friend> followers = friendRepository.findAllByFollowing(user);
-
-            // 각 팔로워에게 알림을 보냅니다.
-            for (Friend friend : followers) {
-                User followerUser = friend.getFollower();
-                // 작성자 본인에게는 알림을 보내지 않습니다.
-                if (!followerUser.getId().equals(user.getId())) {
-                    notificationComposer.friendDiaryCreated(
-                            followerUser.getId(), // 알림 수신자 ID
-                            user.getId(),         // 일기 작성자 ID
-                            savedIlog.getId(),    // 일기 ID
-                            user.getUserProfile().getNickname(), // 일기 작성자 이름 (UserProfile에서 가져옴)
-                            savedIlog.getLogDate().toString() // 일기 작성 날짜 (ISO 형식)
-                    );
-                }
-            }
+            eventPublisher.publishEvent(new FriendDiaryCreatedEvent(
+                    user.getId(),                         // 일기 작성자 ID
+                    user.getUserProfile().getNickname(),  // 일기 작성자 이름 (UserProfile에서 가져옴)
+                    savedIlog.getId(),                    // 일기 ID
+                    savedIlog.getLogDate()));             // 일기 작성 날짜
         }
 
         // 6. 저장된 Entity를 Response DTO로 변환하여 반환
         // 새로 생성된 일기에는 댓글이 없으므로 bestComment는 null 입니다.
-        return ILogResponse.fromEntity(savedIlog, null, objectMapper, user.getUserProfile().getUserId());
+        return ILogResponse.fromEntity(savedIlog, null, false);
     }
 
     // 특정 날짜 일기 조회
@@ -237,11 +492,14 @@ public class ILogService {
         // ✅ [개선] Optional과 map을 사용하여 코드를 더 간결하고 Null-safe하게 만듭니다.
         return ilogRepository.findByUserProfileUserIdAndLogDate(user.getUserProfile().getUserId(), date)
                 // ✅ [개선] 베스트 댓글 조회 로직 제거
-                .map(log -> ILogResponse.fromEntity(log, null, objectMapper, user.getUserProfile().getUserId()))
+                .map(log -> likeStateResolver.applyOne(
+                        ILogResponse.fromEntity(log, null, false),
+                        user.getId(), ILogResponse::getId, ILogResponse::withLikeState))
                 .orElse(null);
     }
 
     // 일기 삭제
+    // ✅ [개선] 이미지 삭제는 커밋 후 백그라운드에서 처리합니다. (트랜잭션 안에서 Firebase 호출을 기다리지 않음)
     @Transactional
     public void deleteLog(User user, Long logId) {
         ILog log = ilogRepository.findById(logId)
@@ -254,30 +512,49 @@ public class ILogService {
             throw new SecurityException("You do not have permission to delete this log.");
         }
 
-        // ✅ 이미지 삭제 (실패 시 예외 → 트랜잭션 롤백)
-        if (log.getImgUrl() != null && !log.getImgUrl().isBlank()) {
-            try {
-                List<String> imageUrls = objectMapper.readValue(
-                        log.getImgUrl(),
-                        new TypeReference<List<String>>() {}
-                );
+        // ✅ 이미지는 DB 삭제가 커밋된 뒤에 지웁니다. (롤백되면 이미지도 그대로 남음)
+        // ✅ [수정] img_url을 읽을 수 없으면 일기를 지우지 않습니다. (지우면 이미지 파일을 찾을 방법이 없어짐)
+        firebaseImageTransfer.deleteAfterCommit(storedImageUrls(log));
 
-                for (String url : imageUrls) {
-                    firebaseService.deleteFile(url); // 이제 실패하면 IOException 던짐
-                }
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to delete images. Halting log deletion.", e);
-            }
-        }
-
-        // ✅ 모든 이미지 삭제 성공 후 DB 삭제
+        ILogChangedEvent deletedEvent = ILogChangedEvent.deleted(log);
+        ilogTagRepository.deleteByIlogId(logId); // ✅ [신규] 해시태그 매핑도 함께 삭제
         ilogRepository.deleteById(logId);
+        eventPublisher.publishEvent(deletedEvent);
     }
 
 
     // 일기 수정
-    @Transactional
+    // ✅ [개선] 새 이미지는 트랜잭션 전에 병렬 업로드하고, 빠진 기존 이미지는 커밋 후에 지웁니다.
     public ILogResponse updateLog(Long logId, User user, ILogUpdateRequest request, List<MultipartFile> newImages) throws IOException {
+        // ✅ [수정] 남의 일기(또는 없는 일기)에 이미지를 올렸다가 지우는 일이 없도록, 업로드 전에 작성자만 조회해 권한을 확인합니다.
+        // (업로드와 트랜잭션 사이에 바뀔 수 있으므로 applyLogUpdate에서 한 번 더 확인합니다)
+        Long writerId = ilogRepository.findWriterIdById(logId)
+                .orElseThrow(() -> new IllegalArgumentException("ILog not found with id: " + logId));
+        if (!writerId.equals(user.getId())) {
+            throw new SecurityException("You do not have permission to update this log.");
+        }
+
+        // 새로 첨부된 이미지가 있다면 Firebase에 업로드합니다. (트랜잭션 밖, 병렬)
+        List<String> newUploadedUrls = firebaseImageTransfer.uploadAll(newImages, "ilog");
+
+        try {
+            return transactionTemplate.execute(status -> applyLogUpdate(logId, user, request, newUploadedUrls));
+        } catch (RuntimeException e) {
+            firebaseImageTransfer.deleteQuietly(newUploadedUrls); // 보상 삭제
+            throw e;
+        }
+    }
+
+    // 저장된 이미지 URL 목록. 형식이 잘못됐으면 어느 일기인지 담아 IllegalStateException을 던집니다.
+    private static List<String> storedImageUrls(ILog log) {
+        try {
+            return ImageUrls.parseStrict(log.getImgUrl());
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("ILog " + log.getId() + " has malformed img_url: " + log.getImgUrl(), e);
+        }
+    }
+
+    private ILogResponse applyLogUpdate(Long logId, User user, ILogUpdateRequest request, List<String> newUploadedUrls) {
         // 1. 일기 조회 및 수정 권한 확인
         ILog log = ilogRepository.findById(logId)
                 .orElseThrow(() -> new IllegalArgumentException("ILog not found with id: " + logId));
@@ -291,10 +568,8 @@ public class ILogService {
 
         // 2. 이미지 변경 처리
         // 2-1. DB에 저장된 기존 이미지 URL 목록을 가져옵니다.
-        List<String> oldImageUrls = new ArrayList<>();
-        if (log.getImgUrl() != null && !log.getImgUrl().isBlank()) {
-            oldImageUrls = objectMapper.readValue(log.getImgUrl(), new TypeReference<>() {});
-        }
+        // ✅ [수정] 읽을 수 없는 기존 목록을 덮어쓰면 그 이미지들이 Firebase에 남으므로, 수정도 거부합니다.
+        List<String> oldImageUrls = storedImageUrls(log);
 
         // 2-2. 프론트에서 보낸 '유지할 이미지' 목록에 없는 기존 이미지는 Firebase에서 삭제합니다.
         // 2-2. 프론트에서 보낸 '유지할 이미지' 목록에 없는 기존 이미지는 Firebase에서 삭제합니다.
@@ -304,34 +579,24 @@ public class ILogService {
                 .filter(oldUrl -> !existingUrlsToKeep.contains(oldUrl))
                 .collect(Collectors.toList());
 
-        for (String url : urlsToDelete) {
-            try {
-                firebaseService.deleteFile(url);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to delete existing images. Halting log update.", e);
-            }
-        }
-
-        // 2-3. 새로 첨부된 이미지가 있다면 Firebase에 업로드합니다.
-        List<String> newUploadedUrls = new ArrayList<>();
-        if (newImages != null && !newImages.isEmpty()) {
-            for (MultipartFile image : newImages) {
-                String imageUrl = firebaseService.uploadFile(image, "ilog");
-                newUploadedUrls.add(imageUrl);
-            }
-        }
+        // ✅ [개선] 실제 삭제는 수정이 커밋된 뒤 백그라운드에서 수행합니다.
+        firebaseImageTransfer.deleteAfterCommit(urlsToDelete);
 
-        // 2-4. 최종 이미지 목록을 구성하고 JSON 문자열로 변환합니다.
+        // 2-3. 최종 이미지 목록을 구성하고 JSON 문자열로 변환합니다. (새 이미지는 트랜잭션 전에 업로드됨)
         List<String> finalImageUrls = new ArrayList<>(existingUrlsToKeep);
         finalImageUrls.addAll(newUploadedUrls);
-        String finalImageUrlsJson = objectMapper.writeValueAsString(finalImageUrls);
+        String finalImageUrlsJson = writeImageUrls(finalImageUrls);
 
         // 3. 엔티티의 내용을 업데이트합니다.
+        ILog.Visibility previousVisibility = log.getVisibility();
         log.update(request.getContent(), finalImageUrlsJson, request.getVisibility());
+        eventPublisher.publishEvent(ILogChangedEvent.updated(log, previousVisibility));
 
-        // 4. 변경된 엔티티를 Response DTO로 변환하여 반환합니다. (@Transactional에 의해 DB에는 자동 저장됩니다.)
+        // 4. 변경된 엔티티를 Response DTO로 변환하여 반환합니다. (트랜잭션 커밋 시 DB에 자동 저장됩니다.)
         // ✅ [개선] 베스트 댓글 조회 로직 제거
-        return ILogResponse.fromEntity(log, null, objectMapper, user.getUserProfile().getUserId());
+        return likeStateResolver.applyOne(
+                ILogResponse.fromEntity(log, null, false),
+                user.getId(), ILogResponse::getId, ILogResponse::withLikeState);
     }
 
     /**
@@ -405,16 +670,16 @@ public class ILogService {
                 if (authorId.equals(currentUserId)) break;
 
                 // '서로 친구'인지 확인 (A->B, B->A 모두 팔로우)
-                boolean isFollowing = friendRepository.existsByFollowerIdAndFollowingId(currentUserId, authorId);
-                boolean isFollowedBy = friendRepository.existsByFollowerIdAndFollowingId(authorId, currentUserId);
-
-                if (!isFollowing || !isFollowedBy) {
+                // ✅ [수정] 단건 열람 권한이므로 메모리 그래프(ttl 동안 지연 가능) 대신 DB에서 확인합니다.
+                if (!followGraph.isMutualInDatabase(currentUserId, authorId)) {
                     throw new IllegalStateException("친구에게만 공개된 일기입니다.");
                 }
                 break;
         }
 
         // 4. 모든 검사를 통과하면, 피드 형식으로 변환하여 반환합니다.
-        return ILogFeedResponseDto.fromEntity(log, currentUserId);
+        return likeStateResolver.applyOne(
+                ILogFeedResponseDto.fromEntity(log, false),
+                currentUserId, ILogFeedResponseDto::getId, ILogFeedResponseDto::withLikeState);
     }
 }
@@ -0,0 +1,16 @@
+package com.bj.ilji_server.ilog.timeline;
+
+import com.bj.ilji_server.ilog.entity.ILog;
+
+import java.time.LocalDateTime;
+
+/**
+ * 피드 타임라인의 한 항목. 정렬(createdAt DESC, id DESC)과 가지치기에 필요한 최소 정보만 담습니다.
+ * JPQL 생성자 표현식으로 직접 조회되므로 필드 순서를 바꾸지 마세요.
+ */
+public record FeedEntry(
+        Long ilogId,
+        Long authorId,
+        ILog.Visibility visibility,
+        LocalDateTime createdAt
+) {}
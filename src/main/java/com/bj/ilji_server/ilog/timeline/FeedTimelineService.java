@@ -0,0 +1,195 @@
+package com.bj.ilji_server.ilog.timeline;
+
+import com.bj.ilji_server.friend.event.FriendshipChangedEvent;
+import com.bj.ilji_server.friend.event.RemoteFriendshipChangedEvent;
+import com.bj.ilji_server.friend.graph.FollowGraph;
+import com.bj.ilji_server.ilog.entity.ILog;
+import com.bj.ilji_server.ilog.event.ILogChangedEvent;
+import com.bj.ilji_server.ilog.event.RemoteILogChangedEvent;
+import com.bj.ilji_server.ilog.repository.ILogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 피드 타임라인의 적재(읽기)와 fan-out(쓰기)을 담당합니다.
+ * - 읽기: 타임라인이 없으면 DB에서 한 번 계산해 적재하고, 이후에는 메모리에서 구간만 잘라 반환합니다.
+ * - 쓰기: 일기/팔로우 변경 이벤트를 커밋 이후에 받아, 적재된 타임라인에만 항목을 밀어 넣거나 제거합니다.
+ * ✅ [개선] 다른 노드에서 커밋된 변경도 Remote* 이벤트로 받아 이 노드의 타임라인에 같은 방식으로 반영합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedTimelineService {
+
+    private final FeedTimelineStore timelineStore;
+    private final ILogRepository ilogRepository;
+    private final FollowGraph followGraph;
+
+    /**
+     * 타임라인에서 잘라낸 한 페이지 (일기 ID 목록 + 보관 건수)
+     * complete가 false면 capacity에서 잘린 타임라인이므로 retained는 피드 전체 건수가 아닙니다.
+     */
+    public record TimelinePage(List<Long> ilogIds, long retained, boolean complete) {}
+
+    /**
+     * 피드 한 페이지를 타임라인에서 읽습니다.
+     * 요청 구간이 메모리에 보관된 범위를 벗어나면 empty를 반환하므로, 호출 측에서 DB 조회로 대체해야 합니다.
+     */
+    public Optional<TimelinePage> read(Long userId, int offset, int limit) {
+        if (!timelineStore.isLoaded(userId)) {
+            warmUp(userId);
+        }
+        int size = timelineStore.size(userId);
+        boolean complete = timelineStore.isComplete(userId);
+        if (!complete && offset + limit > size) {
+            return Optional.empty();
+        }
+        List<Long> ilogIds = timelineStore.range(userId, offset, limit).stream()
+                .map(FeedEntry::ilogId)
+                .toList();
+        return Optional.of(new TimelinePage(ilogIds, size, complete));
+    }
+
+    /**
+     * 커서 이후의 일기 ID를 최대 limit개까지 타임라인에서 읽습니다.
+     * 보관 범위가 잘려 있어 limit개를 채우지 못하면 empty를 반환하므로, 호출 측에서 DB 조회로 대체해야 합니다.
+     */
+    public Optional<List<Long>> readAfter(Long userId, LocalDateTime cursorAt, Long cursorId, int limit) {
+        if (!timelineStore.isLoaded(userId)) {
+            warmUp(userId);
+        }
+        List<FeedEntry> entries = timelineStore.rangeAfter(userId, cursorAt, cursorId, limit);
+        if (entries.size() < limit && !timelineStore.isComplete(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(entries.stream().map(FeedEntry::ilogId).toList());
+    }
+
+    /**
+     * 기존 피드 쿼리와 같은 조건으로 최근 capacity개를 계산해 적재합니다.
+     * ✅ [수정] DB 조회 전에 적재 중 표시를 먼저 남겨, 조회와 적재 사이에 커밋된 글의 push/remove가 버려지지 않고
+     * 적재 결과에 합쳐지도록 합니다.
+     */
+    private void warmUp(Long userId) {
+        timelineStore.beginLoad(userId);
+        List<Long> followingIds = followGraph.followingIds(userId);
+        List<Long> friendIds = followGraph.mutualIds(userId);
+
+        int capacity = timelineStore.capacity();
+        List<FeedEntry> entries = ilogRepository.findFeedEntriesForUser(
+                userId,
+                followingIds,
+                friendIds,
+                ILog.Visibility.PUBLIC,
+                ILog.Visibility.FRIENDS_ONLY,
+                PageRequest.of(0, capacity));
+        timelineStore.load(userId, entries, entries.size() < capacity);
+    }
+
+    // ---------------------------------------------------
+    // fan-out (커밋 이후)
+    // ---------------------------------------------------
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onILogChanged(ILogChangedEvent e) {
+        apply(e);
+    }
+
+    @EventListener
+    public void onRemoteILogChanged(RemoteILogChangedEvent e) {
+        apply(e.getEvent());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFriendshipChanged(FriendshipChangedEvent e) {
+        apply(e);
+    }
+
+    // 팔로우 그래프가 먼저 갱신되도록 FollowGraph의 원격 리스너(@Order HIGHEST_PRECEDENCE) 뒤에 실행됩니다.
+    @EventListener
+    public void onRemoteFriendshipChanged(RemoteFriendshipChangedEvent e) {
+        apply(e.getEvent());
+    }
+
+    private void apply(ILogChangedEvent e) {
+        FeedEntry entry = new FeedEntry(e.getIlogId(), e.getAuthorId(), e.getVisibility(), e.getCreatedAt());
+
+        switch (e.getType()) {
+            case CREATED -> audienceOf(e.getAuthorId(), e.getVisibility())
+                    .forEach(userId -> timelineStore.push(userId, entry));
+            case UPDATED -> {
+                if (e.getVisibility() == e.getPreviousVisibility()) {
+                    return; // 공개 범위가 그대로면 타임라인에는 변화가 없음
+                }
+                Set<Long> audience = audienceOf(e.getAuthorId(), e.getVisibility());
+                for (Long followerId : followGraph.followerIds(e.getAuthorId())) {
+                    if (!audience.contains(followerId)) {
+                        removeEntry(followerId, e.getIlogId());
+                    }
+                }
+                audience.forEach(userId -> timelineStore.push(userId, entry));
+            }
+            case DELETED -> {
+                removeEntry(e.getAuthorId(), e.getIlogId());
+                followGraph.followerIds(e.getAuthorId())
+                        .forEach(followerId -> removeEntry(followerId, e.getIlogId()));
+            }
+        }
+    }
+
+    private void apply(FriendshipChangedEvent e) {
+        Long followerId = e.getFollowerId();
+        Long followingId = e.getFollowingId();
+
+        if (e.isFollowed()) {
+            // 팔로우 그래프는 이 리스너보다 먼저 갱신됩니다. (FollowGraph 리스너 @Order 참고)
+            boolean mutual = followGraph.isMutual(followerId, followingId);
+            // 1. 팔로우한 사람의 타임라인에 상대의 전체 공개 글(맞팔이면 친구 공개 글까지)을 채워 넣습니다.
+            if (timelineStore.isLoaded(followerId)) {
+                backfill(followerId, followingId, mutual
+                        ? List.of(ILog.Visibility.PUBLIC, ILog.Visibility.FRIENDS_ONLY)
+                        : List.of(ILog.Visibility.PUBLIC));
+            }
+            // 2. 맞팔이 성립했다면 상대의 타임라인에도 내 친구 공개 글을 채워 넣습니다.
+            if (mutual && timelineStore.isLoaded(followingId)) {
+                backfill(followingId, followerId, List.of(ILog.Visibility.FRIENDS_ONLY));
+            }
+        } else {
+            // 1. 언팔로우한 사람의 타임라인에서 상대의 글을 모두 뺍니다.
+            timelineStore.removeIf(followerId, entry -> entry.authorId().equals(followingId));
+            // 2. 맞팔이 깨졌으므로 상대의 타임라인에서 내 친구 공개 글을 뺍니다.
+            timelineStore.removeIf(followingId, entry -> entry.authorId().equals(followerId)
+                    && entry.visibility() == ILog.Visibility.FRIENDS_ONLY);
+        }
+    }
+
+    /** 작성자와 공개 범위로부터 이 글이 피드에 나타나야 하는 사용자 집합을 계산합니다. */
+    private Set<Long> audienceOf(Long authorId, ILog.Visibility visibility) {
+        Set<Long> audience = new HashSet<>();
+        audience.add(authorId); // 내 글은 항상 내 피드에 노출
+        switch (visibility) {
+            case PUBLIC -> audience.addAll(followGraph.followerIds(authorId));
+            case FRIENDS_ONLY -> audience.addAll(followGraph.mutualIds(authorId));
+            case PRIVATE -> { /* 작성자 본인만 */ }
+        }
+        return audience;
+    }
+
+    private void backfill(Long timelineOwnerId, Long authorId, List<ILog.Visibility> visibilities) {
+        ilogRepository.findFeedEntriesByAuthor(authorId, visibilities, PageRequest.of(0, timelineStore.capacity()))
+                .forEach(entry -> timelineStore.push(timelineOwnerId, entry));
+    }
+
+    private void removeEntry(Long userId, Long ilogId) {
+        timelineStore.removeIf(userId, entry -> entry.ilogId().equals(ilogId));
+    }
+}
@@ -0,0 +1,49 @@
+package com.bj.ilji_server.ilog.timeline;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 사용자별로 미리 계산된 피드 타임라인 저장소 (fan-out-on-write).
+ * 구현체는 최신순(createdAt DESC, id DESC)으로 최대 {@link #capacity()}개까지 보관합니다.
+ * 적재(load)되지 않은 사용자의 타임라인에 대한 push/remove는 무시되며,
+ * 첫 조회 시 DB에서 다시 적재합니다. (적재 중({@link #beginLoad}) 들어온 push/remove는 적재 결과에 합쳐집니다)
+ */
+public interface FeedTimelineStore {
+
+    /** 해당 사용자의 타임라인이 적재되어 있는지 여부 */
+    boolean isLoaded(Long userId);
+
+    /** DB 조회를 시작하기 전에 호출합니다. 이후 load까지 들어온 push/remove를 모아 둡니다. */
+    void beginLoad(Long userId);
+
+    /**
+     * DB에서 계산한 타임라인을 적재합니다.
+     * @param complete 적재한 항목이 그 사용자의 피드 전체인지 여부 (capacity에 걸려 잘리지 않았는지)
+     */
+    void load(Long userId, List<FeedEntry> entries, boolean complete);
+
+    /** 항목을 추가합니다. 같은 일기가 이미 있으면 교체합니다. */
+    void push(Long userId, FeedEntry entry);
+
+    /** 조건에 맞는 항목을 제거합니다. */
+    void removeIf(Long userId, Predicate<FeedEntry> filter);
+
+    /** 최신순으로 offset부터 limit개를 반환합니다. */
+    List<FeedEntry> range(Long userId, int offset, int limit);
+
+    /** 최신순으로 (createdAt, ilogId) 커서보다 오래된 항목을 limit개까지 반환합니다. */
+    List<FeedEntry> rangeAfter(Long userId, LocalDateTime cursorAt, Long cursorId, int limit);
+
+    /** 보관 중인 항목 수 */
+    int size(Long userId);
+
+    /** 보관 중인 항목이 피드 전체인지 여부 (false면 범위를 벗어난 조회는 DB로 대체해야 함) */
+    boolean isComplete(Long userId);
+
+    void evict(Long userId);
+
+    /** 사용자당 최대 보관 항목 수 */
+    int capacity();
+}
@@ -0,0 +1,250 @@
+package com.bj.ilji_server.ilog.timeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 프로세스 메모리에 타임라인을 보관하는 기본 구현체.
+ * 사용자 단위로 잠금을 걸기 때문에 서로 다른 사용자의 타임라인 갱신은 경합하지 않습니다.
+ * ✅ [개선] 보관하는 사용자 수를 max-users로 제한하고, 넘으면 가장 오래 조회되지 않은 타임라인부터 내보냅니다. (LRU)
+ * 내보낸 사용자는 다음 조회 때 DB에서 다시 적재합니다.
+ * ✅ [개선] 적재 후 ttl-seconds가 지난 타임라인은 적재되지 않은 것으로 보고 다음 조회 때 DB에서 다시 적재합니다.
+ * (다른 노드의 변경 알림을 놓쳐도 어긋난 상태가 ttl 이상 남지 않도록)
+ */
+@Component
+public class InMemoryFeedTimelineStore implements FeedTimelineStore {
+
+    private static final Comparator<FeedEntry> NEWEST_FIRST = Comparator
+            .comparing(FeedEntry::createdAt, Comparator.reverseOrder())
+            .thenComparing(FeedEntry::ilogId, Comparator.reverseOrder());
+
+    private final ConcurrentHashMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final int maxUsers;
+    private final long ttlNanos;
+    private final AtomicLong clock = new AtomicLong();           // 마지막 조회 순서를 매기는 논리 시계
+    private final AtomicBoolean evicting = new AtomicBoolean(); // 내보내기는 한 스레드만
+
+    public InMemoryFeedTimelineStore(@Value("${ilog.feed.timeline.max-entries:500}") int capacity,
+                                     @Value("${ilog.feed.timeline.max-users:20000}") int maxUsers,
+                                     @Value("${ilog.feed.timeline.ttl-seconds:600}") long ttlSeconds) {
+        this.capacity = Math.max(1, capacity);
+        this.maxUsers = Math.max(1, maxUsers);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+    }
+
+    @Override
+    public boolean isLoaded(Long userId) {
+        Timeline timeline = timelines.get(userId);
+        return timeline != null && timeline.isLoaded() && !timeline.isExpired(System.nanoTime(), ttlNanos);
+    }
+
+    @Override
+    public void beginLoad(Long userId) {
+        long now = System.nanoTime();
+        // 만료된 타임라인은 새 Timeline으로 바꿔 처음부터 다시 적재합니다. (적재 중인 것은 그대로 둠)
+        timelines.compute(userId, (k, timeline) -> timeline == null || timeline.isExpired(now, ttlNanos)
+                ? new Timeline(clock.incrementAndGet())
+                : timeline);
+        evictIfFull();
+    }
+
+    @Override
+    public void load(Long userId, List<FeedEntry> entries, boolean complete) {
+        // 적재 도중 들어온 push/remove와 다른 스레드의 적재 결과를 같은 Timeline에 합쳐 유실을 막습니다.
+        timelines.computeIfAbsent(userId, k -> new Timeline(clock.incrementAndGet()))
+                .load(entries, complete, capacity);
+    }
+
+    @Override
+    public void push(Long userId, FeedEntry entry) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.add(entry, capacity);
+        }
+    }
+
+    @Override
+    public void removeIf(Long userId, Predicate<FeedEntry> filter) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.removeIf(filter);
+        }
+    }
+
+    @Override
+    public List<FeedEntry> range(Long userId, int offset, int limit) {
+        Timeline timeline = touch(userId);
+        return timeline == null ? Collections.emptyList() : timeline.range(offset, limit);
+    }
+
+    @Override
+    public List<FeedEntry> rangeAfter(Long userId, LocalDateTime cursorAt, Long cursorId, int limit) {
+        Timeline timeline = touch(userId);
+        // 비교자는 (createdAt, ilogId)만 보므로 커서 위치를 나타내는 탐색용 항목을 만들어 사용합니다.
+        FeedEntry probe = new FeedEntry(cursorId, null, null, cursorAt);
+        return timeline == null ? Collections.emptyList() : timeline.rangeAfter(probe, limit);
+    }
+
+    @Override
+    public int size(Long userId) {
+        Timeline timeline = timelines.get(userId);
+        return timeline == null ? 0 : timeline.size();
+    }
+
+    @Override
+    public boolean isComplete(Long userId) {
+        Timeline timeline = timelines.get(userId);
+        return timeline != null && timeline.isComplete();
+    }
+
+    @Override
+    public void evict(Long userId) {
+        timelines.remove(userId);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    private Timeline touch(Long userId) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.lastAccess = clock.incrementAndGet();
+        }
+        return timeline;
+    }
+
+    /**
+     * 보관 사용자 수가 max-users를 넘으면 가장 오래 조회되지 않은 타임라인부터 10%를 한꺼번에 내보냅니다.
+     * 정렬은 새 사용자를 적재할 때만, 그것도 넘칠 때만 일어나므로 조회 경로에는 비용이 없습니다.
+     */
+    private void evictIfFull() {
+        if (timelines.size() <= maxUsers || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<Long, Timeline>> snapshot = new ArrayList<>(timelines.entrySet());
+            int target = maxUsers - maxUsers / 10;
+            int excess = snapshot.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            // ✅ [수정] 적재 중인 타임라인은 내보내지 않습니다. (내보내면 적재 중 들어온 push/remove가 사라짐)
+            snapshot.removeIf(e -> !e.getValue().isLoaded());
+            snapshot.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (int i = 0; i < Math.min(excess, snapshot.size()); i++) {
+                Map.Entry<Long, Timeline> eldest = snapshot.get(i);
+                timelines.remove(eldest.getKey(), eldest.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Timeline {
+        private final TreeSet<FeedEntry> entries = new TreeSet<>(NEWEST_FIRST);
+        // 적재 중에 들어온 제거 조건. 적재할 DB 결과에도 적용해야 제거가 되살아나지 않습니다.
+        private final List<Predicate<FeedEntry>> pendingRemovals = new ArrayList<>();
+        private boolean loaded;
+        private boolean complete = true;
+        private long loadedAt; // System.nanoTime() 기준 적재 완료 시각
+        volatile long lastAccess;
+
+        private Timeline(long lastAccess) {
+            this.lastAccess = lastAccess;
+        }
+
+        synchronized void load(List<FeedEntry> loadedEntries, boolean loadedComplete, int capacity) {
+            complete = complete && loadedComplete;
+            for (FeedEntry entry : loadedEntries) {
+                if (pendingRemovals.stream().noneMatch(filter -> filter.test(entry))) {
+                    addIfAbsent(entry, capacity);
+                }
+            }
+            pendingRemovals.clear();
+            if (!loaded) {
+                loadedAt = System.nanoTime();
+            }
+            loaded = true;
+        }
+
+        synchronized void add(FeedEntry entry, int capacity) {
+            // 정렬 키(createdAt, id)가 같으면 equal로 취급되므로, 먼저 지워야 공개 범위 변경이 반영됩니다.
+            entries.remove(entry);
+            entries.add(entry);
+            trim(capacity);
+        }
+
+        // DB 결과는 적재 중 들어온 push보다 오래된 상태일 수 있으므로 같은 일기가 있으면 push 쪽을 유지합니다.
+        private void addIfAbsent(FeedEntry entry, int capacity) {
+            entries.add(entry);
+            trim(capacity);
+        }
+
+        private void trim(int capacity) {
+            while (entries.size() > capacity) {
+                entries.pollLast();
+                complete = false; // 오래된 항목이 잘려 나갔으므로 더 이상 전체 피드가 아님
+            }
+        }
+
+        synchronized void removeIf(Predicate<FeedEntry> filter) {
+            entries.removeIf(filter);
+            if (!loaded) {
+                pendingRemovals.add(filter);
+            }
+        }
+
+        synchronized List<FeedEntry> range(int offset, int limit) {
+            List<FeedEntry> result = new ArrayList<>(Math.min(limit, entries.size()));
+            int index = 0;
+            for (FeedEntry entry : entries) {
+                if (index++ < offset) continue;
+                if (result.size() >= limit) break;
+                result.add(entry);
+            }
+            return result;
+        }
+
+        synchronized List<FeedEntry> rangeAfter(FeedEntry probe, int limit) {
+            List<FeedEntry> result = new ArrayList<>(limit);
+            for (FeedEntry entry : entries.tailSet(probe, false)) {
+                if (result.size() >= limit) break;
+                result.add(entry);
+            }
+            return result;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        // 아직 적재 중인 타임라인은 만료되지 않습니다.
+        synchronized boolean isExpired(long now, long ttlNanos) {
+            return loaded && now - loadedAt > ttlNanos;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized boolean isComplete() {
+            return complete;
+        }
+    }
+}
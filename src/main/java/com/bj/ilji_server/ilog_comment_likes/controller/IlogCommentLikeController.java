@@ -29,6 +29,26 @@ public class IlogCommentLikeController {
         return ResponseEntity.ok(isLiked);
     }
 
+    /**
+     * ✅ [신규] 댓글 좋아요 (멱등)
+     * @return 요청 후 '좋아요' 상태 (항상 true)
+     */
+    @PutMapping
+    public ResponseEntity<Boolean> likeComment(@PathVariable Long commentId, @AuthenticationPrincipal User user) {
+        ilogCommentLikeService.likeComment(commentId, user.getId());
+        return ResponseEntity.ok(true);
+    }
+
+    /**
+     * ✅ [신규] 댓글 좋아요 취소 (멱등)
+     * @return 요청 후 '좋아요' 상태 (항상 false)
+     */
+    @DeleteMapping
+    public ResponseEntity<Boolean> unlikeComment(@PathVariable Long commentId, @AuthenticationPrincipal User user) {
+        ilogCommentLikeService.unlikeComment(commentId, user.getId());
+        return ResponseEntity.ok(false);
+    }
+
     /**
      * 특정 댓글에 '좋아요'를 누른 사용자 목록을 조회합니다.
      * @param commentId 대상 댓글 ID
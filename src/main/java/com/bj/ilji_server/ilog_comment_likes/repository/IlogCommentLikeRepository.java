@@ -5,6 +5,7 @@ import com.bj.ilji_server.ilog_comments.entity.IlogComment;
 import com.bj.ilji_server.user_profile.entity.UserProfile;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -32,4 +33,21 @@ public interface IlogCommentLikeRepository extends JpaRepository<IlogCommentLike
     List<IlogCommentLike> findAllByIlogComment_Id(Long commentId);
 
     boolean existsByIlogComment_IdAndUserProfile_UserId(Long commentId, Long userId);
-}
\ No newline at end of file
+
+    /**
+     * ✅ [신규] 좋아요가 없을 때만 추가합니다. 이미 있으면 유니크 인덱스(uq_comment_like) 충돌 행을 오류 없이 건너뜁니다.
+     * @return 실제로 추가된 행 수 (0: 이미 좋아요 상태, 1: 새로 추가)
+     */
+    @Modifying
+    @Query(value = "INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX(ilog_comment_likes, uq_comment_like) */ " +
+            "INTO ilog_comment_likes (comment_id, user_id) VALUES (:commentId, :userId)", nativeQuery = true)
+    int insertIfAbsent(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
+    /**
+     * ✅ [신규] 좋아요를 삭제합니다.
+     * @return 실제로 삭제된 행 수 (0: 원래 좋아요가 없던 상태, 1: 취소됨)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ilog_comment_likes WHERE comment_id = :commentId AND user_id = :userId", nativeQuery = true)
+    int deleteByCommentIdAndUserId(@Param("commentId") Long commentId, @Param("userId") Long userId);
+}
@@ -2,18 +2,15 @@ package com.bj.ilji_server.ilog_comment_likes.service;
 
 import com.bj.ilji_server.ilog_comment_likes.entity.IlogCommentLike;
 import com.bj.ilji_server.ilog_comment_likes.repository.IlogCommentLikeRepository;
-import com.bj.ilji_server.ilog_comments.entity.IlogComment;
 import com.bj.ilji_server.ilog_comments.repository.IlogCommentRepository;
 import com.bj.ilji_server.likes.dto.LikerInfoDTO;
-import com.bj.ilji_server.user_profile.entity.UserProfile;
-import com.bj.ilji_server.user_profile.repository.UserProfileRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,37 +18,56 @@ import java.util.stream.Collectors;
 public class IlogCommentLikeService {
 
     private final IlogCommentLikeRepository ilogCommentLikeRepository;
-    private final UserProfileRepository userProfileRepository;
     private final IlogCommentRepository ilogCommentRepository;
 
+    /**
+     * ✅ [신규] 댓글 좋아요 (멱등). INSERT 한 번으로 처리하며, 이미 좋아요 상태면 아무것도 바꾸지 않습니다.
+     * @return 실제로 상태가 바뀌었으면 true
+     */
+    @Transactional
+    public boolean likeComment(Long commentId, Long userId) {
+        int inserted;
+        try {
+            inserted = ilogCommentLikeRepository.insertIfAbsent(commentId, userId);
+        } catch (DataIntegrityViolationException e) {
+            // 중복은 힌트로 무시되므로, 여기로 오는 건 외래 키 위반(존재하지 않는 댓글/사용자)뿐입니다.
+            throw new EntityNotFoundException("Comment not found with id: " + commentId);
+        }
+        if (inserted == 0) {
+            return false;
+        }
+        ilogCommentRepository.addLikeCount(commentId, 1); // 댓글의 좋아요 수 증가
+        return true;
+    }
+
+    /**
+     * ✅ [신규] 댓글 좋아요 취소 (멱등). DELETE 한 번으로 처리하며, 좋아요가 없으면 아무것도 바꾸지 않습니다.
+     * @return 실제로 상태가 바뀌었으면 true
+     */
+    @Transactional
+    public boolean unlikeComment(Long commentId, Long userId) {
+        int deleted = ilogCommentLikeRepository.deleteByCommentIdAndUserId(commentId, userId);
+        if (deleted == 0) {
+            return false;
+        }
+        ilogCommentRepository.addLikeCount(commentId, -1); // 댓글의 좋아요 수 감소
+        return true;
+    }
+
     /**
      * 댓글에 대한 '좋아요'를 추가하거나 취소합니다. (토글 방식)
+     * ✅ [개선] 엔티티를 조회하지 않고, 먼저 취소를 시도한 뒤 취소할 좋아요가 없으면 추가합니다.
      * @param commentId '좋아요'를 누를 댓글의 ID
      * @param userId '좋아요'를 누르는 사용자의 ID
      * @return '좋아요'가 추가되면 true, 취소되면 false를 반환합니다.
      */
     @Transactional
     public boolean toggleCommentLike(Long commentId, Long userId) {
-        // 1. 사용자(UserProfile)와 댓글(IlogComment) 엔티티를 조회합니다.
-        UserProfile userProfile = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-        IlogComment ilogComment = ilogCommentRepository.findById(commentId)
-                .orElseThrow(() -> new EntityNotFoundException("Comment not found with id: " + commentId));
-
-        // 2. 해당 사용자가 해당 댓글에 '좋아요'를 눌렀는지 확인합니다.
-        Optional<IlogCommentLike> existingLike = ilogCommentLikeRepository.findByUserProfileAndIlogComment(userProfile, ilogComment);
-
-        if (existingLike.isPresent()) {
-            // 3-1. '좋아요'가 이미 존재하면 삭제하고 false를 반환합니다. (좋아요 취소)
-            ilogCommentLikeRepository.delete(existingLike.get());
-            ilogComment.decreaseLikeCount(); // 댓글 엔티티의 좋아요 수 감소
+        if (unlikeComment(commentId, userId)) {
             return false;
-        } else {
-            // 3-2. '좋아요'가 없으면 새로 생성하고 true를 반환합니다. (좋아요 추가)
-            ilogCommentLikeRepository.save(new IlogCommentLike(ilogComment, userProfile));
-            ilogComment.increaseLikeCount(); // 댓글 엔티티의 좋아요 수 증가
-            return true;
         }
+        likeComment(commentId, userId);
+        return true;
     }
 
     /**
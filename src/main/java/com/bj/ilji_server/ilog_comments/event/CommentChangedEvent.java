@@ -0,0 +1,23 @@
+package com.bj.ilji_server.ilog_comments.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 일기의 댓글 수(i_log.comment_count)가 바뀌었을 때 발행되는 이벤트.
+ * 인기 피드 점수 등 파생 데이터는 AFTER_COMMIT 리스너에서 이 이벤트를 받아 갱신합니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CommentChangedEvent {
+    private final Long ilogId;
+    private final int delta; // +1: 댓글 작성, -1: 댓글 삭제(물리 삭제)
+
+    public static CommentChangedEvent created(Long ilogId) {
+        return new CommentChangedEvent(ilogId, 1);
+    }
+
+    public static CommentChangedEvent deleted(Long ilogId) {
+        return new CommentChangedEvent(ilogId, -1);
+    }
+}
@@ -3,6 +3,7 @@ package com.bj.ilji_server.ilog_comments.repository;
 import com.bj.ilji_server.ilog_comments.dto.IlogCommentResponseDto;
 import com.bj.ilji_server.ilog_comments.entity.IlogComment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -55,4 +56,10 @@ public interface IlogCommentRepository extends JpaRepository<IlogComment, Long>
      * @return 가장 좋아요가 많은 댓글 Optional
      */
     Optional<IlogComment> findTopByIlogIdAndIsDeletedFalseAndParentIsNullOrderByLikeCountDescCreatedAtDesc(Long ilogId);
-}
\ No newline at end of file
+
+    // ✅ [신규] 엔티티를 로딩하지 않고 좋아요 수만 증감합니다. (0 미만으로 내려가지 않음)
+    @Modifying
+    @Query("UPDATE IlogComment c SET c.likeCount = CASE WHEN c.likeCount + :delta < 0 THEN 0 ELSE c.likeCount + :delta END " +
+           "WHERE c.id = :commentId")
+    int addLikeCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+}
@@ -5,10 +5,12 @@ import com.bj.ilji_server.ilog.repository.ILogRepository;
 import com.bj.ilji_server.ilog_comments.dto.IlogCommentCreateRequest;
 import com.bj.ilji_server.ilog_comments.dto.IlogCommentResponseDto;
 import com.bj.ilji_server.ilog_comments.entity.IlogComment;
+import com.bj.ilji_server.ilog_comments.event.CommentChangedEvent;
 import com.bj.ilji_server.ilog_comments.repository.IlogCommentRepository;
-import com.bj.ilji_server.notification.packing.NotificationComposer; // Import NotificationComposer
+import com.bj.ilji_server.notification.packing.EngagementNotificationAggregator;
 import com.bj.ilji_server.user.entity.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,7 +24,8 @@ public class IlogCommentService {
 
     private final IlogCommentRepository ilogCommentRepository;
     private final ILogRepository iLogRepository;
-    private final NotificationComposer notificationComposer;
+    private final EngagementNotificationAggregator notificationAggregator; // ✅ [개선] 댓글 알림은 창(window) 단위로 모아서 저장
+    private final ApplicationEventPublisher eventPublisher; // ✅ [신규] 인기 피드 점수 갱신용 이벤트 발행
 
     /**
      * 특정 일기의 모든 댓글을 계층 구조(댓글 + 대댓글)로 조회합니다.
@@ -94,6 +97,7 @@ public class IlogCommentService {
 
         // 5. 일기의 댓글 수를 1 증가시킵니다.
         iLog.increaseCommentCount();
+        eventPublisher.publishEvent(CommentChangedEvent.created(iLog.getId()));
 
         // 6. 알림 생성
         // ✅ [개선] 댓글 종류에 따라 알림 수신자를 다르게 설정합니다.
@@ -102,7 +106,7 @@ public class IlogCommentService {
             Long parentCommentAuthorId = parentComment.getUserProfile().getUserId();
             // 자기 자신의 댓글에 답글을 다는 경우는 알림을 보내지 않습니다.
             if (!parentCommentAuthorId.equals(currentUser.getUserProfile().getUserId())) {
-                notificationComposer.ilogCommentCreated(
+                notificationAggregator.commentCreated(
                         parentCommentAuthorId, // 수신자: 부모 댓글 작성자
                         iLog.getId(), iLog.getLogDate(),
                         currentUser.getUserProfile().getUserId(), currentUser.getUserProfile().getNickname());
@@ -112,7 +116,7 @@ public class IlogCommentService {
             Long iLogAuthorId = iLog.getUserProfile().getUserId();
             // 자기 자신의 일기에 댓글을 다는 경우는 알림을 보내지 않습니다.
             if (!iLogAuthorId.equals(currentUser.getUserProfile().getUserId())) {
-                notificationComposer.ilogCommentCreated(
+                notificationAggregator.commentCreated(
                         iLogAuthorId, // 수신자: 일기 작성자
                         iLog.getId(), iLog.getLogDate(),
                         currentUser.getUserProfile().getUserId(), currentUser.getUserProfile().getNickname());
@@ -150,6 +154,7 @@ public class IlogCommentService {
         } else {
             // 댓글이 물리적으로 삭제되기 전에, 해당 일기의 댓글 수를 1 감소시킵니다.
             comment.getIlog().decreaseCommentCount();
+            eventPublisher.publishEvent(CommentChangedEvent.deleted(comment.getIlog().getId()));
 
             // 5. 자식 댓글이 없으면 물리적 삭제(hard delete)를 수행합니다.
             //    만약 이 댓글의 부모가 논리적으로 삭제된 상태이고, 이 댓글이 마지막 자식이었다면,
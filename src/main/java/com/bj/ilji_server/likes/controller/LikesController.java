@@ -31,6 +31,26 @@ public class LikesController {
         return ResponseEntity.ok(isLiked);
     }
 
+    /**
+     * ✅ [신규] 좋아요 (멱등) - 여러 번 호출해도 결과가 같습니다.
+     * @return 요청 후 '좋아요' 상태 (항상 true)
+     */
+    @PutMapping
+    public ResponseEntity<Boolean> like(@PathVariable Long ilogId, @AuthenticationPrincipal User user) {
+        likesService.like(ilogId, user.getId());
+        return ResponseEntity.ok(true);
+    }
+
+    /**
+     * ✅ [신규] 좋아요 취소 (멱등) - 여러 번 호출해도 결과가 같습니다.
+     * @return 요청 후 '좋아요' 상태 (항상 false)
+     */
+    @DeleteMapping
+    public ResponseEntity<Boolean> unlike(@PathVariable Long ilogId, @AuthenticationPrincipal User user) {
+        likesService.unlike(ilogId, user.getId());
+        return ResponseEntity.ok(false);
+    }
+
     @GetMapping
     public ResponseEntity<List<LikerInfoDTO>> getLikers(@PathVariable Long ilogId) {
         List<LikerInfoDTO> likers = likesService.getLikers(ilogId);
@@ -0,0 +1,153 @@
+package com.bj.ilji_server.likes.counter;
+
+import com.bj.ilji_server.likes.event.LikeChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 아직 DB(i_log.like_count)에 반영되지 않은 일기별 좋아요 수 변화량을 메모리에 모아 둡니다.
+ * 인기 글에 좋아요가 몰려도 같은 i_log 행 잠금을 기다리지 않도록, 쓰기 스레드마다 다른 스트라이프에 누적하고
+ * LikeCountFlusher가 주기적으로 합산해서 한 번에 UPDATE 합니다.
+ * ✅ [수정] 좋아요 트랜잭션은 커밋 직전부터 변화량을 누적할 때까지 읽기 잠금을 잡고, 재집계는 쓰기 잠금을 잡습니다.
+ * 그래서 재집계가 도는 동안에는 '행은 커밋됐지만 변화량은 아직 버퍼에 없는' 좋아요가 없고,
+ * 재집계(COUNT)에 이미 포함된 변화량을 같은 잠금 안에서 버퍼에서 꺼내 버리므로 이중으로 반영되지 않습니다.
+ */
+@Component
+public class LikeCountBuffer {
+
+    private final ConcurrentHashMap<Long, Long>[] stripes;
+    private final int stripeMask;
+    private final ReadWriteLock recountLock = new ReentrantReadWriteLock();
+
+    @SuppressWarnings("unchecked")
+    public LikeCountBuffer(@Value("${likes.counter.stripes:0}") int configuredStripes) {
+        // 기본값은 CPU 코어 수 x 2 (2의 거듭제곱으로 올림)
+        int wanted = configuredStripes > 0 ? configuredStripes : Runtime.getRuntime().availableProcessors() * 2;
+        int stripeCount = Integer.highestOneBit(Math.max(1, wanted - 1)) << 1;
+        this.stripes = new ConcurrentHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /** 좋아요/취소가 커밋된 뒤에만 누적합니다. (롤백된 요청이 카운트에 섞이지 않도록) */
+    @EventListener
+    public void onLikeChanged(LikeChangedEvent e) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(e.getIlogId(), e.delta());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            // 커밋 전에 잠가 두어야, 재집계가 커밋된 행은 세고 그 변화량은 아직 못 보는 틈이 생기지 않습니다.
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                recountLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                add(e.getIlogId(), e.delta());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    recountLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    public void add(Long ilogId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        recountLock.readLock().lock();
+        try {
+            stripeOfCurrentThread().merge(ilogId, delta, Long::sum);
+        } finally {
+            recountLock.readLock().unlock();
+        }
+    }
+
+    /** 아직 반영되지 않은 변화량 (조회 시 DB 값에 더해서 보여줍니다) */
+    public long pendingDelta(Long ilogId) {
+        long sum = 0;
+        for (ConcurrentHashMap<Long, Long> stripe : stripes) {
+            Long delta = stripe.get(ilogId);
+            if (delta != null) {
+                sum += delta;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 모든 스트라이프의 변화량을 꺼내 일기별로 합산합니다. (꺼낸 항목은 버퍼에서 제거됨)
+     * remove는 키 단위로 원자적이므로, 꺼내는 도중에 들어온 변화량은 새 항목으로 남아 다음 flush에 반영됩니다.
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> drained = new HashMap<>();
+        for (ConcurrentHashMap<Long, Long> stripe : stripes) {
+            for (Long ilogId : stripe.keySet()) {
+                Long delta = stripe.remove(ilogId);
+                if (delta != null) {
+                    drained.merge(ilogId, delta, Long::sum);
+                }
+            }
+        }
+        drained.values().removeIf(delta -> delta == 0);
+        return drained;
+    }
+
+    /**
+     * ✅ [신규] 커밋 중인 좋아요가 없는 상태(쓰기 잠금)에서 주어진 일기들의 변화량을 버리고 recount를 실행합니다.
+     * recount는 likes 테이블을 다시 세므로 버린 변화량은 이미 그 결과에 들어 있습니다. 실패하면 변화량을 되돌립니다.
+     */
+    public void recount(Collection<Long> ilogIds, Runnable recount) {
+        recountLock.writeLock().lock();
+        try {
+            Map<Long, Long> discarded = new HashMap<>();
+            for (ConcurrentHashMap<Long, Long> stripe : stripes) {
+                for (Long ilogId : ilogIds) {
+                    Long delta = stripe.remove(ilogId);
+                    if (delta != null) {
+                        discarded.merge(ilogId, delta, Long::sum);
+                    }
+                }
+            }
+            try {
+                recount.run();
+            } catch (RuntimeException e) {
+                restore(discarded);
+                throw e;
+            }
+        } finally {
+            recountLock.writeLock().unlock();
+        }
+    }
+
+    /** flush에 실패한 변화량을 되돌려 놓습니다. */
+    public void restore(Map<Long, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+
+    private ConcurrentHashMap<Long, Long> stripeOfCurrentThread() {
+        long threadId = Thread.currentThread().getId();
+        return stripes[(int) (threadId ^ (threadId >>> 16)) & stripeMask];
+    }
+}
@@ -0,0 +1,152 @@
+package com.bj.ilji_server.likes.counter;
+
+import com.bj.ilji_server.notification.scheduler.JobCheckpointStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LikeCountBuffer에 모인 변화량을 i_log.like_count에 일괄 반영(write-behind)하고,
+ * 최근에 변화가 있었던 일기의 좋아요 수를 likes 테이블 기준으로 주기적으로 다시 맞춥니다.
+ * ✅ [수정] 재집계 대상은 이 노드가 반영한 일기(메모리)와, 최근 recount-lookback-minutes 안에 좋아요가 달린 일기(likes.created_at)입니다.
+ * 서버가 비정상 종료되어 메모리가 통째로 유실돼도, 뒤쪽은 DB에서 다시 찾으므로 유실된 '좋아요' 증가분은 보정됩니다.
+ * (유실된 '좋아요 취소'는 행이 남지 않으므로, 그 일기에 다음 좋아요가 달려 재집계될 때 함께 보정됩니다)
+ * ✅ [수정] 재집계는 job_checkpoint 임대(JobCheckpointStore)를 얻은 한 노드에서만 돌고,
+ * 재집계 UPDATE와 해당 일기의 버퍼 변화량 정리는 LikeCountBuffer.recount 안에서 한 번에 일어납니다.
+ */
+@Slf4j
+@Component
+public class LikeCountFlusher {
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE i_log SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?";
+
+    private static final String RECOUNT_SQL =
+            "UPDATE i_log SET like_count = (SELECT COUNT(*) FROM likes WHERE ilog_id = ?) WHERE id = ?";
+
+    // ix_likes_created 범위 조회
+    private static final String RECENTLY_LIKED_SQL =
+            "SELECT DISTINCT ilog_id FROM likes WHERE created_at >= ?";
+
+    private static final int RECOUNT_BATCH_SIZE = 500;
+    private static final String RECOUNT_JOB = "like-count-recount";
+
+    private final LikeCountBuffer likeCountBuffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobCheckpointStore checkpointStore;
+    private final long lookbackMinutes;
+    private final int leaseSeconds;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public LikeCountFlusher(LikeCountBuffer likeCountBuffer,
+                            JdbcTemplate jdbcTemplate,
+                            JobCheckpointStore checkpointStore,
+                            @Value("${likes.counter.recount-lookback-minutes:30}") long lookbackMinutes,
+                            @Value("${likes.counter.recount-lease-seconds:600}") int leaseSeconds) {
+        this.likeCountBuffer = likeCountBuffer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointStore = checkpointStore;
+        this.leaseSeconds = Math.max(1, leaseSeconds);
+        // 재집계 주기(기본 10분)보다 길게 잡아, 한 번 실패하거나 재기동으로 건너뛴 구간도 다음 회차에 다시 봅니다.
+        this.lookbackMinutes = Math.max(1, lookbackMinutes);
+    }
+
+    // 마지막 재집계 이후 변화가 있었던 일기 ID (재집계 대상)
+    private final Set<Long> touchedSinceRecount = ConcurrentHashMap.newKeySet();
+
+    /** 짧은 주기로 변화량을 모아 한 번의 batch UPDATE로 반영합니다. */
+    @Scheduled(fixedDelayString = "${likes.counter.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = likeCountBuffer.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((ilogId, delta) -> args.add(new Object[]{delta, ilogId}));
+        try {
+            jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+            touchedSinceRecount.addAll(deltas.keySet());
+        } catch (RuntimeException e) {
+            // 반영하지 못한 변화량은 버퍼에 되돌려 다음 주기에 다시 시도합니다.
+            likeCountBuffer.restore(deltas);
+            log.warn("[LikeCountFlusher] Failed to flush {} like count deltas, will retry", deltas.size(), e);
+        }
+    }
+
+    /**
+     * 최근 변화가 있었던 일기의 좋아요 수를 likes 테이블 기준으로 다시 계산합니다.
+     * (서버 비정상 종료로 버퍼가 유실된 경우 등 누적 오차 보정용)
+     * ✅ [수정] 아직 반영되지 않은 변화량은 재집계와 같은 잠금 안에서 버리므로(LikeCountBuffer.recount) 이중으로 반영되지 않습니다.
+     */
+    @Scheduled(fixedDelayString = "${likes.counter.recount-interval-ms:600000}")
+    public synchronized void recountTouched() {
+        flush();
+
+        boolean acquired;
+        try {
+            acquired = checkpointStore.tryAcquire(RECOUNT_JOB, nodeId, leaseSeconds);
+        } catch (RuntimeException e) {
+            log.warn("[LikeCountFlusher] Failed to acquire recount lease, skipping this round", e);
+            return;
+        }
+        if (!acquired) {
+            // 다른 노드가 재집계 중. 최근 좋아요는 그 노드가 likes.created_at 기준으로 다시 찾습니다.
+            touchedSinceRecount.clear();
+            return;
+        }
+
+        try {
+            Set<Long> candidates = new HashSet<>(touchedSinceRecount);
+            touchedSinceRecount.removeAll(candidates);
+            try {
+                Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusMinutes(lookbackMinutes));
+                candidates.addAll(jdbcTemplate.queryForList(RECENTLY_LIKED_SQL, Long.class, since));
+            } catch (RuntimeException e) {
+                log.warn("[LikeCountFlusher] Failed to load recently liked diaries, recounting touched ones only", e);
+            }
+
+            List<Long> targets = new ArrayList<>(candidates);
+            for (int from = 0; from < targets.size(); from += RECOUNT_BATCH_SIZE) {
+                List<Long> chunk = targets.subList(from, Math.min(from + RECOUNT_BATCH_SIZE, targets.size()));
+                List<Object[]> args = new ArrayList<>(chunk.size());
+                chunk.forEach(ilogId -> args.add(new Object[]{ilogId, ilogId}));
+                try {
+                    // 청크 단위로 잠가, 재집계 중 좋아요 커밋이 기다리는 시간을 한 번의 batch UPDATE로 제한합니다.
+                    likeCountBuffer.recount(chunk, () -> jdbcTemplate.batchUpdate(RECOUNT_SQL, args));
+                } catch (RuntimeException e) {
+                    touchedSinceRecount.addAll(chunk);
+                    log.warn("[LikeCountFlusher] Failed to recount {} diaries, will retry", chunk.size(), e);
+                }
+            }
+            if (!targets.isEmpty()) {
+                log.info("[LikeCountFlusher] Recounted like_count for {} diaries", targets.size());
+            }
+        } finally {
+            try {
+                checkpointStore.release(RECOUNT_JOB, nodeId);
+            } catch (RuntimeException e) {
+                log.warn("[LikeCountFlusher] Failed to release recount lease, it will expire", e);
+            }
+        }
+    }
+
+    /** 종료 시 남은 변화량을 반영합니다. */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
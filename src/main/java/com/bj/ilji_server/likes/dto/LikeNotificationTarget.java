@@ -0,0 +1,15 @@
+package com.bj.ilji_server.likes.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 좋아요 알림에 필요한 최소 정보 (엔티티를 로딩하지 않고 JPQL 생성자 표현식으로 한 번에 조회)
+ *
+ * @param ilogId        좋아요를 받은 일기 ID
+ * @param authorId      일기 작성자 ID (알림 수신자)
+ * @param logDate       일기 날짜
+ * @param actorId       좋아요를 누른 사용자 ID
+ * @param actorNickname 좋아요를 누른 사용자의 닉네임
+ */
+public record LikeNotificationTarget(Long ilogId, Long authorId, LocalDate logDate, Long actorId, String actorNickname) {
+}
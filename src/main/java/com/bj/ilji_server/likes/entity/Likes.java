@@ -15,7 +15,12 @@ import java.time.LocalDateTime;
 @Table(name = "likes",
         uniqueConstraints = {
                 // 한 사용자가 같은 일기에 두 번 좋아요를 누를 수 없도록 복합 유니크 제약조건 설정
-                @UniqueConstraint(columnNames = {"user_id", "ilog_id"})
+                // 이름은 DDL(uq_likes_user_ilog)과 일치시킵니다. (insertIfAbsent의 IGNORE_ROW_ON_DUPKEY_INDEX 힌트가 참조)
+                @UniqueConstraint(name = "uq_likes_user_ilog", columnNames = {"user_id", "ilog_id"})
+        },
+        indexes = {
+                // ✅ [신규] 좋아요 수 재집계가 최근 좋아요가 달린 일기를 찾을 때 사용 (LikeCountFlusher)
+                @Index(name = "ix_likes_created", columnList = "created_at")
         })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
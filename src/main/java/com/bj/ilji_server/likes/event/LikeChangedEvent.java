@@ -0,0 +1,28 @@
+package com.bj.ilji_server.likes.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 일기 '좋아요'가 추가/취소되었을 때 발행되는 이벤트.
+ * 좋아요 수 집계 등 파생 데이터는 AFTER_COMMIT 리스너에서 이 이벤트를 받아 갱신합니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LikeChangedEvent {
+    private final Long ilogId;
+    private final Long userId;  // 좋아요를 누른(취소한) 사용자
+    private final boolean liked; // true: 좋아요, false: 좋아요 취소
+
+    public static LikeChangedEvent liked(Long ilogId, Long userId) {
+        return new LikeChangedEvent(ilogId, userId, true);
+    }
+
+    public static LikeChangedEvent unliked(Long ilogId, Long userId) {
+        return new LikeChangedEvent(ilogId, userId, false);
+    }
+
+    public int delta() {
+        return liked ? 1 : -1;
+    }
+}
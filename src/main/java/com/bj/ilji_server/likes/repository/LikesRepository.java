@@ -1,11 +1,14 @@
 package com.bj.ilji_server.likes.repository;
 
+import java.util.Collection;
 import java.util.List;
+import com.bj.ilji_server.likes.dto.LikeNotificationTarget;
 import com.bj.ilji_server.likes.entity.Likes;
 import com.bj.ilji_server.ilog.entity.ILog;
 import org.springframework.data.jpa.repository.EntityGraph;
 import com.bj.ilji_server.user_profile.entity.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -20,4 +23,34 @@ public interface LikesRepository extends JpaRepository<Likes, Long> {
     @EntityGraph(attributePaths = {"userProfile"})
     List<Likes> findAllByiLog_Id(Long ilogId);
 
-}
\ No newline at end of file
+    // ✅ [신규] 주어진 일기 ID 중 사용자가 '좋아요'를 누른 일기 ID만 조회 (목록 화면의 isLiked 일괄 계산용)
+    @Query("SELECT l.iLog.id FROM Likes l WHERE l.userProfile.userId = :userId AND l.iLog.id IN :ilogIds")
+    List<Long> findLikedILogIds(@Param("userId") Long userId, @Param("ilogIds") Collection<Long> ilogIds);
+
+    // ---------------------------------------------------
+    // ✅ [신규] 단일 SQL로 처리하는 멱등 좋아요/취소 (엔티티 조회 없음)
+    // ---------------------------------------------------
+    /**
+     * 좋아요가 없을 때만 추가합니다. 이미 있으면 유니크 인덱스(uq_likes_user_ilog) 충돌 행을 오류 없이 건너뜁니다.
+     * (동시에 두 번 눌러도 중복 행이나 제약 조건 오류가 생기지 않습니다)
+     * @return 실제로 추가된 행 수 (0: 이미 좋아요 상태, 1: 새로 추가)
+     */
+    @Modifying
+    @Query(value = "INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX(likes, uq_likes_user_ilog) */ " +
+            "INTO likes (user_id, ilog_id) VALUES (:userId, :ilogId)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("ilogId") Long ilogId);
+
+    /**
+     * @return 실제로 삭제된 행 수 (0: 원래 좋아요가 없던 상태, 1: 취소됨)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM likes WHERE user_id = :userId AND ilog_id = :ilogId", nativeQuery = true)
+    int deleteByUserIdAndIlogId(@Param("userId") Long userId, @Param("ilogId") Long ilogId);
+
+    // ✅ [수정] 좋아요 알림 발송용 정보. 좋아요 요청마다 조회하지 않고, 알림 창이 끝날 때 모인 좋아요를 한 번에 조회합니다.
+    // (likes 행을 통해 조인하므로 그사이 취소된 좋아요는 빠집니다)
+    @Query("SELECT new com.bj.ilji_server.likes.dto.LikeNotificationTarget(i.id, i.userProfile.userId, i.logDate, up.userId, up.nickname) " +
+            "FROM Likes l JOIN l.iLog i JOIN l.userProfile up WHERE i.id IN :ilogIds AND up.userId IN :userIds")
+    List<LikeNotificationTarget> findNotificationTargets(@Param("ilogIds") Collection<Long> ilogIds,
+                                                         @Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,82 @@
+package com.bj.ilji_server.likes.service;
+
+import com.bj.ilji_server.likes.counter.LikeCountBuffer;
+import com.bj.ilji_server.likes.repository.LikesRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 목록 화면의 '좋아요 여부(isLiked)'를 한 번에 계산합니다.
+ * 행마다 EXISTS 서브쿼리를 실행하거나 iLog.getLikes() 컬렉션 전체를 로딩하는 대신,
+ * 한 페이지의 일기 ID 목록에 대해 IN 쿼리 한 번으로 사용자가 누른 일기만 골라냅니다.
+ * 좋아요 수는 아직 DB에 반영되지 않은 변화량(LikeCountBuffer)을 더해서 보여줍니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LikeStateResolver {
+
+    // Oracle의 IN 절 최대 원소 수(1000)를 넘지 않도록 나눠서 조회합니다.
+    private static final int MAX_IN_LIST_SIZE = 1000;
+
+    private final LikesRepository likesRepository;
+    private final LikeCountBuffer likeCountBuffer;
+
+    /** 항목에 '좋아요' 여부와 미반영 좋아요 수 변화량을 반영한 사본을 만드는 함수 (예: ILogFeedResponseDto::withLikeState) */
+    @FunctionalInterface
+    public interface LikeStateApplier<T> {
+        T apply(T item, boolean liked, long pendingLikeDelta);
+    }
+
+    /**
+     * 주어진 일기 중 viewer가 '좋아요'를 누른 일기 ID 집합을 반환합니다.
+     * @param viewerId 현재 사용자 ID (비로그인 시 null → 빈 집합)
+     */
+    public Set<Long> likedIlogIds(Long viewerId, Collection<Long> ilogIds) {
+        if (viewerId == null || ilogIds == null || ilogIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Long> distinctIds = List.copyOf(new HashSet<>(ilogIds));
+        Set<Long> liked = new HashSet<>();
+        for (int from = 0; from < distinctIds.size(); from += MAX_IN_LIST_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, distinctIds.size()));
+            liked.addAll(likesRepository.findLikedILogIds(viewerId, chunk));
+        }
+        return liked;
+    }
+
+    /**
+     * 목록의 각 항목에 '좋아요' 여부와 좋아요 수를 채워 넣습니다.
+     * @param idOf    항목에서 일기 ID를 꺼내는 함수
+     * @param applier 항목에 반영한 사본을 만드는 함수
+     */
+    public <T> List<T> apply(List<T> items, Long viewerId, Function<T, Long> idOf, LikeStateApplier<T> applier) {
+        Set<Long> liked = likedIlogIds(viewerId, items.stream().map(idOf).collect(Collectors.toList()));
+        return items.stream()
+                .map(item -> applyOne(item, liked, idOf, applier))
+                .collect(Collectors.toList());
+    }
+
+    public <T> Page<T> apply(Page<T> page, Long viewerId, Function<T, Long> idOf, LikeStateApplier<T> applier) {
+        Set<Long> liked = likedIlogIds(viewerId, page.map(idOf).getContent());
+        return page.map(item -> applyOne(item, liked, idOf, applier));
+    }
+
+    /** 단건 조회용 */
+    public <T> T applyOne(T item, Long viewerId, Function<T, Long> idOf, LikeStateApplier<T> applier) {
+        return applyOne(item, likedIlogIds(viewerId, List.of(idOf.apply(item))), idOf, applier);
+    }
+
+    private <T> T applyOne(T item, Set<Long> liked, Function<T, Long> idOf, LikeStateApplier<T> applier) {
+        Long ilogId = idOf.apply(item);
+        return applier.apply(item, liked.contains(ilogId), likeCountBuffer.pendingDelta(ilogId));
+    }
+}
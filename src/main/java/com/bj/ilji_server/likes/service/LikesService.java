@@ -2,18 +2,16 @@ package com.bj.ilji_server.likes.service;
 
 import com.bj.ilji_server.likes.dto.LikerInfoDTO;
 import com.bj.ilji_server.likes.entity.Likes;
+import com.bj.ilji_server.likes.event.LikeChangedEvent;
 import com.bj.ilji_server.likes.repository.LikesRepository;
-import com.bj.ilji_server.ilog.entity.ILog;
-import com.bj.ilji_server.ilog.repository.ILogRepository;
-import com.bj.ilji_server.notification.packing.NotificationComposer;
-import com.bj.ilji_server.user_profile.entity.UserProfile;
-import com.bj.ilji_server.user_profile.repository.UserProfileRepository;
+import com.bj.ilji_server.notification.packing.EngagementNotificationAggregator;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,45 +20,60 @@ import java.util.stream.Collectors;
 public class LikesService {
 
     private final LikesRepository likesRepository;
-    private final UserProfileRepository userProfileRepository;
-    private final ILogRepository iLogRepository;
-    private final NotificationComposer notificationComposer;
+    private final EngagementNotificationAggregator notificationAggregator; // ✅ [개선] 좋아요 알림은 창(window) 단위로 모아서 저장
+    private final ApplicationEventPublisher eventPublisher; // ✅ [신규] 좋아요 수는 커밋 후 LikeCountBuffer에서 일괄 반영
 
+    /**
+     * ✅ [신규] 좋아요 (멱등). INSERT 한 번으로 처리하며, 이미 좋아요 상태면 아무것도 바꾸지 않습니다.
+     * @return 실제로 상태가 바뀌었으면 true
+     */
     @Transactional
-    public boolean toggleLike(Long ilogId, Long userId) {
-        // 1. 사용자(UserProfile)와 일기(ILog) 엔티티를 조회합니다.
-        UserProfile userProfile = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("사용자를 찾을 수 없습니다: " + userId));
-        ILog iLog = iLogRepository.findById(ilogId)
-                .orElseThrow(() -> new EntityNotFoundException("일기를 찾을 수 없습니다: " + ilogId));
+    public boolean like(Long ilogId, Long userId) {
+        int inserted;
+        try {
+            inserted = likesRepository.insertIfAbsent(userId, ilogId);
+        } catch (DataIntegrityViolationException e) {
+            // 중복은 힌트로 무시되므로, 여기로 오는 건 외래 키 위반(존재하지 않는 일기/사용자)뿐입니다.
+            throw new EntityNotFoundException("일기를 찾을 수 없습니다: " + ilogId);
+        }
+        if (inserted == 0) {
+            return false;
+        }
 
-        // 2. 해당 사용자가 해당 일기에 '좋아요'를 눌렀는지 확인합니다.
-        Optional<Likes> existingLike = likesRepository.findByUserProfileAndILog(userProfile, iLog);
+        // ✅ [개선] i_log 행을 직접 갱신하면 인기 글에서 행 잠금 경합이 생기므로, 변화량만 기록해 두고 주기적으로 일괄 반영합니다.
+        eventPublisher.publishEvent(LikeChangedEvent.liked(ilogId, userId));
 
-        if (existingLike.isPresent()) {
-            // 3-1. '좋아요'가 이미 존재하면 삭제하고 false를 반환합니다. (좋아요 취소)
-            likesRepository.delete(existingLike.get());
-            iLog.decrementLikeCount();
-            return false;
-        } else {
-            // 3-2. '좋아요'가 없으면 새로 생성하고 true를 반환합니다. (좋아요 추가)
-            likesRepository.save(new Likes(userProfile, iLog));
-            iLog.incrementLikeCount();
+        // ✅ 알림 생성 (새로 추가된 경우에만, 자기 자신은 제외)
+        // ✅ [수정] 수신자/닉네임 조회는 알림 창이 끝날 때 모아서 하므로, 요청 경로는 INSERT 한 번뿐입니다.
+        notificationAggregator.likeCreated(ilogId, userId);
+        return true;
+    }
 
-            // ✅ 알림 생성 (자기 자신은 제외)
-            Long recipientId = iLog.getUserProfile().getUserId();
-            if (!recipientId.equals(userId)) {
-                notificationComposer.ilogLikeCreated(
-                        recipientId,
-                        iLog.getId(),
-                        iLog.getLogDate(),
-                        userProfile.getUserId(),
-                        userProfile.getNickname()
-                );
-            }
+    /**
+     * ✅ [신규] 좋아요 취소 (멱등). DELETE 한 번으로 처리하며, 좋아요가 없으면 아무것도 바꾸지 않습니다.
+     * @return 실제로 상태가 바뀌었으면 true
+     */
+    @Transactional
+    public boolean unlike(Long ilogId, Long userId) {
+        int deleted = likesRepository.deleteByUserIdAndIlogId(userId, ilogId);
+        if (deleted == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(LikeChangedEvent.unliked(ilogId, userId));
+        return true;
+    }
 
-            return true;
+    /**
+     * 기존 토글 API 호환용. 먼저 취소를 시도하고, 취소할 좋아요가 없으면 추가합니다.
+     * @return 토글 후 '좋아요' 상태
+     */
+    @Transactional
+    public boolean toggleLike(Long ilogId, Long userId) {
+        if (unlike(ilogId, userId)) {
+            return false;
         }
+        like(ilogId, userId);
+        return true;
     }
 
     @Transactional(readOnly = true) // 읽기 전용 트랜잭션으로 성능 최적화
@@ -73,4 +86,4 @@ public class LikesService {
                 .map(LikerInfoDTO::new) // 필터링된 UserProfile을 DTO로 변환합니다.
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
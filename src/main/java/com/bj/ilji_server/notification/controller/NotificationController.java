@@ -1,5 +1,6 @@
 package com.bj.ilji_server.notification.controller;
 
+import com.bj.ilji_server.ilog.dto.CursorSliceResponse;
 import com.bj.ilji_server.notification.dto.*;
 import com.bj.ilji_server.notification.entity.Notification;
 import com.bj.ilji_server.notification.service.NotificationService;
@@ -10,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @RestController
@@ -28,14 +30,29 @@ public class NotificationController {
     ) {
         Long userId = user.getId();                      // ★ 바로 user_id 사용
         Page<Notification> page = service.list(userId, status, offset, limit);
+        OffsetDateTime lastReadAt = service.lastReadAt(userId); // ✅ [신규] 읽음 기준 시각으로 상태 표시
         List<NotificationItemDto> items = page.getContent().stream()
-                .map(NotificationDtoMapper::toDto)
+                .map(n -> NotificationDtoMapper.toDto(n, lastReadAt))
                 .toList();
         return NotificationListResponse.builder()
                 .items(items).total(page.getTotalElements()).offset(offset).limit(limit)
                 .build();
     }
 
+    /**
+     * ✅ [신규] 알림함을 커서 기반으로 조회합니다. (최신순, 전체 건수 계산 없음)
+     * GET /api/notifications/cursor?status=ALL&cursor={이전 응답의 nextCursor}&size=20
+     */
+    @GetMapping("/cursor")
+    public CursorSliceResponse<NotificationItemDto> inbox(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "ALL") String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return service.inbox(user.getId(), status, cursor, size);
+    }
+
     @GetMapping("/unread-count")
     public UnreadCountResponse unreadCount(@AuthenticationPrincipal User user) {
         return UnreadCountResponse.builder()
@@ -4,6 +4,7 @@ import com.bj.ilji_server.notification.entity.Notification;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.Map;
 
@@ -15,6 +16,11 @@ public final class NotificationDtoMapper {
     private NotificationDtoMapper() {}
 
     public static NotificationItemDto toDto(Notification n) {
+        return toDto(n, null);
+    }
+
+    /** ✅ [신규] 읽음 기준 시각(lastReadAt) 이전의 NEW 알림은 READ로 내보냅니다. */
+    public static NotificationItemDto toDto(Notification n, OffsetDateTime lastReadAt) {
         return NotificationItemDto.builder()
                 .id(n.getId())
                 .type(n.getType() == null ? null : n.getType().name())
@@ -23,7 +29,7 @@ public final class NotificationDtoMapper {
                 .title(n.getMessageTitle())
                 .body(n.getMessageBody())
                 .linkUrl(n.getLinkUrl())
-                .status(n.getStatus() == null ? null : n.getStatus().name())
+                .status(n.getStatus() == null ? null : n.effectiveStatus(lastReadAt).name())
                 .createdAt(n.getCreatedAt())
                 .meta(parseMeta(n.getMetaJson()))
                 .build();
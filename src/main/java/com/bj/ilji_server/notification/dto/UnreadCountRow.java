@@ -0,0 +1,4 @@
+package com.bj.ilji_server.notification.dto;
+
+/** ✅ [신규] 사용자별 미확인 알림 개수 (countUnreadGroupedByRecipient 결과 한 행) */
+public record UnreadCountRow(Long recipientId, Long count) {}
@@ -15,7 +15,9 @@ import lombok.Setter;
                 @UniqueConstraint(name = "uk_notif_idem", columnNames = "idempotency_key")
         },
         indexes = {
-                @Index(name = "ix_notif_recipient_created", columnList = "recipient_id, created_at DESC")
+                @Index(name = "ix_notif_recipient_created", columnList = "recipient_id, created_at DESC, id DESC"),
+                @Index(name = "ix_notif_created", columnList = "created_at"), // ✅ [신규] 보관 기간 정리용
+                @Index(name = "ix_notif_inbox", columnList = "recipient_id, status, created_at DESC, id DESC") // ✅ [신규] 커서 알림함
         }
 )
 @Getter
@@ -63,13 +65,25 @@ public class Notification {
             columnDefinition = "TIMESTAMP DEFAULT SYSTIMESTAMP")
     private java.time.OffsetDateTime createdAt;
 
-    @Column(name = "idempotency_key", nullable = false, length = 100)
-    private String idempotencyKey;
+    // ✅ [개선] 16바이트 MurmurHash3 키 (IdempotencyKey 참고)
+    @Column(name = "idempotency_key", nullable = false, length = 16, columnDefinition = "RAW(16)")
+    private byte[] idempotencyKey;
 
     @Lob
     @Column(name = "meta_json")
     private String metaJson;
 
+    /** ✅ [신규] 미확인 여부: NEW이면서 읽음 기준 시각(lastReadAt, 없으면 null) 이후에 생성된 알림 */
+    public boolean isUnread(java.time.OffsetDateTime lastReadAt) {
+        return status == NotificationStatus.NEW
+                && (lastReadAt == null || createdAt == null || createdAt.isAfter(lastReadAt));
+    }
+
+    /** ✅ [신규] 응답에 내보낼 상태 (읽음 기준 시각 이전의 NEW 알림은 READ) */
+    public NotificationStatus effectiveStatus(java.time.OffsetDateTime lastReadAt) {
+        return status == NotificationStatus.NEW && !isUnread(lastReadAt) ? NotificationStatus.READ : status;
+    }
+
     @PrePersist
     void prePersist() {
         if (createdAt == null) {
@@ -0,0 +1,55 @@
+package com.bj.ilji_server.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ [신규] 실시간 전송 대기열 (transactional outbox)
+ * 알림과 같은 트랜잭션에서 한 행씩 쌓이고, NotificationOutboxDispatcher가 커밋된 행을 임대해 웹소켓으로 보낸 뒤 지웁니다.
+ * 커밋 직후 서버가 죽어도 행이 남아 있으므로 재기동 후 다시 보냅니다.
+ */
+@Entity
+@Table(
+        name = "notification_outbox",
+        indexes = {
+                @Index(name = "ix_outbox_lease", columnList = "lease_until, id"),
+                @Index(name = "ix_outbox_owner", columnList = "owner"),
+                @Index(name = "ix_outbox_recipient", columnList = "recipient_id, id")
+        }
+)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    // 임대한 디스패처 노드 ID와 임대 만료 시각 (NotificationOutboxDispatcher가 JDBC로 갱신)
+    @Column(name = "owner", length = 36)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public static NotificationOutbox of(Long recipientId, Long notificationId) {
+        NotificationOutbox outbox = new NotificationOutbox();
+        outbox.recipientId = recipientId;
+        outbox.notificationId = notificationId;
+        outbox.createdAt = LocalDateTime.now();
+        return outbox;
+    }
+}
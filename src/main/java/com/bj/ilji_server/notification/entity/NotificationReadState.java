@@ -0,0 +1,30 @@
+package com.bj.ilji_server.notification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * ✅ [신규] 사용자별 알림 읽음 기준 시각 (read watermark)
+ * lastReadAt 이전에 생성된 알림은 모두 읽은 것으로 보므로, "모두 읽음"은 알림 행이 아니라 이 행 하나만 갱신합니다.
+ * 갱신은 NotificationReadStateRepository.advance(MERGE)로만 하며, 기준 시각은 뒤로 가지 않습니다.
+ */
+@Entity
+@Table(name = "notification_read_state")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class NotificationReadState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_read_at", nullable = false)
+    private OffsetDateTime lastReadAt;
+}
@@ -0,0 +1,19 @@
+package com.bj.ilji_server.notification.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * ✅ [신규] 공개/친구공유 일기가 작성되었을 때 발행됩니다.
+ * 팔로워 알림은 요청 트랜잭션 안에서 만들지 않고, 커밋 이후 FriendDiaryFanout이 이 이벤트를 받아 일괄로 만듭니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class FriendDiaryCreatedEvent {
+    private final Long authorId;
+    private final String authorName;
+    private final Long diaryId;
+    private final LocalDate logDate;
+}
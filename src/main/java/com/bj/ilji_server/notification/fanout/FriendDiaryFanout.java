@@ -0,0 +1,107 @@
+package com.bj.ilji_server.notification.fanout;
+
+import com.bj.ilji_server.friend.graph.FollowGraph;
+import com.bj.ilji_server.notification.entity.Notification;
+import com.bj.ilji_server.notification.event.FriendDiaryCreatedEvent;
+import com.bj.ilji_server.notification.outbox.NotificationOutboxDispatcher;
+import com.bj.ilji_server.notification.packing.NotificationComposer;
+import com.bj.ilji_server.notification.repository.NotificationBatchWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ✅ [신규] 친구 일기 작성 알림을 팔로워에게 일괄로 보냅니다. (fan-out)
+ * - 일기 저장 트랜잭션이 커밋된 뒤 백그라운드 스레드에서 실행되므로 작성 요청은 팔로워 수와 무관하게 끝납니다.
+ * - 팔로워를 batchSize명씩 끊어 알림을 만들고, 묶음마다 batch INSERT 한 번 + 웹소켓 전송을 합니다.
+ * - 중간에 실패해도 이미 저장된 묶음은 유지되고, 같은 일기로 다시 실행해도 멱등키 때문에 중복 알림이 생기지 않습니다.
+ */
+@Slf4j
+@Component
+public class FriendDiaryFanout {
+
+    private final FollowGraph followGraph;
+    private final NotificationComposer notificationComposer;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final NotificationOutboxDispatcher outboxDispatcher;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+
+    public FriendDiaryFanout(FollowGraph followGraph,
+                             NotificationComposer notificationComposer,
+                             NotificationBatchWriter notificationBatchWriter,
+                             NotificationOutboxDispatcher outboxDispatcher,
+                             @Value("${notification.fanout.batch-size:500}") int batchSize,
+                             @Value("${notification.fanout.threads:2}") int threads,
+                             @Value("${notification.fanout.queue-capacity:1000}") int queueCapacity) {
+        this.followGraph = followGraph;
+        this.notificationComposer = notificationComposer;
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.outboxDispatcher = outboxDispatcher;
+        this.batchSize = Math.min(Math.max(1, batchSize), 1000); // ID 재조회 IN 절 제한
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                Math.max(1, threads), Math.max(1, threads),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-fanout-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 큐가 가득 차면 커밋을 마친 요청 스레드에서 직접 처리합니다. (알림을 버리지 않음)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFriendDiaryCreated(FriendDiaryCreatedEvent e) {
+        executor.execute(() -> fanOut(e));
+    }
+
+    private void fanOut(FriendDiaryCreatedEvent e) {
+        List<Long> followerIds = followGraph.followerIds(e.getAuthorId());
+        String dateIso = e.getLogDate().toString();
+        int sent = 0;
+
+        for (int from = 0; from < followerIds.size(); from += batchSize) {
+            List<Long> page = followerIds.subList(from, Math.min(from + batchSize, followerIds.size()));
+            List<Notification> drafts = new ArrayList<>(page.size());
+            for (Long followerId : page) {
+                // 작성자 본인에게는 알림을 보내지 않습니다.
+                if (!followerId.equals(e.getAuthorId())) {
+                    drafts.add(notificationComposer.buildFriendDiaryCreated(
+                            followerId, e.getAuthorId(), e.getDiaryId(), e.getAuthorName(), dateIso));
+                }
+            }
+            try {
+                List<Notification> inserted = notificationBatchWriter.insertIgnoringDuplicates(drafts);
+                outboxDispatcher.wakeUp(); // ✅ [개선] 커밋된 outbox를 바로 전송 (웹소켓 전송은 디스패처 스레드에서)
+                sent += inserted.size();
+            } catch (RuntimeException ex) {
+                // 한 묶음이 실패해도 나머지 팔로워에게는 계속 보냅니다.
+                log.warn("[FriendDiaryFanout] Failed to notify {} followers of diary {}", drafts.size(), e.getDiaryId(), ex);
+            }
+        }
+        log.debug("[FriendDiaryFanout] Sent {} notifications for diary {} ({} followers)",
+                sent, e.getDiaryId(), followerIds.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("[FriendDiaryFanout] Pending follower notifications were not finished before shutdown.");
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.bj.ilji_server.notification.outbox;
+
+import com.bj.ilji_server.notification.entity.Notification;
+import com.bj.ilji_server.notification.event.NotificationCreatedEvent;
+import com.bj.ilji_server.notification.repository.NotificationRepository;
+import com.bj.ilji_server.notification.web_socket.NotificationWsNotifier;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ✅ [신규] notification_outbox에 쌓인 알림을 웹소켓으로 보냅니다.
+ * - 요청 스레드는 알림과 outbox 행을 커밋하기만 하고, 전송은 이 디스패처의 스레드에서 일어납니다.
+ * - 여러 노드가 함께 돌아도 같은 행을 두 번 보내지 않도록, 먼저 UPDATE 한 번으로 행을 임대(owner = 이번 묶음의 임대 토큰, lease_until)하고
+ *   그 토큰으로 임대한 행만 다시 읽어 보냅니다. 보낸 행은 owner 조건으로 지웁니다.
+ *   ✅ [수정] 토큰을 묶음마다 새로 만들어, 앞 묶음에서 전송에 실패해 임대된 채 남은 행을 다음 묶음이 곧바로 다시 읽지 않게 합니다.
+ * - 임대는 수신자 단위로 합니다. (한 수신자의 임대 가능한 행을 한 노드가 한꺼번에 가져가고, 수신자마다 id 순서대로 전송)
+ *   앞선 행이 다른 노드에 임대 중인 수신자의 행은 가져가지 않아 순서가 뒤바뀌지 않습니다.
+ * - 노드가 보내는 도중 죽으면 임대가 만료된 뒤(lease-seconds) 다른 노드가 다시 보냅니다. (최소 1회 전송)
+ * - sendEvent는 클라이언트 수신을 확인하지 않는 fire-and-forget이므로 "전송 성공"은 소켓 계층에 넘겼다는 뜻일 뿐입니다.
+ *   그래서 별도의 재시도/백오프는 두지 않고, 드물게 예외가 나면 그 수신자의 남은 행을 임대 만료 후 다시 보내는 것으로 충분합니다.
+ * - 주기적으로(poll-interval-ms) 확인하고, 알림이 커밋되면 바로 깨어나 지연을 줄입니다.
+ */
+@Slf4j
+@Component
+public class NotificationOutboxDispatcher {
+
+    private static final int FIND_BATCH_SIZE = 1000; // 알림 재조회 IN 절 제한
+
+    // 임대되지 않은(또는 임대가 만료된) 행이 가장 오래된 수신자부터 batchSize명을 골라, 그 수신자들의 행을 이 노드에 임대합니다.
+    // 다른 노드가 같은 행을 동시에 임대하려 하면 행 잠금에서 기다렸다가 Oracle이 문장을 다시 실행(write consistency restart)하므로,
+    // 먼저 커밋된 임대가 보이고 그 행과 같은 수신자의 뒤 행은 NOT EXISTS로 건너뜁니다.
+    private static final String CLAIM_SQL =
+            "UPDATE notification_outbox o " +
+            "SET o.owner = ?, o.lease_until = SYSTIMESTAMP + NUMTODSINTERVAL(?, 'SECOND') " +
+            "WHERE o.recipient_id IN (" +
+            "    SELECT recipient_id FROM (" +
+            "        SELECT c.recipient_id FROM notification_outbox c " +
+            "        WHERE c.lease_until IS NULL OR c.lease_until < SYSTIMESTAMP " +
+            "        GROUP BY c.recipient_id ORDER BY MIN(c.id)) " +
+            "    WHERE ROWNUM <= ?) " +
+            "AND (o.lease_until IS NULL OR o.lease_until < SYSTIMESTAMP) " +
+            "AND NOT EXISTS (SELECT 1 FROM notification_outbox p " +
+            "                WHERE p.recipient_id = o.recipient_id AND p.id < o.id AND p.lease_until >= SYSTIMESTAMP)";
+
+    // 이번 묶음에서 임대한 행만 읽습니다. (임대가 그사이 만료돼 다른 노드가 가져갔을 수 있는 행은 제외)
+    private static final String OWNED_SQL =
+            "SELECT id, recipient_id, notification_id FROM notification_outbox " +
+            "WHERE owner = ? AND lease_until >= SYSTIMESTAMP ORDER BY id";
+
+    private static final String DELETE_SQL = "DELETE FROM notification_outbox WHERE id = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationRepository notificationRepository;
+    private final NotificationWsNotifier notificationWsNotifier;
+    private final int batchSize;
+    private final int leaseSeconds;
+
+    private final ExecutorService coordinator;   // 임대/정리는 한 스레드에서만
+    private final ThreadPoolExecutor senders;    // 수신자별 전송
+    private final AtomicBoolean drainQueued = new AtomicBoolean(false);
+
+    public NotificationOutboxDispatcher(JdbcTemplate jdbcTemplate,
+                                        NotificationRepository notificationRepository,
+                                        NotificationWsNotifier notificationWsNotifier,
+                                        @Value("${notification.outbox.batch-size:200}") int batchSize,
+                                        @Value("${notification.outbox.lease-seconds:30}") int leaseSeconds,
+                                        @Value("${notification.outbox.threads:4}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationRepository = notificationRepository;
+        this.notificationWsNotifier = notificationWsNotifier;
+        this.batchSize = Math.max(1, batchSize); // 한 번에 임대할 수신자 수
+        this.leaseSeconds = Math.max(1, leaseSeconds);
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger sequence = new AtomicInteger();
+        int size = Math.max(1, threads);
+        this.senders = new ThreadPoolExecutor(
+                size, size,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.batchSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-outbox-send-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.senders.allowCoreThreadTimeOut(true);
+    }
+
+    private record OutboxRow(long id, Long recipientId, Long notificationId) {}
+
+    /** 알림이 커밋되면 바로 전송을 시작합니다. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCreated(NotificationCreatedEvent e) {
+        wakeUp();
+    }
+
+    /** 놓친 행(다른 노드의 임대 만료, 재기동 직후 등)을 주기적으로 확인합니다. */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /** 전송 작업을 예약합니다. 이미 예약되어 있으면 그 작업이 새 행까지 함께 처리합니다. */
+    public void wakeUp() {
+        if (drainQueued.compareAndSet(false, true)) {
+            coordinator.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainQueued.set(false);
+        try {
+            while (dispatchBatch() >= batchSize) {
+                // 수신자를 가득 임대했으면 남은 행이 더 있을 수 있으므로 이어서 처리
+            }
+        } catch (RuntimeException e) {
+            log.warn("[NotificationOutboxDispatcher] Failed to drain outbox", e);
+        }
+    }
+
+    // 한 묶음을 임대해 보내고, 임대한 수신자 수를 반환합니다.
+    private int dispatchBatch() {
+        String claimToken = UUID.randomUUID().toString(); // 묶음마다 새 임대 토큰 (owner 컬럼)
+        int claimed = jdbcTemplate.update(CLAIM_SQL, claimToken, leaseSeconds, batchSize);
+        if (claimed == 0) {
+            return 0;
+        }
+        List<OutboxRow> rows = jdbcTemplate.query(OWNED_SQL,
+                (rs, rowNum) -> new OutboxRow(
+                        rs.getLong("id"),
+                        rs.getLong("recipient_id"),
+                        rs.getLong("notification_id")),
+                claimToken);
+
+        Map<Long, Notification> notifications = loadNotifications(rows);
+
+        // 수신자별로 id 순서를 유지한 채 묶습니다. (OWNED_SQL이 id 순으로 정렬)
+        Map<Long, List<OutboxRow>> byRecipient = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            byRecipient.computeIfAbsent(row.recipientId(), k -> new ArrayList<>()).add(row);
+        }
+
+        List<List<OutboxRow>> groups = new ArrayList<>(byRecipient.values());
+        List<Future<List<OutboxRow>>> results = new ArrayList<>(groups.size());
+        for (List<OutboxRow> recipientRows : groups) {
+            results.add(senders.submit(() -> sendInOrder(recipientRows, notifications)));
+        }
+
+        List<Object[]> done = new ArrayList<>(rows.size());
+        for (int i = 0; i < results.size(); i++) {
+            List<OutboxRow> sent;
+            try {
+                sent = results.get(i).get();
+            } catch (ExecutionException e) {
+                sent = List.of(); // 남은 행은 임대 만료 후 다시 보냅니다.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+            for (OutboxRow row : sent) {
+                done.add(new Object[]{row.id(), claimToken});
+            }
+        }
+
+        if (!done.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, done);
+        }
+        return byRecipient.size();
+    }
+
+    private Map<Long, Notification> loadNotifications(List<OutboxRow> rows) {
+        List<Long> ids = rows.stream().map(OutboxRow::notificationId).distinct().toList();
+        Map<Long, Notification> notifications = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += FIND_BATCH_SIZE) {
+            for (Notification n : notificationRepository.findAllById(ids.subList(from, Math.min(from + FIND_BATCH_SIZE, ids.size())))) {
+                notifications.put(n.getId(), n);
+            }
+        }
+        return notifications;
+    }
+
+    /**
+     * 한 수신자의 행을 순서대로 보내고, 보낸(=지워도 되는) 행을 반환합니다.
+     * 예외가 나면 멈추고, 그 행과 뒤 행은 임대된 채로 남겨 임대 만료 후 순서대로 다시 보냅니다.
+     * 알림이 그사이 삭제되었으면 보낼 것이 없으므로 보낸 것으로 칩니다.
+     */
+    private List<OutboxRow> sendInOrder(List<OutboxRow> rows, Map<Long, Notification> notifications) {
+        for (int i = 0; i < rows.size(); i++) {
+            Notification notification = notifications.get(rows.get(i).notificationId());
+            if (notification == null) {
+                continue;
+            }
+            try {
+                notificationWsNotifier.send(notification);
+            } catch (RuntimeException e) {
+                log.warn("[NotificationOutboxDispatcher] Send failed for user {}, retrying after lease expiry",
+                        rows.get(i).recipientId(), e);
+                return rows.subList(0, i);
+            }
+        }
+        return rows;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        coordinator.shutdown();
+        coordinator.awaitTermination(5, TimeUnit.SECONDS);
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,187 @@
+package com.bj.ilji_server.notification.packing;
+
+import com.bj.ilji_server.likes.dto.LikeNotificationTarget;
+import com.bj.ilji_server.likes.repository.LikesRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ [신규] 좋아요/댓글 알림 모으기(coalescing)
+ * 이벤트마다 알림 행을 읽고-합치고-저장하던 방식 대신, (수신자, 일기, 종류)별로 일정 시간(window) 동안 반응한 사람을 메모리에 모았다가
+ * 창이 끝날 때 한 번만 합쳐 저장합니다. 인기 글에 좋아요가 몰려도 창마다 알림 저장은 1번이며,
+ * 한 노드 안에서는 저장이 스케줄러 스레드 하나에서만 일어나고, 노드 사이의 경합은 NotificationComposer가 행 잠금과 재시도로 처리합니다.
+ * - 커밋된 좋아요/댓글만 모읍니다. (롤백되면 알림도 없음)
+ * - 서버가 창 도중 종료되면 종료 직전에 남은 것을 저장합니다.
+ * - ✅ [개선] 좋아요는 (일기, 누른 사람)만 받아 두고, 수신자(작성자)와 닉네임은 창이 끝날 때 모인 좋아요 전체를 한 번에 조회합니다.
+ *   (좋아요 요청 경로에서 알림용 조회를 없애기 위해)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EngagementNotificationAggregator {
+
+    private static final int IN_CLAUSE_LIMIT = 1000; // Oracle IN 절 제한
+
+    private final NotificationComposer notificationComposer;
+    private final LikesRepository likesRepository;
+
+    private enum Kind { LIKE, COMMENT }
+
+    private record Key(Long recipientId, Long ilogId, Kind kind) {}
+
+    /** 한 창 동안 모인 반응 (this 잠금 아래에서만 변경) */
+    private static final class Pending {
+        private final LocalDate ilogDate;
+        private final Map<Long, String> actors = new LinkedHashMap<>(); // actorId → 이름 (도착 순)
+
+        private Pending(LocalDate ilogDate) {
+            this.ilogDate = ilogDate;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+    // 수신자를 아직 모르는 좋아요: 일기 ID → 누른 사람 ID (도착 순, compute 안에서만 변경)
+    private final ConcurrentHashMap<Long, Set<Long>> unresolvedLikes = new ConcurrentHashMap<>();
+
+    /** 좋아요 알림을 모읍니다. (현재 트랜잭션이 커밋된 뒤 반영, 자기 일기에 누른 좋아요는 창이 끝날 때 걸러짐) */
+    public void likeCreated(Long ilogId, Long actorId) {
+        afterCommit(() -> unresolvedLikes.compute(ilogId, (k, actors) -> {
+            Set<Long> result = (actors == null) ? new LinkedHashSet<>() : actors;
+            result.add(actorId);
+            return result;
+        }));
+    }
+
+    /** 댓글 알림을 모읍니다. (현재 트랜잭션이 커밋된 뒤 반영) */
+    public void commentCreated(Long recipientId, Long ilogId, LocalDate ilogDate, Long actorId, String actorName) {
+        afterCommit(() -> add(new Key(recipientId, ilogId, Kind.COMMENT), ilogDate, actorId, actorName));
+    }
+
+    /** 창이 끝날 때마다 모인 반응을 (수신자, 일기, 종류)별로 한 번씩 저장합니다. */
+    @Scheduled(fixedDelayString = "${notification.aggregate.window-ms:5000}")
+    public synchronized void flush() {
+        resolveLikes();
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, Pending>> drained = new ArrayList<>(pending.size());
+        for (Key key : pending.keySet()) {
+            Pending p = pending.remove(key);
+            if (p != null) {
+                drained.add(Map.entry(key, p));
+            }
+        }
+
+        int events = 0;
+        for (Map.Entry<Key, Pending> entry : drained) {
+            Key key = entry.getKey();
+            Pending p = entry.getValue();
+            Map<Long, String> actors;
+            synchronized (p) {
+                actors = new LinkedHashMap<>(p.actors);
+            }
+            events += actors.size();
+            try {
+                if (key.kind() == Kind.LIKE) {
+                    notificationComposer.ilogLikesMerged(key.recipientId(), key.ilogId(), p.ilogDate, actors);
+                } else {
+                    notificationComposer.ilogCommentsMerged(key.recipientId(), key.ilogId(), p.ilogDate, actors);
+                }
+            } catch (RuntimeException e) {
+                log.warn("[EngagementNotificationAggregator] Failed to write {} notification for ilog {} to user {}",
+                        key.kind(), key.ilogId(), key.recipientId(), e);
+            }
+        }
+        log.debug("[EngagementNotificationAggregator] Coalesced {} events into {} notification writes", events, drained.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /** 창 동안 모인 좋아요의 수신자와 닉네임을 한 번에 조회해, 일반 묶음(pending)으로 옮깁니다. */
+    private void resolveLikes() {
+        if (unresolvedLikes.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<Long>> drained = new LinkedHashMap<>();
+        for (Long ilogId : unresolvedLikes.keySet()) {
+            Set<Long> actors = unresolvedLikes.remove(ilogId);
+            if (actors != null) {
+                drained.put(ilogId, actors);
+            }
+        }
+        List<Long> ilogIds = new ArrayList<>(drained.keySet());
+        List<Long> actorIds = drained.values().stream().flatMap(Set::stream).distinct().toList();
+
+        Map<Long, Map<Long, LikeNotificationTarget>> targets = new HashMap<>(); // 일기 ID → 누른 사람 ID → 알림 정보
+        try {
+            for (int i = 0; i < ilogIds.size(); i += IN_CLAUSE_LIMIT) {
+                List<Long> ilogChunk = ilogIds.subList(i, Math.min(i + IN_CLAUSE_LIMIT, ilogIds.size()));
+                for (int a = 0; a < actorIds.size(); a += IN_CLAUSE_LIMIT) {
+                    List<Long> actorChunk = actorIds.subList(a, Math.min(a + IN_CLAUSE_LIMIT, actorIds.size()));
+                    for (LikeNotificationTarget t : likesRepository.findNotificationTargets(ilogChunk, actorChunk)) {
+                        targets.computeIfAbsent(t.ilogId(), k -> new HashMap<>()).put(t.actorId(), t);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("[EngagementNotificationAggregator] Failed to resolve {} liked diaries, dropping their notifications",
+                    drained.size(), e);
+            return;
+        }
+
+        // 도착 순서를 지키며, 이번 창의 좋아요 중 취소되지 않았고 자기 일기가 아닌 것만 옮깁니다.
+        drained.forEach((ilogId, actors) -> {
+            Map<Long, LikeNotificationTarget> byActor = targets.getOrDefault(ilogId, Map.of());
+            for (Long actorId : actors) {
+                LikeNotificationTarget t = byActor.get(actorId);
+                if (t != null && !t.authorId().equals(actorId)) {
+                    add(new Key(t.authorId(), ilogId, Kind.LIKE), t.logDate(), actorId, t.actorNickname());
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void add(Key key, LocalDate ilogDate, Long actorId, String actorName) {
+        while (true) {
+            Pending p = pending.computeIfAbsent(key, k -> new Pending(ilogDate));
+            synchronized (p) {
+                // flush가 이미 꺼내 간 묶음이면 새 묶음에 다시 넣습니다.
+                if (pending.get(key) == p) {
+                    p.actors.putIfAbsent(actorId, actorName);
+                    return;
+                }
+            }
+        }
+    }
+}
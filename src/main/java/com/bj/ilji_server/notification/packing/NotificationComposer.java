@@ -4,25 +4,40 @@ import com.bj.ilji_server.notification.entity.Notification;
 import com.bj.ilji_server.notification.service.NotificationService;
 import com.bj.ilji_server.notification.type.EntityType;
 import com.bj.ilji_server.notification.type.IdempotencyKey;
+import com.bj.ilji_server.notification.type.NotificationStatus;
 import com.bj.ilji_server.notification.type.NotificationType;
 import com.bj.ilji_server.schedule.dto.ScheduleBrief;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class NotificationComposer {
 
+    // 묶음 알림을 처음 만들 때 다른 노드와 동시에 INSERT하면 한쪽이 UNIQUE 위반으로 지므로, 진 쪽은 다시 읽어 합칩니다.
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
     private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /** 댓글 생성 알림 */
@@ -100,7 +115,7 @@ public class NotificationComposer {
         n.setLinkUrl("/mypage/" + followerId);
 
         // 2) 주(ISO week, KST) 멱등키
-        String key = IdempotencyKey.weeklyFollowRequestKey(targetUserId, followerId);
+        byte[] key = IdempotencyKey.weeklyFollowRequestKey(targetUserId, followerId);
         n.setIdempotencyKey(key);
         n.setMetaJson(writeJson(meta));
 
@@ -133,7 +148,12 @@ public class NotificationComposer {
     /** 친구가 공개/친구공유 일기를 작성했을 때 (ILog를 DIARY로 취급) */
     public void friendDiaryCreated(Long recipientId, Long authorId,
                                    Long diaryId, String authorName, String dateIso) {
+        notificationService.create(buildFriendDiaryCreated(recipientId, authorId, diaryId, authorName, dateIso));
+    }
 
+    /** ✅ [신규] 친구 일기 작성 알림을 저장하지 않고 만들기만 합니다. (팔로워 일괄 발송에서 여러 건을 모아 저장) */
+    public Notification buildFriendDiaryCreated(Long recipientId, Long authorId,
+                                                Long diaryId, String authorName, String dateIso) {
         Map<String, Object> meta = new HashMap<>();
         meta.put("authorId", authorId);
         meta.put("authorName", authorName);
@@ -156,15 +176,19 @@ public class NotificationComposer {
         n.setIdempotencyKey(IdempotencyKey.instant(
                 recipientId, NotificationType.FRIEND_POST_CREATED, EntityType.DIARY, diaryId));
         n.setMetaJson(writeJson(meta));
-
-        notificationService.create(n);
+        return n;
     }
 
     /** 일정 요약 알림 (예: "오늘 일정 N개가 있습니다") */
     public void scheduleDailySummary(Long recipientId, LocalDate date,
                                      int totalCount, List<ScheduleBrief> topItems) {
         if (totalCount <= 0) return; // 잘못 호출되더라도 생성 방지
+        notificationService.create(buildScheduleDailySummary(recipientId, date, totalCount, topItems));
+    }
 
+    /** ✅ [신규] 일정 요약 알림을 저장하지 않고 만들기만 합니다. (요약 배치에서 여러 건을 모아 저장) */
+    public Notification buildScheduleDailySummary(Long recipientId, LocalDate date,
+                                                  int totalCount, List<ScheduleBrief> topItems) {
         // 유저별 '하루 1건' 멱등을 위해 날짜 기반 키 사용
         long yyyymmdd = date.getYear() * 10000L + date.getMonthValue() * 100L + date.getDayOfMonth();
 
@@ -191,8 +215,7 @@ public class NotificationComposer {
                     : topItems.stream().limit(5).map(this::formatLine).toList());
             n.setMetaJson(objectMapper.writeValueAsString(meta));
         } catch (Exception ignore) { /* 본문만으로도 충분하니 무시 */ }
-
-        notificationService.create(n);
+        return n;
     }
 
     /** 본문 줄 생성 */
@@ -225,148 +248,137 @@ public class NotificationComposer {
     }
 
     /** ILog 좋아요 알림 (게시물 단위로 묶음) */
-    public void ilogLikeCreated(Long recipientId, Long ilogId, java.time.LocalDate ilogDate, Long actorId, String actorName) {
-        String idempotencyKey = IdempotencyKey.instant(recipientId, NotificationType.LIKE_CREATED, EntityType.DIARY, ilogId);
+    public void ilogLikeCreated(Long recipientId, Long ilogId, LocalDate ilogDate, Long actorId, String actorName) {
+        ilogLikesMerged(recipientId, ilogId, ilogDate, Map.of(actorId, actorName));
+    }
 
-        java.util.Optional<Notification> existingNotifOpt = notificationService.findByIdempotencyKey(idempotencyKey);
+    /** ILog 댓글 알림 (게시물 단위로 묶음) */
+    public void ilogCommentCreated(Long recipientId, Long ilogId, LocalDate ilogDate, Long actorId, String actorName) {
+        ilogCommentsMerged(recipientId, ilogId, ilogDate, Map.of(actorId, actorName));
+    }
 
-        if (existingNotifOpt.isPresent()) {
-            // 기존 알림 업데이트
-            Notification n = existingNotifOpt.get();
-            
-            Map<String, Object> meta = new HashMap<>();
+    /**
+     * ✅ [신규] 일정 시간 동안 모인 '좋아요 누른 사람들'(actorId → 이름, 도착 순)을 게시물 묶음 알림에 한 번에 합칩니다.
+     * (EngagementNotificationAggregator가 창(window)마다 한 번 호출)
+     */
+    public void ilogLikesMerged(Long recipientId, Long ilogId, LocalDate ilogDate, Map<Long, String> actors) {
+        mergeEngagement(recipientId, ilogId, ilogDate, actors, NotificationType.LIKE_CREATED, "likers",
+                (date, firstName, others) -> others > 0
+                        ? firstName + " and " + others + " other" + (others > 1 ? "s" : "") + " liked your post."
+                        : String.format("(%s) %s liked your post.", date, firstName));
+    }
+
+    /** ✅ [신규] 일정 시간 동안 모인 '댓글 단 사람들'을 게시물 묶음 알림에 한 번에 합칩니다. */
+    public void ilogCommentsMerged(Long recipientId, Long ilogId, LocalDate ilogDate, Map<Long, String> actors) {
+        mergeEngagement(recipientId, ilogId, ilogDate, actors, NotificationType.COMMENT_CREATED, "commenters",
+                (date, firstName, others) -> others > 0
+                        ? String.format("(%s) %s and %d other%s commented on your post.", date, firstName, others, others > 1 ? "s" : "")
+                        : String.format("(%s) %s commented on your post.", date, firstName));
+    }
+
+    /** 묶음 알림 제목 (MM/dd, 첫 번째 사람 이름, 나머지 인원 수) */
+    @FunctionalInterface
+    private interface EngagementTitle {
+        String format(String date, String firstName, int others);
+    }
+
+    /**
+     * 게시물 단위 묶음 알림에 새 사람들을 합쳐 저장합니다. (조회 1번 + 저장 1번)
+     * - 기존 알림이 있으면 meta의 사람 목록에 없는 사람만 뒤에 붙이고 NEW/최신 시각으로 되돌립니다.
+     * - 모두 이미 포함된 사람이면 아무것도 하지 않습니다.
+     * ✅ [수정] 여러 서버 노드가 같은 묶음 알림을 동시에 고칠 수 있으므로,
+     *   기존 알림은 행 잠금을 걸고 읽어 합치고(나중 노드는 앞 노드의 커밋을 기다렸다가 그 결과에 합침),
+     *   새로 만들다 UNIQUE 위반으로 지면 버리지 않고 다시 읽어 상대가 만든 알림에 합칩니다.
+     */
+    private void mergeEngagement(Long recipientId, Long ilogId, LocalDate ilogDate, Map<Long, String> actors,
+                                 NotificationType type, String metaKey, EngagementTitle title) {
+        if (actors.isEmpty()) {
+            return;
+        }
+        byte[] idempotencyKey = IdempotencyKey.instant(recipientId, type, EntityType.DIARY, ilogId);
+        for (int attempt = 1; ; attempt++) {
             try {
-                if (n.getMetaJson() != null && !n.getMetaJson().isEmpty()) {
-                    meta.putAll(objectMapper.readValue(n.getMetaJson(), new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {}));
+                Boolean merged = transactionTemplate.execute(status ->
+                        mergeEngagementOnce(recipientId, ilogId, ilogDate, actors, type, metaKey, title, idempotencyKey));
+                if (Boolean.TRUE.equals(merged)) {
+                    return;
                 }
-            } catch (JsonProcessingException e) {
-                // JSON 파싱 실패 시, 그냥 새로 시작
-                meta = new HashMap<>();
+            } catch (DataIntegrityViolationException e) {
+                // 다른 노드가 같은 묶음 알림을 먼저 만들었습니다. 다시 읽어 합칩니다.
             }
-
-            List<Map<String, Object>> likers = (List<Map<String, Object>>) meta.getOrDefault("likers", new java.util.ArrayList<>());
-            
-            // 이미 좋아요 누른 사람인지 확인
-            boolean alreadyLiked = likers.stream().anyMatch(liker -> ((Number)liker.get("id")).longValue() == actorId);
-            if (alreadyLiked) {
-                return; // 이미 알림에 포함된 사용자면 아무것도 안 함
-            }
-
-            likers.add(Map.of("id", actorId, "name", actorName));
-            meta.put("likers", likers);
-
-            String messageTitle;
-            if (likers.size() > 1) {
-                String firstLikerName = (String) likers.get(0).get("name");
-                int otherLikersCount = likers.size() - 1;
-                String plural = otherLikersCount > 1 ? "s" : "";
-                messageTitle = firstLikerName + " and " + otherLikersCount + " other" + plural + " liked your post.";
-            } else {
-                messageTitle = String.format("(%s) %s liked your post.",
-                        ilogDate.format(java.time.format.DateTimeFormatter.ofPattern("MM/dd")),
-                        actorName);
+            if (attempt >= MAX_MERGE_ATTEMPTS) {
+                log.warn("[NotificationComposer] Gave up merging {} for ilog {} to user {} after {} attempts",
+                        type, ilogId, recipientId, attempt);
+                return;
             }
-
-            n.setMessageTitle(messageTitle);
-            n.setMetaJson(writeJson(meta));
-            n.setSenderId(actorId); // 마지막으로 좋아요 누른 사람으로 업데이트
-            n.setStatus(com.bj.ilji_server.notification.type.NotificationStatus.NEW); // 다시 NEW로 상태 변경
-            n.setCreatedAt(java.time.OffsetDateTime.now()); // 최신으로 시간 변경
-
-            notificationService.create(n); // save (update)
-        } else {
-            // 새 알림 생성
-            Map<String, Object> meta = new HashMap<>();
-            meta.put("likers", List.of(Map.of("id", actorId, "name", actorName)));
-
-            Notification n = new Notification();
-            n.setRecipientId(recipientId);
-            n.setSenderId(actorId);
-            n.setType(NotificationType.LIKE_CREATED);
-            n.setEntityType(EntityType.DIARY);
-            n.setEntityId(ilogId);
-            n.setMessageTitle(String.format("(%s) %s liked your post.",
-                    ilogDate.format(java.time.format.DateTimeFormatter.ofPattern("MM/dd")),
-                    actorName));
-            n.setLinkUrl("/journals/" + ilogId);
-            n.setIdempotencyKey(idempotencyKey);
-            n.setMetaJson(writeJson(meta));
-            
-            notificationService.create(n);
         }
     }
 
-    /** ILog 댓글 알림 (게시물 단위로 묶음) */
-    public void ilogCommentCreated(Long recipientId, Long ilogId, java.time.LocalDate ilogDate, Long actorId, String actorName) {
-        String idempotencyKey = IdempotencyKey.instant(recipientId, NotificationType.COMMENT_CREATED, EntityType.DIARY, ilogId);
-
-        java.util.Optional<Notification> existingNotifOpt = notificationService.findByIdempotencyKey(idempotencyKey);
+    // 한 트랜잭션 안에서 읽고-합치고-저장합니다. 새 알림이 이미 있는 것으로 확인되면 false (다시 시도)
+    private boolean mergeEngagementOnce(Long recipientId, Long ilogId, LocalDate ilogDate, Map<Long, String> actors,
+                                        NotificationType type, String metaKey, EngagementTitle title,
+                                        byte[] idempotencyKey) {
+        Optional<Notification> existingNotifOpt = notificationService.findByIdempotencyKeyForUpdate(idempotencyKey);
 
+        Notification n;
+        Map<String, Object> meta = new HashMap<>();
         if (existingNotifOpt.isPresent()) {
             // 기존 알림 업데이트
-            Notification n = existingNotifOpt.get();
-
-            Map<String, Object> meta = new HashMap<>();
+            n = existingNotifOpt.get();
             try {
                 if (n.getMetaJson() != null && !n.getMetaJson().isEmpty()) {
-                    meta.putAll(objectMapper.readValue(n.getMetaJson(), new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {}));
+                    meta.putAll(objectMapper.readValue(n.getMetaJson(), new TypeReference<Map<String, Object>>() {}));
                 }
             } catch (JsonProcessingException e) {
                 // JSON 파싱 실패 시, 그냥 새로 시작
                 meta = new HashMap<>();
             }
-
-            List<Map<String, Object>> commenters = (List<Map<String, Object>>) meta.getOrDefault("commenters", new java.util.ArrayList<>());
-
-            // 이미 댓글 단 사람인지 확인
-            boolean alreadyCommented = commenters.stream().anyMatch(commenter -> ((Number)commenter.get("id")).longValue() == actorId);
-            if (alreadyCommented) {
-                return; // 이미 알림에 포함된 사용자면 아무것도 안 함
-            }
-
-            commenters.add(Map.of("id", actorId, "name", actorName));
-            meta.put("commenters", commenters);
-
-            String messageTitle;
-            if (commenters.size() > 1) {
-                String firstCommenterName = (String) commenters.get(0).get("name");
-                int otherCommentersCount = commenters.size() - 1;
-                String plural = otherCommentersCount > 1 ? "s" : "";
-                messageTitle = String.format("(%s) %s and %d other%s commented on your post.",
-                        ilogDate.format(java.time.format.DateTimeFormatter.ofPattern("MM/dd")),
-                        firstCommenterName, otherCommentersCount, plural);
-            } else {
-                messageTitle = String.format("(%s) %s commented on your post.",
-                        ilogDate.format(java.time.format.DateTimeFormatter.ofPattern("MM/dd")),
-                        actorName);
-            }
-
-            n.setMessageTitle(messageTitle);
-            n.setMetaJson(writeJson(meta));
-            n.setSenderId(actorId); // 마지막으로 댓글 단 사람으로 업데이트
-            n.setStatus(com.bj.ilji_server.notification.type.NotificationStatus.NEW); // 다시 NEW로 상태 변경
-            n.setCreatedAt(java.time.OffsetDateTime.now()); // 최신으로 시간 변경
-
-            notificationService.create(n); // save (update)
         } else {
             // 새 알림 생성
-            Map<String, Object> meta = new HashMap<>();
-            meta.put("commenters", List.of(Map.of("id", actorId, "name", actorName)));
-
-            Notification n = new Notification();
+            n = new Notification();
             n.setRecipientId(recipientId);
-            n.setSenderId(actorId);
-            n.setType(NotificationType.COMMENT_CREATED);
+            n.setType(type);
             n.setEntityType(EntityType.DIARY);
             n.setEntityId(ilogId);
-            n.setMessageTitle(String.format("(%s) %s commented on your post.",
-                    ilogDate.format(java.time.format.DateTimeFormatter.ofPattern("MM/dd")),
-                    actorName));
             n.setLinkUrl("/journals/" + ilogId);
             n.setIdempotencyKey(idempotencyKey);
-            n.setMetaJson(writeJson(meta));
-            
-            notificationService.create(n);
         }
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> people = new ArrayList<>(
+                (List<Map<String, Object>>) meta.getOrDefault(metaKey, List.of()));
+        Set<Long> included = new HashSet<>();
+        for (Map<String, Object> person : people) {
+            included.add(((Number) person.get("id")).longValue());
+        }
+
+        Long lastActorId = null;
+        for (Map.Entry<Long, String> actor : actors.entrySet()) {
+            // 이미 알림에 포함된 사용자는 건너뜁니다.
+            if (included.add(actor.getKey())) {
+                people.add(Map.of("id", actor.getKey(), "name", actor.getValue()));
+                lastActorId = actor.getKey();
+            }
+        }
+        if (lastActorId == null) {
+            return true;
+        }
+        meta.put(metaKey, people);
+
+        String date = ilogDate.format(DateTimeFormatter.ofPattern("MM/dd"));
+        n.setMessageTitle(title.format(date, (String) people.get(0).get("name"), people.size() - 1));
+        n.setMetaJson(writeJson(meta));
+        n.setSenderId(lastActorId); // 마지막으로 반응한 사람으로 업데이트
+        if (existingNotifOpt.isPresent()) {
+            n.setStatus(NotificationStatus.NEW); // 다시 NEW로 상태 변경
+            n.setCreatedAt(OffsetDateTime.now()); // 최신으로 시간 변경
+        }
+
+        if (existingNotifOpt.isPresent()) {
+            notificationService.create(n); // 잠근 행 update
+            return true;
+        }
+        // 새 알림은 별도 트랜잭션에서 바로 flush해, UNIQUE 위반을 삼키지 않고 DataIntegrityViolationException으로 받습니다.
+        return notificationService.createAndFlushNewTx(n) != null;
     }
 }
@@ -0,0 +1,171 @@
+package com.bj.ilji_server.notification.repository;
+
+import com.bj.ilji_server.notification.entity.Notification;
+import com.bj.ilji_server.notification.service.RecentIdempotencyKeyFilter;
+import com.bj.ilji_server.notification.service.UnreadCounter;
+import com.bj.ilji_server.notification.type.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ [신규] 알림 여러 건을 JDBC batch INSERT 한 번으로 저장합니다. (JPA save를 건마다 호출하지 않음)
+ * idempotency_key가 이미 있는 행은 IGNORE_ROW_ON_DUPKEY_INDEX 힌트로 건너뛰므로 같은 묶음을 다시 보내도 안전합니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchWriter {
+
+    // 힌트의 인덱스 이름은 notifications.idempotency_key 유니크 제약(uk_notif_idem)과 같아야 합니다.
+    private static final String INSERT_SQL =
+            "INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX(notifications, uk_notif_idem) */ INTO notifications " +
+            "(recipient_id, sender_id, type, entity_type, entity_id, message_title, message_body, " +
+            " link_url, status, created_at, idempotency_key, meta_json) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 전송 대기열: NotificationOutboxDispatcher가 읽어 웹소켓으로 보냅니다.
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO notification_outbox (recipient_id, notification_id, created_at) " +
+            "VALUES (?, ?, SYSTIMESTAMP)";
+
+    private static final String SELECT_IDS_SQL_PREFIX =
+            "SELECT id, idempotency_key, created_at FROM notifications WHERE idempotency_key IN ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentIdempotencyKeyFilter recentKeyFilter;
+    private final UnreadCounter unreadCounter;
+
+    /**
+     * 알림을 한 번에 저장하고, 실제로 새로 들어간 알림만 ID를 채워 반환합니다.
+     * ✅ [개선] 새로 들어간 알림은 같은 트랜잭션에서 outbox에도 기록되어, 커밋 후 디스패처가 웹소켓으로 보냅니다.
+     * (이미 있던 알림은 다시 보내지 않도록 outbox와 결과에서 뺍니다)
+     * @param candidates 1000건 이하 (IN 절 제한)
+     */
+    public List<Notification> insertIgnoringDuplicates(List<Notification> candidates) {
+        return transactionTemplate.execute(status -> insertInTransaction(candidates));
+    }
+
+    private List<Notification> insertInTransaction(List<Notification> candidates) {
+        // 최근에 저장된 키는 INSERT 묶음에서 미리 뺍니다.
+        List<Notification> drafts = candidates.stream()
+                .filter(n -> !recentKeyFilter.seenRecently(n.getIdempotencyKey()))
+                .toList();
+        if (drafts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // created_at 컬럼(TIMESTAMP(6)) 정밀도에 맞춰 두어야, 다시 읽은 값과 그대로 비교할 수 있습니다.
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (Notification n : drafts) {
+            n.setCreatedAt(n.getCreatedAt() == null ? now : n.getCreatedAt().truncatedTo(ChronoUnit.MICROS));
+            if (n.getStatus() == null) {
+                n.setStatus(NotificationStatus.NEW);
+            }
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Notification n = drafts.get(i);
+                ps.setLong(1, n.getRecipientId());
+                setNullableLong(ps, 2, n.getSenderId());
+                ps.setString(3, n.getType().name());
+                ps.setString(4, n.getEntityType().name());
+                setNullableLong(ps, 5, n.getEntityId());
+                ps.setString(6, n.getMessageTitle());
+                ps.setString(7, n.getMessageBody());
+                ps.setString(8, n.getLinkUrl());
+                ps.setString(9, n.getStatus().name());
+                ps.setTimestamp(10, Timestamp.from(n.getCreatedAt().toInstant()));
+                ps.setBytes(11, n.getIdempotencyKey());
+                ps.setString(12, n.getMetaJson());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return drafts.size();
+            }
+        });
+
+        // 중복으로 건너뛴 행은 0. 드라이버가 건수를 알려주지 않으면(SUCCESS_NO_INFO = -2) 새로 들어갔는지 알 수 없으므로
+        // 아래에서 다시 읽어 판정합니다.
+        List<Notification> written = new ArrayList<>(drafts.size());
+        for (int i = 0; i < drafts.size(); i++) {
+            if (i >= counts.length || counts[i] != 0) {
+                written.add(drafts.get(i));
+            }
+        }
+        List<Notification> inserted = resolveInserted(written);
+        // 새로 들어갔든 이미 있었든 이제 DB에 존재하는 키이므로 필터에 기억합니다.
+        drafts.forEach(n -> recentKeyFilter.rememberAfterCommit(n.getIdempotencyKey()));
+        inserted.forEach(n -> unreadCounter.adjustAfterCommit(n.getRecipientId(), 1));
+        enqueue(inserted);
+        return inserted;
+    }
+
+    private void enqueue(List<Notification> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, inserted, inserted.size(), (ps, n) -> {
+            ps.setLong(1, n.getRecipientId());
+            ps.setLong(2, n.getId());
+        });
+    }
+
+    private record StoredRow(long id, Timestamp createdAt) {}
+
+    /**
+     * IDENTITY로 생성된 ID를 idempotency_key로 한 번에 다시 읽어 채우고, 이 묶음이 실제로 넣은 행만 반환합니다.
+     * ✅ [수정] 건수를 모르는(SUCCESS_NO_INFO) 행도 여기서 걸러집니다. 이미 있던 행은 다른 시각에 만들어졌으므로,
+     * 저장된 created_at이 이 묶음이 넣은 값과 같을 때만 새로 들어간 것으로 봅니다.
+     */
+    private List<Notification> resolveInserted(List<Notification> written) {
+        if (written.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(written.size(), "?"));
+        Object[] keys = written.stream().map(Notification::getIdempotencyKey).toArray();
+        HexFormat hex = HexFormat.of();
+        Map<String, StoredRow> rowsByKey = new HashMap<>(written.size() * 2);
+        jdbcTemplate.query(SELECT_IDS_SQL_PREFIX + "(" + placeholders + ")",
+                rs -> {
+                    rowsByKey.put(hex.formatHex(rs.getBytes("idempotency_key")),
+                            new StoredRow(rs.getLong("id"), rs.getTimestamp("created_at")));
+                },
+                keys);
+
+        List<Notification> inserted = new ArrayList<>(written.size());
+        for (Notification n : written) {
+            StoredRow row = rowsByKey.get(hex.formatHex(n.getIdempotencyKey()));
+            if (row != null && row.createdAt().equals(Timestamp.from(n.getCreatedAt().toInstant()))) {
+                n.setId(row.id());
+                inserted.add(n);
+            }
+        }
+        return inserted;
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.NUMERIC);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
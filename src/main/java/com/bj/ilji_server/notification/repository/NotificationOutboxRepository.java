@@ -0,0 +1,7 @@
+package com.bj.ilji_server.notification.repository;
+
+import com.bj.ilji_server.notification.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+}
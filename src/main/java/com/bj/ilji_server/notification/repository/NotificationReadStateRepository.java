@@ -0,0 +1,25 @@
+package com.bj.ilji_server.notification.repository;
+
+import com.bj.ilji_server.notification.entity.NotificationReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+
+    // 읽음 기준 시각을 readAt으로 올립니다. (없으면 생성, 이미 더 늦은 시각이면 그대로)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+       MERGE INTO notification_read_state s
+       USING (SELECT :userId AS user_id, CAST(:readAt AS TIMESTAMP) AS last_read_at FROM dual) v
+          ON (s.user_id = v.user_id)
+        WHEN MATCHED THEN
+             UPDATE SET s.last_read_at = GREATEST(s.last_read_at, v.last_read_at)
+        WHEN NOT MATCHED THEN
+             INSERT (user_id, last_read_at) VALUES (v.user_id, v.last_read_at)
+    """, nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("readAt") OffsetDateTime readAt);
+}
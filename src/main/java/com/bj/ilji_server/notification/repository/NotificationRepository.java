@@ -1,11 +1,18 @@
 package com.bj.ilji_server.notification.repository;
 
+import com.bj.ilji_server.notification.dto.UnreadCountRow;
 import com.bj.ilji_server.notification.entity.Notification;
 import com.bj.ilji_server.notification.type.NotificationStatus;
 import com.bj.ilji_server.notification.type.NotificationType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -16,17 +23,142 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     long countByRecipientIdAndStatus(Long recipientId, NotificationStatus status);
 
-    Optional<Notification> findByIdAndRecipientId(Long id, Long recipientId);
+    // ✅ [신규] 미확인 알림 = status가 NEW이고 읽음 기준 시각(lastReadAt) 이후에 생성된 알림
+    @Query("""
+       SELECT COUNT(n)
+         FROM Notification n
+         LEFT JOIN NotificationReadState r ON r.userId = n.recipientId
+        WHERE n.recipientId = :recipientId
+          AND n.status = :neu
+          AND (r.lastReadAt IS NULL OR n.createdAt > r.lastReadAt)
+    """)
+    long countUnread(@Param("recipientId") Long recipientId, @Param("neu") NotificationStatus neu);
+
+    // ✅ [신규] 미확인 알림 목록 (최신순)
+    @Query(value = """
+       SELECT n
+         FROM Notification n
+         LEFT JOIN NotificationReadState r ON r.userId = n.recipientId
+        WHERE n.recipientId = :recipientId
+          AND n.status = :neu
+          AND (r.lastReadAt IS NULL OR n.createdAt > r.lastReadAt)
+        ORDER BY n.createdAt DESC
+    """, countQuery = """
+       SELECT COUNT(n)
+         FROM Notification n
+         LEFT JOIN NotificationReadState r ON r.userId = n.recipientId
+        WHERE n.recipientId = :recipientId
+          AND n.status = :neu
+          AND (r.lastReadAt IS NULL OR n.createdAt > r.lastReadAt)
+    """)
+    Page<Notification> findUnread(@Param("recipientId") Long recipientId,
+                                  @Param("neu") NotificationStatus neu,
+                                  Pageable pageable);
+
+    // ✅ [신규] 읽은 알림 목록 (하나씩 읽은 알림 + 읽음 기준 시각 이전의 NEW 알림, 최신순)
+    @Query(value = """
+       SELECT n
+         FROM Notification n
+         LEFT JOIN NotificationReadState r ON r.userId = n.recipientId
+        WHERE n.recipientId = :recipientId
+          AND (n.status = :read OR (n.status = :neu AND n.createdAt <= r.lastReadAt))
+        ORDER BY n.createdAt DESC
+    """, countQuery = """
+       SELECT COUNT(n)
+         FROM Notification n
+         LEFT JOIN NotificationReadState r ON r.userId = n.recipientId
+        WHERE n.recipientId = :recipientId
+          AND (n.status = :read OR (n.status = :neu AND n.createdAt <= r.lastReadAt))
+    """)
+    Page<Notification> findRead(@Param("recipientId") Long recipientId,
+                                @Param("read") NotificationStatus read,
+                                @Param("neu") NotificationStatus neu,
+                                Pageable pageable);
 
-    // ★ 포지셔널 파라미터 버전 (named param 사용 안 함)
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    // ---------------------------------------------------
+    // ✅ [신규] 커서(keyset) 기반 알림함 - (created_at, id) 내림차순, count 쿼리/OFFSET 없음
+    // ix_notif_inbox (recipient_id, status, created_at DESC, id DESC) 범위 조회 한 번으로 읽습니다.
+    // ---------------------------------------------------
+
+    @Query("""
+       SELECT n
+         FROM Notification n
+        WHERE n.recipientId = :recipientId
+          AND (n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId))
+        ORDER BY n.createdAt DESC, n.id DESC
+    """)
+    List<Notification> findInboxAfterCursor(
+            @Param("recipientId") Long recipientId,
+            @Param("cursorAt") OffsetDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @Query("""
+       SELECT n
+         FROM Notification n
+        WHERE n.recipientId = :recipientId
+          AND n.status = :status
+          AND (n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId))
+        ORDER BY n.createdAt DESC, n.id DESC
+    """)
+    List<Notification> findInboxByStatusAfterCursor(
+            @Param("recipientId") Long recipientId,
+            @Param("status") NotificationStatus status,
+            @Param("cursorAt") OffsetDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // 미확인: NEW이고 읽음 기준 시각(lastReadAt) 이후 → (lastReadAt, 커서) 사이 한 구간만 읽습니다.
+    @Query("""
+       SELECT n
+         FROM Notification n
+        WHERE n.recipientId = :recipientId
+          AND n.status = :neu
+          AND n.createdAt > :lastReadAt
+          AND (n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId))
+        ORDER BY n.createdAt DESC, n.id DESC
+    """)
+    List<Notification> findUnreadAfterCursor(
+            @Param("recipientId") Long recipientId,
+            @Param("neu") NotificationStatus neu,
+            @Param("lastReadAt") OffsetDateTime lastReadAt,
+            @Param("cursorAt") OffsetDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // 읽음: READ 이거나, NEW지만 읽음 기준 시각 이전
     @Query("""
-       UPDATE Notification n
-          SET n.status = ?2
-        WHERE n.recipientId = ?1
-          AND n.status = ?3
+       SELECT n
+         FROM Notification n
+        WHERE n.recipientId = :recipientId
+          AND (n.status = :read OR (n.status = :neu AND n.createdAt <= :lastReadAt))
+          AND (n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId))
+        ORDER BY n.createdAt DESC, n.id DESC
     """)
-    int markAllRead(Long recipientId, NotificationStatus read, NotificationStatus neu);
+    List<Notification> findReadAfterCursor(
+            @Param("recipientId") Long recipientId,
+            @Param("read") NotificationStatus read,
+            @Param("neu") NotificationStatus neu,
+            @Param("lastReadAt") OffsetDateTime lastReadAt,
+            @Param("cursorAt") OffsetDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // ✅ [개선] 여러 사용자의 미확인 알림 개수를 한 번에 (미확인 개수 캐시 재조정용, 0건인 사용자는 결과에 없음)
+    @Query("""
+       SELECT new com.bj.ilji_server.notification.dto.UnreadCountRow(n.recipientId, COUNT(n))
+         FROM Notification n
+         LEFT JOIN NotificationReadState r ON r.userId = n.recipientId
+        WHERE n.recipientId IN :recipientIds
+          AND n.status = :neu
+          AND (r.lastReadAt IS NULL OR n.createdAt > r.lastReadAt)
+        GROUP BY n.recipientId
+    """)
+    List<UnreadCountRow> countUnreadGroupedByRecipient(
+            @Param("recipientIds") Collection<Long> recipientIds,
+            @Param("neu") NotificationStatus neu);
+
+    Optional<Notification> findByIdAndRecipientId(Long id, Long recipientId);
 
 
 
@@ -34,13 +166,31 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     Optional<Notification> findFirstByRecipientIdAndSenderIdAndTypeOrderByCreatedAtDesc(
             Long recipientId, Long senderId, NotificationType type);
 
-    Optional<Notification> findByIdempotencyKey(String idempotencyKey);
+    Optional<Notification> findByIdempotencyKey(byte[] idempotencyKey);
+
+    // ✅ [신규] 묶음 알림 갱신용: 같은 행을 여러 노드가 동시에 고치지 않도록 행 잠금(SELECT ... FOR UPDATE)을 겁니다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.idempotencyKey = :idempotencyKey")
+    Optional<Notification> findByIdempotencyKeyForUpdate(@Param("idempotencyKey") byte[] idempotencyKey);
+
 
 
+    // ✅ [신규] 한 건 삭제 전에 멱등키만 읽어 둡니다. (삭제 후 최근 멱등키 필터에서 잊기 위해)
+    @Query("SELECT n.idempotencyKey FROM Notification n WHERE n.id = :id AND n.recipientId = :recipientId")
+    Optional<byte[]> findIdempotencyKeyByIdAndRecipientId(@Param("id") Long id, @Param("recipientId") Long recipientId);
 
-    long deleteByIdAndRecipientId(Long id, Long recipientId);
+    // ✅ [신규] 전체 삭제 전에 그 수신자의 멱등키만 읽어 둡니다. (필터 전체를 비우지 않고 이 키들만 잊기 위해)
+    @Query("SELECT n.idempotencyKey FROM Notification n WHERE n.recipientId = :recipientId")
+    List<byte[]> findIdempotencyKeysByRecipientId(@Param("recipientId") Long recipientId);
 
-    long deleteByRecipientId(Long recipientId);
+    // ✅ [개선] 파생 delete는 엔티티를 모두 읽어 한 건씩 지우므로, 읽지 않고 벌크 DELETE 한 번으로 지웁니다.
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.recipientId = :recipientId")
+    int deleteByIdAndRecipientId(@Param("id") Long id, @Param("recipientId") Long recipientId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.recipientId = :recipientId")
+    int deleteByRecipientId(@Param("recipientId") Long recipientId);
 
 }
 
@@ -1,61 +1,285 @@
 package com.bj.ilji_server.notification.scheduler;
 
-import com.bj.ilji_server.ilog.repository.ILogRepository;
-import com.bj.ilji_server.notification.service.NotificationService;
-import com.bj.ilji_server.user.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.bj.ilji_server.notification.entity.Notification;
+import com.bj.ilji_server.notification.outbox.NotificationOutboxDispatcher;
+import com.bj.ilji_server.notification.repository.NotificationBatchWriter;
+import com.bj.ilji_server.notification.type.EntityType;
+import com.bj.ilji_server.notification.type.IdempotencyKey;
+import com.bj.ilji_server.notification.type.NotificationType;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-
-import com.bj.ilji_server.notification.entity.Notification;
-import com.bj.ilji_server.notification.type.NotificationType;
-import com.bj.ilji_server.notification.type.EntityType;
-import com.bj.ilji_server.notification.type.IdempotencyKey;
+import java.sql.Date;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter; // Added import
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 매일 20:00 (Asia/Seoul) — 오늘 일기를 쓰지 않은 유저에게만 리마인더 발송
+ * ✅ [개선] 유저마다 일기 조회 + 알림 저장을 반복하던 방식(2N번 왕복)을 집합 단위로 바꿨습니다.
+ * - 대상 조회: users와 i_log의 NOT EXISTS(anti-join) 한 쿼리로 '오늘 안 쓴 유저'만 ID 순서로 chunkSize명씩 읽습니다.
+ * - 저장/전송: 청크를 batchSize명씩 나눠 워커 풀에서 JDBC batch INSERT + 웹소켓 전송을 합니다.
+ * - 체크포인트: 청크가 끝날 때마다 마지막 유저 ID를 job_checkpoint에 기록해, 서버가 중간에 죽으면 재기동 시 그 다음부터 이어서 보냅니다.
+ *   (멱등키가 있어 체크포인트 직전 청크를 다시 보내도 중복 알림은 생기지 않습니다)
+ * - ✅ [개선] 노드 간 중복 실행 방지: 실행 전에 체크포인트 행을 임대하고, 다른 노드가 임대 중이면 이번 실행은 건너뜁니다.
+ *   청크마다 임대를 연장하므로 lease-seconds는 한 청크를 처리하는 시간보다 넉넉해야 합니다.
+ * - ✅ [개선] 청크가 실패하면 RUNNING 상태로 재기동을 기다리지 않고, 백오프(retry-delay-ms부터 두 배씩)를 두고 같은 날 안에서
+ *   max-retries번까지 체크포인트부터 다시 이어서 보냅니다.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class DiaryReminderScheduler {
 
-    private final UserRepository userRepository;
-    private final NotificationService notificationService;
-    private final ILogRepository iLogRepository; // ILogRepository 주입
+    private static final String JOB_NAME = "diary-reminder";
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    // 오늘 일기가 없는 유저 ID를 keyset(u.id > ?)으로 끊어 읽습니다. (uq_ilog_user_profile_date 인덱스로 존재 여부 확인)
+    private static final String FIND_USERS_WITHOUT_DIARY_SQL =
+            "SELECT u.id FROM users u " +
+            "WHERE u.id > ? " +
+            "AND NOT EXISTS (SELECT 1 FROM i_log i WHERE i.user_profile_id = u.id AND i.log_date = ?) " +
+            "ORDER BY u.id " +
+            "FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final NotificationOutboxDispatcher outboxDispatcher;
+    private final JobCheckpointStore checkpointStore;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int leaseSeconds;
+    private final long retryDelayMs;
+    private final int maxRetries;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries; // 재기동 후 이어서 보내기 / 실패한 회차 재시도
+
+    public DiaryReminderScheduler(JdbcTemplate jdbcTemplate,
+                                  NotificationBatchWriter notificationBatchWriter,
+                                  NotificationOutboxDispatcher outboxDispatcher,
+                                  JobCheckpointStore checkpointStore,
+                                  @Value("${notification.reminder.chunk-size:2000}") int chunkSize,
+                                  @Value("${notification.reminder.batch-size:500}") int batchSize,
+                                  @Value("${notification.reminder.workers:4}") int workers,
+                                  @Value("${notification.reminder.lease-seconds:300}") int leaseSeconds,
+                                  @Value("${notification.reminder.retry-delay-ms:30000}") long retryDelayMs,
+                                  @Value("${notification.reminder.max-retries:5}") int maxRetries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.outboxDispatcher = outboxDispatcher;
+        this.checkpointStore = checkpointStore;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.batchSize = Math.min(Math.max(1, batchSize), 1000); // ID 재조회 IN 절 제한
+        this.leaseSeconds = Math.max(1, leaseSeconds);
+        this.retryDelayMs = Math.max(0L, retryDelayMs);
+        this.maxRetries = Math.max(0, maxRetries);
+        int threads = Math.max(1, workers);
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "diary-reminder-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "diary-reminder-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
-    /** 매일 20:00 (Asia/Seoul) — 오늘 일기를 쓰지 않은 유저에게만 리마인더 발송 */
     @Scheduled(cron = "0 0 20 * * *", zone = "Asia/Seoul")
     public void sendDailyDiaryReminder() {
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Seoul"));
+        run(LocalDate.now(ZONE), false, 0);
+    }
+
+    /** 서버가 발송 도중 종료되었다면, 재기동 후 같은 날 안에서는 남은 유저에게 이어서 보냅니다. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        LocalDate today = LocalDate.now(ZONE);
+        Optional<JobCheckpointStore.Checkpoint> checkpoint;
+        try {
+            checkpoint = checkpointStore.find(JOB_NAME);
+        } catch (DataAccessException e) {
+            log.warn("[DiaryReminderScheduler] Could not read checkpoint, skipping resume", e);
+            return;
+        }
+        if (checkpoint.isPresent() && checkpoint.get().isRunning() && today.toString().equals(checkpoint.get().runKey())) {
+            retries.execute(() -> run(today, true, 0));
+        }
+    }
+
+    private synchronized void run(LocalDate today, boolean resumeOnly, int attempt) {
+        boolean acquired;
+        try {
+            acquired = checkpointStore.tryAcquire(JOB_NAME, nodeId, leaseSeconds);
+        } catch (DataAccessException e) {
+            log.warn("[DiaryReminderScheduler] Could not lock checkpoint for {}", today, e);
+            scheduleRetry(today, attempt);
+            return;
+        }
+        if (!acquired) {
+            log.info("[DiaryReminderScheduler] {} reminders are being sent by another node, skipping", today);
+            return;
+        }
+
+        boolean failed;
+        try {
+            failed = !send(today, resumeOnly);
+        } catch (RuntimeException e) {
+            log.warn("[DiaryReminderScheduler] Failed while sending {} reminders, will resume from checkpoint", today, e);
+            failed = true;
+        } finally {
+            try {
+                checkpointStore.release(JOB_NAME, nodeId);
+            } catch (DataAccessException e) {
+                log.warn("[DiaryReminderScheduler] Could not release checkpoint lease, it expires in {}s", leaseSeconds, e);
+            }
+        }
+        if (failed) {
+            scheduleRetry(today, attempt);
+        }
+    }
+
+    /** 실패한 회차를 백오프 후 체크포인트부터 다시 이어서 보냅니다. 날짜가 바뀌었거나 재시도를 다 썼으면 포기합니다. */
+    private void scheduleRetry(LocalDate today, int attempt) {
+        if (attempt >= maxRetries) {
+            log.error("[DiaryReminderScheduler] Giving up {} reminders after {} retries, will resume on next restart", today, attempt);
+            return;
+        }
+        long delayMs = retryDelayMs << Math.min(attempt, 10);
+        if (!today.equals(LocalDate.ofInstant(Instant.now().plusMillis(delayMs), ZONE))) {
+            return; // 다음 날 리마인더를 보내는 것은 의미가 없음
+        }
+        try {
+            retries.schedule(() -> run(today, true, attempt + 1), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+        }
+    }
+
+    /**
+     * 체크포인트부터 남은 유저에게 보냅니다.
+     * @return 끝까지 보냈거나 더 보낼 것이 없으면 true, 청크가 실패했으면 false (체크포인트부터 재시도)
+     */
+    private boolean send(LocalDate today, boolean resumeOnly) {
+        String runKey = today.toString();
+        long lastId = 0L;
+        long processedBefore = 0L;
+
+        Optional<JobCheckpointStore.Checkpoint> checkpoint = checkpointStore.find(JOB_NAME);
+        if (checkpoint.isPresent() && runKey.equals(checkpoint.get().runKey())) {
+            if (checkpoint.get().isDone()) {
+                return true; // 오늘 회차는 이미 끝남
+            }
+            lastId = checkpoint.get().lastId();
+            processedBefore = checkpoint.get().processed();
+            log.info("[DiaryReminderScheduler] Resuming {} reminders after user {} ({} already sent)", runKey, lastId, processedBefore);
+        } else if (resumeOnly) {
+            return true;
+        } else {
+            checkpointStore.start(JOB_NAME, runKey);
+        }
+
         long yyyymmdd = today.getYear() * 10000L + today.getMonthValue() * 100L + today.getDayOfMonth();
+        String formattedDate = today.format(DateTimeFormatter.ofPattern("MM/dd"));
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd"); // Added line
-        String formattedDate = today.format(formatter); // Added line
+        long startedAt = System.nanoTime();
+        long scanned = 0;
+        long sent = 0;
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(
+                    FIND_USERS_WITHOUT_DIARY_SQL, Long.class, lastId, Date.valueOf(today), chunkSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
 
-        var userIds = userRepository.findAllIds();
-        AtomicInteger sentCount = new AtomicInteger(0); // 전송 카운트
+            // 청크를 batchSize명씩 나눠 워커 풀에서 동시에 저장/전송합니다.
+            List<Future<Integer>> batches = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += batchSize) {
+                List<Long> batch = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+                batches.add(workers.submit(() -> sendBatch(batch, yyyymmdd, formattedDate)));
+            }
+            int chunkSent = 0;
+            try {
+                for (Future<Integer> batch : batches) {
+                    chunkSent += batch.get();
+                }
+            } catch (ExecutionException e) {
+                // 체크포인트를 넘기지 않고 멈춥니다. 재시도 때 이 청크부터 다시 보냅니다.
+                log.warn("[DiaryReminderScheduler] Failed after user {}, will resume from checkpoint", lastId, e.getCause());
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true; // 종료 중 - 재기동 후 이어서 보냄
+            }
 
-        for (Long uid : userIds) {
-            // 오늘 날짜로 작성된 일기가 있는지 확인
-            boolean hasWrittenToday = iLogRepository.findByUserProfileUserIdAndLogDate(uid, today).isPresent();
-
-            // 일기를 아직 작성하지 않은 경우에만 알림 생성
-            if (!hasWrittenToday) {
-                Notification n = new Notification();
-                n.setRecipientId(uid);
-                n.setType(NotificationType.DIARY_REMINDER);
-                n.setEntityType(EntityType.DIARY);
-                n.setMessageTitle("(" + formattedDate + ") Time to write your daily log!"); // Modified line
-                // 링크는 프론트에서 처리하므로 제거
-                n.setIdempotencyKey(IdempotencyKey.instant(uid, NotificationType.DIARY_REMINDER, EntityType.DIARY, yyyymmdd));
-                notificationService.create(n);
-                sentCount.getAndIncrement();
+            lastId = userIds.get(userIds.size() - 1);
+            scanned += userIds.size();
+            sent += chunkSent;
+            if (!checkpointStore.advance(JOB_NAME, runKey, nodeId, leaseSeconds, lastId, chunkSent)) {
+                // 임대가 만료되어 다른 노드가 이어받았으므로 여기서 멈춥니다.
+                log.warn("[DiaryReminderScheduler] Lost checkpoint lease after user {}, stopping", lastId);
+                return true;
+            }
+            if (userIds.size() < chunkSize) {
+                break;
             }
         }
-        log.info("[DiaryReminderScheduler] Sent {} diary reminders for {} (Total users: {})", sentCount.get(), today, userIds.size());
+        checkpointStore.complete(JOB_NAME, runKey);
+
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        log.info("[DiaryReminderScheduler] Sent {} diary reminders for {} ({} users without a diary, {} ms, {} reminders/s, {} sent before resume)",
+                sent, today, scanned, elapsedMs, sent * 1000 / elapsedMs, processedBefore);
+        return true;
+    }
+
+    private int sendBatch(List<Long> userIds, long yyyymmdd, String formattedDate) {
+        List<Notification> drafts = new ArrayList<>(userIds.size());
+        for (Long uid : userIds) {
+            Notification n = new Notification();
+            n.setRecipientId(uid);
+            n.setType(NotificationType.DIARY_REMINDER);
+            n.setEntityType(EntityType.DIARY);
+            n.setMessageTitle("(" + formattedDate + ") Time to write your daily log!");
+            // 링크는 프론트에서 처리하므로 제거
+            n.setIdempotencyKey(IdempotencyKey.instant(uid, NotificationType.DIARY_REMINDER, EntityType.DIARY, yyyymmdd));
+            drafts.add(n);
+        }
+        List<Notification> inserted = notificationBatchWriter.insertIgnoringDuplicates(drafts);
+        outboxDispatcher.wakeUp(); // ✅ [개선] 커밋된 outbox를 바로 전송 (웹소켓 전송은 디스패처 스레드에서)
+        return inserted.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdown();
     }
 }
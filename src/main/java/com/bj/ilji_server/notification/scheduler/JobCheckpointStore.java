@@ -0,0 +1,112 @@
+package com.bj.ilji_server.notification.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ✅ [신규] 배치 작업의 진행 지점을 job_checkpoint 테이블에 기록합니다.
+ * 작업은 청크를 끝낼 때마다 advance를 호출하고, 재시작 시 find로 같은 회차(runKey)의 마지막 ID부터 이어서 처리합니다.
+ * ✅ [개선] 여러 노드가 같은 작업을 동시에 돌리지 않도록, 실행 전에 tryAcquire로 행을 임대(owner, lease_until)하고
+ * 청크마다 advance로 임대를 연장하며, 끝나면 release로 돌려놓습니다. 노드가 죽으면 임대 만료 후 다른 노드가 가져갈 수 있습니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobCheckpointStore {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+
+    private static final String FIND_SQL =
+            "SELECT run_key, last_id, processed, status FROM job_checkpoint WHERE job_name = ?";
+
+    private static final String START_SQL =
+            "MERGE INTO job_checkpoint c USING (SELECT ? AS job_name, ? AS run_key FROM dual) s " +
+            "ON (c.job_name = s.job_name) " +
+            "WHEN MATCHED THEN UPDATE SET c.run_key = s.run_key, c.last_id = 0, c.processed = 0, " +
+            "  c.status = 'RUNNING', c.updated_at = SYSTIMESTAMP " +
+            "WHEN NOT MATCHED THEN INSERT (job_name, run_key, last_id, processed, status) " +
+            "  VALUES (s.job_name, s.run_key, 0, 0, 'RUNNING')";
+
+    // 임대가 비었거나 만료되었거나 이미 내 것일 때만 가져갑니다. 행이 없으면 아직 회차가 없는 상태(run_key '-', DONE)로 만듭니다.
+    // 두 노드가 동시에 INSERT하면 한쪽은 PK 충돌로 실패하므로 임대를 얻지 못한 것으로 봅니다.
+    private static final String ACQUIRE_SQL =
+            "MERGE INTO job_checkpoint c USING (SELECT ? AS job_name FROM dual) s " +
+            "ON (c.job_name = s.job_name) " +
+            "WHEN MATCHED THEN UPDATE SET c.owner = ?, c.lease_until = SYSTIMESTAMP + NUMTODSINTERVAL(?, 'SECOND') " +
+            "  WHERE c.owner IS NULL OR c.lease_until < SYSTIMESTAMP OR c.owner = ? " +
+            "WHEN NOT MATCHED THEN INSERT (job_name, run_key, last_id, processed, status, owner, lease_until) " +
+            "  VALUES (s.job_name, '-', 0, 0, 'DONE', ?, SYSTIMESTAMP + NUMTODSINTERVAL(?, 'SECOND'))";
+
+    private static final String RELEASE_SQL =
+            "UPDATE job_checkpoint SET owner = NULL, lease_until = NULL WHERE job_name = ? AND owner = ?";
+
+    // 진행 기록과 함께 임대를 연장합니다. 임대를 잃었으면(다른 노드가 가져감) 0행이 갱신됩니다.
+    private static final String ADVANCE_SQL =
+            "UPDATE job_checkpoint SET last_id = ?, processed = processed + ?, updated_at = SYSTIMESTAMP, " +
+            "  lease_until = SYSTIMESTAMP + NUMTODSINTERVAL(?, 'SECOND') " +
+            "WHERE job_name = ? AND run_key = ? AND owner = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE job_checkpoint SET status = 'DONE', updated_at = SYSTIMESTAMP WHERE job_name = ? AND run_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 작업의 마지막 진행 지점 */
+    public record Checkpoint(String runKey, long lastId, long processed, String status) {
+        public boolean isRunning() {
+            return RUNNING.equals(status);
+        }
+
+        public boolean isDone() {
+            return DONE.equals(status);
+        }
+    }
+
+    public Optional<Checkpoint> find(String jobName) {
+        List<Checkpoint> rows = jdbcTemplate.query(FIND_SQL,
+                (rs, rowNum) -> new Checkpoint(
+                        rs.getString("run_key"),
+                        rs.getLong("last_id"),
+                        rs.getLong("processed"),
+                        rs.getString("status")),
+                jobName);
+        return rows.stream().findFirst();
+    }
+
+    /** 새 회차를 처음부터 시작합니다. (이전 회차 기록은 덮어씀) */
+    public void start(String jobName, String runKey) {
+        jdbcTemplate.update(START_SQL, jobName, runKey);
+    }
+
+    /**
+     * 작업 실행 권한(임대)을 얻습니다. 다른 노드가 유효한 임대를 가지고 있으면 false를 반환합니다.
+     */
+    public boolean tryAcquire(String jobName, String owner, int leaseSeconds) {
+        try {
+            return jdbcTemplate.update(ACQUIRE_SQL, jobName, owner, leaseSeconds, owner, owner, leaseSeconds) > 0;
+        } catch (DuplicateKeyException e) {
+            return false; // 다른 노드가 같은 순간 행을 만들며 임대함
+        }
+    }
+
+    public void release(String jobName, String owner) {
+        jdbcTemplate.update(RELEASE_SQL, jobName, owner);
+    }
+
+    /**
+     * 청크 하나를 끝낸 뒤 마지막 ID와 처리 건수를 기록하고 임대를 연장합니다.
+     * @return 임대를 잃어 기록하지 못했으면 false (작업을 멈춰야 함)
+     */
+    public boolean advance(String jobName, String runKey, String owner, int leaseSeconds, long lastId, long processedDelta) {
+        return jdbcTemplate.update(ADVANCE_SQL, lastId, processedDelta, leaseSeconds, jobName, runKey, owner) > 0;
+    }
+
+    public void complete(String jobName, String runKey) {
+        jdbcTemplate.update(COMPLETE_SQL, jobName, runKey);
+    }
+}
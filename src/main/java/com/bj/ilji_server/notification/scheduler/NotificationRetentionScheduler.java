@@ -0,0 +1,75 @@
+package com.bj.ilji_server.notification.scheduler;
+
+import com.bj.ilji_server.notification.service.RecentIdempotencyKeyFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * ✅ [신규] 매일 04:30 (Asia/Seoul) — 보관 기간(retention-days)이 지난 '읽은' 알림을 지웁니다.
+ * - 읽은 알림: status = READ 이거나, NEW지만 사용자의 읽음 기준 시각(last_read_at) 이전에 생성된 알림
+ *   (미확인 알림과 보관함(ARCHIVED) 알림은 남깁니다)
+ * - 한 번에 batchSize행씩 지우고 묶음마다 바로 커밋해, 긴 트랜잭션이나 큰 undo 없이 조금씩 줄여 나갑니다.
+ * - 한 회차에 maxBatches번까지만 지우고, 남은 행은 다음 날 이어서 지웁니다.
+ */
+@Slf4j
+@Component
+public class NotificationRetentionScheduler {
+
+    // created_at 인덱스(ix_notif_created)로 오래된 행만 훑습니다. (created_at 파티션이면 오래된 파티션만)
+    private static final String PURGE_BATCH_SQL =
+            "DELETE FROM notifications WHERE id IN (" +
+            "  SELECT n.id FROM notifications n " +
+            "  LEFT JOIN notification_read_state r ON r.user_id = n.recipient_id " +
+            "  WHERE n.created_at < ? " +
+            "  AND (n.status = 'READ' OR (n.status = 'NEW' AND n.created_at <= r.last_read_at)) " +
+            "  FETCH FIRST ? ROWS ONLY)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RecentIdempotencyKeyFilter recentKeyFilter;
+    private final int retentionDays;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public NotificationRetentionScheduler(JdbcTemplate jdbcTemplate,
+                                          RecentIdempotencyKeyFilter recentKeyFilter,
+                                          @Value("${notification.retention.days:90}") int retentionDays,
+                                          @Value("${notification.retention.batch-size:5000}") int batchSize,
+                                          @Value("${notification.retention.max-batches:200}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recentKeyFilter = recentKeyFilter;
+        this.retentionDays = Math.max(1, retentionDays);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+    }
+
+    @Scheduled(cron = "0 30 4 * * *", zone = "Asia/Seoul")
+    public void purgeReadNotifications() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        long startedAt = System.nanoTime();
+        long purged = 0;
+        boolean more = true;
+        for (int batch = 0; batch < maxBatches && more; batch++) {
+            int deleted = jdbcTemplate.update(PURGE_BATCH_SQL, cutoff, batchSize);
+            purged += deleted;
+            more = deleted == batchSize;
+        }
+        if (purged > 0) {
+            // 지운 알림의 멱등키가 필터에 남아 있으면 같은 알림을 다시 만들 때 중복으로 오판하므로 비웁니다.
+            recentKeyFilter.clear();
+        }
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        if (more) {
+            log.info("[NotificationRetentionScheduler] Purged {} read notifications older than {} days in {} ms (batch limit reached, continuing next run)",
+                    purged, retentionDays, elapsedMs);
+        } else {
+            log.info("[NotificationRetentionScheduler] Purged {} read notifications older than {} days in {} ms",
+                    purged, retentionDays, elapsedMs);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.bj.ilji_server.notification.scheduler;
 
+import com.bj.ilji_server.notification.entity.Notification;
+import com.bj.ilji_server.notification.outbox.NotificationOutboxDispatcher;
 import com.bj.ilji_server.notification.packing.NotificationComposer;
-import com.bj.ilji_server.schedule.dto.ScheduleBrief;
+import com.bj.ilji_server.notification.repository.NotificationBatchWriter;
+import com.bj.ilji_server.schedule.dto.DailyScheduleSummary;
 import com.bj.ilji_server.schedule.service.ScheduleReader;
-import com.bj.ilji_server.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,41 +13,55 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 매일 08:00 KST 일정 요약 알림
+ * ✅ [개선] 사용자마다 개수/목록 쿼리를 두 번씩 보내던 방식을 ScheduleReader.summarizeAllForDate 한 번으로 바꾸고,
+ * 반복 일정(RRULE)도 요약에 포함합니다. 알림은 BATCH_SIZE건씩 JDBC batch INSERT로 저장합니다.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ScheduleSummaryScheduler {
 
     private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final int TOP_ITEMS = 5;     // 본문에 표시할 상단 N개
+    private static final int BATCH_SIZE = 500;  // ID 재조회 IN 절 제한(1000) 이하
 
-    private final UserRepository userRepository;
     private final ScheduleReader scheduleReader;
     private final NotificationComposer notificationComposer;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final NotificationOutboxDispatcher outboxDispatcher;
 
-    /** 매일 08:00 KST 일정 요약 알림 */
     @Scheduled(cron = "0 0 8 * * *", zone = "Asia/Seoul")
     public void sendDailyScheduleSummary() {
         LocalDate today = LocalDate.now(KST);
-        var userIds = userRepository.findAllIds();
+        long startedAt = System.nanoTime();
 
-        int sent = 0;
-        for (Long uid : userIds) {
-            int total = scheduleReader.countSchedulesForDate(uid, today);
+        // ★ 일정이 없는 사용자는 결과에 없으므로 알림도 만들지 않음
+        List<DailyScheduleSummary> summaries = scheduleReader.summarizeAllForDate(today, TOP_ITEMS);
 
-            // ★ 일정이 없으면 아예 알림을 만들지 않음 (스킵)
-            if (total <= 0) {
-                continue;
+        int sent = 0;
+        for (int from = 0; from < summaries.size(); from += BATCH_SIZE) {
+            List<DailyScheduleSummary> batch = summaries.subList(from, Math.min(from + BATCH_SIZE, summaries.size()));
+            List<Notification> drafts = new ArrayList<>(batch.size());
+            for (DailyScheduleSummary summary : batch) {
+                // Composer에서 멱등키(yyyymmdd) 포함하여 생성
+                drafts.add(notificationComposer.buildScheduleDailySummary(
+                        summary.userId(), today, summary.totalCount(), summary.topItems()));
+            }
+            try {
+                List<Notification> inserted = notificationBatchWriter.insertIgnoringDuplicates(drafts);
+                outboxDispatcher.wakeUp(); // ✅ [개선] 커밋된 outbox를 바로 전송 (웹소켓 전송은 디스패처 스레드에서)
+                sent += inserted.size();
+            } catch (RuntimeException e) {
+                log.warn("[ScheduleSummaryScheduler] Failed to send {} summaries for {}", drafts.size(), today, e);
             }
-
-            // 상단 N개(예: 5개)만 본문에 표시
-            List<ScheduleBrief> top = scheduleReader.getSchedulesForDate(uid, today, 5);
-
-            // Composer에서 멱등키(yyyymmdd) 포함하여 생성
-            notificationComposer.scheduleDailySummary(uid, today, total, top);
-            sent++;
         }
-        log.info("[ScheduleSummaryScheduler] sent {} summaries for {}", sent, today);
+        log.info("[ScheduleSummaryScheduler] sent {} summaries for {} ({} users with schedules, {} ms)",
+                sent, today, summaries.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
     }
 }
@@ -1,11 +1,21 @@
 package com.bj.ilji_server.notification.service;
 
+import com.bj.ilji_server.ilog.dto.CursorSliceResponse;
+import com.bj.ilji_server.ilog.dto.KeysetCursor;
+import com.bj.ilji_server.notification.dto.NotificationDtoMapper;
+import com.bj.ilji_server.notification.dto.NotificationItemDto;
 import com.bj.ilji_server.notification.entity.Notification;
+import com.bj.ilji_server.notification.entity.NotificationOutbox;
 import com.bj.ilji_server.notification.event.NotificationCreatedEvent;
 import com.bj.ilji_server.notification.type.NotificationStatus;
+import com.bj.ilji_server.notification.entity.NotificationReadState;
+import com.bj.ilji_server.notification.repository.NotificationOutboxRepository;
+import com.bj.ilji_server.notification.repository.NotificationReadStateRepository;
 import com.bj.ilji_server.notification.repository.NotificationRepository;
+import com.bj.ilji_server.notification.repository.OffsetLimitRequest;
 import com.bj.ilji_server.notification.type.NotificationType;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
@@ -18,14 +28,27 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+    private static final OffsetDateTime NO_WATERMARK = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final String IDEMPOTENCY_CONSTRAINT = "UK_NOTIF_IDEM"; // notifications.idempotency_key UNIQUE
+
     private final NotificationRepository repository;
     private final ApplicationEventPublisher publisher;
+    private final RecentIdempotencyKeyFilter recentKeyFilter; // ✅ [신규] 최근 멱등키 LRU 필터
+    private final UnreadCounter unreadCounter; // ✅ [신규] 사용자별 미확인 개수 (메모리)
+    private final NotificationOutboxRepository outboxRepository; // ✅ [신규] 웹소켓 전송 대기열 (같은 트랜잭션에 기록)
+    private final NotificationReadStateRepository readStateRepository; // ✅ [신규] 사용자별 읽음 기준 시각
 
 
 
@@ -35,13 +58,33 @@ public class NotificationService {
     /** 알림 생성 (idempotency_key UNIQUE 충돌 시 조용히 무시 = 멱등) */
     @Transactional
     public void create(Notification n) {
+        boolean isNew = n.getId() == null; // 묶음 알림(좋아요/댓글)은 기존 알림을 갱신하므로 필터 대상이 아님
+        // ✅ [신규] 최근에 저장된 키면 INSERT 없이 바로 무시
+        if (isNew && recentKeyFilter.seenRecently(n.getIdempotencyKey())) {
+            return;
+        }
         try {
             Notification saved = repository.save(n);
+            if (isNew) {
+                recentKeyFilter.rememberAfterCommit(saved.getIdempotencyKey());
+                if (saved.getStatus() == NotificationStatus.NEW) {
+                    unreadCounter.adjustAfterCommit(saved.getRecipientId(), 1);
+                }
+            } else {
+                // 묶음 알림 갱신은 읽음 → NEW로 되돌아갔는지 알 수 없으므로 다시 셉니다.
+                unreadCounter.refreshAfterCommit(saved.getRecipientId());
+            }
 
-            // ✅ 동일하게 이벤트 발행 (AFTER_COMMIT로 커밋 성공시에만 브로드캐스트)
+            // ✅ [개선] 전송할 알림을 같은 트랜잭션에서 outbox에 기록 (커밋되면 NotificationOutboxDispatcher가 전송)
+            outboxRepository.save(NotificationOutbox.of(saved.getRecipientId(), saved.getId()));
             publisher.publishEvent(new NotificationCreatedEvent(saved.getRecipientId(), saved));
         } catch (DataIntegrityViolationException e) {
-            // idempotency_key UNIQUE 위반이면 중복 생성이므로 무시
+            // idempotency_key UNIQUE 위반이면 중복 생성이므로 무시 (다음부터는 필터에서 걸러짐)
+            // ✅ [수정] 다른 제약 위반은 중복이 아니므로 키를 기억하지 않고 그대로 던집니다.
+            if (!isIdempotencyKeyViolation(e)) {
+                throw e;
+            }
+            recentKeyFilter.remember(n.getIdempotencyKey());
         }
     }
 
@@ -49,22 +92,71 @@ public class NotificationService {
     /** 목록 조회 (status = "ALL" 또는 "NEW"/"READ"/"ARCHIVED") */
     @Transactional(readOnly = true)
     public Page<Notification> list(Long userId, String status, int offset, int limit) {
-        int safeLimit = Math.max(1, limit);
-        int page = Math.max(0, offset / safeLimit);
-        PageRequest pageable = PageRequest.of(page, safeLimit);
+        // ✅ [수정] offset을 페이지 번호로 바꾸지 않고 그대로 사용 (offset이 limit의 배수가 아니어도 정확한 위치부터)
+        OffsetLimitRequest pageable = OffsetLimitRequest.of(Math.max(0, offset), Math.max(1, limit));
 
         if ("ALL".equalsIgnoreCase(status)) {
             return repository.findByRecipientIdOrderByCreatedAtDesc(userId, pageable);
+        } else if ("NEW".equalsIgnoreCase(status)) {
+            // ✅ [개선] 읽음 기준 시각 이전의 NEW 알림은 읽은 것으로 봅니다.
+            return repository.findUnread(userId, NotificationStatus.NEW, pageable);
+        } else if ("READ".equalsIgnoreCase(status)) {
+            return repository.findRead(userId, NotificationStatus.READ, NotificationStatus.NEW, pageable);
         } else {
             NotificationStatus notificationStatus = NotificationStatus.valueOf(status.toUpperCase());
             return repository.findByRecipientIdAndStatusOrderByCreatedAtDesc(userId, notificationStatus, pageable);
         }
     }
 
-    /** 미확인(NEW) 개수 */
+    /**
+     * ✅ [신규] 커서(keyset) 기반 알림함 조회 (최신순, count 쿼리/OFFSET 없음)
+     * @param status "ALL" 또는 "NEW"/"READ"/"ARCHIVED" (NEW/READ는 읽음 기준 시각 반영)
+     * @param cursor 이전 응답의 nextCursor (첫 페이지는 null)
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceResponse<NotificationItemDto> inbox(Long userId, String status, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_INBOX_PAGE_SIZE));
+        OffsetDateTime cursorAt = toOffset(after.at());
+        PageRequest fetchSize = PageRequest.of(0, limit + 1); // 다음 페이지 판단을 위해 1개 더
+        OffsetDateTime lastReadAt = lastReadAt(userId);
+        // 한 번도 "모두 읽음"을 하지 않았으면 모든 시각보다 이른 값으로 비교합니다.
+        OffsetDateTime watermark = lastReadAt != null ? lastReadAt : NO_WATERMARK;
+
+        List<Notification> fetched;
+        if ("ALL".equalsIgnoreCase(status)) {
+            fetched = repository.findInboxAfterCursor(userId, cursorAt, after.id(), fetchSize);
+        } else {
+            NotificationStatus notificationStatus = NotificationStatus.valueOf(status.toUpperCase());
+            fetched = switch (notificationStatus) {
+                case NEW -> repository.findUnreadAfterCursor(
+                        userId, NotificationStatus.NEW, watermark, cursorAt, after.id(), fetchSize);
+                case READ -> repository.findReadAfterCursor(
+                        userId, NotificationStatus.READ, NotificationStatus.NEW, watermark, cursorAt, after.id(), fetchSize);
+                default -> repository.findInboxByStatusAfterCursor(
+                        userId, notificationStatus, cursorAt, after.id(), fetchSize);
+            };
+        }
+        return CursorSliceResponse.of(fetched, limit,
+                        n -> new KeysetCursor(n.getCreatedAt().atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(), n.getId()))
+                .map(n -> NotificationDtoMapper.toDto(n, lastReadAt));
+    }
+
+    private static OffsetDateTime toOffset(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    /** ✅ [신규] 사용자의 읽음 기준 시각 (한 번도 "모두 읽음"을 하지 않았으면 null) */
     @Transactional(readOnly = true)
+    public OffsetDateTime lastReadAt(Long userId) {
+        return readStateRepository.findById(userId)
+                .map(NotificationReadState::getLastReadAt)
+                .orElse(null);
+    }
+
+    /** 미확인(NEW) 개수 (✅ [개선] 메모리 카운터, 없으면 DB에서 한 번 셈) */
     public long unreadCount(Long userId) {
-        return repository.countByRecipientIdAndStatus(userId, NotificationStatus.NEW);
+        return unreadCounter.get(userId);
     }
 
     /** 단건 읽음 처리 */
@@ -72,16 +164,22 @@ public class NotificationService {
     public void markRead(Long id, Long userId) {
         Notification n = repository.findByIdAndRecipientId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found or not mine"));
-        if (n.getStatus() == NotificationStatus.NEW) {
+        // ✅ [개선] 읽음 기준 시각 이전의 알림은 이미 읽은 것이므로, 그 이후의 알림만 행 단위로 READ 처리 (예외 집합)
+        if (n.isUnread(lastReadAt(userId))) {
             n.setStatus(NotificationStatus.READ);
             repository.save(n); // 변경사항을 명시적으로 저장
+            unreadCounter.adjustAfterCommit(userId, -1);
         }
     }
 
-    /** 모두 읽음 처리 (벌크 UPDATE) */
+    /**
+     * 모두 읽음 처리
+     * ✅ [개선] NEW 행을 모두 UPDATE하지 않고, 사용자의 읽음 기준 시각(한 행)만 지금으로 올립니다.
+     */
     @Transactional
-    public int markAllRead(Long userId) {
-        return repository.markAllRead(userId, NotificationStatus.READ, NotificationStatus.NEW);
+    public void markAllRead(Long userId) {
+        readStateRepository.advance(userId, OffsetDateTime.now());
+        unreadCounter.refreshAfterCommit(userId);
     }
 
     @Transactional(readOnly = true)
@@ -97,30 +195,87 @@ public class NotificationService {
     /** 고유키 충돌을 이 메서드 내부(새 트랜잭션)에서 발생/처리되게 강제 */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Notification createAndFlushNewTx(Notification draft) {
-        Notification saved = repository.save(draft);
-        repository.flush(); // ← 여기서 ORA-00001이 나면 이 '새 트랜잭션'만 롤백됨
-        // ✅ 커밋 이후에 WS로 보내도록 이벤트 발행
+        // ✅ [신규] 최근에 저장된 키면 INSERT 없이 바로 무시 (저장하지 않았으므로 null)
+        if (recentKeyFilter.seenRecently(draft.getIdempotencyKey())) {
+            return null;
+        }
+        Notification saved;
+        try {
+            saved = repository.save(draft);
+            repository.flush(); // ← 여기서 ORA-00001이 나면 이 '새 트랜잭션'만 롤백됨
+        } catch (DataIntegrityViolationException e) {
+            if (isIdempotencyKeyViolation(e)) {
+                recentKeyFilter.remember(draft.getIdempotencyKey());
+            }
+            throw e;
+        }
+        recentKeyFilter.rememberAfterCommit(saved.getIdempotencyKey());
+        unreadCounter.adjustAfterCommit(saved.getRecipientId(), 1);
+        // ✅ [개선] 같은 트랜잭션에서 outbox에 기록하고, 커밋 이후 디스패처를 깨우도록 이벤트 발행
+        outboxRepository.save(NotificationOutbox.of(saved.getRecipientId(), saved.getId()));
         publisher.publishEvent(new NotificationCreatedEvent(saved.getRecipientId(), saved));
         return saved;
     }
 
+    /**
+     * ✅ [신규] 멱등키로 알림을 찾아 커밋까지 행 잠금을 겁니다. (묶음 알림 갱신용, 호출 측 트랜잭션 안에서만)
+     * 다른 노드가 같은 묶음 알림을 고치고 있으면 그쪽이 커밋할 때까지 기다렸다가 갱신된 행을 읽습니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Notification> findByIdempotencyKeyForUpdate(byte[] key) {
+        Optional<Notification> found = repository.findByIdempotencyKeyForUpdate(key);
+        if (found.isEmpty()) {
+            recentKeyFilter.forget(key);
+        }
+        return found;
+    }
+
     @Transactional(readOnly = true)
-    public Optional<Notification> findByIdempotencyKey(String key) {
-        return repository.findByIdempotencyKey(key);
+    public Optional<Notification> findByIdempotencyKey(byte[] key) {
+        Optional<Notification> found = repository.findByIdempotencyKey(key);
+        if (found.isEmpty()) {
+            // DB에 없음이 확인된 키(예: 사용자가 지운 알림)는 필터에서도 지워, 다시 만들 때 중복으로 오판하지 않도록 합니다.
+            recentKeyFilter.forget(key);
+        }
+        return found;
     }
 
 
 
     @Transactional
     public void deleteOneForRecipient(Long id, Long recipientId) {
-        repository.deleteByIdAndRecipientId(id, recipientId);
+        // ✅ [개선] 알림을 읽어 오지 않고 벌크 DELETE, 지운 행이 있으면 미확인 개수를 다시 셉니다.
+        // ✅ [수정] 지운 알림의 멱등키는 필터에서도 잊어야, 같은 알림을 다시 만들 때 중복으로 오판하지 않습니다.
+        Optional<byte[]> key = repository.findIdempotencyKeyByIdAndRecipientId(id, recipientId);
+        if (repository.deleteByIdAndRecipientId(id, recipientId) > 0) {
+            key.ifPresent(recentKeyFilter::forgetAfterCommit);
+            unreadCounter.refreshAfterCommit(recipientId);
+        }
     }
 
     @Transactional
     public long deleteAllForRecipient(Long recipientId) {
-        return repository.deleteByRecipientId(recipientId);
+        // ✅ [수정] 필터 전체를 비우지 않고, 이 수신자의 키만 이 노드와 다른 노드의 필터에서 잊습니다.
+        List<byte[]> keys = repository.findIdempotencyKeysByRecipientId(recipientId);
+        long deleted = repository.deleteByRecipientId(recipientId);
+        if (deleted > 0) {
+            recentKeyFilter.forgetAllAfterCommit(keys);
+        }
+        unreadCounter.refreshAfterCommit(recipientId);
+        return deleted;
     }
 
-
-
+    /**
+     * ✅ [신규] idempotency_key UNIQUE(uk_notif_idem) 위반인지 확인합니다. (외래 키 등 다른 제약 위반은 false)
+     * Hibernate가 제약 이름을 꺼내 주면 그것을, 아니면 드라이버 메시지(ORA-00001: unique constraint (스키마.UK_NOTIF_IDEM) violated)를 봅니다.
+     */
+    private static boolean isIdempotencyKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toUpperCase().contains(IDEMPOTENCY_CONSTRAINT);
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toUpperCase().contains(IDEMPOTENCY_CONSTRAINT);
+    }
 }
@@ -0,0 +1,205 @@
+package com.bj.ilji_server.notification.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ [신규] 최근에 저장된 알림 멱등키를 메모리 LRU로 기억해, 중복 알림을 DB 왕복 없이 걸러냅니다.
+ * - 여기서 걸리면(hit) INSERT → UNIQUE 위반 → 롤백 과정을 건너뜁니다.
+ * - 여기서 못 걸러도(miss) DB UNIQUE 제약이 최종 판정을 하므로, 용량을 넘어 밀려난 키나 재시작 직후에도 정확성은 유지됩니다.
+ * - 키는 DB에 실제로 존재하게 된 뒤(커밋 후 또는 UNIQUE 위반 확인 후)에만 기억합니다. (롤백된 알림을 중복으로 오판하지 않도록)
+ * - 알림을 지우면 키도 잊습니다. (지운 알림의 키만, 보존 기간 정리처럼 대상을 모를 때는 필터 전체)
+ * - ✅ [개선] 지운 알림의 키는 다른 노드의 필터에서도 잊도록 Redis pub/sub으로 알립니다. (UnreadCounter와 같은 방식, 단일 노드면 생략)
+ */
+@Slf4j
+@Component
+public class RecentIdempotencyKeyFilter {
+
+    private static final int FORGET_BATCH_SIZE = 500; // 다른 노드에 보내는 메시지 하나에 담을 키 수
+
+    private final int capacity;
+    private final Map<Key, Boolean> recent; // 접근 순서 LinkedHashMap (this 잠금으로 보호)
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RTopic forgets; // 단일 노드(Redis 없음)면 null
+
+    public RecentIdempotencyKeyFilter(int capacity) {
+        this(capacity, null);
+    }
+
+    @Autowired
+    public RecentIdempotencyKeyFilter(@Value("${notification.dedup.capacity:100000}") int capacity,
+                                      ObjectProvider<RedissonClient> redisson,
+                                      @Value("${notification.dedup.forget-topic:ilji:notification:forget-keys}") String forgetTopic) {
+        this(capacity, topicOf(redisson.getIfAvailable(), forgetTopic));
+    }
+
+    private static RTopic topicOf(RedissonClient client, String name) {
+        return (client == null) ? null : client.getTopic(name, StringCodec.INSTANCE);
+    }
+
+    private RecentIdempotencyKeyFilter(int capacity, RTopic forgets) {
+        this.forgets = forgets;
+        this.capacity = Math.max(1, capacity);
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > RecentIdempotencyKeyFilter.this.capacity;
+            }
+        };
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (forgets == null) {
+            return;
+        }
+        // 메시지 형식: "보낸 노드 ID:키(hex),키(hex),..." (자기 노드가 보낸 것은 건너뜀)
+        forgets.addListener(String.class, (channel, message) -> {
+            int sep = message.indexOf(':');
+            if (sep < 0 || message.substring(0, sep).equals(nodeId)) {
+                return;
+            }
+            HexFormat hex = HexFormat.of();
+            for (String key : message.substring(sep + 1).split(",")) {
+                if (!key.isEmpty()) {
+                    forget(hex.parseHex(key));
+                }
+            }
+        });
+    }
+
+    /** 16바이트 멱등키를 두 개의 long으로 담은 맵 키 */
+    private record Key(long high, long low) {
+        static Key of(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new Key(buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    /** 최근에 저장된 키면 true (hit) */
+    public boolean seenRecently(byte[] idempotencyKey) {
+        boolean seen;
+        synchronized (this) {
+            seen = recent.get(Key.of(idempotencyKey)) != null;
+        }
+        (seen ? hits : misses).incrementAndGet();
+        return seen;
+    }
+
+    /** DB에 존재하는 것이 확인된 키를 기억합니다. */
+    public synchronized void remember(byte[] idempotencyKey) {
+        recent.put(Key.of(idempotencyKey), Boolean.TRUE);
+    }
+
+    /** DB에 없는 것이 확인된 키를 잊습니다. */
+    public synchronized void forget(byte[] idempotencyKey) {
+        recent.remove(Key.of(idempotencyKey));
+    }
+
+    /** 모든 키를 잊습니다. (여러 알림을 한꺼번에 지웠을 때) */
+    public synchronized void clear() {
+        recent.clear();
+    }
+
+    /** ✅ [신규] 현재 트랜잭션이 커밋된 뒤 이 노드와 다른 노드에서 키를 잊습니다. (트랜잭션 밖이면 바로 잊음) */
+    public void forgetAfterCommit(byte[] idempotencyKey) {
+        forgetAllAfterCommit(List.of(idempotencyKey));
+    }
+
+    /** ✅ [신규] 현재 트랜잭션이 커밋된 뒤 이 노드와 다른 노드에서 여러 키를 잊습니다. (한 수신자의 알림을 모두 지웠을 때) */
+    public void forgetAllAfterCommit(Collection<byte[]> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                idempotencyKeys.forEach(key -> recent.remove(Key.of(key)));
+            }
+            forgetOnOtherNodes(idempotencyKeys);
+        });
+    }
+
+    private void forgetOnOtherNodes(Collection<byte[]> idempotencyKeys) {
+        if (forgets == null) {
+            return;
+        }
+        HexFormat hex = HexFormat.of();
+        List<byte[]> keys = new ArrayList<>(idempotencyKeys);
+        for (int from = 0; from < keys.size(); from += FORGET_BATCH_SIZE) {
+            StringBuilder message = new StringBuilder(nodeId).append(':');
+            for (byte[] key : keys.subList(from, Math.min(from + FORGET_BATCH_SIZE, keys.size()))) {
+                message.append(hex.formatHex(key)).append(',');
+            }
+            try {
+                forgets.publishAsync(message.toString());
+            } catch (RuntimeException e) {
+                // 알리지 못한 노드에서는 그 키가 LRU에서 밀려날 때까지 같은 알림을 다시 만들지 못할 수 있습니다.
+                log.warn("[RecentIdempotencyKeyFilter] Failed to publish {} forgotten keys", keys.size(), e);
+                return;
+            }
+        }
+    }
+
+    /** 현재 트랜잭션이 커밋된 뒤 키를 기억합니다. (트랜잭션 밖이면 바로 기억) */
+    public void rememberAfterCommit(byte[] idempotencyKey) {
+        afterCommit(() -> remember(idempotencyKey));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return recent.size();
+    }
+
+    /** 주기적으로 적중률을 남깁니다. */
+    @Scheduled(fixedDelayString = "${notification.dedup.report-interval-ms:600000}")
+    public void report() {
+        long hit = hits.get();
+        long miss = misses.get();
+        if (hit + miss > 0) {
+            log.info("[RecentIdempotencyKeyFilter] hits={}, misses={}, hitRate={}%, size={}/{}",
+                    hit, miss, hit * 100 / (hit + miss), size(), capacity);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bj.ilji_server.notification.service;
+
+import com.bj.ilji_server.notification.dto.UnreadCountRow;
+import com.bj.ilji_server.notification.repository.NotificationRepository;
+import com.bj.ilji_server.notification.type.NotificationStatus;
+import com.bj.ilji_server.notification.web_socket.NotificationWsNotifier;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ [신규] 사용자별 미확인(NEW) 알림 개수를 메모리에 유지합니다. (읽음 기준 시각 이후의 NEW 알림만 셈)
+ * - 조회: 캐시에 없으면 DB에서 한 번 세어 올려 두고, 이후에는 알림 생성/읽음/삭제 때 증감만 반영합니다.
+ * - 변경: 트랜잭션이 커밋된 뒤에만 반영하고, 바뀐 개수를 알림 방(userId)으로 "unreadCount" 이벤트로 보냅니다.
+ *   캐시에 없는 사용자(아직 개수를 조회하지 않은 사용자)는 건드리지 않습니다. (다음 조회 때 커밋된 DB 값을 읽음)
+ * - 재조정: 주기적으로 캐시된 사용자의 개수를 DB 기준으로 다시 맞춥니다. (커밋 경합 등으로 생긴 오차 보정)
+ * - ✅ [개선] 캐시는 노드마다 따로 있으므로, 여러 노드(socket-server.cluster.mode=redis)에서는 개수가 바뀔 때마다
+ *   Redis pub/sub으로 사용자 ID를 알려 다른 노드의 캐시를 지웁니다. (지워진 노드는 다음 조회 때 DB에서 다시 셈)
+ */
+@Slf4j
+@Component
+public class UnreadCounter {
+
+    private static final int RECONCILE_BATCH_SIZE = 1000; // IN 절 제한
+
+    private final NotificationRepository repository;
+    private final NotificationWsNotifier notificationWsNotifier;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Long, Long> counts = new ConcurrentHashMap<>();
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RTopic invalidations; // 단일 노드(Redis 없음)면 null
+
+    public UnreadCounter(NotificationRepository repository,
+                         NotificationWsNotifier notificationWsNotifier,
+                         ObjectProvider<RedissonClient> redisson,
+                         @Value("${notification.unread.max-entries:100000}") int maxEntries,
+                         @Value("${notification.unread.invalidation-topic:ilji:notification:unread}") String invalidationTopic) {
+        this.repository = repository;
+        this.notificationWsNotifier = notificationWsNotifier;
+        this.maxEntries = Math.max(1, maxEntries);
+        RedissonClient client = redisson.getIfAvailable();
+        this.invalidations = (client == null) ? null : client.getTopic(invalidationTopic, StringCodec.INSTANCE);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (invalidations == null) {
+            return;
+        }
+        // 메시지 형식: "보낸 노드 ID:사용자 ID" (자기 노드가 보낸 것은 건너뜀)
+        invalidations.addListener(String.class, (channel, message) -> {
+            int separator = message.lastIndexOf(':');
+            if (separator > 0 && !message.substring(0, separator).equals(nodeId)) {
+                counts.remove(Long.valueOf(message.substring(separator + 1)));
+            }
+        });
+    }
+
+    /**
+     * 미확인 알림 개수 (캐시에 없으면 DB에서 세어 올림)
+     * ✅ [수정] DB 조회는 맵 잠금 밖에서 합니다. (computeIfAbsent 안에서 세면 같은 버킷의 다른 사용자 갱신이 DB 왕복 동안 막힘)
+     * 세는 사이에 들어온 증감은 캐시에 없어서 반영되지 않을 수 있지만, 재조정(reconcile)에서 맞춰집니다.
+     */
+    public long get(Long userId) {
+        Long cached = counts.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long counted = repository.countUnread(userId, NotificationStatus.NEW);
+        Long existing = counts.putIfAbsent(userId, counted);
+        return existing != null ? existing : counted;
+    }
+
+    /** 커밋 후 개수를 delta만큼 바꾸고 전송합니다. */
+    public void adjustAfterCommit(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            Long updated = counts.computeIfPresent(userId, (id, count) -> Math.max(0, count + delta));
+            if (updated != null) {
+                notificationWsNotifier.sendUnreadCount(userId, updated);
+            }
+            invalidateOtherNodes(userId);
+        });
+    }
+
+    /** 증감을 알 수 없는 변경(묶음 알림 갱신, 전체 삭제 등) 후 DB에서 다시 세고 전송합니다. */
+    public void refreshAfterCommit(Long userId) {
+        afterCommit(() -> {
+            if (counts.containsKey(userId)) {
+                long recounted = repository.countUnread(userId, NotificationStatus.NEW);
+                counts.put(userId, recounted);
+                notificationWsNotifier.sendUnreadCount(userId, recounted);
+            }
+            invalidateOtherNodes(userId);
+        });
+    }
+
+    /** 캐시된 사용자의 개수를 DB 기준으로 다시 맞춥니다. */
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (counts.size() > maxEntries) {
+            // 상한을 넘으면 비우고 다음 조회 때 다시 채웁니다.
+            counts.clear();
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(counts.keySet());
+        int corrected = 0;
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Map<Long, Long> actual = new HashMap<>();
+            for (UnreadCountRow row : repository.countUnreadGroupedByRecipient(chunk, NotificationStatus.NEW)) {
+                actual.put(row.recipientId(), row.count());
+            }
+            for (Long userId : chunk) {
+                Long cached = counts.get(userId);
+                Long dbCount = actual.getOrDefault(userId, 0L);
+                // 그사이 증감이 반영되었다면 덮어쓰지 않고 다음 주기에 다시 확인합니다.
+                if (cached != null && !cached.equals(dbCount) && counts.replace(userId, cached, dbCount)) {
+                    corrected++;
+                }
+            }
+        }
+        if (corrected > 0) {
+            log.info("[UnreadCounter] Reconciled {} of {} cached unread counters", corrected, userIds.size());
+        }
+    }
+
+    private void invalidateOtherNodes(Long userId) {
+        if (invalidations == null) {
+            return;
+        }
+        try {
+            invalidations.publishAsync(nodeId + ":" + userId);
+        } catch (RuntimeException e) {
+            // 알리지 못해도 다른 노드는 재조정 주기 안에 DB 값으로 맞춰집니다.
+            log.warn("[UnreadCounter] Failed to publish invalidation for user {}", userId, e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,18 +1,25 @@
 package com.bj.ilji_server.notification.type;
 
-import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MurmurHash3;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.IsoFields;
 
 /**
  * 알림 중복 방지 키 생성 유틸리티
- * - 같은 입력 → 항상 같은 해시값(64자 HEX)
+ * - 같은 입력 → 항상 같은 키
  * - notifications.idempotency_key UNIQUE 제약과 함께 사용
+ * ✅ [개선] SHA-256 HEX 문자열(64자) 대신 128비트 MurmurHash3를 16바이트 RAW(16)로 저장합니다.
+ *   (암호학적 해시가 필요 없는 중복 판별용이라 더 빠른 해시로 충분하고, 인덱스/비교 크기가 1/4로 줄어듭니다)
  */
 public final class IdempotencyKey {
 
+    /** 키 길이 (바이트) */
+    public static final int LENGTH = 16;
+
     private IdempotencyKey() {}
 
     /**
@@ -22,9 +29,9 @@ public final class IdempotencyKey {
      * @param entityType   엔티티 타입
      * @param entityId     엔티티 ID (없으면 null)
      * @param bucket       버킷(일일 요약 등 구분용, 없으면 "")
-     * @return SHA-256 HEX 문자열
+     * @return 16바이트 키 (128비트 MurmurHash3, x64)
      */
-    public static String of(
+    public static byte[] of(
             long recipientId,
             NotificationType type,
             EntityType entityType,
@@ -34,28 +41,29 @@ public final class IdempotencyKey {
         String raw = recipientId + "|" + type + "|" + entityType + "|" +
                 (entityId == null ? "" : entityId) + "|" +
                 (bucket == null ? "" : bucket);
-        return DigestUtils.sha256Hex(raw);
+        long[] hash = MurmurHash3.hash128x64(raw.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.allocate(LENGTH).putLong(hash[0]).putLong(hash[1]).array();
     }
 
     /** 즉시형 알림(댓글/좋아요 등) → bucket 없음 */
-    public static String instant(long recipientId, NotificationType type, EntityType entityType, Long entityId) {
+    public static byte[] instant(long recipientId, NotificationType type, EntityType entityType, Long entityId) {
         return of(recipientId, type, entityType, entityId, "");
     }
 
     /** 일일 요약 알림(일정, 일기) → yyyy-MM-dd 버킷 */
-    public static String daily(long recipientId, NotificationType type, EntityType entityType, Long entityId, java.time.LocalDate day) {
+    public static byte[] daily(long recipientId, NotificationType type, EntityType entityType, Long entityId, java.time.LocalDate day) {
         return of(recipientId, type, entityType, entityId, day == null ? "" : day.toString());
     }
 
 
-    // enum 이든 class 이든 "static" 메서드는 추가 가능합니다.
-    public static String weeklyFollowRequestKey(long recipientId, long senderId) {
+    // ✅ [개선] 팔로우 요청도 같은 16바이트 형식을 씁니다. (발신자 ID를 엔티티 자리에, ISO 주차를 버킷으로)
+    public static byte[] weeklyFollowRequestKey(long recipientId, long senderId) {
         LocalDate todayKst = LocalDate.now(ZoneId.of("Asia/Seoul"));
         int weekYear = todayKst.get(IsoFields.WEEK_BASED_YEAR);
         int week     = todayKst.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-        // 예: wk:2025-37|r:100|t:FOLLOW_REQUEST|e:FOLLOW|s:200
-        return String.format("wk:%d-%02d|r:%d|t:FOLLOW_REQUEST|e:FOLLOW|s:%d",
-                weekYear, week, recipientId, senderId);
+        // 예: wk:2025-37
+        return of(recipientId, NotificationType.FOLLOW_REQUEST, EntityType.FOLLOW, senderId,
+                String.format("wk:%d-%02d", weekYear, week));
     }
 
 }
@@ -1,25 +1,29 @@
 package com.bj.ilji_server.notification.web_socket;
 
 import com.bj.ilji_server.notification.dto.NotificationDto;
-import com.bj.ilji_server.notification.event.NotificationCreatedEvent;
-import com.corundumstudio.socketio.SocketIOServer;
+import com.bj.ilji_server.notification.dto.UnreadCountResponse;
+import com.bj.ilji_server.notification.entity.Notification;
+import com.bj.ilji_server.chat.SocketBroadcaster;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 public class NotificationWsNotifier {
 
-    private final SocketIOServer socketIOServer;
+    private final SocketBroadcaster socketBroadcaster; // ✅ [개선] 전송 지표(이벤트 수, 지연)를 남기는 전송 창구
 
-    public NotificationWsNotifier(SocketIOServer socketIOServer) {
-        this.socketIOServer = socketIOServer;
+    public NotificationWsNotifier(SocketBroadcaster socketBroadcaster) {
+        this.socketBroadcaster = socketBroadcaster;
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    public void onCreated(NotificationCreatedEvent e) {
-        NotificationDto notificationDto = NotificationDto.from(e.getNotification());
+    /** ✅ [개선] 알림 한 건을 수신자 방으로 전송합니다. (커밋 직후 리스너 대신 NotificationOutboxDispatcher가 호출) */
+    public void send(Notification notification) {
+        NotificationDto notificationDto = NotificationDto.from(notification);
         // Send notification to the specific user's room
-        socketIOServer.getRoomOperations(e.getRecipientId().toString()).sendEvent("notification", notificationDto);
+        socketBroadcaster.sendToRoom(notification.getRecipientId().toString(), "notification", notificationDto);
+    }
+
+    /** ✅ [신규] 미확인 알림 개수가 바뀔 때마다 전송합니다. (클라이언트는 /unread-count 폴링 대신 이 이벤트를 구독) */
+    public void sendUnreadCount(Long recipientId, long count) {
+        socketBroadcaster.sendToRoom(recipientId.toString(), "unreadCount", UnreadCountResponse.builder().count(count).build());
     }
 }
@@ -0,0 +1,10 @@
+package com.bj.ilji_server.schedule.dto;
+
+import java.util.List;
+
+/** ✅ [신규] 한 사용자의 특정 날짜 일정 요약 (전체 개수 + 표시용 상위 N개, 반복 일정 포함) */
+public record DailyScheduleSummary(
+        Long userId,
+        int totalCount,
+        List<ScheduleBrief> topItems
+) {}
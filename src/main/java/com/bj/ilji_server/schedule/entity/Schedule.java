@@ -52,6 +52,10 @@ public class Schedule {
 
     private String rrule;
 
+    // ✅ [신규] 반복이 끝나는 규칙(UNTIL/COUNT)이면 마지막 회차의 종료 시각. 끝없이 반복되거나 반복이 아니면 NULL
+    @Column(name = "rrule_until")
+    private LocalDateTime rruleUntil;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -86,4 +90,9 @@ public class Schedule {
         this.isAllDay = request.isAllDay() ? 1 : 0;
         this.rrule = request.getRrule();
     }
+
+    /** ✅ [신규] RRULE/시작/종료 시각이 바뀔 때마다 RecurrenceExpander.recurrenceEnd로 다시 계산해 넣습니다. */
+    public void updateRecurrenceEnd(LocalDateTime rruleUntil) {
+        this.rruleUntil = rruleUntil;
+    }
 }
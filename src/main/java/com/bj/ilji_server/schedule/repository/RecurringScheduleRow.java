@@ -0,0 +1,16 @@
+package com.bj.ilji_server.schedule.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ [신규] 일정 요약 배치가 반복 일정을 펼칠 때 필요한 컬럼만 담는 행 (findRecurringOverlapping)
+ * 엔티티(설명 CLOB, 태그 등)를 만들지 않아 반복 일정이 많아도 메모리 부담이 적습니다.
+ */
+public interface RecurringScheduleRow {
+    Long getId();
+    Long getUserId();
+    String getTitle();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    String getRrule();
+}
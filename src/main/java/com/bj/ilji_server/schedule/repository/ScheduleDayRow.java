@@ -0,0 +1,16 @@
+package com.bj.ilji_server.schedule.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ [신규] 날짜별 일정 요약 조회(findDailyTopRows)의 한 행
+ * 사용자별 상위 N개 일정과, 같은 사용자의 그날 전체 일정 개수(totalCount)를 함께 담습니다.
+ */
+public interface ScheduleDayRow {
+    Long getId();
+    Long getUserId();
+    String getTitle();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    Integer getTotalCount();
+}
@@ -67,4 +67,45 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
             @Param("end")   LocalDateTime end
     );
 
+    /**
+     * ✅ [신규] 특정 '하루'와 겹치는 (반복이 아닌) 일정을 모든 사용자에 대해 한 번에 조회
+     * - 사용자별 시작시각 순 상위 :limit개만 남기고(ROW_NUMBER), 그날 전체 개수는 COUNT(*) OVER로 같은 행에 붙입니다.
+     * - 반복 일정(rrule)은 DB에서 판단할 수 없으므로 findRecurringOverlapping으로 따로 읽어 펼칩니다.
+     */
+    @Query(value = """
+        SELECT d.id AS "id", d.user_id AS "userId", d.title AS "title",
+               d.start_time AS "startTime", d.end_time AS "endTime", d.total AS "totalCount"
+          FROM (SELECT s.id, s.user_id, s.title, s.start_time, s.end_time,
+                       COUNT(*) OVER (PARTITION BY s.user_id) AS total,
+                       ROW_NUMBER() OVER (PARTITION BY s.user_id ORDER BY s.start_time, s.id) AS rn
+                  FROM schedules s
+                 WHERE s.rrule IS NULL
+                   AND s.start_time < :end
+                   AND s.end_time   >= :start) d
+         WHERE d.rn <= :limit
+         ORDER BY d.user_id, d.rn
+    """, nativeQuery = true)
+    List<ScheduleDayRow> findDailyTopRows(
+            @Param("start") LocalDateTime start,
+            @Param("end")   LocalDateTime end,
+            @Param("limit") int limit
+    );
+
+    /**
+     * ✅ [개선] :end 이전에 시작했고, 아직 끝나지 않은(rrule_until이 없거나 :start 이후인) 반복 일정만 필요한 컬럼으로 조회
+     * 이후 회차가 그날에 걸리는지는 RRULE을 펼쳐서 판단합니다.
+     * 조건식은 함수 기반 인덱스 ix_sched_recurring_until과 같아야 반복 일정만 인덱스로 범위 조회합니다. (schedules.sql 참고)
+     */
+    @Query(value = """
+        SELECT s.id AS "id", s.user_id AS "userId", s.title AS "title",
+               s.start_time AS "startTime", s.end_time AS "endTime", s.rrule AS "rrule"
+          FROM schedules s
+         WHERE CASE WHEN s.rrule IS NOT NULL
+                    THEN NVL(s.rrule_until, TIMESTAMP '9999-12-31 00:00:00') END >= :start
+           AND s.start_time < :end
+    """, nativeQuery = true)
+    List<RecurringScheduleRow> findRecurringOverlapping(
+            @Param("start") LocalDateTime start,
+            @Param("end")   LocalDateTime end
+    );
 }
@@ -0,0 +1,105 @@
+package com.bj.ilji_server.schedule.service;
+
+import com.bj.ilji_server.schedule.entity.Schedule;
+import net.fortuna.ical4j.model.Period;
+import net.fortuna.ical4j.model.Recur;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.RRule;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.List;
+
+/**
+ * ✅ [신규] ical4j로 반복 일정(RRULE)을 특정 구간의 개별 발생 시각으로 펼칩니다.
+ * 캘린더 조회(ScheduleService)와 일정 요약 알림(ScheduleReader)이 같은 규칙으로 반복 일정을 계산하도록 한 곳에 모았습니다.
+ * 상태가 없어 여러 스레드에서 동시에 호출해도 됩니다.
+ */
+@Component
+public class RecurrenceExpander {
+
+    // COUNT로 끝나는 규칙의 마지막 회차를 찾을 때 펼쳐 볼 최대 기간
+    private static final int COUNT_HORIZON_YEARS = 100;
+
+    /**
+     * [from, to) 구간과 겹치는 발생 회차의 시작 시각 목록 (시작 시각 오름차순)
+     * @throws IllegalArgumentException RRULE 형식이 잘못된 경우
+     */
+    public List<LocalDateTime> occurrenceStarts(Schedule schedule, LocalDateTime from, LocalDateTime to) {
+        return occurrenceStarts(schedule.getRrule(), schedule.getStartTime(), schedule.getEndTime(), from, to);
+    }
+
+    /**
+     * ✅ [신규] 엔티티 없이 RRULE과 첫 회차의 시작/종료 시각만으로 펼칩니다. (필요한 컬럼만 조회하는 배치용)
+     * @throws IllegalArgumentException RRULE 형식이 잘못된 경우
+     */
+    public List<LocalDateTime> occurrenceStarts(String rruleValue, LocalDateTime start, LocalDateTime end,
+                                                LocalDateTime from, LocalDateTime to) {
+        try {
+            RRule<LocalDateTime> rrule = new RRule<>(rruleValue);
+
+            ZoneId zone = ZoneId.systemDefault();
+
+            VEvent prototype = new VEvent(start, end, "");
+            prototype.getProperties().add(rrule);
+
+            // 조회 구간은 ZonedDateTime으로
+            Period<ZonedDateTime> searchPeriod = new Period<>(from.atZone(zone), to.atZone(zone));
+
+            // calculateRecurrenceSet의 제네릭이 깨져서 Period<?>로 올 수 있으니, 변환 유틸로 흡수
+            return prototype.calculateRecurrenceSet(searchPeriod).stream()
+                    .map(p -> temporalToLocalDateTime(p.getStart(), zone))
+                    .sorted()
+                    .toList();
+
+        } catch (Exception e) {
+            throw new IllegalArgumentException("잘못된 RRULE 형식입니다: " + rruleValue, e);
+        }
+    }
+
+    /** 하루(date 00:00 ~ 다음날 00:00)와 겹치는 발생 회차의 시작 시각 목록 */
+    public List<LocalDateTime> occurrenceStartsOn(Schedule schedule, LocalDate date) {
+        return occurrenceStarts(schedule, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * ✅ [신규] 반복이 끝나는 규칙(UNTIL/COUNT)이면 마지막 회차의 종료 시각을, 끝없이 반복되면 null을 반환합니다.
+     * schedules.rrule_until에 저장해 두고, 일정 요약 배치가 이미 끝난 반복 일정을 DB에서 걸러내는 데 씁니다.
+     * @throws IllegalArgumentException RRULE 형식이 잘못된 경우
+     */
+    public LocalDateTime recurrenceEnd(String rruleValue, LocalDateTime start, LocalDateTime end) {
+        Recur<?> recur;
+        try {
+            recur = new RRule<>(rruleValue).getRecur();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("잘못된 RRULE 형식입니다: " + rruleValue, e);
+        }
+        Duration duration = Duration.between(start, end);
+        if (recur.getUntil() != null) {
+            // UNTIL은 마지막 회차 시작 시각의 상한이므로, 그 뒤로 일정 길이만큼 여유를 둡니다.
+            return temporalToLocalDateTime(recur.getUntil(), ZoneId.systemDefault()).plus(duration);
+        }
+        Integer count = recur.getCount();
+        if (count != null && count > 0) {
+            List<LocalDateTime> starts = occurrenceStarts(rruleValue, start, end, start, start.plusYears(COUNT_HORIZON_YEARS));
+            return starts.isEmpty() ? end : starts.get(starts.size() - 1).plus(duration);
+        }
+        return null;
+    }
+
+    /** Period<?>.getStart()가 무엇이든 LocalDateTime으로 변환 */
+    private static LocalDateTime temporalToLocalDateTime(Temporal t, ZoneId zone) {
+        if (t instanceof ZonedDateTime zdt) return zdt.toLocalDateTime();
+        if (t instanceof LocalDateTime ldt) return ldt;
+        if (t instanceof Instant inst) return LocalDateTime.ofInstant(inst, zone);
+        if (t instanceof LocalDate ld) return ld.atStartOfDay(); // 종일 이벤트
+
+        throw new IllegalArgumentException("Unsupported temporal type: " + t.getClass());
+    }
+}
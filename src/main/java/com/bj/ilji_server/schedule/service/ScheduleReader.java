@@ -1,5 +1,6 @@
 package com.bj.ilji_server.schedule.service;
 
+import com.bj.ilji_server.schedule.dto.DailyScheduleSummary;
 import com.bj.ilji_server.schedule.dto.ScheduleBrief;
 import java.time.LocalDate;
 import java.util.List;
@@ -15,4 +16,10 @@ public interface ScheduleReader {
 
     /** 특정 사용자의 특정 날짜 전체 일정 개수 */
     int countSchedulesForDate(Long userId, LocalDate date);
+
+    /**
+     * ✅ [신규] 특정 날짜에 일정이 있는 모든 사용자의 요약(전체 개수 + 상위 N개)을 한 번에 계산
+     * 반복 일정(RRULE)도 펼쳐서 포함합니다. 일정이 없는 사용자는 결과에 없습니다.
+     */
+    List<DailyScheduleSummary> summarizeAllForDate(LocalDate date, int limit);
 }
@@ -1,21 +1,62 @@
 package com.bj.ilji_server.schedule.service;
 
+import com.bj.ilji_server.schedule.dto.DailyScheduleSummary;
 import com.bj.ilji_server.schedule.dto.ScheduleBrief;
 import com.bj.ilji_server.schedule.entity.Schedule;
+import com.bj.ilji_server.schedule.repository.RecurringScheduleRow;
+import com.bj.ilji_server.schedule.repository.ScheduleDayRow;
 import com.bj.ilji_server.schedule.repository.ScheduleRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service                       // ← 스프링 빈 등록 (ScheduleReader 인터페이스 구현체)
-@RequiredArgsConstructor       // ← 생성자 주입(Repository 주입)
 public class ScheduleReaderImpl implements ScheduleReader {
 
     private final ScheduleRepository scheduleRepository;
+    private final RecurrenceExpander recurrenceExpander;
+    // ✅ [개선] 반복 일정 전개 전용 풀 (공용 ForkJoinPool을 쓰는 parallelStream 대신, 다른 작업과 스레드를 나눠 쓰지 않도록)
+    private final ThreadPoolExecutor expanders;
+    private final int threads;
+
+    public ScheduleReaderImpl(ScheduleRepository scheduleRepository,
+                              RecurrenceExpander recurrenceExpander,
+                              @Value("${schedule.summary.expand-threads:4}") int threads) {
+        this.scheduleRepository = scheduleRepository;
+        this.recurrenceExpander = recurrenceExpander;
+        this.threads = Math.max(1, threads);
+        AtomicInteger sequence = new AtomicInteger();
+        this.expanders = new ThreadPoolExecutor(
+                this.threads, this.threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.threads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "schedule-expand-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.expanders.allowCoreThreadTimeOut(true);
+    }
 
     /**
      * 특정 유저의 '해당 날짜'와 겹치는 일정 상단 N개를 간단 DTO로 반환
@@ -46,13 +87,116 @@ public class ScheduleReaderImpl implements ScheduleReader {
         return scheduleRepository.countByUserAndDay(userId, start, end);
     }
 
+    /**
+     * ✅ [신규] 모든 사용자의 '해당 날짜' 일정 요약을 한 번에 계산 (일정 요약 알림 배치용)
+     * 1) 반복이 아닌 일정: 사용자별 개수 + 상위 N개를 윈도 함수 쿼리 한 번으로 조회
+     * 2) 반복 일정: 그날 이전에 시작했고 아직 끝나지 않은 것만 필요한 컬럼으로 읽어 사용자별로 병렬 전개(ical4j)
+     * 3) 사용자별로 두 결과를 합쳐 시작시각 순 상위 N개와 전체 개수를 만듭니다.
+     */
+    @Override
+    public List<DailyScheduleSummary> summarizeAllForDate(LocalDate date, int limit) {
+        int size = Math.max(1, limit);
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end   = date.plusDays(1).atStartOfDay();
+
+        Map<Long, List<ScheduleBrief>> briefsByUser = new HashMap<>();
+        Map<Long, Integer> totalByUser = new HashMap<>();
+        for (ScheduleDayRow row : scheduleRepository.findDailyTopRows(start, end, size)) {
+            briefsByUser.computeIfAbsent(row.getUserId(), k -> new ArrayList<>())
+                    .add(new ScheduleBrief(row.getId(), row.getTitle(), row.getStartTime(), row.getEndTime(), linkOf(row.getId())));
+            totalByUser.put(row.getUserId(), row.getTotalCount());
+        }
+
+        // 반복 일정은 사용자 단위로 묶어 전용 풀에서 병렬로 펼칩니다. (CPU 작업)
+        Map<Long, List<RecurringScheduleRow>> recurringByUser = scheduleRepository.findRecurringOverlapping(start, end).stream()
+                .collect(Collectors.groupingBy(RecurringScheduleRow::getUserId));
+        Map<Long, List<ScheduleBrief>> occurrencesByUser = expandAll(recurringByUser, date);
+
+        occurrencesByUser.forEach((userId, occurrences) -> {
+            if (occurrences.isEmpty()) {
+                return;
+            }
+            briefsByUser.computeIfAbsent(userId, k -> new ArrayList<>()).addAll(occurrences);
+            totalByUser.merge(userId, occurrences.size(), Integer::sum);
+        });
+
+        List<DailyScheduleSummary> summaries = new ArrayList<>(briefsByUser.size());
+        briefsByUser.forEach((userId, briefs) -> {
+            List<ScheduleBrief> top = briefs.stream()
+                    .sorted(Comparator.comparing(ScheduleBrief::startsAt).thenComparing(ScheduleBrief::id))
+                    .limit(size)
+                    .toList();
+            summaries.add(new DailyScheduleSummary(userId, totalByUser.get(userId), top));
+        });
+        return summaries;
+    }
+
+    /**
+     * 사용자들을 스레드 수의 몇 배로 나눈 묶음 단위로 풀에 넘겨 펼칩니다. (사용자마다 작업을 만들지 않도록)
+     * 큐가 차면 호출 스레드가 직접 처리하므로(CallerRunsPolicy) 작업이 버려지지 않습니다.
+     */
+    private Map<Long, List<ScheduleBrief>> expandAll(Map<Long, List<RecurringScheduleRow>> recurringByUser, LocalDate date) {
+        List<Map.Entry<Long, List<RecurringScheduleRow>>> users = new ArrayList<>(recurringByUser.entrySet());
+        int groupSize = Math.max(1, (users.size() + threads * 4 - 1) / (threads * 4));
+
+        List<Future<Map<Long, List<ScheduleBrief>>>> groups = new ArrayList<>();
+        for (int from = 0; from < users.size(); from += groupSize) {
+            List<Map.Entry<Long, List<RecurringScheduleRow>>> group = users.subList(from, Math.min(from + groupSize, users.size()));
+            groups.add(expanders.submit(() -> {
+                Map<Long, List<ScheduleBrief>> result = new HashMap<>(group.size() * 2);
+                for (Map.Entry<Long, List<RecurringScheduleRow>> e : group) {
+                    result.put(e.getKey(), expandOn(e.getValue(), date));
+                }
+                return result;
+            }));
+        }
+
+        Map<Long, List<ScheduleBrief>> occurrencesByUser = new HashMap<>(users.size() * 2);
+        try {
+            for (Future<Map<Long, List<ScheduleBrief>>> group : groups) {
+                occurrencesByUser.putAll(group.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while expanding recurring schedules", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to expand recurring schedules", e.getCause());
+        }
+        return occurrencesByUser;
+    }
+
+    // 한 사용자의 반복 일정들을 그날의 회차로 펼칩니다. RRULE이 잘못된 일정은 건너뜁니다.
+    private List<ScheduleBrief> expandOn(List<RecurringScheduleRow> schedules, LocalDate date) {
+        List<ScheduleBrief> occurrences = new ArrayList<>();
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+        for (RecurringScheduleRow s : schedules) {
+            try {
+                Duration duration = Duration.between(s.getStartTime(), s.getEndTime());
+                for (LocalDateTime occurrenceStart : recurrenceExpander.occurrenceStarts(
+                        s.getRrule(), s.getStartTime(), s.getEndTime(), dayStart, dayEnd)) {
+                    occurrences.add(new ScheduleBrief(
+                            s.getId(), s.getTitle(), occurrenceStart, occurrenceStart.plus(duration), linkOf(s.getId())));
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("[ScheduleReader] Skipping schedule {} with invalid RRULE: {}", s.getId(), s.getRrule());
+            }
+        }
+        return occurrences;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expanders.shutdown();
+    }
+
     /**
      * 엔티티 → 알림/요약 표시용 DTO 매핑
      * - 링크 경로는 프로젝트 라우팅 규칙에 맞게 조정하세요.
      * - isAllDay가 필요한 경우, starts/ends를 null로 처리하거나 별도 표기를 원하면 이 부분에서 가공
      */
     private ScheduleBrief toBrief(Schedule s) {
-        String link = "/schedules/" + s.getId();  // TODO: 실제 상세 경로 규칙에 맞추어 수정
+        String link = linkOf(s.getId());
         return new ScheduleBrief(
                 s.getId(),
                 s.getTitle(),
@@ -61,4 +205,8 @@ public class ScheduleReaderImpl implements ScheduleReader {
                 link
         );
     }
+
+    private String linkOf(Long scheduleId) {
+        return "/schedules/" + scheduleId;  // TODO: 실제 상세 경로 규칙에 맞추어 수정
+    }
 }
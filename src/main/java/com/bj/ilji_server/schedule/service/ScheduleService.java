@@ -19,10 +19,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
-import net.fortuna.ical4j.model.Period;
-import net.fortuna.ical4j.model.component.VEvent;
-import net.fortuna.ical4j.model.property.RRule;
-
 import java.time.*;
 import java.util.Collections;
 import java.util.List;
@@ -40,6 +36,7 @@ public class ScheduleService {
     private final ScheduleRepository scheduleRepository;
     private final TagRepository tagRepository;
     private final FriendService friendService;
+    private final RecurrenceExpander recurrenceExpander;
 
     /**
      * 캘린더 뷰를 위해 특정 기간 내의 모든 일정(반복 일정 포함)을 조회합니다.
@@ -146,6 +143,7 @@ public class ScheduleService {
                 .isAllDay(request.isAllDay() ? 1 : 0)
                 .rrule(request.getRrule())
                 .build();
+        refreshRecurrenceEnd(newSchedule);
 
         Schedule savedSchedule = scheduleRepository.save(newSchedule);
         return new ScheduleResponse(savedSchedule);
@@ -162,10 +160,28 @@ public class ScheduleService {
 
         Tag tag = findTagById(request.getTagId());
         schedule.update(request, tag);
+        refreshRecurrenceEnd(schedule);
 
         return new ScheduleResponse(schedule);
     }
 
+    /**
+     * ✅ [신규] 반복 일정의 마지막 회차 종료 시각(rrule_until)을 다시 계산합니다. (일정 요약 배치가 끝난 반복 일정을 DB에서 거르기 위함)
+     * RRULE이 잘못되었으면 끝을 알 수 없으므로 NULL로 두고, 펼칠 때 건너뜁니다.
+     */
+    private void refreshRecurrenceEnd(Schedule schedule) {
+        if (!StringUtils.hasText(schedule.getRrule())) {
+            schedule.updateRecurrenceEnd(null);
+            return;
+        }
+        try {
+            schedule.updateRecurrenceEnd(recurrenceExpander.recurrenceEnd(
+                    schedule.getRrule(), schedule.getStartTime(), schedule.getEndTime()));
+        } catch (IllegalArgumentException e) {
+            schedule.updateRecurrenceEnd(null);
+        }
+    }
+
     @Transactional
     public void deleteSchedule(User user, Long scheduleId) {
         Schedule schedule = scheduleRepository.findById(scheduleId)
@@ -186,7 +202,8 @@ public class ScheduleService {
     }
 
     /**
-     * ical4j를 사용하여 반복 일정을 특정 기간 내의 개별 일정으로 확장(expand)합니다.
+     * 반복 일정을 특정 기간 내의 개별 일정으로 확장(expand)합니다.
+     * ✅ [개선] ical4j 전개 로직은 일정 요약 알림과 함께 쓰도록 RecurrenceExpander로 옮겼습니다.
      *
      * @param schedule      반복 규칙(rrule)을 가진 원본 일정
      * @param periodStart   조회 시작일
@@ -195,41 +212,11 @@ public class ScheduleService {
      */
     private List<ScheduleResponse> expandRecurringSchedule(
             Schedule schedule, LocalDate periodStart, LocalDate periodEnd) {
-        try {
-            RRule<LocalDateTime> rrule = new RRule<>(schedule.getRrule());
-
-            ZoneId zone = ZoneId.systemDefault();
-
-            VEvent prototype = new VEvent(schedule.getStartTime(), schedule.getEndTime(), schedule.getTitle());
-            prototype.getProperties().add(rrule);
-
-            // 조회 구간은 ZonedDateTime으로
-            Period<java.time.ZonedDateTime> searchPeriod = new Period<>(
-                    periodStart.atStartOfDay(zone),
-                    periodEnd.plusDays(1).atStartOfDay(zone)
-            );
-
-            // calculateRecurrenceSet의 제네릭이 깨져서 Period<?>로 올 수 있으니, 변환 유틸로 흡수
-            return prototype.calculateRecurrenceSet(searchPeriod).stream()
-                    .map(p -> new ScheduleResponse(
-                            schedule,
-                            temporalToLocalDateTime(p.getStart(), zone)
-                    ))
-                    .collect(Collectors.toList());
-
-        } catch (Exception e) {
-            throw new IllegalArgumentException("잘못된 RRULE 형식입니다: " + schedule.getRrule(), e);
-        }
-    }
-
-    /** Period<?>.getStart()가 무엇이든 LocalDateTime으로 변환 */
-    private static LocalDateTime temporalToLocalDateTime(java.time.temporal.Temporal t, ZoneId zone) {
-        if (t instanceof java.time.ZonedDateTime zdt) return zdt.toLocalDateTime();
-        if (t instanceof java.time.LocalDateTime ldt) return ldt;
-        if (t instanceof java.time.Instant inst) return LocalDateTime.ofInstant(inst, zone);
-        if (t instanceof java.time.LocalDate ld) return ld.atStartOfDay(); // 종일 이벤트
-
-        throw new IllegalArgumentException("Unsupported temporal type: " + t.getClass());
+        return recurrenceExpander.occurrenceStarts(
+                        schedule, periodStart.atStartOfDay(), periodEnd.plusDays(1).atStartOfDay())
+                .stream()
+                .map(start -> new ScheduleResponse(schedule, start))
+                .collect(Collectors.toList());
     }
 
 
@@ -40,6 +40,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/schedules/**").authenticated()
                         .requestMatchers("/api/firebase/**").authenticated()
                         .requestMatchers("/api/chat/**").permitAll()
+                        // ✅ [신규] 헬스 체크/Prometheus 스크레이프는 토큰 없이 허용 (관리 포트로만 노출, application.properties 참고)
+                        // 그 밖의 actuator 엔드포인트(metrics 등)는 인증이 필요합니다.
+                        .requestMatchers("/actuator/health/**", "/actuator/info", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -40,5 +40,9 @@ CREATE TABLE i_log (
     CONSTRAINT uq_ilog_user_profile_date UNIQUE (user_profile_id, log_date)
 );
 
+-- 커서(keyset) 조회용 인덱스: 작성자별 (created_at, id) 역순 범위 조회
+CREATE INDEX ix_ilog_user_created_id
+    ON i_log (user_profile_id, created_at DESC, id DESC);
+
 DROP TABLE I_LOG;
 
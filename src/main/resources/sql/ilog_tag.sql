@@ -0,0 +1,40 @@
+CREATE TABLE ilog_tag (
+    -- 기본 키, 1부터 자동으로 1씩 증가
+                       id NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+
+    -- 태그가 달린 일기의 ID, i_log 테이블 참조
+                       ilog_id NUMBER(19) NOT NULL,
+
+    -- 정규화된 해시태그 ('#' 제거, 소문자)
+                       tag VARCHAR2(100) NOT NULL,
+
+    -- 일기 작성 시각 (트렌딩 집계 기준)
+                       created_at TIMESTAMP NOT NULL,
+
+    -- 외래 키 제약 조건: 일기가 삭제되면 해당 일기의 태그 매핑도 함께 삭제됩니다.
+                       CONSTRAINT fk_ilog_tag_ilog FOREIGN KEY (ilog_id) REFERENCES i_log(id) ON DELETE CASCADE,
+
+    -- 유니크 제약 조건: 같은 일기에 같은 태그가 두 번 저장되지 않도록 방지
+                       CONSTRAINT uq_ilog_tag UNIQUE (ilog_id, tag)
+);
+
+-- "#태그가 달린 일기" 조회용 인덱스: 태그별 일기 ID 역순 범위 조회
+CREATE INDEX ix_ilog_tag_tag_ilog
+    ON ilog_tag (tag, ilog_id DESC);
+
+-- 트렌딩 집계를 채울 때 최근 1주일치만 읽기 위한 인덱스
+CREATE INDEX ix_ilog_tag_created
+    ON ilog_tag (created_at);
+
+-- 기존 일기의 tags 문자열로 매핑을 채웁니다. (배포 시 1회, NFKC 정규화는 생략)
+INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX(ilog_tag, uq_ilog_tag) */ INTO ilog_tag (ilog_id, tag, created_at)
+SELECT i.id, LOWER(SUBSTR(t.tag, 1, 100)), i.created_at
+FROM i_log i
+CROSS APPLY (
+    SELECT REGEXP_SUBSTR(i.tags, '[^[:space:],#]+', 1, LEVEL) AS tag
+    FROM dual
+    CONNECT BY REGEXP_SUBSTR(i.tags, '[^[:space:],#]+', 1, LEVEL) IS NOT NULL
+) t
+WHERE i.tags IS NOT NULL;
+
+COMMIT;
@@ -0,0 +1,17 @@
+-- 배치 작업 진행 지점(체크포인트) 테이블
+-- 작업이 청크 단위로 끝날 때마다 마지막으로 처리한 ID를 기록해, 서버가 중간에 죽어도 그 다음부터 이어서 처리합니다.
+-- 여러 노드가 같은 작업을 동시에 돌리지 않도록, 작업을 시작하는 노드가 행을 먼저 임대(owner, lease_until)합니다.
+CREATE TABLE job_checkpoint (
+    job_name    VARCHAR2(100) PRIMARY KEY,                    -- 작업 이름 (예: diary-reminder)
+    run_key     VARCHAR2(40)  NOT NULL,                       -- 실행 회차 구분 (예: 2025-09-01)
+    last_id     NUMBER(19)    DEFAULT 0 NOT NULL,             -- 마지막으로 처리를 마친 ID (keyset)
+    processed   NUMBER(19)    DEFAULT 0 NOT NULL,             -- 이번 회차에 처리한 건수
+    status      VARCHAR2(20)  NOT NULL,                       -- RUNNING / DONE
+    owner       VARCHAR2(36),                                 -- 작업을 실행 중인 노드 ID (없으면 NULL)
+    lease_until TIMESTAMP,                                    -- 임대 만료 시각 (노드가 죽으면 만료 후 다른 노드가 가져감)
+    updated_at  TIMESTAMP     DEFAULT SYSTIMESTAMP NOT NULL,  -- 마지막 갱신 시각
+    CONSTRAINT ck_job_checkpoint_status CHECK (status IN ('RUNNING','DONE'))
+);
+
+-- ✅ [신규] 노드 간 중복 실행 방지용 임대 컬럼 (기존 테이블 이전용)
+-- ALTER TABLE job_checkpoint ADD (owner VARCHAR2(36), lease_until TIMESTAMP);
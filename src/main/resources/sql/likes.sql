@@ -21,4 +21,12 @@ CREATE TABLE likes (
 
     -- 유니크 제약 조건: 한 사용자가 같은 일기에 두 번 좋아요를 누를 수 없도록 방지
                        CONSTRAINT uq_likes_user_ilog UNIQUE (user_id, ilog_id)
-);
\ No newline at end of file
+);
+
+-- 커서(keyset) 조회용 인덱스: 사용자별 '좋아요 누른 순' (created_at, id) 역순 범위 조회
+CREATE INDEX ix_likes_user_created_id
+    ON likes (user_id, created_at DESC, id DESC);
+
+-- ✅ [신규] 좋아요 수 재집계(LikeCountFlusher)가 최근 좋아요가 달린 일기를 찾을 때 사용
+CREATE INDEX ix_likes_created
+    ON likes (created_at);
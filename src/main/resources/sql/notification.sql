@@ -14,23 +14,41 @@ CREATE TABLE notifications (
                                link_url        VARCHAR2(1024),                                          -- 알림 클릭 시 이동 경로
                                status          VARCHAR2(20) DEFAULT 'NEW' NOT NULL,                     -- 알림 상태 (NEW, READ, ARCHIVED)
                                created_at      TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,                 -- 생성 시각
-                               idempotency_key VARCHAR2(100) NOT NULL UNIQUE,                           -- 중복 방지 키 (항상 값 존재 + 고유)
+                               idempotency_key RAW(16) NOT NULL,                                        -- 중복 방지 키 (128비트 MurmurHash3, 항상 값 존재 + 고유)
                                meta_json       CLOB,                                                    -- 부가 데이터(JSON)
                                CONSTRAINT fk_notif_recipient FOREIGN KEY (recipient_id) REFERENCES users(id) ON DELETE CASCADE, -- 수신자 삭제 시 알림도 삭제
                                CONSTRAINT fk_notif_sender    FOREIGN KEY (sender_id) REFERENCES users(id) ON DELETE SET NULL,  -- 발신자 삭제 시 NULL 처리
-                               CONSTRAINT ck_notif_status CHECK (status IN ('NEW','READ','ARCHIVED'))   -- 상태 값 제한
+                               CONSTRAINT ck_notif_status CHECK (status IN ('NEW','READ','ARCHIVED')),  -- 상태 값 제한
+                               -- 이름은 엔티티(uk_notif_idem)와 일치시킵니다. (팔로워 알림 일괄 INSERT의 IGNORE_ROW_ON_DUPKEY_INDEX 힌트가 참조)
+                               CONSTRAINT uk_notif_idem UNIQUE (idempotency_key)
 );
 
 -- 수신자별 최신 알림 조회 성능 최적화를 위한 인덱스
+-- ✅ [개선] 상태 조건 없는 커서 조회도 (created_at, id)로 끊어 읽으므로 id까지 포함합니다.
+-- (기존 인덱스 이전: DROP INDEX ix_notif_recipient_created; 후 아래 인덱스 생성)
 CREATE INDEX ix_notif_recipient_created
-    ON notifications(recipient_id, created_at DESC);
+    ON notifications(recipient_id, created_at DESC, id DESC);
 
 
 
 
+-- ✅ [신규] 보관 기간이 지난 알림 정리(NotificationRetentionScheduler)용: 오래된 행만 범위로 훑기
+CREATE INDEX ix_notif_created ON notifications (created_at);
+
+-- ✅ [선택] 알림이 많아지면 created_at 기준 월별 interval 파티션으로 만들 수 있습니다. (Partitioning 옵션 필요)
+-- 정리 작업의 created_at 조건이 오래된 파티션만 읽게 되고, 위 인덱스들은 LOCAL로 만듭니다.
+-- (uk_notif_idem은 created_at을 포함하지 않으므로 GLOBAL 인덱스로 유지)
+-- CREATE TABLE notifications ( ...위와 같은 컬럼/제약... )
+--     PARTITION BY RANGE (created_at) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+--     (PARTITION p_initial VALUES LESS THAN (TIMESTAMP '2025-01-01 00:00:00'));
+-- CREATE INDEX ix_notif_recipient_created ON notifications (recipient_id, created_at DESC, id DESC) LOCAL;
+-- CREATE INDEX ix_notif_created ON notifications (created_at) LOCAL;
+
 -- 1) 알림: (내 알림 + 상태 + 최신순) 빨리 찾기
-CREATE INDEX ix_notif_recipient_status_created
-    ON notifications (recipient_id, status, created_at DESC);
+-- ✅ [개선] 커서 알림함이 (created_at, id)로 끊어 읽으므로 id까지 포함해 인덱스 범위 조회 한 번으로 끝나게 합니다.
+-- (기존 ix_notif_recipient_status_created를 대체: DROP INDEX ix_notif_recipient_status_created;)
+CREATE INDEX ix_notif_inbox
+    ON notifications (recipient_id, status, created_at DESC, id DESC);
 
 -- 2) 일정: (내 일정 + 시작시각) 빨리 찾기
 CREATE INDEX ix_sched_user_start ON schedules (user_id, start_time);
@@ -40,7 +58,18 @@ CREATE INDEX ix_sched_user_end   ON schedules (user_id, end_time);
 
 
 BEGIN
-    DBMS_STATS.GATHER_INDEX_STATS(USER, 'IX_NOTIF_RECIPIENT_STATUS_CREATED');
+    DBMS_STATS.GATHER_INDEX_STATS(USER, 'IX_NOTIF_INBOX');
     DBMS_STATS.GATHER_INDEX_STATS(USER, 'IX_SCHED_USER_START');
     DBMS_STATS.GATHER_INDEX_STATS(USER, 'IX_SCHED_USER_END');
-END;
\ No newline at end of file
+END;
+
+
+-- ✅ [변경] idempotency_key: VARCHAR2(100) SHA-256 HEX → RAW(16) MurmurHash3 (기존 테이블 이전용)
+-- 기존 키는 새 해시로 다시 계산할 수 없으므로 MD5(16바이트)로 옮겨 고유성만 유지합니다.
+-- (이전 직후 같은 알림이 한 번 더 생길 수 있지만, 이후에는 새 키로 중복이 걸러집니다)
+-- ALTER TABLE notifications ADD (idempotency_key_raw RAW(16));
+-- UPDATE notifications SET idempotency_key_raw = STANDARD_HASH(idempotency_key, 'MD5');
+-- ALTER TABLE notifications DROP COLUMN idempotency_key;
+-- ALTER TABLE notifications RENAME COLUMN idempotency_key_raw TO idempotency_key;
+-- ALTER TABLE notifications MODIFY (idempotency_key NOT NULL);
+-- ALTER TABLE notifications ADD CONSTRAINT uk_notif_idem UNIQUE (idempotency_key);
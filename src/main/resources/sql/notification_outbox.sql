@@ -0,0 +1,27 @@
+-- 실시간 알림 전송 대기열 (transactional outbox)
+-- 알림과 같은 트랜잭션에서 쌓이고, 디스패처가 웹소켓으로 보낸 뒤 지웁니다.
+-- 여러 노드가 같은 행을 보내지 않도록, 디스패처는 행을 먼저 임대(owner, lease_until)한 뒤 그 묶음에서 임대한 행만 읽어 보냅니다.
+CREATE TABLE notification_outbox (
+    id               NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient_id     NUMBER(19) NOT NULL,                      -- 수신자 ID (같은 수신자는 id 순서대로 전송)
+    notification_id  NUMBER(19) NOT NULL,                      -- 보낼 알림 ID (전송 시점에 최신 내용을 읽음)
+    owner            VARCHAR2(36),                             -- 임대 토큰 (디스패처가 묶음마다 새로 만드는 UUID, 없으면 NULL)
+    lease_until      TIMESTAMP,                                -- 임대 만료 시각 (노드가 죽으면 만료 후 다른 노드가 가져감)
+    created_at       TIMESTAMP  DEFAULT SYSTIMESTAMP NOT NULL
+);
+
+-- 임대되지 않았거나 임대가 만료된 행 찾기
+CREATE INDEX ix_outbox_lease ON notification_outbox (lease_until, id);
+
+-- 이번 묶음에서 임대한 행 다시 읽기
+CREATE INDEX ix_outbox_owner ON notification_outbox (owner);
+
+-- 같은 수신자의 앞선 행이 다른 노드에 임대 중인지 확인 (수신자별 순서 보장)
+CREATE INDEX ix_outbox_recipient ON notification_outbox (recipient_id, id);
+
+-- ✅ [변경] 재시도 컬럼(attempts, next_attempt_at) → 임대 컬럼(owner, lease_until) (기존 테이블 이전용)
+-- ALTER TABLE notification_outbox ADD (owner VARCHAR2(36), lease_until TIMESTAMP);
+-- DROP INDEX ix_outbox_due;
+-- ALTER TABLE notification_outbox DROP (attempts, next_attempt_at);
+-- CREATE INDEX ix_outbox_lease ON notification_outbox (lease_until, id);
+-- CREATE INDEX ix_outbox_owner ON notification_outbox (owner);
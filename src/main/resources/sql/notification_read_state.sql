@@ -0,0 +1,7 @@
+-- 사용자별 알림 읽음 기준 시각 (read watermark)
+-- created_at <= last_read_at 인 알림은 status가 NEW여도 읽은 것으로 봅니다. ("모두 읽음"은 이 행 하나만 갱신)
+-- 기준 시각 이후의 알림을 하나씩 읽으면 그 알림만 notifications.status = 'READ'로 바꿉니다. (예외 집합)
+CREATE TABLE notification_read_state (
+    user_id       NUMBER(19) PRIMARY KEY,                     -- 사용자 ID (users.id)
+    last_read_at  TIMESTAMP  NOT NULL                         -- 이 시각까지 생성된 알림은 모두 읽음
+);
@@ -17,6 +17,7 @@ CREATE TABLE schedules (
 
     -- 반복 정보
     rrule VARCHAR2(255),
+    rrule_until TIMESTAMP, -- ✅ [신규] UNTIL/COUNT로 끝나는 반복 일정의 마지막 회차 종료 시각 (끝없이 반복되면 NULL)
 
     -- 메타데이터
     created_at TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
@@ -28,3 +29,15 @@ CREATE TABLE schedules (
     CONSTRAINT chk_schedules_is_all_day CHECK (is_all_day IN (0, 1))
 );
 
+
+-- 일정 요약 알림용 인덱스: 모든 사용자의 '그날과 겹치는' 일정을 한 번에 찾을 때 (start_time 범위 + end_time 필터)
+CREATE INDEX ix_sched_start_end ON schedules (start_time, end_time);
+
+-- ✅ [신규] 일정 요약 알림용 반복 일정 인덱스: 반복 일정만(그 밖의 행은 식이 NULL이라 색인되지 않음) 아직 끝나지 않은 것을 범위로 찾습니다.
+-- 식은 ScheduleRepository.findRecurringOverlapping의 WHERE 절과 같아야 합니다.
+CREATE INDEX ix_sched_recurring_until ON schedules (
+    CASE WHEN rrule IS NOT NULL THEN NVL(rrule_until, TIMESTAMP '9999-12-31 00:00:00') END
+);
+
+-- ✅ [신규] 기존 테이블 이전용 (기존 반복 일정은 rrule_until이 NULL이라 수정 전까지는 끝없는 반복으로 취급됩니다)
+-- ALTER TABLE schedules ADD (rrule_until TIMESTAMP);
@@ -0,0 +1,109 @@
+package com.bj.ilji_server.chat.cluster;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOServer;
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 InProcessClusterBus를 쓰는 두 SocketIOServer를 띄우고,
+ * 한 노드에서 보낸 방 브로드캐스트가 다른 노드에 연결된 클라이언트에게 도달하는지 확인합니다.
+ */
+class ClusterStoreFactoryTest {
+
+    private static final String ROOM = "room-1";
+    private static final String EVENT = "chatMessage";
+
+    private final List<SocketIOServer> servers = new ArrayList<>();
+    private final List<Socket> clients = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        clients.forEach(Socket::close);
+        servers.forEach(SocketIOServer::stop);
+    }
+
+    @Test
+    void roomBroadcastReachesClientOnOtherNode() throws Exception {
+        InProcessClusterBus bus = new InProcessClusterBus();
+        SocketIOServer nodeA = start(bus);
+        SocketIOServer nodeB = start(bus);
+
+        CountDownLatch joined = new CountDownLatch(1);
+        nodeA.addConnectListener(client -> {
+            client.joinRoom(ROOM);
+            joined.countDown();
+        });
+
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        Socket client = connect(nodeA);
+        client.on(EVENT, args -> received.add(args[0]));
+        client.connect();
+        assertThat(joined.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // 노드 B에는 연결된 클라이언트가 없으므로, 노드 A가 DISPATCH 메시지를 받아 전달해야 합니다.
+        nodeB.getRoomOperations(ROOM).sendEvent(EVENT, "hello from B");
+
+        assertThat(received.poll(10, TimeUnit.SECONDS)).isEqualTo("hello from B");
+    }
+
+    @Test
+    void clientOutsideRoomDoesNotReceiveBroadcast() throws Exception {
+        InProcessClusterBus bus = new InProcessClusterBus();
+        SocketIOServer nodeA = start(bus);
+        SocketIOServer nodeB = start(bus);
+
+        CountDownLatch connected = new CountDownLatch(1);
+        nodeA.addConnectListener(client -> connected.countDown());
+
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        Socket client = connect(nodeA);
+        client.on(EVENT, args -> received.add(args[0]));
+        client.connect();
+        assertThat(connected.await(10, TimeUnit.SECONDS)).isTrue();
+
+        nodeB.getRoomOperations(ROOM).sendEvent(EVENT, "hello from B");
+
+        assertThat(received.poll(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    private SocketIOServer start(InProcessClusterBus bus) throws IOException {
+        Configuration config = new Configuration();
+        config.setHostname("localhost");
+        config.setPort(freePort());
+        config.setStoreFactory(new ClusterStoreFactory(bus));
+        SocketIOServer server = new SocketIOServer(config);
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private Socket connect(SocketIOServer server) {
+        IO.Options options = new IO.Options();
+        options.transports = new String[]{"websocket"};
+        options.reconnection = false;
+        Socket socket = IO.socket(URI.create("http://localhost:" + server.getConfiguration().getPort()), options);
+        clients.add(socket);
+        return socket;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
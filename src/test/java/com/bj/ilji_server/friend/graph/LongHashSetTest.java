@@ -0,0 +1,102 @@
+package com.bj.ilji_server.friend.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void addContainsRemove() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(42L)).isTrue();
+        assertThat(set.add(42L)).isFalse();
+        assertThat(set.contains(42L)).isTrue();
+        assertThat(set.contains(43L)).isFalse();
+
+        assertThat(set.remove(42L)).isTrue();
+        assertThat(set.remove(42L)).isFalse();
+        assertThat(set.contains(42L)).isFalse();
+        assertThat(set.isEmpty()).isTrue();
+    }
+
+    @Test
+    void zeroIsStoredSeparatelyFromEmptySlots() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.add(0L)).isTrue();
+        assertThat(set.add(0L)).isFalse();
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(set.toArray()).containsExactly(0L);
+
+        assertThat(set.remove(0L)).isTrue();
+        assertThat(set.size()).isZero();
+    }
+
+    @Test
+    void growsPastInitialCapacityWithoutLosingValues() {
+        LongHashSet set = new LongHashSet(1);
+        for (long value = 1; value <= 10_000; value++) {
+            set.add(value);
+        }
+
+        assertThat(set.size()).isEqualTo(10_000);
+        for (long value = 1; value <= 10_000; value++) {
+            assertThat(set.contains(value)).isTrue();
+        }
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        assertThat(values[0]).isEqualTo(1L);
+        assertThat(values[values.length - 1]).isEqualTo(10_000L);
+    }
+
+    @Test
+    void removeKeepsProbeChainsIntactWithoutTombstones() {
+        // 작은 테이블에 많은 값을 넣고 빼서 같은 슬롯에 몰린 값들(충돌)과 순환하는 탐사 체인을 만듭니다.
+        LongHashSet set = new LongHashSet();
+        for (long value = 1; value <= 4; value++) {
+            set.add(value);
+        }
+        for (int round = 0; round < 1_000; round++) {
+            long removed = (round % 4) + 1;
+            assertThat(set.remove(removed)).isTrue();
+            for (long value = 1; value <= 4; value++) {
+                assertThat(set.contains(value)).isEqualTo(value != removed);
+            }
+            assertThat(set.add(removed)).isTrue();
+        }
+        assertThat(set.size()).isEqualTo(4);
+    }
+
+    @Test
+    void matchesHashSetUnderRandomOperations() {
+        // 값 범위를 좁혀 충돌, 재삽입, 삭제 후 당겨 오기(shiftBack)가 자주 일어나게 합니다.
+        Random random = new Random(7);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(512) - 16; // 0과 음수도 포함
+            switch (random.nextInt(3)) {
+                case 0 -> assertThat(set.add(value)).isEqualTo(expected.add(value));
+                case 1 -> assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+                default -> assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+            }
+            assertThat(set.size()).isEqualTo(expected.size());
+        }
+
+        long[] actual = set.toArray();
+        assertThat(actual).hasSize(expected.size());
+        for (long value : actual) {
+            assertThat(expected).contains(value);
+        }
+    }
+}
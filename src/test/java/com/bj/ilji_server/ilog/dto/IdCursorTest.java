@@ -0,0 +1,52 @@
+package com.bj.ilji_server.ilog.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        IdCursor cursor = new IdCursor(42L);
+
+        assertThat(IdCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(IdCursor.decode(null)).isEqualTo(IdCursor.FIRST);
+        assertThat(IdCursor.decode(" ")).isEqualTo(IdCursor.FIRST);
+        assertThat(IdCursor.FIRST.id()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void legacyKeysetCursorIsReadAsId() {
+        // 이전에 검색 결과로 내려 준 (시각, ID) 커서도 ID만 읽습니다.
+        String legacy = new KeysetCursor(LocalDateTime.of(2025, 9, 1, 12, 30), 7L).encode();
+
+        assertThat(IdCursor.decode(legacy)).isEqualTo(new IdCursor(7L));
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThatThrownBy(() -> IdCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> IdCursor.decode(Base64.getUrlEncoder().encodeToString("abc".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nextCursorCarriesOnlyLastId() {
+        CursorSliceResponse<Long> page = CursorSliceResponse.ofIds(List.of(30L, 20L, 10L), 2, id -> id);
+
+        assertThat(page.getItems()).containsExactly(30L, 20L);
+        assertThat(IdCursor.decode(page.getNextCursor())).isEqualTo(new IdCursor(20L));
+    }
+}
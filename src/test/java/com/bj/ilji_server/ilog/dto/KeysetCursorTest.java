@@ -0,0 +1,90 @@
+package com.bj.ilji_server.ilog.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 9, 1, 12, 30, 15, 123_456_000);
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(AT, 42L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(AT, Long.MAX_VALUE).encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isEqualTo(KeysetCursor.FIRST);
+        assertThat(KeysetCursor.decode("")).isEqualTo(KeysetCursor.FIRST);
+        assertThat(KeysetCursor.decode("  ")).isEqualTo(KeysetCursor.FIRST);
+    }
+
+    @Test
+    void firstCursorIsAfterEveryRealItem() {
+        assertThat(KeysetCursor.FIRST.at()).isAfter(LocalDateTime.now().plusYears(1000));
+        assertThat(KeysetCursor.FIRST.id()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encodeRaw("no-separator")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encodeRaw("2025-09-01T12:30|abc")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encodeRaw("yesterday|1")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void itemsWithSameTimestampAreSplitById() {
+        // 같은 시각에 여러 항목이 있어도 ID로 구분되어 다음 페이지가 겹치거나 건너뛰지 않아야 합니다.
+        List<KeysetCursor> sameInstant = List.of(
+                new KeysetCursor(AT, 30L), new KeysetCursor(AT, 20L), new KeysetCursor(AT, 10L));
+
+        CursorSliceResponse<KeysetCursor> page = CursorSliceResponse.of(sameInstant, 2, item -> item);
+
+        assertThat(page.getItems()).containsExactly(sameInstant.get(0), sameInstant.get(1));
+        assertThat(page.isHasNext()).isTrue();
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertThat(next).isEqualTo(new KeysetCursor(AT, 20L));
+        // 다음 페이지 조건 (at < cursor.at) OR (at = cursor.at AND id < cursor.id)
+        assertThat(sameInstant).filteredOn(item -> isAfterCursor(item, next)).containsExactly(sameInstant.get(2));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        List<KeysetCursor> fetched = List.of(new KeysetCursor(AT, 2L), new KeysetCursor(AT, 1L));
+
+        CursorSliceResponse<KeysetCursor> page = CursorSliceResponse.of(fetched, 2, item -> item);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    private static boolean isAfterCursor(KeysetCursor item, KeysetCursor cursor) {
+        return item.at().isBefore(cursor.at()) || (item.at().isEqual(cursor.at()) && item.id() < cursor.id());
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package com.bj.ilji_server.ilog.hashtag;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    // 1시간 버킷 24개 = 24시간 윈도우
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 24);
+
+    @Test
+    void countsWithinWindow() {
+        long now = 100 * HOUR;
+        counter.add("java", now, now, 1);
+        counter.add("java", now - 5 * HOUR, now, 2);
+        counter.add("spring", now - HOUR, now, 1);
+
+        assertThat(counter.top(10, now)).containsExactly(Map.entry("java", 3L), Map.entry("spring", 1L));
+    }
+
+    @Test
+    void bucketsRollOutOfWindow() {
+        long start = 100 * HOUR;
+        counter.add("old", start, start, 5);
+        counter.add("new", start + 20 * HOUR, start + 20 * HOUR, 1);
+
+        // 23시간 뒤까지는 첫 버킷이 윈도우 안에 있습니다.
+        assertThat(counter.top(10, start + 23 * HOUR)).containsExactly(Map.entry("old", 5L), Map.entry("new", 1L));
+
+        // 24시간이 지나면 첫 버킷이 빠지고 합계에서도 빠집니다.
+        assertThat(counter.top(10, start + 24 * HOUR)).containsExactly(Map.entry("new", 1L));
+
+        // 더 지나면 모두 빠집니다.
+        assertThat(counter.top(10, start + 100 * HOUR)).isEmpty();
+    }
+
+    @Test
+    void slotIsReusedAfterRollover() {
+        long start = 100 * HOUR;
+        counter.add("tag", start, start, 3);
+
+        // 같은 슬롯(24시간 뒤)에 새로 더하면 이전 값이 섞이지 않아야 합니다.
+        long later = start + 24 * HOUR;
+        counter.add("tag", later, later, 1);
+
+        assertThat(counter.top(10, later)).containsExactly(Map.entry("tag", 1L));
+    }
+
+    @Test
+    void ignoresEventsOutsideWindowOrInFuture() {
+        long now = 100 * HOUR;
+        counter.add("stale", now - 24 * HOUR, now, 1);
+        counter.add("future", now + HOUR, now, 1);
+
+        assertThat(counter.top(10, now)).isEmpty();
+    }
+
+    @Test
+    void countNeverGoesBelowZero() {
+        long now = 100 * HOUR;
+        counter.add("tag", now, now, 1);
+        counter.add("tag", now, now, -3);
+
+        assertThat(counter.top(10, now)).isEmpty();
+
+        counter.add("tag", now, now, 1);
+        assertThat(counter.top(10, now)).containsExactly(Map.entry("tag", 1L));
+    }
+
+    @Test
+    void trendingKeepsTopByCountThenKey() {
+        long now = 100 * HOUR;
+        counter.add("c", now, now, 2);
+        counter.add("b", now, now, 2);
+        counter.add("a", now - HOUR, now, 1);
+        counter.add("d", now - 2 * HOUR, now, 5);
+
+        List<Map.Entry<String, Long>> top = counter.top(3, now);
+
+        // 횟수가 같으면 키 오름차순
+        assertThat(top).containsExactly(Map.entry("d", 5L), Map.entry("b", 2L), Map.entry("c", 2L));
+    }
+
+    @Test
+    void trendingShiftsAsOldBucketsExpire() {
+        long start = 100 * HOUR;
+        counter.add("yesterday", start, start, 10);
+        counter.add("today", start + 23 * HOUR, start + 23 * HOUR, 2);
+
+        assertThat(counter.top(1, start + 23 * HOUR)).containsExactly(Map.entry("yesterday", 10L));
+        assertThat(counter.top(1, start + 24 * HOUR)).containsExactly(Map.entry("today", 2L));
+    }
+}
@@ -0,0 +1,70 @@
+package com.bj.ilji_server.notification.service;
+
+import com.bj.ilji_server.notification.type.EntityType;
+import com.bj.ilji_server.notification.type.IdempotencyKey;
+import com.bj.ilji_server.notification.type.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentIdempotencyKeyFilterTest {
+
+    @Test
+    void rememberedKeyIsHitOthersMiss() {
+        RecentIdempotencyKeyFilter filter = new RecentIdempotencyKeyFilter(10);
+        filter.remember(key(1));
+
+        assertThat(filter.seenRecently(key(1))).isTrue();
+        assertThat(filter.seenRecently(key(2))).isFalse();
+        assertThat(filter.hitCount()).isEqualTo(1);
+        assertThat(filter.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAreComparedByContentNotIdentity() {
+        RecentIdempotencyKeyFilter filter = new RecentIdempotencyKeyFilter(10);
+        filter.remember(key(1));
+
+        // 같은 입력으로 새로 만든 배열도 같은 키로 봅니다.
+        assertThat(filter.seenRecently(key(1).clone())).isTrue();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedKeyOverCapacity() {
+        RecentIdempotencyKeyFilter filter = new RecentIdempotencyKeyFilter(2);
+        filter.remember(key(1));
+        filter.remember(key(2));
+
+        // key(1)을 조회해 최근 사용으로 만들면, 다음에 밀려나는 것은 key(2)입니다.
+        assertThat(filter.seenRecently(key(1))).isTrue();
+        filter.remember(key(3));
+
+        assertThat(filter.size()).isEqualTo(2);
+        assertThat(filter.seenRecently(key(1))).isTrue();
+        assertThat(filter.seenRecently(key(2))).isFalse();
+        assertThat(filter.seenRecently(key(3))).isTrue();
+    }
+
+    @Test
+    void forgetOutsideTransactionAppliesImmediately() {
+        RecentIdempotencyKeyFilter filter = new RecentIdempotencyKeyFilter(10);
+        filter.remember(key(1));
+        filter.remember(key(2));
+        filter.remember(key(3));
+
+        filter.forgetAfterCommit(key(1));
+        assertThat(filter.seenRecently(key(1))).isFalse();
+        assertThat(filter.seenRecently(key(2))).isTrue();
+
+        // 여러 키를 잊어도 나머지 키는 그대로 남습니다.
+        filter.forgetAllAfterCommit(List.of(key(2)));
+        assertThat(filter.seenRecently(key(2))).isFalse();
+        assertThat(filter.seenRecently(key(3))).isTrue();
+    }
+
+    private static byte[] key(long entityId) {
+        return IdempotencyKey.instant(1L, NotificationType.LIKE_CREATED, EntityType.POST, entityId);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bj.ilji_server.notification.type;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyKeyTest {
+
+    @Test
+    void keyIsBigEndianMurmur3Of128BitsOverRawFields() {
+        byte[] key = IdempotencyKey.of(7L, NotificationType.COMMENT_CREATED, EntityType.COMMENT, 99L, "bucket");
+
+        long[] hash = MurmurHash3.hash128x64("7|COMMENT_CREATED|COMMENT|99|bucket".getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.wrap(key);
+        assertThat(key).hasSize(IdempotencyKey.LENGTH);
+        assertThat(buffer.getLong()).isEqualTo(hash[0]);
+        assertThat(buffer.getLong()).isEqualTo(hash[1]);
+    }
+
+    @Test
+    void sameInputGivesSameKey() {
+        byte[] first = IdempotencyKey.instant(1L, NotificationType.LIKE_CREATED, EntityType.POST, 10L);
+        byte[] second = IdempotencyKey.instant(1L, NotificationType.LIKE_CREATED, EntityType.POST, 10L);
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void everyFieldChangesTheKey() {
+        byte[] base = IdempotencyKey.of(1L, NotificationType.LIKE_CREATED, EntityType.POST, 10L, "");
+
+        assertThat(IdempotencyKey.of(2L, NotificationType.LIKE_CREATED, EntityType.POST, 10L, "")).isNotEqualTo(base);
+        assertThat(IdempotencyKey.of(1L, NotificationType.COMMENT_CREATED, EntityType.POST, 10L, "")).isNotEqualTo(base);
+        assertThat(IdempotencyKey.of(1L, NotificationType.LIKE_CREATED, EntityType.COMMENT, 10L, "")).isNotEqualTo(base);
+        assertThat(IdempotencyKey.of(1L, NotificationType.LIKE_CREATED, EntityType.POST, 11L, "")).isNotEqualTo(base);
+        assertThat(IdempotencyKey.of(1L, NotificationType.LIKE_CREATED, EntityType.POST, 10L, "x")).isNotEqualTo(base);
+    }
+
+    @Test
+    void missingEntityIdAndBucketAreEmptyFields() {
+        assertThat(IdempotencyKey.of(1L, NotificationType.DIARY_REMINDER, EntityType.DIARY, null, null))
+                .isEqualTo(IdempotencyKey.of(1L, NotificationType.DIARY_REMINDER, EntityType.DIARY, null, ""));
+        assertThat(IdempotencyKey.instant(1L, NotificationType.DIARY_REMINDER, EntityType.DIARY, null))
+                .isEqualTo(IdempotencyKey.of(1L, NotificationType.DIARY_REMINDER, EntityType.DIARY, null, ""));
+    }
+
+    @Test
+    void dailyKeyUsesIsoDateBucket() {
+        LocalDate day = LocalDate.of(2025, 9, 1);
+
+        assertThat(IdempotencyKey.daily(1L, NotificationType.SCHEDULE_DAILY_SUMMARY, EntityType.SCHEDULE, null, day))
+                .isEqualTo(IdempotencyKey.of(1L, NotificationType.SCHEDULE_DAILY_SUMMARY, EntityType.SCHEDULE, null, "2025-09-01"));
+        assertThat(IdempotencyKey.daily(1L, NotificationType.SCHEDULE_DAILY_SUMMARY, EntityType.SCHEDULE, null, day))
+                .isNotEqualTo(IdempotencyKey.daily(1L, NotificationType.SCHEDULE_DAILY_SUMMARY, EntityType.SCHEDULE, null, day.plusDays(1)));
+    }
+}